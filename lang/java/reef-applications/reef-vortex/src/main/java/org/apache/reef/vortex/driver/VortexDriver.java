@@ -127,7 +127,6 @@ final class VortexDriver {
       final Configuration taskConfiguration = TaskConfiguration.CONF
           .set(TaskConfiguration.IDENTIFIER, workerId)
           .set(TaskConfiguration.TASK, VortexWorker.class)
-          .set(TaskConfiguration.ON_SEND_MESSAGE, VortexWorker.class)
           .set(TaskConfiguration.ON_MESSAGE, VortexWorker.DriverMessageHandler.class)
           .set(TaskConfiguration.ON_CLOSE, VortexWorker.TaskCloseHandler.class)
           .build();
@@ -23,13 +23,10 @@ import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.TaskSide;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.annotations.Unit;
-import org.apache.reef.task.HeartBeatTriggerManager;
 import org.apache.reef.task.Task;
-import org.apache.reef.task.TaskMessage;
-import org.apache.reef.task.TaskMessageSource;
+import org.apache.reef.task.TaskMessageChannel;
 import org.apache.reef.task.events.CloseEvent;
 import org.apache.reef.task.events.DriverMessage;
-import org.apache.reef.util.Optional;
 import org.apache.reef.vortex.common.*;
 import org.apache.reef.vortex.driver.VortexWorkerConf;
 import org.apache.reef.wake.EventHandler;
@@ -45,20 +42,19 @@ import java.util.concurrent.*;
 @Unstable
 @Unit
 @TaskSide
-public final class VortexWorker implements Task, TaskMessageSource {
+public final class VortexWorker implements Task {
   private static final String MESSAGE_SOURCE_ID = ""; // empty string as there is no use for it
 
   private final BlockingDeque<byte[]> pendingRequests = new LinkedBlockingDeque<>();
-  private final BlockingDeque<byte[]> workerReports = new LinkedBlockingDeque<>();
 
-  private final HeartBeatTriggerManager heartBeatTriggerManager;
+  private final TaskMessageChannel taskMessageChannel;
   private final int numOfThreads;
   private final CountDownLatch terminated = new CountDownLatch(1);
 
   @Inject
-  private VortexWorker(final HeartBeatTriggerManager heartBeatTriggerManager,
+  private VortexWorker(final TaskMessageChannel taskMessageChannel,
                       @Parameter(VortexWorkerConf.NumOfThreads.class) final int numOfThreads) {
-    this.heartBeatTriggerManager = heartBeatTriggerManager;
+    this.taskMessageChannel = taskMessageChannel;
     this.numOfThreads = numOfThreads;
   }
 
@@ -99,15 +95,13 @@ public final class VortexWorker implements Task, TaskMessageSource {
                     // Command Executor: Tasklet successfully returns result
                     final WorkerReport report =
                         new TaskletResultReport<>(taskletExecutionRequest.getTaskletId(), result);
-                    workerReports.addLast(SerializationUtils.serialize(report));
+                    taskMessageChannel.send(MESSAGE_SOURCE_ID, SerializationUtils.serialize(report));
                   } catch (Exception e) {
                     // Command Executor: Tasklet throws an exception
                     final WorkerReport report =
                         new TaskletFailureReport(taskletExecutionRequest.getTaskletId(), e);
-                    workerReports.addLast(SerializationUtils.serialize(report));
+                    taskMessageChannel.send(MESSAGE_SOURCE_ID, SerializationUtils.serialize(report));
                   }
-
-                  heartBeatTriggerManager.triggerHeartBeat();
                   break;
                 default:
                   throw new RuntimeException("Unknown Command");
@@ -123,19 +117,6 @@ public final class VortexWorker implements Task, TaskMessageSource {
     return null;
   }
 
-  /**
-   * @return the workerReport the worker wishes to send.
-   */
-  @Override
-  public Optional<TaskMessage> getMessage() {
-    final byte[] msg = workerReports.pollFirst();
-    if (msg != null) {
-      return Optional.of(TaskMessage.from(MESSAGE_SOURCE_ID, msg));
-    } else {
-      return Optional.empty();
-    }
-  }
-
   /**
    * Handle requests from Vortex Master.
    */
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+/**
+ * A CheckpointService that commits checkpoints without blocking the caller.
+ * <p/>
+ * The data written to the channels of such a service may still be in flight when commitAsync returns.
+ * The atomicity guarantees of commit are kept: the CheckpointID is only released, through the returned
+ * Future, once the checkpoint has been completely written.
+ */
+public interface AsyncCheckpointService extends CheckpointService {
+
+  /**
+   * Closes the channel and finalizes the checkpoint in the background.
+   *
+   * @param channel the CheckpointWriteChannel to commit
+   * @return a Future that yields the CheckpointID once the checkpoint is committed,
+   * or fails with the IOException that prevented the commit.
+   * @throws IOException if the remaining data of the channel could not be handed over
+   */
+  Future<CheckpointID> commitAsync(CheckpointWriteChannel channel) throws IOException;
+}
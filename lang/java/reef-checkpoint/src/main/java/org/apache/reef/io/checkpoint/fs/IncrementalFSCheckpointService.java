@@ -0,0 +1,726 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.io.checkpoint.AsyncCheckpointService;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A FileSystem based CheckpointService that writes checkpoints incrementally and in the background.
+ * <p/>
+ * The data of a checkpoint is cut into blocks of BlockSize bytes. Every block is stored once, named
+ * after the SHA-1 hash of its content, in the blocks directory below the base path. The checkpoint itself
+ * is a small manifest that names that directory and lists the hashes of its blocks, so blocks that did not
+ * change since an earlier checkpoint are not written again. Like in FSCheckpointService, the manifest is
+ * promoted with a rename.
+ * <p/>
+ * Blocks are hashed and written on a writer thread while the task fills the next block. Writes block
+ * once MaxPendingBlocks blocks are waiting for that thread.
+ * <p/>
+ * After each commit, the service deletes its checkpoints beyond the RetainedCheckpoints most recent ones,
+ * together with the blocks none of its remaining checkpoints refers to. To that end, it keeps its blocks in
+ * a directory named after its owner, the prefix of its checkpoint names, and tracks the checkpoints that
+ * refer to that directory. On construction, it reads them back from the manifests under the base path, so
+ * that a restarted task collects the checkpoints of its earlier instances too. Services that run at the
+ * same time under the same base path therefore need different owners. If RetainedCheckpoints is zero or
+ * less, the service never deletes blocks and shares the blocks directory with the other services.
+ */
+public final class IncrementalFSCheckpointService implements AsyncCheckpointService {
+
+  private static final Logger LOG = Logger.getLogger(IncrementalFSCheckpointService.class.getName());
+
+  /**
+   * Name of the directory below the base path that holds the blocks.
+   */
+  static final String BLOCK_DIRECTORY = "blocks";
+
+  private static final int MANIFEST_MAGIC = 0x52434b50;
+  private static final String HASH_ALGORITHM = "SHA-1";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final long WRITER_KEEP_ALIVE_MILLIS = 10000;
+
+  private final FileSystem fs;
+  private final Path base;
+  /**
+   * The directory of the blocks, relative to the base path, as recorded in the manifests.
+   */
+  private final String blockDirectoryName;
+  private final Path blockDirectory;
+  private final CheckpointNamingService namingPolicy;
+  private final short replication;
+  private final int blockSize;
+  private final int retainedCheckpoints;
+  private final Semaphore pendingBlocks;
+  private final Queue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+  private final ThreadPoolExecutor writer;
+
+  /**
+   * Number of uncommitted and retained checkpoints that refer to each block. Only accessed by the writer thread.
+   */
+  private final Map<String, Integer> blockReferences = new HashMap<>();
+
+  /**
+   * The checkpoints of the owner that are retained, oldest first. Only accessed by the writer thread.
+   */
+  private final Deque<Manifest> retained = new ArrayDeque<>();
+
+  @Inject
+  IncrementalFSCheckpointService(final FileSystem fs,
+                                 @Parameter(FSCheckpointService.PATH.class) final String basePath,
+                                 final CheckpointNamingService namingPolicy,
+                                 @Parameter(RandomNameCNS.PREFIX.class) final String owner,
+                                 @Parameter(FSCheckpointService.ReplicationFactor.class) final short replication,
+                                 @Parameter(BlockSize.class) final int blockSize,
+                                 @Parameter(MaxPendingBlocks.class) final int maxPendingBlocks,
+                                 @Parameter(RetainedCheckpoints.class) final int retainedCheckpoints) {
+    this(fs, new Path(basePath), namingPolicy, owner, replication, blockSize, maxPendingBlocks,
+        retainedCheckpoints);
+  }
+
+  /**
+   * @param owner identifies the service across restarts; names the directory of its blocks
+   *              if retainedCheckpoints is positive
+   */
+  public IncrementalFSCheckpointService(final FileSystem fs,
+                                        final Path base,
+                                        final CheckpointNamingService namingPolicy,
+                                        final String owner,
+                                        final short replication,
+                                        final int blockSize,
+                                        final int maxPendingBlocks,
+                                        final int retainedCheckpoints) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("The block size must be positive: " + blockSize);
+    }
+    if (maxPendingBlocks <= 0) {
+      throw new IllegalArgumentException("The number of pending blocks must be positive: " + maxPendingBlocks);
+    }
+    this.fs = fs;
+    this.base = base;
+    this.blockDirectoryName = retainedCheckpoints > 0
+        ? BLOCK_DIRECTORY + Path.SEPARATOR + toDirectoryName(owner) : BLOCK_DIRECTORY;
+    this.blockDirectory = new Path(base, blockDirectoryName);
+    this.namingPolicy = namingPolicy;
+    this.replication = replication;
+    this.blockSize = blockSize;
+    this.retainedCheckpoints = retainedCheckpoints;
+    this.pendingBlocks = new Semaphore(maxPendingBlocks);
+    this.writer = new ThreadPoolExecutor(1, 1, WRITER_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            return new Thread(runnable, "IncrementalFSCheckpointService-" + base.getName());
+          }
+        });
+    this.writer.allowCoreThreadTimeOut(true);
+    if (retainedCheckpoints > 0) {
+      this.writer.submit(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            recover();
+          } catch (final IOException e) {
+            LOG.log(Level.WARNING, "Failed to read back the checkpoints under " + base, e);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * @return the owner with all characters that are not safe in a path replaced
+   */
+  private static String toDirectoryName(final String owner) {
+    final String name = owner.replaceAll("[^A-Za-z0-9_.-]", "_");
+    return name.isEmpty() || name.startsWith(".") ? "_" + name : name;
+  }
+
+  @Override
+  public CheckpointWriteChannel create() throws IOException {
+    final Path p = new Path(namingPolicy.getNewName());
+    if (p.isUriPathAbsolute()) {
+      throw new IOException("Checkpoint cannot be an absolute path");
+    }
+    if (p.depth() != 1 || BLOCK_DIRECTORY.equals(p.getName()) || p.getName().endsWith(TMP_SUFFIX)) {
+      // the blocks directory is recorded relative to the directory of the manifest
+      throw new IOException("Invalid checkpoint name: " + p);
+    }
+    return new IncrementalWriteChannel(new Path(base, p));
+  }
+
+  @Override
+  public CheckpointReadChannel open(final CheckpointID id) throws IOException, InterruptedException {
+    final Path path = getPath(id);
+    final Manifest manifest = readManifest(path);
+    if (manifest == null) {
+      throw new IOException("Not an incremental checkpoint: " + path);
+    }
+    return new IncrementalReadChannel(manifest);
+  }
+
+  @Override
+  public CheckpointID commit(final CheckpointWriteChannel ch) throws IOException, InterruptedException {
+    try {
+      return commitAsync(ch).get();
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to commit checkpoint", e.getCause());
+    }
+  }
+
+  @Override
+  public Future<CheckpointID> commitAsync(final CheckpointWriteChannel ch) throws IOException {
+    final IncrementalWriteChannel channel = toIncrementalChannel(ch);
+    channel.close();
+    return writer.submit(new Callable<CheckpointID>() {
+      @Override
+      public CheckpointID call() throws IOException {
+        return finishCommit(channel);
+      }
+    });
+  }
+
+  /**
+   * Discards the checkpoint. If the service retains a limited number of checkpoints, the blocks that were
+   * already written and that no other checkpoint of the service refers to are deleted.
+   */
+  @Override
+  public void abort(final CheckpointWriteChannel ch) throws IOException, InterruptedException {
+    final IncrementalWriteChannel channel = toIncrementalChannel(ch);
+    channel.discard();
+    final Future<?> cleanup = writer.submit(new Runnable() {
+      @Override
+      public void run() {
+        release(channel.pinned);
+        channel.pinned.clear();
+      }
+    });
+    try {
+      cleanup.get();
+    } catch (final ExecutionException e) {
+      throw new IOException("Failed to abort checkpoint", e.getCause());
+    }
+  }
+
+  /**
+   * Deletes the manifest of the checkpoint. If the checkpoint is retained by this service,
+   * its blocks that no other retained checkpoint refers to are deleted in the background.
+   */
+  @Override
+  public boolean delete(final CheckpointID id) throws IOException, InterruptedException {
+    final Path path = getPath(id);
+    boolean deleted = true;
+    try {
+      deleted = fs.delete(path, false);
+    } catch (final FileNotFoundException e) {
+      // IGNORE
+    }
+    if (retainedCheckpoints > 0) {
+      writer.submit(new Runnable() {
+        @Override
+        public void run() {
+          forget(path);
+        }
+      });
+    }
+    return deleted;
+  }
+
+  private static Path getPath(final CheckpointID id) {
+    if (!(id instanceof FSCheckpointID)) {
+      throw new IllegalArgumentException(
+          "Mismatched checkpoint type: " + id.getClass());
+    }
+    return ((FSCheckpointID) id).getPath();
+  }
+
+  private IncrementalWriteChannel toIncrementalChannel(final CheckpointWriteChannel ch) {
+    if (!(ch instanceof IncrementalWriteChannel)) {
+      throw new IllegalArgumentException(
+          "Mismatched checkpoint channel type: " + ch.getClass());
+    }
+    return (IncrementalWriteChannel) ch;
+  }
+
+  private ByteBuffer takeBuffer() {
+    final ByteBuffer buffer = freeBuffers.poll();
+    return buffer == null ? ByteBuffer.allocate(blockSize) : buffer;
+  }
+
+  private void releaseBuffer(final ByteBuffer buffer) {
+    buffer.clear();
+    freeBuffers.offer(buffer);
+  }
+
+  /**
+   * Stores a block unless a block with the same content already exists. Runs on the writer thread.
+   *
+   * @return the hash of the block
+   */
+  private String writeBlock(final IncrementalWriteChannel channel, final ByteBuffer block) throws IOException {
+    final String hash = hash(block);
+    reference(hash);
+    channel.pinned.add(hash);
+    final Path path = new Path(blockDirectory, hash);
+    if (!fs.exists(path)) {
+      final Path tmp = FSCheckpointService.tmpfile(path);
+      try (final FSDataOutputStream out = fs.create(tmp, replication)) {
+        out.write(block.array(), block.arrayOffset() + block.position(), block.remaining());
+      }
+      if (!fs.rename(tmp, path)) {
+        throw new IOException("Failed to promote checkpoint block " + tmp + " -> " + path);
+      }
+      ++channel.blocksWritten;
+    }
+    return hash;
+  }
+
+  /**
+   * Writes and promotes the manifest of a closed channel. Runs on the writer thread,
+   * after all blocks of the channel have been written.
+   */
+  private CheckpointID finishCommit(final IncrementalWriteChannel channel) throws IOException {
+    final Path dst = channel.destination;
+    final Path tmp = FSCheckpointService.tmpfile(dst);
+    final List<String> hashes;
+    try {
+      hashes = channel.getBlockHashes();
+      try (final FSDataOutputStream out = fs.create(tmp, replication)) {
+        out.writeInt(MANIFEST_MAGIC);
+        out.writeUTF(blockDirectoryName);
+        out.writeInt(hashes.size());
+        for (int i = 0; i < hashes.size(); ++i) {
+          out.writeUTF(hashes.get(i));
+          out.writeInt(channel.blockLengths.get(i));
+        }
+      }
+      if (!fs.rename(tmp, dst)) {
+        fs.delete(tmp, false);
+        throw new IOException("Failed to promote checkpoint " + tmp + " -> " + dst);
+      }
+      if (retainedCheckpoints > 0) {
+        retain(new Manifest(fs.makeQualified(dst), blockDirectoryName, blockDirectory, hashes, channel.blockLengths));
+      }
+    } finally {
+      release(channel.pinned);
+      channel.pinned.clear();
+    }
+    LOG.log(Level.FINE, "Committed checkpoint {0}: {1} blocks, {2} of them written",
+        new Object[]{dst, hashes.size(), channel.blocksWritten});
+    if (retainedCheckpoints > 0) {
+      while (retained.size() > retainedCheckpoints) {
+        final Manifest oldest = retained.removeFirst();
+        LOG.log(Level.FINE, "Deleting old checkpoint {0}", oldest.path);
+        deleteQuietly(oldest.path);
+        release(oldest.blocks);
+      }
+    }
+    return new FSCheckpointID(dst);
+  }
+
+  private void retain(final Manifest manifest) {
+    retained.addLast(manifest);
+    for (final String hash : manifest.blocks) {
+      reference(hash);
+    }
+  }
+
+  /**
+   * Retains the checkpoints whose blocks are in the directory of the owner, oldest first, and deletes
+   * the blocks none of them refers to, which are left over from aborted or failed commits. Runs on the
+   * writer thread before any other task.
+   */
+  private void recover() throws IOException {
+    final FileStatus[] files;
+    try {
+      files = fs.listStatus(base);
+    } catch (final FileNotFoundException e) {
+      return;
+    }
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files, new Comparator<FileStatus>() {
+      @Override
+      public int compare(final FileStatus a, final FileStatus b) {
+        final int byTime = Long.compare(a.getModificationTime(), b.getModificationTime());
+        return byTime != 0 ? byTime : a.getPath().getName().compareTo(b.getPath().getName());
+      }
+    });
+    for (final FileStatus file : files) {
+      final String name = file.getPath().getName();
+      if (file.isDirectory() || name.endsWith(TMP_SUFFIX)) {
+        continue;
+      }
+      final Manifest manifest;
+      try {
+        manifest = readManifest(file.getPath());
+      } catch (final IOException e) {
+        LOG.log(Level.FINE, "Skipping unreadable file " + file.getPath(), e);
+        continue;
+      }
+      if (manifest != null && blockDirectoryName.equals(manifest.blockDirectoryName)) {
+        retain(manifest);
+      }
+    }
+    LOG.log(Level.FINE, "Found {0} checkpoints of {1}", new Object[]{retained.size(), blockDirectory});
+
+    final FileStatus[] blocks;
+    try {
+      blocks = fs.listStatus(blockDirectory);
+    } catch (final FileNotFoundException e) {
+      return;
+    }
+    if (blocks != null) {
+      for (final FileStatus block : blocks) {
+        if (!blockReferences.containsKey(block.getPath().getName())) {
+          deleteQuietly(block.getPath());
+        }
+      }
+    }
+  }
+
+  private void reference(final String hash) {
+    final Integer count = blockReferences.get(hash);
+    blockReferences.put(hash, count == null ? 1 : count + 1);
+  }
+
+  /**
+   * Drops a reference to each of the blocks. If the service retains a limited number of checkpoints,
+   * deletes the blocks that are no longer referred to. Runs on the writer thread, so that no block is
+   * written while it is deleted.
+   */
+  private void release(final List<String> hashes) {
+    for (final String hash : hashes) {
+      final Integer count = blockReferences.get(hash);
+      if (count == null) {
+        LOG.log(Level.WARNING, "Released block {0} that is not referenced", hash);
+      } else if (count > 1) {
+        blockReferences.put(hash, count - 1);
+      } else {
+        blockReferences.remove(hash);
+        if (retainedCheckpoints > 0) {
+          deleteQuietly(new Path(blockDirectory, hash));
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops retaining the checkpoint at the path, if it is one of the owner's. Runs on the writer thread.
+   */
+  private void forget(final Path path) {
+    final Path qualified = fs.makeQualified(path);
+    final Iterator<Manifest> it = retained.iterator();
+    while (it.hasNext()) {
+      final Manifest manifest = it.next();
+      if (manifest.path.equals(qualified)) {
+        it.remove();
+        release(manifest.blocks);
+        return;
+      }
+    }
+  }
+
+  private void deleteQuietly(final Path path) {
+    try {
+      fs.delete(path, false);
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Failed to delete " + path, e);
+    }
+  }
+
+  /**
+   * @return the manifest stored at the path, or null if the file is not a manifest
+   */
+  private Manifest readManifest(final Path path) throws IOException {
+    try (final FSDataInputStream in = fs.open(path)) {
+      if (in.readInt() != MANIFEST_MAGIC) {
+        return null;
+      }
+      final String directoryName = in.readUTF();
+      final int count = in.readInt();
+      final List<String> blocks = new ArrayList<>(count);
+      final List<Integer> lengths = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+        blocks.add(in.readUTF());
+        lengths.add(in.readInt());
+      }
+      return new Manifest(path, directoryName, new Path(path.getParent(), directoryName), blocks, lengths);
+    } catch (final EOFException e) {
+      return null;
+    }
+  }
+
+  private static String hash(final ByteBuffer block) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not supported", e);
+    }
+    digest.update(block.duplicate());
+    final byte[] bytes = digest.digest();
+    final char[] hex = new char[2 * bytes.length];
+    for (int i = 0; i < bytes.length; ++i) {
+      hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+      hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+    }
+    return new String(hex);
+  }
+
+  @NamedParameter(doc = "The size of the blocks the checkpoints are cut into, in bytes.", default_value = "4194304")
+  static class BlockSize implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of checkpoint blocks that may wait for the writer thread.", default_value = "4")
+  static class MaxPendingBlocks implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of most recent checkpoints of the service kept after a commit. "
+      + "Zero or less keeps all checkpoints and blocks.", default_value = "2")
+  static class RetainedCheckpoints implements Name<Integer> {
+  }
+
+  private static final class Manifest {
+    private final Path path;
+    private final String blockDirectoryName;
+    private final Path blockDirectory;
+    private final List<String> blocks;
+    private final List<Integer> lengths;
+
+    Manifest(final Path path, final String blockDirectoryName, final Path blockDirectory,
+             final List<String> blocks, final List<Integer> lengths) {
+      this.path = path;
+      this.blockDirectoryName = blockDirectoryName;
+      this.blockDirectory = blockDirectory;
+      this.blocks = blocks;
+      this.lengths = lengths;
+    }
+  }
+
+  private final class IncrementalWriteChannel implements CheckpointWriteChannel {
+    private final Path destination;
+    private final List<Future<String>> blocks = new ArrayList<>();
+    private final List<Integer> blockLengths = new ArrayList<>();
+    private ByteBuffer current;
+    private boolean isOpen = true;
+
+    // only accessed by the writer thread
+    private final List<String> pinned = new ArrayList<>();
+    private int blocksWritten = 0;
+
+    IncrementalWriteChannel(final Path destination) {
+      this.destination = destination;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      if (!isOpen) {
+        throw new ClosedChannelException();
+      }
+      final int written = src.remaining();
+      while (src.hasRemaining()) {
+        if (current == null) {
+          current = takeBuffer();
+        }
+        if (src.remaining() <= current.remaining()) {
+          current.put(src);
+        } else {
+          final ByteBuffer part = src.duplicate();
+          part.limit(part.position() + current.remaining());
+          current.put(part);
+          src.position(part.position());
+        }
+        if (!current.hasRemaining()) {
+          submitCurrent();
+        }
+      }
+      return written;
+    }
+
+    /**
+     * Hands the current block over to the writer thread, waiting if too many blocks are pending.
+     */
+    private void submitCurrent() throws IOException {
+      try {
+        pendingBlocks.acquire();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the checkpoint writer");
+      }
+      final ByteBuffer block = current;
+      current = null;
+      block.flip();
+      blockLengths.add(block.remaining());
+      blocks.add(writer.submit(new Callable<String>() {
+        @Override
+        public String call() throws IOException {
+          try {
+            return writeBlock(IncrementalWriteChannel.this, block);
+          } finally {
+            releaseBuffer(block);
+            pendingBlocks.release();
+          }
+        }
+      }));
+    }
+
+    List<String> getBlockHashes() throws IOException {
+      final List<String> hashes = new ArrayList<>(blocks.size());
+      for (final Future<String> block : blocks) {
+        try {
+          hashes.add(block.get());
+        } catch (final ExecutionException e) {
+          throw new IOException("Failed to write a block of checkpoint " + destination, e.getCause());
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while committing checkpoint " + destination);
+        }
+      }
+      return hashes;
+    }
+
+    void discard() {
+      isOpen = false;
+      if (current != null) {
+        releaseBuffer(current);
+        current = null;
+      }
+    }
+
+    /**
+     * Hands the last, partial block over to the writer thread. Does not wait for the blocks to be written.
+     */
+    @Override
+    public void close() throws IOException {
+      if (isOpen) {
+        if (current != null && current.position() > 0) {
+          submitCurrent();
+        }
+        discard();
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return isOpen;
+    }
+  }
+
+  private final class IncrementalReadChannel implements CheckpointReadChannel {
+    private final Manifest manifest;
+    private int nextBlock = 0;
+    private ReadableByteChannel block;
+    private long remainingInBlock;
+    private boolean isOpen = true;
+
+    IncrementalReadChannel(final Manifest manifest) {
+      this.manifest = manifest;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+      if (!isOpen) {
+        throw new ClosedChannelException();
+      }
+      while (true) {
+        if (block == null) {
+          if (nextBlock == manifest.blocks.size()) {
+            return -1;
+          }
+          block = Channels.newChannel(fs.open(new Path(manifest.blockDirectory, manifest.blocks.get(nextBlock))));
+          remainingInBlock = manifest.lengths.get(nextBlock);
+          ++nextBlock;
+        }
+        final int read = block.read(dst);
+        if (read >= 0) {
+          remainingInBlock -= read;
+          return read;
+        }
+        block.close();
+        block = null;
+        if (remainingInBlock != 0) {
+          throw new IOException("Truncated block " + manifest.blocks.get(nextBlock - 1)
+              + " in checkpoint " + manifest.path);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      isOpen = false;
+      if (block != null) {
+        block.close();
+        block = null;
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return isOpen;
+    }
+  }
+}
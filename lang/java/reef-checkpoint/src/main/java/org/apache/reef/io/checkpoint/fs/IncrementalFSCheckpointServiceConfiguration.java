@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.io.checkpoint.AsyncCheckpointService;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
+import org.apache.reef.tang.formats.RequiredParameter;
+
+/**
+ * ConfigurationModule for the IncrementalFSCheckpointService.
+ * This can be used to create Evaluator-side configurations of the incremental checkpointing service,
+ * which is bound to both CheckpointService and AsyncCheckpointService.
+ */
+@DriverSide
+@Public
+public class IncrementalFSCheckpointServiceConfiguration extends ConfigurationModuleBuilder {
+
+  /**
+   * Use local file system if true; otherwise, use HDFS.
+   */
+  public static final RequiredParameter<Boolean> IS_LOCAL = new RequiredParameter<>();
+
+  /**
+   * Path to be used to store the checkpoints on file system.
+   */
+  public static final RequiredParameter<String> PATH = new RequiredParameter<>();
+
+  /**
+   * Replication factor to be used for the checkpoints.
+   */
+  public static final OptionalParameter<Short> REPLICATION_FACTOR = new OptionalParameter<>();
+
+  /**
+   * Prefix for checkpoint files (optional). It also identifies the service across restarts: the blocks
+   * of the service are kept in a directory named after it, so give each task that checkpoints under the
+   * same path its own prefix.
+   */
+  public static final OptionalParameter<String> PREFIX = new OptionalParameter<>();
+
+  /**
+   * Size of the blocks the checkpoints are cut into, in bytes (optional).
+   */
+  public static final OptionalParameter<Integer> BLOCK_SIZE = new OptionalParameter<>();
+
+  /**
+   * Number of blocks that may wait to be written before writes to a checkpoint block (optional).
+   */
+  public static final OptionalParameter<Integer> MAX_PENDING_BLOCKS = new OptionalParameter<>();
+
+  /**
+   * Number of most recent checkpoints of the service kept after a commit, two by default;
+   * zero or less keeps all checkpoints and blocks (optional).
+   */
+  public static final OptionalParameter<Integer> RETAINED_CHECKPOINTS = new OptionalParameter<>();
+
+  public static final ConfigurationModule CONF = new IncrementalFSCheckpointServiceConfiguration()
+      .bindImplementation(CheckpointService.class, IncrementalFSCheckpointService.class)
+      .bindImplementation(AsyncCheckpointService.class, IncrementalFSCheckpointService.class)
+      .bindImplementation(CheckpointNamingService.class, RandomNameCNS.class) // Use Random Names for the checkpoints
+      .bindImplementation(CheckpointID.class, FSCheckpointID.class)
+      .bindConstructor(FileSystem.class, FSCheckPointServiceConfiguration.FileSystemConstructor.class)
+      .bindNamedParameter(FSCheckPointServiceConfiguration.FileSystemConstructor.IsLocal.class, IS_LOCAL)
+      .bindNamedParameter(FSCheckpointService.PATH.class, PATH)
+      .bindNamedParameter(FSCheckpointService.ReplicationFactor.class, REPLICATION_FACTOR)
+      .bindNamedParameter(RandomNameCNS.PREFIX.class, PREFIX)
+      .bindNamedParameter(IncrementalFSCheckpointService.BlockSize.class, BLOCK_SIZE)
+      .bindNamedParameter(IncrementalFSCheckpointService.MaxPendingBlocks.class, MAX_PENDING_BLOCKS)
+      .bindNamedParameter(IncrementalFSCheckpointService.RetainedCheckpoints.class, RETAINED_CHECKPOINTS)
+      .build();
+}
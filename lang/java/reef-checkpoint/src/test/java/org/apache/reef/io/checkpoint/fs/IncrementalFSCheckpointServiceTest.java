@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.io.checkpoint.AsyncCheckpointService;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.io.checkpoint.CheckpointService.CheckpointWriteChannel;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Test IncrementalFSCheckpointService against the local FileSystem.
+ */
+public class IncrementalFSCheckpointServiceTest {
+
+  private static final int BLOCK_SIZE = 1024;
+  private static final int NUM_BLOCKS = 8;
+  private static final short REPLICATION = 1;
+
+  private final Random random = new Random(42);
+  private FileSystem fs;
+  private Path base;
+
+  @Before
+  public void setUp() throws IOException {
+    this.fs = FileSystem.getLocal(new Configuration());
+    final File dir = File.createTempFile("IncrementalFSCheckpointServiceTest", "");
+    Assert.assertTrue(dir.delete());
+    this.base = new Path(dir.getAbsolutePath());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.fs.delete(this.base, true);
+  }
+
+  private IncrementalFSCheckpointService newService(final int retainedCheckpoints) {
+    return newService("checkpoint_", retainedCheckpoints);
+  }
+
+  private IncrementalFSCheckpointService newService(final String owner, final int retainedCheckpoints) {
+    return new IncrementalFSCheckpointService(this.fs, this.base, new RandomNameCNS(owner), owner,
+        REPLICATION, BLOCK_SIZE, 2, retainedCheckpoints);
+  }
+
+  private byte[] randomState(final int length) {
+    final byte[] state = new byte[length];
+    this.random.nextBytes(state);
+    return state;
+  }
+
+  private static CheckpointService.CheckpointWriteChannel write(final CheckpointService service, final byte[] state)
+      throws IOException, InterruptedException {
+    final CheckpointService.CheckpointWriteChannel channel = service.create();
+    // write in pieces that do not line up with the blocks
+    for (int offset = 0; offset < state.length; offset += 100) {
+      channel.write(ByteBuffer.wrap(state, offset, Math.min(100, state.length - offset)));
+    }
+    return channel;
+  }
+
+  private static byte[] read(final CheckpointService service, final CheckpointID id)
+      throws IOException, InterruptedException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ByteBuffer buffer = ByteBuffer.allocate(300);
+    try (final CheckpointService.CheckpointReadChannel channel = service.open(id)) {
+      while (channel.read(buffer) >= 0) {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private int countBlocks() throws IOException {
+    return countFiles(new Path(this.base, IncrementalFSCheckpointService.BLOCK_DIRECTORY));
+  }
+
+  private int countFiles(final Path dir) throws IOException {
+    int count = 0;
+    for (final FileStatus status : this.fs.listStatus(dir)) {
+      count += status.isDirectory() ? countFiles(status.getPath()) : 1;
+    }
+    return count;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService service = newService(0);
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE + 17);
+    final CheckpointID id = service.commit(write(service, state));
+    Assert.assertArrayEquals(state, read(service, id));
+    Assert.assertEquals(NUM_BLOCKS + 1, countBlocks());
+
+    final CheckpointID empty = service.commit(service.create());
+    Assert.assertEquals(0, read(service, empty).length);
+  }
+
+  @Test
+  public void testOnlyChangedBlocksAreWritten() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService service = newService(0);
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID first = service.commit(write(service, state));
+    Assert.assertEquals(NUM_BLOCKS, countBlocks());
+
+    final byte[] updated = state.clone();
+    updated[3 * BLOCK_SIZE + 5]++;
+    final CheckpointID second = service.commit(write(service, updated));
+    Assert.assertEquals("Only the changed block should have been added", NUM_BLOCKS + 1, countBlocks());
+
+    Assert.assertArrayEquals(state, read(service, first));
+    Assert.assertArrayEquals(updated, read(service, second));
+  }
+
+  @Test
+  public void testCommitAsync() throws IOException, InterruptedException, ExecutionException {
+    final IncrementalFSCheckpointService service = newService(0);
+    final List<byte[]> states = new ArrayList<>();
+    final List<Future<CheckpointID>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE / 2 + i);
+      states.add(state);
+      futures.add(service.commitAsync(write(service, state)));
+    }
+    for (int i = 0; i < futures.size(); ++i) {
+      Assert.assertArrayEquals(states.get(i), read(service, futures.get(i).get()));
+    }
+  }
+
+  @Test
+  public void testGarbageCollection() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService service = newService(1);
+    final CheckpointID first = service.commit(write(service, randomState(NUM_BLOCKS * BLOCK_SIZE)));
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID second = service.commit(write(service, state));
+
+    Assert.assertFalse("The older checkpoint should have been deleted",
+        this.fs.exists(((FSCheckpointID) first).getPath()));
+    Assert.assertEquals("The blocks of the older checkpoint should have been deleted", NUM_BLOCKS, countBlocks());
+    Assert.assertArrayEquals(state, read(service, second));
+  }
+
+  @Test
+  public void testGarbageCollectionLeavesOtherServicesAlone() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService other = newService("other_", 1);
+    final IncrementalFSCheckpointService keepsAll = newService("all_", 0);
+    final IncrementalFSCheckpointService service = newService("task_", 1);
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID otherId = other.commit(write(other, state));
+    final CheckpointID keptId = keepsAll.commit(write(keepsAll, state));
+
+    final CheckpointID first = service.commit(write(service, state));
+    final CheckpointWriteChannel inFlight = write(other, randomState(NUM_BLOCKS * BLOCK_SIZE));
+    service.commit(write(service, randomState(NUM_BLOCKS * BLOCK_SIZE)));
+
+    Assert.assertFalse("The older checkpoint should have been deleted",
+        this.fs.exists(((FSCheckpointID) first).getPath()));
+    Assert.assertArrayEquals(state, read(service, otherId));
+    Assert.assertArrayEquals(state, read(service, keptId));
+    Assert.assertNotNull(other.commit(inFlight));
+  }
+
+  @Test
+  public void testRestartedServiceCollectsEarlierCheckpoints() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService earlier = newService("task-1", 1);
+    final CheckpointID first = earlier.commit(write(earlier, randomState(NUM_BLOCKS * BLOCK_SIZE)));
+    final IncrementalFSCheckpointService other = newService("task-2", 1);
+    final byte[] otherState = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID otherId = other.commit(write(other, otherState));
+    // a block left over from a commit that did not finish
+    final Path blockDirectory = new Path(this.base, IncrementalFSCheckpointService.BLOCK_DIRECTORY + "/task-1");
+    this.fs.create(new Path(blockDirectory, "leftover")).close();
+    Assert.assertEquals(2 * NUM_BLOCKS + 1, countBlocks());
+
+    final IncrementalFSCheckpointService restarted = newService("task-1", 1);
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID second = restarted.commit(write(restarted, state));
+
+    Assert.assertFalse("The checkpoint of the earlier instance should have been deleted",
+        this.fs.exists(((FSCheckpointID) first).getPath()));
+    Assert.assertEquals(NUM_BLOCKS, countFiles(blockDirectory));
+    Assert.assertEquals(2 * NUM_BLOCKS, countBlocks());
+    Assert.assertArrayEquals(state, read(restarted, second));
+    Assert.assertArrayEquals(otherState, read(restarted, otherId));
+  }
+
+  @Test
+  public void testDeleteReleasesBlocks() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService service = newService(2);
+    final CheckpointID id = service.commit(write(service, randomState(NUM_BLOCKS * BLOCK_SIZE)));
+    Assert.assertEquals(NUM_BLOCKS, countBlocks());
+    Assert.assertTrue(service.delete(id));
+    // the blocks are deleted on the writer thread, after the commit
+    service.commit(service.create());
+    Assert.assertEquals(0, countBlocks());
+  }
+
+  @Test
+  public void testAbort() throws IOException, InterruptedException {
+    final IncrementalFSCheckpointService service = newService(2);
+    final byte[] state = randomState(NUM_BLOCKS * BLOCK_SIZE);
+    final CheckpointID id = service.commit(write(service, state));
+
+    final CheckpointService.CheckpointWriteChannel aborted = write(service, randomState(NUM_BLOCKS * BLOCK_SIZE));
+    service.abort(aborted);
+    Assert.assertFalse(aborted.isOpen());
+    Assert.assertEquals("The blocks of the aborted checkpoint should have been deleted", NUM_BLOCKS, countBlocks());
+    Assert.assertArrayEquals(state, read(service, id));
+  }
+
+  @Test
+  public void testConfiguration() throws Exception {
+    final AsyncCheckpointService service = Tang.Factory.getTang().newInjector(
+        IncrementalFSCheckpointServiceConfiguration.CONF
+            .set(IncrementalFSCheckpointServiceConfiguration.IS_LOCAL, true)
+            .set(IncrementalFSCheckpointServiceConfiguration.PATH, this.base.toString())
+            .set(IncrementalFSCheckpointServiceConfiguration.BLOCK_SIZE, BLOCK_SIZE)
+            .build())
+        .getInstance(AsyncCheckpointService.class);
+    final byte[] state = randomState(3 * BLOCK_SIZE);
+    final CheckpointID id = service.commitAsync(write(service, state)).get();
+    Assert.assertArrayEquals(state, read(service, id));
+    Assert.assertEquals(3, countBlocks());
+  }
+}
@@ -183,15 +183,26 @@ public final class DriverConfiguration extends ConfigurationModuleBuilder {
   public static final OptionalImpl<ProgressProvider> PROGRESS_PROVIDER = new OptionalImpl<>();
 
   /**
-   * Number of threads allocated per evaluator to dispatch events from this Evaluator.
+   * Maximum number of events from an Evaluator that are dispatched at the same time.
    */
   public static final OptionalParameter<Integer> EVALUATOR_DISPATCHER_THREADS = new OptionalParameter<>();
 
+  /**
+   * Number of threads of the pool shared by all evaluators to dispatch their events.
+   */
+  public static final OptionalParameter<Integer> EVALUATOR_DISPATCHER_POOL_THREADS = new OptionalParameter<>();
+
   /**
    * The number of submissions that the resource manager will attempt to submit the application. Defaults to 1.
    */
   public static final OptionalParameter<Integer> MAX_APPLICATION_SUBMISSIONS = new OptionalParameter<>();
 
+  /**
+   * Whether to write a class hierarchy snapshot of the global libraries on submission, so that the Driver and the
+   * Evaluators do not have to reflect on those classes when they parse their configurations. Defaults to false.
+   */
+  public static final OptionalParameter<Boolean> CLASS_HIERARCHY_SNAPSHOT = new OptionalParameter<>();
+
   /**
    * ConfigurationModule to fill out to get a legal Driver Configuration.
    */
@@ -200,6 +211,7 @@ public final class DriverConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(DriverMemory.class, DRIVER_MEMORY)
       .bindNamedParameter(DriverJobSubmissionDirectory.class, DRIVER_JOB_SUBMISSION_DIRECTORY)
       .bindNamedParameter(MaxApplicationSubmissions.class, MAX_APPLICATION_SUBMISSIONS)
+      .bindNamedParameter(JobClassHierarchySnapshot.class, CLASS_HIERARCHY_SNAPSHOT)
       .bindSetEntry(JobGlobalFiles.class, GLOBAL_FILES)
       .bindSetEntry(JobGlobalLibraries.class, GLOBAL_LIBRARIES)
       .bindSetEntry(DriverLocalFiles.class, LOCAL_FILES)
@@ -235,6 +247,7 @@ public final class DriverConfiguration extends ConfigurationModuleBuilder {
 
           // Various parameters
       .bindNamedParameter(EvaluatorDispatcherThreads.class, EVALUATOR_DISPATCHER_THREADS)
+      .bindNamedParameter(EvaluatorDispatcherPoolThreads.class, EVALUATOR_DISPATCHER_POOL_THREADS)
       .bindImplementation(ProgressProvider.class, PROGRESS_PROVIDER)
       .build();
 }
@@ -23,6 +23,7 @@ import org.apache.reef.evaluator.context.events.ContextStart;
 import org.apache.reef.evaluator.context.events.ContextStop;
 import org.apache.reef.evaluator.context.parameters.ContextStartHandlers;
 import org.apache.reef.evaluator.context.parameters.ContextStopHandlers;
+import org.apache.reef.evaluator.context.parameters.ServiceInstantiationThreads;
 import org.apache.reef.evaluator.context.parameters.Services;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
@@ -65,6 +66,13 @@ public class ServiceConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalImpl<EventHandler<TaskStop>> ON_TASK_STOP = new OptionalImpl<>();
 
+  /**
+   * The number of threads to instantiate independent services on. Only used for the root context, whose child
+   * contexts instantiate their services on the same threads. Services are instantiated one after the other if
+   * not bound.
+   */
+  public static final OptionalParameter<Integer> INSTANTIATION_THREADS = new OptionalParameter<>();
+
   /**
    * ConfigurationModule for services.
    */
@@ -74,6 +82,7 @@ public class ServiceConfiguration extends ConfigurationModuleBuilder {
       .bindSetEntry(ContextStopHandlers.class, ON_CONTEXT_STOP)
       .bindSetEntry(TaskConfigurationOptions.StartHandlers.class, ON_TASK_STARTED)
       .bindSetEntry(TaskConfigurationOptions.StopHandlers.class, ON_TASK_STOP)
+      .bindNamedParameter(ServiceInstantiationThreads.class, INSTANTIATION_THREADS)
       .build();
 
 }
@@ -22,10 +22,12 @@ import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
 /**
- * Number of threads allocated per evaluator to dispatch events from that Evaluator.
+ * Maximum number of events from an Evaluator that are dispatched at the same time.
+ * The threads come from a pool shared by all evaluators, see {@link EvaluatorDispatcherPoolThreads}.
+ * With the default of 1, the events of each Evaluator are dispatched in order.
  */
 @NamedParameter(
-    doc = "Number of threads allocated per evaluator to dispatch events from that Evaluator.",
+    doc = "Maximum number of events from an Evaluator that are dispatched at the same time.",
     default_value = "1")
 public final class EvaluatorDispatcherThreads implements Name<Integer> {
   private EvaluatorDispatcherThreads() {
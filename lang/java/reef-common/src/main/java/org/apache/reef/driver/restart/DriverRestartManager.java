@@ -55,7 +55,8 @@ public final class DriverRestartManager implements DriverIdlenessSource {
   private final Timer restartCompletedTimer = new Timer();
 
   private RestartEvaluators restartEvaluators;
-  private DriverRestartState state = DriverRestartState.NOT_RESTARTED;
+  // volatile so that getEvaluatorRestartState() can check it without the lock, see below.
+  private volatile DriverRestartState state = DriverRestartState.NOT_RESTARTED;
   private int resubmissionAttempts = 0;
 
   @Inject
@@ -141,12 +142,16 @@ public final class DriverRestartManager implements DriverIdlenessSource {
    * @return The restart state of the specified evaluator. Returns {@link EvaluatorRestartState#NOT_EXPECTED}
    * if the {@link DriverRestartManager} does not believe that it's an evaluator to be recovered.
    */
-  public synchronized EvaluatorRestartState getEvaluatorRestartState(final String evaluatorId) {
+  public EvaluatorRestartState getEvaluatorRestartState(final String evaluatorId) {
+    // This is called on every Evaluator heartbeat. The state never goes back to NOT_RESTARTED,
+    // so the common case of a Driver that has not restarted does not need the lock.
     if (this.state.hasNotRestarted()) {
       return EvaluatorRestartState.NOT_EXPECTED;
     }
 
-    return getStateOfPreviousEvaluator(evaluatorId);
+    synchronized (this) {
+      return getStateOfPreviousEvaluator(evaluatorId);
+    }
   }
 
   /**
@@ -41,6 +41,9 @@ public interface RunningTask extends Identifiable, AutoCloseable {
 
   /**
    * Sends the message to the running task.
+   * <p/>
+   * JVM Tasks receive it right away, without waiting for a heartbeat. If too many messages are still in
+   * flight, this blocks until the Task caught up.
    *
    * @param message to be sent to the running task
    */
@@ -19,6 +19,7 @@
 package org.apache.reef.runtime.common;
 
 import org.apache.reef.runtime.common.evaluator.PIDStoreStartHandler;
+import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.launch.ProfilingStopHandler;
 import org.apache.reef.runtime.common.launch.REEFErrorHandler;
 import org.apache.reef.runtime.common.launch.REEFMessageCodec;
@@ -31,6 +32,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.tang.util.ClassHierarchySnapshot;
 import org.apache.reef.util.EnvironmentUtils;
 import org.apache.reef.util.REEFVersion;
 import org.apache.reef.util.ThreadLogger;
@@ -41,6 +43,7 @@ import org.apache.reef.wake.time.Clock;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.io.FileFilter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Collection;
@@ -66,6 +69,8 @@ public final class REEFLauncher {
           .bindNamedParameter(RemoteConfiguration.MessageCodec.class, REEFMessageCodec.class)
           .build();
 
+  private static boolean classHierarchySnapshotLoaded = false;
+
   static {
     LoggingSetup.setupCommonsLogging();
   }
@@ -162,6 +167,7 @@ public final class REEFLauncher {
       throw fatal(message, new IllegalArgumentException(message));
     }
 
+    loadClassHierarchySnapshot(new REEFFileNames());
     final REEFLauncher launcher = getREEFLauncher(args[0]);
 
     Thread.setDefaultUncaughtExceptionHandler(new REEFUncaughtExceptionHandler(launcher.clockConfig));
@@ -189,6 +195,34 @@ public final class REEFLauncher {
     }
   }
 
+  /**
+   * Loads the class hierarchy snapshot of the job jars, if the job ships one, into the default class hierarchy.
+   * Tang then does not have to reflect on the classes in it while parsing the configurations.
+   * Failing to load the snapshot, e.g. because it was taken of other jars than the ones in the global folder,
+   * is not fatal: Tang falls back to reflection.
+   * Processes started ahead of time call this before main(), which then does not load the snapshot again.
+   */
+  public static synchronized void loadClassHierarchySnapshot(final REEFFileNames fileNames) {
+    final File snapshotFile = new File(fileNames.getClassHierarchySnapshotPath());
+    if (classHierarchySnapshotLoaded || !snapshotFile.exists()) {
+      return;
+    }
+    classHierarchySnapshotLoaded = true;
+    final File[] jars = new File(fileNames.getGlobalFolderPath()).listFiles(new FileFilter() {
+      @Override
+      public boolean accept(final File file) {
+        return file.getName().endsWith(fileNames.getJarFileSuffix());
+      }
+    });
+    try {
+      final ClassHierarchy snapshot = ClassHierarchySnapshot.read(snapshotFile, jars == null ? new File[0] : jars);
+      Tang.Factory.getTang().getDefaultClassHierarchy().loadSnapshot(snapshot);
+      LOG.log(Level.FINE, "Loaded class hierarchy snapshot {0}", snapshotFile);
+    } catch (final IOException | RuntimeException e) {
+      LOG.log(Level.WARNING, "Unable to load class hierarchy snapshot " + snapshotFile, e);
+    }
+  }
+
   /**
    * Pass values of the properties specified in the propNames array as <code>-D...</code>
    * command line parameters. Currently used only to pass logging configuration to child JVMs processes.
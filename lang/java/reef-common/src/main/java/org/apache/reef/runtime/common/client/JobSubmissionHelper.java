@@ -23,11 +23,13 @@ import org.apache.reef.runtime.common.client.api.JobSubmissionEventImpl;
 import org.apache.reef.runtime.common.files.FileResource;
 import org.apache.reef.runtime.common.files.FileResourceImpl;
 import org.apache.reef.runtime.common.files.FileType;
+import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.tang.util.ClassHierarchySnapshot;
 import org.apache.reef.util.JARFileMaker;
 
 import javax.inject.Inject;
@@ -36,6 +38,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,10 +63,13 @@ final class JobSubmissionHelper {
   private static final Logger LOG = Logger.getLogger(JobSubmissionHelper.class.getName());
 
   private final ConfigurationSerializer configurationSerializer;
+  private final REEFFileNames fileNames;
 
   @Inject
-  JobSubmissionHelper(final ConfigurationSerializer configurationSerializer) {
+  JobSubmissionHelper(final ConfigurationSerializer configurationSerializer,
+                      final REEFFileNames fileNames) {
     this.configurationSerializer = configurationSerializer;
+    this.fileNames = fileNames;
   }
 
   /**
@@ -88,14 +95,26 @@ final class JobSubmissionHelper {
         .setMaxApplicationSubmissions(maxAppSubmissions)
         .setConfiguration(driverConfiguration);
 
+    final List<FileResource> globalFiles = new ArrayList<>();
     for (final String globalFileName : injector.getNamedInstance(JobGlobalFiles.class)) {
       LOG.log(Level.FINEST, "Adding global file: {0}", globalFileName);
-      jbuilder.addGlobalFile(getFileResourceProto(globalFileName, FileType.PLAIN));
+      globalFiles.add(getFileResourceProto(globalFileName, FileType.PLAIN));
     }
 
     for (final String globalLibraryName : injector.getNamedInstance(JobGlobalLibraries.class)) {
       LOG.log(Level.FINEST, "Adding global library: {0}", globalLibraryName);
-      jbuilder.addGlobalFile(getFileResourceProto(globalLibraryName, FileType.LIB));
+      globalFiles.add(getFileResourceProto(globalLibraryName, FileType.LIB));
+    }
+
+    for (final FileResource globalFile : globalFiles) {
+      jbuilder.addGlobalFile(globalFile);
+    }
+
+    if (injector.getNamedInstance(JobClassHierarchySnapshot.class)) {
+      final FileResource snapshot = this.getClassHierarchySnapshot(globalFiles);
+      if (snapshot != null) {
+        jbuilder.addGlobalFile(snapshot);
+      }
     }
 
     for (final String localFileName : injector.getNamedInstance(DriverLocalFiles.class)) {
@@ -112,6 +131,40 @@ final class JobSubmissionHelper {
   }
 
 
+  /**
+   * Writes a class hierarchy snapshot of the jars among the global files, for REEFLauncher to load from the
+   * global folder. It records a fingerprint of those jars, which REEFLauncher checks against the global folder.
+   *
+   * @return the snapshot, or null if it could not be written.
+   */
+  private FileResource getClassHierarchySnapshot(final List<FileResource> globalFiles) {
+    final List<File> jars = new ArrayList<>();
+    for (final FileResource globalFile : globalFiles) {
+      if (globalFile.getName().endsWith(this.fileNames.getJarFileSuffix())) {
+        final File jar = new File(globalFile.getPath());
+        if (!jar.isFile()) {
+          LOG.log(Level.WARNING, "Not writing a class hierarchy snapshot, as {0} is not a local file",
+              globalFile.getPath());
+          return null;
+        }
+        jars.add(jar);
+      }
+    }
+    try {
+      final File snapshotFile = new File(Files.createTempDirectory("reef-tmp-snapshot").toFile(),
+          this.fileNames.getClassHierarchySnapshotName());
+      new ClassHierarchySnapshot(jars.toArray(new File[jars.size()]), snapshotFile).write();
+      return FileResourceImpl.newBuilder()
+          .setName(snapshotFile.getName())
+          .setPath(snapshotFile.getPath())
+          .setType(FileType.PLAIN)
+          .build();
+    } catch (final IOException | RuntimeException e) {
+      LOG.log(Level.WARNING, "Unable to write a class hierarchy snapshot", e);
+      return null;
+    }
+  }
+
   /**
    * @param configuredId
    * @return the given driver ID (if it is not the default) or generates a new unique one if it is.
@@ -23,6 +23,7 @@ import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.api.ResourceManagerStartHandler;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorHeartbeatHandler;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorResourceManagerErrorHandler;
+import org.apache.reef.runtime.common.driver.evaluator.EvaluatorTaskMessageHandler;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceManagerStatus;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.wake.EventHandler;
@@ -43,6 +44,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
   private final RemoteManager remoteManager;
   private final EvaluatorResourceManagerErrorHandler evaluatorResourceManagerErrorHandler;
   private final EvaluatorHeartbeatHandler evaluatorHeartbeatHandler;
+  private final EvaluatorTaskMessageHandler evaluatorTaskMessageHandler;
   private final ResourceManagerStatus resourceManagerStatus;
   private final ResourceManagerStartHandler resourceManagerStartHandler;
   private final DriverStatusManager driverStatusManager;
@@ -52,6 +54,7 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
    * @param remoteManager                        the remoteManager in the Driver.
    * @param evaluatorResourceManagerErrorHandler This will be wired up to the remoteManager on onNext()
    * @param evaluatorHeartbeatHandler            This will be wired up to the remoteManager on onNext()
+   * @param evaluatorTaskMessageHandler          This will be wired up to the remoteManager on onNext()
    * @param resourceManagerStartHandler          This will initialize the resource manager
    * @param resourceManagerStatus                will be set to RUNNING in onNext()
    * @param driverStatusManager                  will be set to RUNNING in onNext()
@@ -61,12 +64,14 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
                             final RemoteManager remoteManager,
                             final EvaluatorResourceManagerErrorHandler evaluatorResourceManagerErrorHandler,
                             final EvaluatorHeartbeatHandler evaluatorHeartbeatHandler,
+                            final EvaluatorTaskMessageHandler evaluatorTaskMessageHandler,
                             final ResourceManagerStatus resourceManagerStatus,
                             final ResourceManagerStartHandler resourceManagerStartHandler,
                             final DriverStatusManager driverStatusManager) {
     this.remoteManager = remoteManager;
     this.evaluatorResourceManagerErrorHandler = evaluatorResourceManagerErrorHandler;
     this.evaluatorHeartbeatHandler = evaluatorHeartbeatHandler;
+    this.evaluatorTaskMessageHandler = evaluatorTaskMessageHandler;
     this.resourceManagerStatus = resourceManagerStatus;
     this.resourceManagerStartHandler = resourceManagerStartHandler;
     this.driverStatusManager = driverStatusManager;
@@ -78,6 +83,8 @@ final class DriverRuntimeStartHandler implements EventHandler<RuntimeStart> {
 
     this.remoteManager.registerHandler(EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.class,
         evaluatorHeartbeatHandler);
+    this.remoteManager.registerHandler(EvaluatorRuntimeProtocol.TaskMessageBatchProto.class,
+        evaluatorTaskMessageHandler);
     this.remoteManager.registerHandler(ReefServiceProtos.RuntimeErrorProto.class, evaluatorResourceManagerErrorHandler);
     this.resourceManagerStatus.setRunning();
     this.driverStatusManager.onRunning();
@@ -23,6 +23,7 @@ import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.parameters.ResourceManagerPreserveEvaluators;
 import org.apache.reef.exception.DriverFatalRuntimeException;
 import org.apache.reef.runtime.common.driver.api.ResourceManagerStopHandler;
+import org.apache.reef.runtime.common.driver.evaluator.EvaluatorDispatcherPool;
 import org.apache.reef.runtime.common.driver.evaluator.Evaluators;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.tang.annotations.Parameter;
@@ -47,6 +48,7 @@ final class DriverRuntimeStopHandler implements EventHandler<RuntimeStop> {
   private final ResourceManagerStopHandler resourceManagerStopHandler;
   private final RemoteManager remoteManager;
   private final Evaluators evaluators;
+  private final EvaluatorDispatcherPool evaluatorDispatcherPool;
   private final boolean preserveEvaluatorsAcrossRestarts;
 
   @Inject
@@ -54,12 +56,14 @@ final class DriverRuntimeStopHandler implements EventHandler<RuntimeStop> {
                            final ResourceManagerStopHandler resourceManagerStopHandler,
                            final RemoteManager remoteManager,
                            final Evaluators evaluators,
+                           final EvaluatorDispatcherPool evaluatorDispatcherPool,
                            @Parameter(ResourceManagerPreserveEvaluators.class)
                            final boolean preserveEvaluatorsAcrossRestarts) {
     this.driverStatusManager = driverStatusManager;
     this.resourceManagerStopHandler = resourceManagerStopHandler;
     this.remoteManager = remoteManager;
     this.evaluators = evaluators;
+    this.evaluatorDispatcherPool = evaluatorDispatcherPool;
     this.preserveEvaluatorsAcrossRestarts = preserveEvaluatorsAcrossRestarts;
   }
 
@@ -79,6 +83,12 @@ final class DriverRuntimeStopHandler implements EventHandler<RuntimeStop> {
     // Inform the client of the shutdown.
     final Optional<Throwable> exception = Optional.<Throwable>ofNullable(runtimeStop.getException());
     this.driverStatusManager.sendJobEndingMessageToClient(exception);
+    // Let the events of the evaluators closed above be dispatched and stop the dispatcher threads.
+    try {
+      this.evaluatorDispatcherPool.close();
+    } catch (final InterruptedException e) {
+      LOG.log(Level.WARNING, "Interrupted while closing the EvaluatorDispatcherPool.", e);
+    }
     // Close the remoteManager.
     try {
       this.remoteManager.close();
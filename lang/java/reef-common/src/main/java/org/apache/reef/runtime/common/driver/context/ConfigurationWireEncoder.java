@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.context;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
+import org.apache.reef.driver.evaluator.EvaluatorType;
+import org.apache.reef.driver.parameters.BinaryConfigurationWireFormat;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.SerializedConfigurationProto;
+import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
+import org.apache.reef.runtime.common.utils.ConfigurationHashCache;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import javax.inject.Inject;
+import javax.xml.bind.DatatypeConverter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the context and task configurations sent to one Evaluator in the binary wire format.
+ * Configurations the Evaluator already received are sent by hash only.
+ * <p/>
+ * Callers have to send the encoded configurations in the order they were encoded in,
+ * as the Evaluator relies on that order to keep its copy of the ConfigurationHashCache in sync.
+ * Should it still miss a configuration, it asks for it, and the EvaluatorManager sends it again, also if this
+ * side evicted it from its ConfigurationHashCache since.
+ */
+@DriverSide
+@Private
+public final class ConfigurationWireEncoder {
+
+  /**
+   * How many of the configurations sent by hash only are kept to be sent again should the Evaluator miss them.
+   */
+  private static final int MAX_REFERENCED_CONFIGURATIONS = 128;
+
+  private final EvaluatorDescriptor evaluatorDescriptor;
+  private final boolean binaryWireFormat;
+  private final SerializedConfigurationCache serializedConfigurationCache;
+  private final ConfigurationSerializer configurationSerializer;
+  private final ConfigurationHashCache<SerializedConfigurationProto> sentConfigurations =
+      new ConfigurationHashCache<>();
+
+  /**
+   * The configurations most recently sent by hash only, least recent first. Never touches sentConfigurations,
+   * which has to stay in step with the Evaluator's copy.
+   */
+  private final Map<String, SerializedConfigurationProto> referencedConfigurations =
+      new LinkedHashMap<String, SerializedConfigurationProto>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, SerializedConfigurationProto> eldest) {
+          return size() > MAX_REFERENCED_CONFIGURATIONS;
+        }
+      };
+
+  @Inject
+  ConfigurationWireEncoder(@Parameter(EvaluatorManager.EvaluatorDescriptorName.class)
+                           final EvaluatorDescriptor evaluatorDescriptor,
+                           @Parameter(BinaryConfigurationWireFormat.class) final boolean binaryWireFormat,
+                           final SerializedConfigurationCache serializedConfigurationCache,
+                           final ConfigurationSerializer configurationSerializer) {
+    this.evaluatorDescriptor = evaluatorDescriptor;
+    this.binaryWireFormat = binaryWireFormat;
+    this.serializedConfigurationCache = serializedConfigurationCache;
+    this.configurationSerializer = configurationSerializer;
+  }
+
+  /**
+   * @return true if configurations are sent to this Evaluator in the binary wire format.
+   * CLR Evaluators only understand the string format.
+   */
+  public boolean isBinary() {
+    return this.binaryWireFormat && this.evaluatorDescriptor.getProcess().getType() == EvaluatorType.JVM;
+  }
+
+  /**
+   * @return the configuration in the binary wire format, without its bytes if the Evaluator already has them.
+   */
+  synchronized SerializedConfigurationProto encode(final Configuration configuration) {
+    final SerializedConfigurationProto serialized = this.serializedConfigurationCache.serialize(configuration);
+    if (this.sentConfigurations.get(serialized.getHash()) != null) {
+      this.referencedConfigurations.remove(serialized.getHash());
+      this.referencedConfigurations.put(serialized.getHash(), serialized);
+      return SerializedConfigurationProto.newBuilder().setHash(serialized.getHash()).build();
+    }
+    this.sentConfigurations.put(serialized.getHash(), serialized);
+    return serialized;
+  }
+
+  /**
+   * @return the configurations the Evaluator asked for because it did not have them, with their bytes,
+   * in the order it asked for them. Leaves the order of the mirrored ConfigurationHashCache alone.
+   * @throws IllegalStateException if one of them was never sent to the Evaluator by hash only.
+   */
+  public synchronized List<SerializedConfigurationProto> getMissingConfigurations(final List<String> hashes) {
+    final List<SerializedConfigurationProto> result = new ArrayList<>(hashes.size());
+    for (final String hash : hashes) {
+      SerializedConfigurationProto serialized = this.referencedConfigurations.get(hash);
+      if (serialized == null) {
+        serialized = this.sentConfigurations.peek(hash);
+      }
+      if (serialized == null) {
+        throw new IllegalStateException(
+            "The Evaluator asked for configuration " + hash + ", which was not sent to it by hash only.");
+      }
+      result.add(serialized);
+    }
+    return result;
+  }
+
+  /**
+   * @return the configuration as a string to launch the Evaluator with: the Base64 encoded binary
+   * wire format, or the string format for Evaluators that only understand that.
+   */
+  public String encodeForLaunch(final Configuration configuration) {
+    if (!this.isBinary()) {
+      return this.configurationSerializer.toString(configuration);
+    }
+    return DatatypeConverter.printBase64Binary(
+        this.serializedConfigurationCache.serialize(configuration).getConfiguration().toByteArray());
+  }
+}
@@ -45,7 +45,9 @@ final class ContextFactory {
   private final ExceptionCodec exceptionCodec;
   private final EvaluatorMessageDispatcher messageDispatcher;
   private final ContextControlHandler contextControlHandler;
+  private final ConfigurationWireEncoder configurationWireEncoder;
   private final InjectionFuture<ContextRepresenters> contextRepresenters;
+  private final InjectionFuture<EvaluatorManager> evaluatorManager;
 
 
   @GuardedBy("this.priorIds")
@@ -60,14 +62,18 @@ final class ContextFactory {
                  final ExceptionCodec exceptionCodec,
                  final EvaluatorMessageDispatcher messageDispatcher,
                  final ContextControlHandler contextControlHandler,
-                 final InjectionFuture<ContextRepresenters> contextRepresenters) {
+                 final ConfigurationWireEncoder configurationWireEncoder,
+                 final InjectionFuture<ContextRepresenters> contextRepresenters,
+                 final InjectionFuture<EvaluatorManager> evaluatorManager) {
     this.evaluatorId = evaluatorId;
     this.evaluatorDescriptor = evaluatorDescriptor;
     this.configurationSerializer = configurationSerializer;
     this.exceptionCodec = exceptionCodec;
     this.messageDispatcher = messageDispatcher;
     this.contextControlHandler = contextControlHandler;
+    this.configurationWireEncoder = configurationWireEncoder;
     this.contextRepresenters = contextRepresenters;
+    this.evaluatorManager = evaluatorManager;
   }
 
   /**
@@ -90,9 +96,11 @@ final class ContextFactory {
         parentID,
         this.configurationSerializer,
         this.contextControlHandler,
+        this.configurationWireEncoder,
         this.messageDispatcher,
         this.exceptionCodec,
-        this.contextRepresenters.get());
+        this.contextRepresenters.get(),
+        this.evaluatorManager);
   }
 }
 
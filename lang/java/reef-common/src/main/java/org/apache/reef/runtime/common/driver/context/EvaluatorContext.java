@@ -27,9 +27,11 @@ import org.apache.reef.driver.context.FailedContext;
 import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
 import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorMessageDispatcher;
 import org.apache.reef.runtime.common.utils.ExceptionCodec;
 import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
 
@@ -52,8 +54,10 @@ public final class EvaluatorContext implements ActiveContext {
   private final Optional<String> parentID;
   private final ConfigurationSerializer configurationSerializer;
   private final ContextControlHandler contextControlHandler;
+  private final ConfigurationWireEncoder configurationWireEncoder;
   private final ExceptionCodec exceptionCodec;
   private final ContextRepresenters contextRepresenters;
+  private final InjectionFuture<EvaluatorManager> evaluatorManager;
 
   private boolean isClosed = false;
 
@@ -63,9 +67,11 @@ public final class EvaluatorContext implements ActiveContext {
                           final Optional<String> parentID,
                           final ConfigurationSerializer configurationSerializer,
                           final ContextControlHandler contextControlHandler,
+                          final ConfigurationWireEncoder configurationWireEncoder,
                           final EvaluatorMessageDispatcher messageDispatcher,
                           final ExceptionCodec exceptionCodec,
-                          final ContextRepresenters contextRepresenters) {
+                          final ContextRepresenters contextRepresenters,
+                          final InjectionFuture<EvaluatorManager> evaluatorManager) {
 
     this.contextIdentifier = contextIdentifier;
     this.evaluatorIdentifier = evaluatorIdentifier;
@@ -73,8 +79,10 @@ public final class EvaluatorContext implements ActiveContext {
     this.parentID = parentID;
     this.configurationSerializer = configurationSerializer;
     this.contextControlHandler = contextControlHandler;
+    this.configurationWireEncoder = configurationWireEncoder;
     this.exceptionCodec = exceptionCodec;
     this.contextRepresenters = contextRepresenters;
+    this.evaluatorManager = evaluatorManager;
 
     LOG.log(Level.FINE, "Instantiated 'EvaluatorContext'");
   }
@@ -124,7 +132,34 @@ public final class EvaluatorContext implements ActiveContext {
 
   @Override
   public synchronized void submitTask(final Configuration taskConf) {
-    submitTask(this.configurationSerializer.toString(taskConf));
+    if (!this.configurationWireEncoder.isBinary()) {
+      submitTask(this.configurationSerializer.toString(taskConf));
+      return;
+    }
+
+    if (this.isClosed) {
+      throw new RuntimeException("Active context already closed");
+    }
+
+    LOG.log(Level.FINEST, "Submit task: RunningEvaluator id[{0}] for context id[{1}]",
+        new Object[]{getEvaluatorId(), getId()});
+
+    // Encode and send under the lock of the ContextControlHandler, so that the Evaluator receives
+    // the configurations in the order the ConfigurationWireEncoder saw them.
+    synchronized (this.contextControlHandler) {
+      final EvaluatorRuntimeProtocol.ContextControlProto contextControlProto =
+          EvaluatorRuntimeProtocol.ContextControlProto.newBuilder()
+              .setStartTask(
+                  EvaluatorRuntimeProtocol.StartTaskProto.newBuilder()
+                      .setContextId(this.contextIdentifier)
+                      .setConfiguration("")
+                      .setBinaryConfiguration(this.configurationWireEncoder.encode(taskConf))
+                      .setMessageStream(this.evaluatorManager.get().supportsTaskMessageStreams())
+                      .build())
+              .build();
+
+      this.contextControlHandler.send(contextControlProto);
+    }
   }
 
   public synchronized void submitTask(final String taskConf) {
@@ -141,6 +176,7 @@ public final class EvaluatorContext implements ActiveContext {
                 EvaluatorRuntimeProtocol.StartTaskProto.newBuilder()
                     .setContextId(this.contextIdentifier)
                     .setConfiguration(taskConf)
+                    .setMessageStream(this.evaluatorManager.get().supportsTaskMessageStreams())
                     .build())
             .build();
 
@@ -157,16 +193,7 @@ public final class EvaluatorContext implements ActiveContext {
     LOG.log(Level.FINEST, "Submit new context: RunningEvaluator id[{0}] for context id[{1}]",
         new Object[]{getEvaluatorId(), getId()});
 
-    final EvaluatorRuntimeProtocol.ContextControlProto contextControlProto =
-        EvaluatorRuntimeProtocol.ContextControlProto.newBuilder()
-            .setAddContext(
-                EvaluatorRuntimeProtocol.AddContextProto.newBuilder()
-                    .setParentContextId(getId())
-                    .setContextConfiguration(this.configurationSerializer.toString(contextConfiguration))
-                    .build())
-            .build();
-
-    this.contextControlHandler.send(contextControlProto);
+    submitContext(contextConfiguration, Optional.<Configuration>empty());
   }
 
   @Override
@@ -180,17 +207,38 @@ public final class EvaluatorContext implements ActiveContext {
     LOG.log(Level.FINEST, "Submit new context: RunningEvaluator id[{0}] for context id[{1}]",
         new Object[]{getEvaluatorId(), getId()});
 
-    final EvaluatorRuntimeProtocol.ContextControlProto contextControlProto =
-        EvaluatorRuntimeProtocol.ContextControlProto.newBuilder()
-            .setAddContext(
-                EvaluatorRuntimeProtocol.AddContextProto.newBuilder()
-                    .setParentContextId(getId())
-                    .setContextConfiguration(this.configurationSerializer.toString(contextConfiguration))
-                    .setServiceConfiguration(this.configurationSerializer.toString(serviceConfiguration))
-                    .build())
-            .build();
+    submitContext(contextConfiguration, Optional.of(serviceConfiguration));
+  }
 
-    this.contextControlHandler.send(contextControlProto);
+  private void submitContext(final Configuration contextConfiguration,
+                             final Optional<Configuration> serviceConfiguration) {
+    final EvaluatorRuntimeProtocol.AddContextProto.Builder addContextBuilder =
+        EvaluatorRuntimeProtocol.AddContextProto.newBuilder()
+            .setParentContextId(getId());
+
+    if (!this.configurationWireEncoder.isBinary()) {
+      addContextBuilder.setContextConfiguration(this.configurationSerializer.toString(contextConfiguration));
+      if (serviceConfiguration.isPresent()) {
+        addContextBuilder.setServiceConfiguration(this.configurationSerializer.toString(serviceConfiguration.get()));
+      }
+      this.contextControlHandler.send(
+          EvaluatorRuntimeProtocol.ContextControlProto.newBuilder().setAddContext(addContextBuilder).build());
+      return;
+    }
+
+    // Encode and send under the lock of the ContextControlHandler, so that the Evaluator receives
+    // the configurations in the order the ConfigurationWireEncoder saw them.
+    synchronized (this.contextControlHandler) {
+      addContextBuilder
+          .setContextConfiguration("")
+          .setBinaryContextConfiguration(this.configurationWireEncoder.encode(contextConfiguration));
+      if (serviceConfiguration.isPresent()) {
+        addContextBuilder.setBinaryServiceConfiguration(
+            this.configurationWireEncoder.encode(serviceConfiguration.get()));
+      }
+      this.contextControlHandler.send(
+          EvaluatorRuntimeProtocol.ContextControlProto.newBuilder().setAddContext(addContextBuilder).build());
+    }
   }
 
   @Override
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.context;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.SerializedConfigurationProto;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serializes Configurations to the binary wire format, and remembers the result for the Configurations
+ * submitted most recently. Submitting the same Configuration to many Evaluators serializes it only once.
+ * Shared by all Evaluators of the Driver.
+ */
+@DriverSide
+@Private
+public final class SerializedConfigurationCache {
+
+  /**
+   * How many Configurations to keep the serialized form of.
+   */
+  private static final int MAX_CONFIGURATIONS = 64;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final ConfigurationSerializer configurationSerializer;
+
+  private final Map<Configuration, SerializedConfigurationProto> serialized =
+      new LinkedHashMap<Configuration, SerializedConfigurationProto>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Configuration, SerializedConfigurationProto> eldest) {
+          return size() > MAX_CONFIGURATIONS;
+        }
+      };
+
+  @Inject
+  SerializedConfigurationCache(final ConfigurationSerializer configurationSerializer) {
+    this.configurationSerializer = configurationSerializer;
+  }
+
+  /**
+   * @return the hash and the bytes of the Configuration in the binary wire format.
+   */
+  public SerializedConfigurationProto serialize(final Configuration configuration) {
+    synchronized (this.serialized) {
+      final SerializedConfigurationProto cached = this.serialized.get(configuration);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    final byte[] bytes;
+    try {
+      bytes = this.configurationSerializer.toByteArray(configuration);
+    } catch (final IOException e) {
+      throw new RuntimeException("Unable to serialize configuration.", e);
+    }
+    final SerializedConfigurationProto result = SerializedConfigurationProto.newBuilder()
+        .setHash(hash(bytes))
+        .setConfiguration(ByteString.copyFrom(bytes))
+        .build();
+    synchronized (this.serialized) {
+      this.serialized.put(configuration, result);
+    }
+    return result;
+  }
+
+  private static String hash(final byte[] bytes) {
+    final byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+    }
+    final char[] hex = new char[2 * digest.length];
+    for (int i = 0; i < digest.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+      hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+    }
+    return new String(hex);
+  }
+}
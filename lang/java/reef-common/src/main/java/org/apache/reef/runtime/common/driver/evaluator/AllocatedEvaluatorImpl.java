@@ -23,6 +23,7 @@ import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.context.ContextConfiguration;
 import org.apache.reef.driver.evaluator.*;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
+import org.apache.reef.runtime.common.driver.context.ConfigurationWireEncoder;
 import org.apache.reef.runtime.common.evaluator.EvaluatorConfiguration;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.ConfigurationBuilder;
@@ -53,6 +54,7 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
   private final EvaluatorManager evaluatorManager;
   private final String remoteID;
   private final ConfigurationSerializer configurationSerializer;
+  private final ConfigurationWireEncoder configurationWireEncoder;
   private final String jobIdentifier;
   private final LoggingScopeFactory loggingScopeFactory;
   private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
@@ -70,12 +72,14 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
   AllocatedEvaluatorImpl(final EvaluatorManager evaluatorManager,
                          final String remoteID,
                          final ConfigurationSerializer configurationSerializer,
+                         final ConfigurationWireEncoder configurationWireEncoder,
                          final String jobIdentifier,
                          final LoggingScopeFactory loggingScopeFactory,
                          final Set<ConfigurationProvider> evaluatorConfigurationProviders) {
     this.evaluatorManager = evaluatorManager;
     this.remoteID = remoteID;
     this.configurationSerializer = configurationSerializer;
+    this.configurationWireEncoder = configurationWireEncoder;
     this.jobIdentifier = jobIdentifier;
     this.loggingScopeFactory = loggingScopeFactory;
     this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
@@ -261,18 +265,19 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
                                                    final Optional<Configuration> serviceConfiguration,
                                                    final Optional<Configuration> taskConfiguration) {
 
-    final String contextConfigurationString = this.configurationSerializer.toString(contextConfiguration);
+    final String contextConfigurationString = this.configurationWireEncoder.encodeForLaunch(contextConfiguration);
 
     final Optional<String> taskConfigurationString;
     if (taskConfiguration.isPresent()) {
-      taskConfigurationString = Optional.of(this.configurationSerializer.toString(taskConfiguration.get()));
+      taskConfigurationString = Optional.of(this.configurationWireEncoder.encodeForLaunch(taskConfiguration.get()));
     } else {
       taskConfigurationString = Optional.<String>empty();
     }
 
     final Optional<Configuration> mergedServiceConfiguration = makeRootServiceConfiguration(serviceConfiguration);
     if (mergedServiceConfiguration.isPresent()) {
-      final String serviceConfigurationString = this.configurationSerializer.toString(mergedServiceConfiguration.get());
+      final String serviceConfigurationString =
+          this.configurationWireEncoder.encodeForLaunch(mergedServiceConfiguration.get());
       return makeEvaluatorConfiguration(
           contextConfigurationString, Optional.of(serviceConfigurationString), taskConfigurationString);
     } else {
@@ -312,7 +317,8 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
     // Add the (optional) task configuration
     if (taskConfiguration.isPresent()) {
       evaluatorConfigurationModule = evaluatorConfigurationModule
-          .set(EvaluatorConfiguration.TASK_CONFIGURATION, taskConfiguration.get());
+          .set(EvaluatorConfiguration.TASK_CONFIGURATION, taskConfiguration.get())
+          .set(EvaluatorConfiguration.TASK_MESSAGE_STREAM, this.evaluatorManager.supportsTaskMessageStreams());
     }
 
     // Create the evaluator configuration.
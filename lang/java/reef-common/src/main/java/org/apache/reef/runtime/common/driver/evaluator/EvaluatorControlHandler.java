@@ -42,6 +42,8 @@ public final class EvaluatorControlHandler {
   private final RemoteManager remoteManager;
   private final String evaluatorId;
   private Optional<EventHandler<EvaluatorRuntimeProtocol.EvaluatorControlProto>> wrapped = Optional.empty();
+  private Optional<EventHandler<EvaluatorRuntimeProtocol.TaskMessageBatchProto>> wrappedTaskMessages =
+      Optional.empty();
 
   /**
    * @param stateManager  used to check whether the Evaluator is running before sending a message.
@@ -77,6 +79,25 @@ public final class EvaluatorControlHandler {
     this.wrapped.get().onNext(evaluatorControlProto);
   }
 
+  /**
+   * Send the messages of the Driver for a Task directly to the Evaluator.
+   *
+   * @param taskMessages
+   * @throws java.lang.IllegalStateException if the remote ID hasn't been set via setRemoteID() prior to this call
+   */
+  public synchronized void sendTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessages) {
+    if (!this.wrappedTaskMessages.isPresent()) {
+      throw new IllegalStateException("Trying to send a TaskMessageBatchProto before the Evaluator ID is set.");
+    }
+    if (!this.stateManager.isRunning()) {
+      LOG.log(Level.WARNING, "Trying to send {0} Task messages to Evaluator [{1}] that is in state [{2}], " +
+              "not [RUNNING]. Dropping them.",
+          new Object[]{taskMessages.getMessageCount(), this.evaluatorId, this.stateManager});
+      return;
+    }
+    this.wrappedTaskMessages.get().onNext(taskMessages);
+  }
+
   /**
    * Set the remote ID used to communicate with this Evaluator.
    *
@@ -90,6 +111,8 @@ public final class EvaluatorControlHandler {
       LOG.log(Level.FINE, "Registering remoteId [{0}] for Evaluator [{1}]", new Object[]{evaluatorRID, evaluatorId});
       this.wrapped = Optional.of(remoteManager.getHandler(evaluatorRID,
           EvaluatorRuntimeProtocol.EvaluatorControlProto.class));
+      this.wrappedTaskMessages = Optional.of(remoteManager.getHandler(evaluatorRID,
+          EvaluatorRuntimeProtocol.TaskMessageBatchProto.class));
     }
   }
 
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.parameters.EvaluatorDispatcherPoolThreads;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread pool shared by the EvaluatorMessageDispatchers of all Evaluators,
+ * so that the number of dispatcher threads does not grow with the number of Evaluators.
+ * This exists once per Driver.
+ */
+@Private
+@DriverSide
+public final class EvaluatorDispatcherPool implements Executor, AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(EvaluatorDispatcherPool.class.getName());
+
+  private final ThreadPoolExecutor executor;
+
+  @Inject
+  EvaluatorDispatcherPool(@Parameter(EvaluatorDispatcherPoolThreads.class) final int numberOfThreads) {
+    if (numberOfThreads <= 0) {
+      throw new IllegalArgumentException("EvaluatorDispatcherPoolThreads must be positive: " + numberOfThreads);
+    }
+    this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory("EvaluatorDispatcher"));
+    LOG.log(Level.FINE, "Instantiated 'EvaluatorDispatcherPool' with {0} threads", numberOfThreads);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    this.executor.execute(command);
+  }
+
+  /**
+   * @return the number of events waiting for a thread.
+   */
+  public int getQueueLength() {
+    return this.executor.getQueue().size();
+  }
+
+  /**
+   * Lets the queued events finish and stops the threads.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    this.executor.shutdown();
+    if (!this.executor.awaitTermination(WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+      final List<Runnable> droppedRunnables = this.executor.shutdownNow();
+      LOG.log(Level.WARNING, "EvaluatorDispatcherPool dropped {0} events.", droppedRunnables.size());
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.parameters.EvaluatorHeartbeatBackpressureThreshold;
+import org.apache.reef.driver.parameters.EvaluatorHeartbeatPeriodUnderLoad;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Decides the heartbeat period the Driver asks of its Evaluators, based on how far behind
+ * the Driver is in processing their events.
+ */
+@Private
+@DriverSide
+final class EvaluatorHeartbeatPeriodAdvisor {
+
+  private final EvaluatorDispatcherPool dispatcherPool;
+  private final int backpressureThreshold;
+  private final int periodUnderLoad;
+
+  @Inject
+  EvaluatorHeartbeatPeriodAdvisor(
+      final EvaluatorDispatcherPool dispatcherPool,
+      @Parameter(EvaluatorHeartbeatBackpressureThreshold.class) final int backpressureThreshold,
+      @Parameter(EvaluatorHeartbeatPeriodUnderLoad.class) final int periodUnderLoad) {
+    this.dispatcherPool = dispatcherPool;
+    this.backpressureThreshold = backpressureThreshold;
+    this.periodUnderLoad = periodUnderLoad;
+  }
+
+  /**
+   * @return the shortest heartbeat period in ms the Evaluators should use, 0 if the Driver keeps up with them.
+   */
+  long getHeartbeatPeriodHint() {
+    return this.dispatcherPool.getQueueLength() > this.backpressureThreshold ? this.periodUnderLoad : 0;
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.driver.context.FailedContext;
 import org.apache.reef.driver.evaluator.AllocatedEvaluator;
 import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
+import org.apache.reef.driver.evaluator.EvaluatorType;
 import org.apache.reef.driver.task.FailedTask;
 import org.apache.reef.exception.EvaluatorException;
 import org.apache.reef.exception.EvaluatorKilledByResourceManagerException;
@@ -40,6 +41,7 @@ import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseEventImpl;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchHandler;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseHandler;
+import org.apache.reef.runtime.common.driver.context.ConfigurationWireEncoder;
 import org.apache.reef.runtime.common.driver.context.ContextControlHandler;
 import org.apache.reef.runtime.common.driver.context.ContextRepresenters;
 import org.apache.reef.runtime.common.driver.idle.EventHandlerIdlenessSource;
@@ -83,6 +85,11 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
 
   private static final Logger LOG = Logger.getLogger(EvaluatorManager.class.getName());
 
+  /**
+   * Time in ms a heartbeat can be late on top of twice the period announced, before the Driver warns about it.
+   */
+  private static final long HEARTBEAT_SLACK = 5000;
+
   private final EvaluatorHeartBeatSanityChecker sanityChecker = new EvaluatorHeartBeatSanityChecker();
   private final Clock clock;
   private final ResourceReleaseHandler resourceReleaseHandler;
@@ -93,6 +100,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
   private final EvaluatorMessageDispatcher messageDispatcher;
   private final EvaluatorControlHandler evaluatorControlHandler;
   private final ContextControlHandler contextControlHandler;
+  private final ConfigurationWireEncoder configurationWireEncoder;
   private final EvaluatorStatusManager stateManager;
   private final ExceptionCodec exceptionCodec;
   private final EventHandlerIdlenessSource idlenessSource;
@@ -101,11 +109,18 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
   private final LoggingScopeFactory loggingScopeFactory;
   private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
   private final DriverRestartManager driverRestartManager;
+  private final EvaluatorHeartbeatPeriodAdvisor heartbeatPeriodAdvisor;
 
   // Mutable fields
-  private Optional<TaskRepresenter> task = Optional.empty();
+  // Volatile, as Task messages that come through the direct message stream are dispatched without the lock.
+  private volatile Optional<TaskRepresenter> task = Optional.empty();
   private boolean isResourceReleased = false;
   private boolean allocationFired = false;
+  private long heartbeatSequence = 0;
+  private boolean fullStatusRequested = false;
+  private long lastHeartbeatTime = -1;
+  private long heartbeatPeriod = -1;
+  private long heartbeatPeriodHint = 0;
 
   @Inject
   private EvaluatorManager(
@@ -120,13 +135,15 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
       final EvaluatorMessageDispatcher messageDispatcher,
       final EvaluatorControlHandler evaluatorControlHandler,
       final ContextControlHandler contextControlHandler,
+      final ConfigurationWireEncoder configurationWireEncoder,
       final EvaluatorStatusManager stateManager,
       final ExceptionCodec exceptionCodec,
       final EventHandlerIdlenessSource idlenessSource,
       final LoggingScopeFactory loggingScopeFactory,
       @Parameter(EvaluatorConfigurationProviders.class)
       final Set<ConfigurationProvider> evaluatorConfigurationProviders,
-      final DriverRestartManager driverRestartManager) {
+      final DriverRestartManager driverRestartManager,
+      final EvaluatorHeartbeatPeriodAdvisor heartbeatPeriodAdvisor) {
     this.contextRepresenters = contextRepresenters;
     this.idlenessSource = idlenessSource;
     LOG.log(Level.FINEST, "Instantiating 'EvaluatorManager' for evaluator: {0}", evaluatorId);
@@ -139,6 +156,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
     this.messageDispatcher = messageDispatcher;
     this.evaluatorControlHandler = evaluatorControlHandler;
     this.contextControlHandler = contextControlHandler;
+    this.configurationWireEncoder = configurationWireEncoder;
     this.stateManager = stateManager;
     this.exceptionCodec = exceptionCodec;
 
@@ -147,6 +165,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
     this.loggingScopeFactory = loggingScopeFactory;
     this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
     this.driverRestartManager = driverRestartManager;
+    this.heartbeatPeriodAdvisor = heartbeatPeriodAdvisor;
 
     LOG.log(Level.FINEST, "Instantiated 'EvaluatorManager' for evaluator: [{0}]", this.getId());
   }
@@ -178,6 +197,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
           new AllocatedEvaluatorImpl(this,
               remoteManager.getMyIdentifier(),
               configurationSerializer,
+              configurationWireEncoder,
               getJobIdentifier(),
               loggingScopeFactory,
               evaluatorConfigurationProviders);
@@ -327,6 +347,14 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
         evaluatorHeartbeatProtoRemoteMessage.getMessage();
     LOG.log(Level.FINEST, "Evaluator heartbeat: {0}", evaluatorHeartbeatProto);
 
+    // Checked without the lock first, so that heartbeats of closed Evaluators do not contend with
+    // the thread closing them. The check is repeated under the lock below.
+    if (this.stateManager.isDoneOrFailedOrKilled()) {
+      LOG.log(Level.FINE, "Ignoring an heartbeat received for Evaluator {0} which is already in state {1}.",
+          new Object[]{this.getId(), this.stateManager});
+      return;
+    }
+
     synchronized (this.evaluatorDescriptor) {
       if (this.stateManager.isDoneOrFailedOrKilled()) {
         LOG.log(Level.FINE, "Ignoring an heartbeat received for Evaluator {0} which is already in state {1}.",
@@ -335,6 +363,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
       }
 
       this.sanityChecker.check(evaluatorId, evaluatorHeartbeatProto.getTimestamp());
+      this.checkHeartbeatDelay(evaluatorHeartbeatProto);
       final String evaluatorRID = evaluatorHeartbeatProtoRemoteMessage.getIdentifier().toString();
 
       final EvaluatorRestartState evaluatorRestartState = driverRestartManager.getEvaluatorRestartState(evaluatorId);
@@ -364,6 +393,10 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
         }
       }
 
+      if (evaluatorHeartbeatProto.hasSequenceNumber()) {
+        this.onHeartbeatSequence(evaluatorHeartbeatProto);
+      }
+
       // Process the Evaluator status message
       if (evaluatorHeartbeatProto.hasEvaluatorStatus()) {
         this.onEvaluatorStatusMessage(evaluatorHeartbeatProto.getEvaluatorStatus());
@@ -378,10 +411,94 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
       if (evaluatorHeartbeatProto.hasTaskStatus()) {
         this.onTaskStatusMessage(evaluatorHeartbeatProto.getTaskStatus());
       }
+
+      if (evaluatorHeartbeatProto.getMissingConfigurationsCount() > 0) {
+        this.sendMissingConfigurations(evaluatorHeartbeatProto.getMissingConfigurationsList());
+      }
+
+      // Evaluators that announce their heartbeat period also take hints about it.
+      if (evaluatorHeartbeatProto.hasHeartbeatPeriod() && this.stateManager.isRunning()) {
+        this.updateHeartbeatPeriodHint();
+      }
       LOG.log(Level.FINE, "DONE with evaluator heartbeat from Evaluator {0}", this.getId());
     }
   }
 
+  /**
+   * Every heartbeat announces the longest time until the next one. Warn when an Evaluator is late
+   * by more than that period again.
+   */
+  private void checkHeartbeatDelay(final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto evaluatorHeartbeatProto) {
+    final long now = System.currentTimeMillis();
+    if (this.heartbeatPeriod >= 0 && now - this.lastHeartbeatTime > 2 * this.heartbeatPeriod + HEARTBEAT_SLACK) {
+      LOG.log(Level.WARNING, "Evaluator {0} announced its next heartbeat within {1} ms, but it took {2} ms.",
+          new Object[]{this.evaluatorId, this.heartbeatPeriod, now - this.lastHeartbeatTime});
+    }
+    this.lastHeartbeatTime = now;
+    this.heartbeatPeriod =
+        evaluatorHeartbeatProto.hasHeartbeatPeriod() ? evaluatorHeartbeatProto.getHeartbeatPeriod() : -1;
+  }
+
+  /**
+   * Sends the configurations the Evaluator asked for because it received them by hash only and does not have them.
+   * Its context control messages that refer to them wait for these.
+   */
+  private void sendMissingConfigurations(final List<String> hashes) {
+    LOG.log(Level.INFO, "Evaluator {0} asks for configurations {1}", new Object[]{this.evaluatorId, hashes});
+    // Under the lock of the ContextControlHandler, like the encoding of the configurations in EvaluatorContext.
+    synchronized (this.contextControlHandler) {
+      final List<EvaluatorRuntimeProtocol.SerializedConfigurationProto> configurations;
+      try {
+        configurations = this.configurationWireEncoder.getMissingConfigurations(hashes);
+      } catch (final IllegalStateException e) {
+        this.onEvaluatorException(new EvaluatorException(this.evaluatorId, e));
+        return;
+      }
+      this.contextControlHandler.send(EvaluatorRuntimeProtocol.ContextControlProto.newBuilder()
+          .addAllConfigurations(configurations)
+          .build());
+    }
+  }
+
+  /**
+   * Tells the Evaluator when the heartbeat period the Driver asks for changes.
+   */
+  private void updateHeartbeatPeriodHint() {
+    final long hint = this.heartbeatPeriodAdvisor.getHeartbeatPeriodHint();
+    if (hint != this.heartbeatPeriodHint) {
+      LOG.log(Level.FINE, "Asking Evaluator {0} for a heartbeat period of at least {1} ms",
+          new Object[]{this.evaluatorId, hint});
+      this.heartbeatPeriodHint = hint;
+      this.sendEvaluatorControlMessage(EvaluatorRuntimeProtocol.EvaluatorControlProto.newBuilder()
+          .setTimestamp(System.currentTimeMillis())
+          .setIdentifier(getId())
+          .setHeartbeatPeriodHint(hint)
+          .build());
+    }
+  }
+
+  /**
+   * Keeps track of the heartbeat sequence of the Evaluator. Incremental heartbeats only carry the statuses that
+   * changed since the previous heartbeat, so a gap in the sequence means that an update was lost.
+   * The Evaluator is then asked for its complete status, once until that arrives.
+   */
+  private void onHeartbeatSequence(final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto evaluatorHeartbeatProto) {
+    final long sequenceNumber = evaluatorHeartbeatProto.getSequenceNumber();
+    if (!evaluatorHeartbeatProto.getIncremental()) {
+      this.fullStatusRequested = false;
+    } else if (sequenceNumber != this.heartbeatSequence + 1 && !this.fullStatusRequested) {
+      LOG.log(Level.INFO, "Heartbeat {0} of Evaluator {1} does not follow heartbeat {2}. Asking for its full status.",
+          new Object[]{sequenceNumber, this.evaluatorId, this.heartbeatSequence});
+      this.fullStatusRequested = true;
+      this.sendEvaluatorControlMessage(EvaluatorRuntimeProtocol.EvaluatorControlProto.newBuilder()
+          .setTimestamp(System.currentTimeMillis())
+          .setIdentifier(getId())
+          .setRequestFullStatus(true)
+          .build());
+    }
+    this.heartbeatSequence = sequenceNumber;
+  }
+
   /**
    * Process a evaluator status message.
    *
@@ -466,6 +583,57 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
     }
   }
 
+  /**
+   * Forward the messages of the Driver for a Task directly to the EvaluatorRuntime.
+   *
+   * @param taskMessageBatchProto messages for the Task and acknowledgement of its messages.
+   */
+  public void sendTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessageBatchProto) {
+    this.evaluatorControlHandler.sendTaskMessages(taskMessageBatchProto);
+  }
+
+  /**
+   * Hands the messages of a Task that came through the direct message stream to its TaskRepresenter.
+   * Unlike heartbeats, these are not processed under the lock of this EvaluatorManager.
+   *
+   * @param taskMessageBatchProto messages of the Task and acknowledgement of the messages of the Driver.
+   */
+  public void onTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessageBatchProto) {
+    final Optional<TaskRepresenter> currentTask = this.task;
+    if (currentTask.isPresent() && currentTask.get().getId().equals(taskMessageBatchProto.getTaskId())) {
+      currentTask.get().onTaskMessages(taskMessageBatchProto);
+    } else {
+      this.rejectTaskMessages(taskMessageBatchProto);
+    }
+  }
+
+  /**
+   * Drops the messages of a Task that has no message stream here, and tells the Evaluator to send them again
+   * through heartbeats. That is the case for Tasks started before a Driver restart.
+   *
+   * @param taskMessageBatchProto messages of the Task.
+   */
+  public void rejectTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessageBatchProto) {
+    LOG.log(Level.INFO, "Rejecting {0} messages of Task {1} on Evaluator {2}, which has no message stream.",
+        new Object[]{taskMessageBatchProto.getMessageCount(), taskMessageBatchProto.getTaskId(), this.evaluatorId});
+    this.sendTaskMessages(EvaluatorRuntimeProtocol.TaskMessageBatchProto.newBuilder()
+        .setEvaluatorId(this.evaluatorId)
+        .setTaskId(taskMessageBatchProto.getTaskId())
+        .setRejected(true)
+        .build());
+  }
+
+  /**
+   * @return true if the Evaluator exchanges Task messages through direct message streams.
+   * CLR Evaluators only get them through heartbeats. Evaluators recovered after a Driver restart keep the
+   * streams of the previous Driver, so their Tasks are only reached through heartbeats as well. Tasks are told
+   * whether they have a stream when they are submitted, and fall back to heartbeats when their stream is rejected.
+   */
+  public boolean supportsTaskMessageStreams() {
+    return this.driverRestartManager.getEvaluatorRestartState(this.evaluatorId) == EvaluatorRestartState.NOT_EXPECTED
+        && this.evaluatorDescriptor.getProcess().getType() == EvaluatorType.JVM;
+  }
+
   /**
    * Forward the EvaluatorControlProto to the EvaluatorRuntime.
    *
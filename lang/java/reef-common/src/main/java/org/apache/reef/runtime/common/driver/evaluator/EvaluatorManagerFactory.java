@@ -25,6 +25,7 @@ import org.apache.reef.driver.catalog.NodeDescriptor;
 import org.apache.reef.driver.catalog.ResourceCatalog;
 import org.apache.reef.driver.evaluator.EvaluatorProcessFactory;
 import org.apache.reef.runtime.common.driver.catalog.ResourceCatalogImpl;
+import org.apache.reef.runtime.common.driver.context.SerializedConfigurationCache;
 import org.apache.reef.runtime.common.driver.resourcemanager.*;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.exceptions.BindException;
@@ -49,7 +50,11 @@ public final class EvaluatorManagerFactory {
   @Inject
   EvaluatorManagerFactory(final Injector injector,
                           final ResourceCatalog resourceCatalog,
-                          final EvaluatorProcessFactory processFactory) {
+                          final EvaluatorProcessFactory processFactory,
+                          final EvaluatorDispatcherPool dispatcherPool,
+                          final SerializedConfigurationCache serializedConfigurationCache) {
+    // dispatcherPool and serializedConfigurationCache are requested here so that they are instantiated
+    // in the Driver's injector, and therefore shared by the injectors forked for each EvaluatorManager.
     this.injector = injector;
     this.resourceCatalog = resourceCatalog;
     this.processFactory = processFactory;
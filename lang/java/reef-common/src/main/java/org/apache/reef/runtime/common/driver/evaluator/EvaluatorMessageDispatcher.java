@@ -40,6 +40,7 @@ import java.util.logging.Logger;
 
 /**
  * Central dispatcher for all Evaluator related events. This exists once per Evaluator.
+ * The events of all Evaluators are processed on the shared {@link EvaluatorDispatcherPool}.
  */
 public final class EvaluatorMessageDispatcher {
 
@@ -127,12 +128,12 @@ public final class EvaluatorMessageDispatcher {
       final Set<EventHandler<FailedEvaluator>> serviceDriverRestartFailedEvaluatorHandlers,
 
       @Parameter(EvaluatorDispatcherThreads.class) final int numberOfThreads,
-      @Parameter(EvaluatorManager.EvaluatorIdentifier.class) final String evaluatorIdentifier,
+      final EvaluatorDispatcherPool dispatcherPool,
       final DriverExceptionHandler driverExceptionHandler,
       final IdlenessCallbackEventHandlerFactory idlenessCallbackEventHandlerFactory
   ) {
 
-    this.serviceDispatcher = new DispatchingEStage(driverExceptionHandler, numberOfThreads, evaluatorIdentifier);
+    this.serviceDispatcher = new DispatchingEStage(driverExceptionHandler, dispatcherPool, numberOfThreads);
     this.applicationDispatcher = new DispatchingEStage(this.serviceDispatcher);
     this.driverRestartApplicationDispatcher = new DispatchingEStage(this.serviceDispatcher);
     this.driverRestartServiceDispatcher = new DispatchingEStage(this.serviceDispatcher);
@@ -22,11 +22,14 @@ import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 
 import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages Status of a single Evaluator.
+ * The state is kept in an AtomicReference and transitions are done with compare-and-set,
+ * so that the state can be queried on the heartbeat path without taking a lock.
  */
 @DriverSide
 @Private
@@ -35,7 +38,7 @@ final class EvaluatorStatusManager {
   /**
    * The state managed.
    */
-  private EvaluatorState state = EvaluatorState.ALLOCATED;
+  private final AtomicReference<EvaluatorState> state = new AtomicReference<>(EvaluatorState.ALLOCATED);
 
   @Inject
   private EvaluatorStatusManager() {
@@ -105,57 +108,63 @@ final class EvaluatorStatusManager {
             state == EvaluatorState.KILLED);
   }
 
-  synchronized void setRunning() {
+  void setRunning() {
     this.setState(EvaluatorState.RUNNING);
   }
 
-  synchronized void setSubmitted() {
+  void setSubmitted() {
     this.setState(EvaluatorState.SUBMITTED);
   }
 
-  synchronized void setDone() {
+  void setDone() {
     this.setState(EvaluatorState.DONE);
   }
 
-  synchronized void setFailed() {
+  void setFailed() {
     this.setState(EvaluatorState.FAILED);
   }
 
-  synchronized void setKilled() {
+  void setKilled() {
     this.setState(EvaluatorState.KILLED);
   }
 
-  synchronized boolean isRunning() {
-    return this.state.equals(EvaluatorState.RUNNING);
+  boolean isRunning() {
+    return this.state.get() == EvaluatorState.RUNNING;
   }
 
-  synchronized boolean isDoneOrFailedOrKilled() {
-    return isDoneOrFailedOrKilled(this.state);
+  boolean isDoneOrFailedOrKilled() {
+    return isDoneOrFailedOrKilled(this.state.get());
   }
 
-  synchronized boolean isAllocatedOrSubmittedOrRunning() {
-    return (this.state == EvaluatorState.ALLOCATED ||
-        this.state == EvaluatorState.SUBMITTED ||
-        this.state == EvaluatorState.RUNNING);
+  boolean isAllocatedOrSubmittedOrRunning() {
+    final EvaluatorState current = this.state.get();
+    return (current == EvaluatorState.ALLOCATED ||
+        current == EvaluatorState.SUBMITTED ||
+        current == EvaluatorState.RUNNING);
   }
 
-  synchronized boolean isSubmitted() {
-    return EvaluatorState.SUBMITTED == this.state;
+  boolean isSubmitted() {
+    return EvaluatorState.SUBMITTED == this.state.get();
   }
 
-  synchronized boolean isAllocated() {
-    return EvaluatorState.ALLOCATED == this.state;
+  boolean isAllocated() {
+    return EvaluatorState.ALLOCATED == this.state.get();
   }
 
   @Override
-  public synchronized String toString() {
-    return this.state.toString();
+  public String toString() {
+    return this.state.get().toString();
   }
 
-  private synchronized void setState(final EvaluatorState state) {
-    if (!isLegal(this.state, state)) {
-      throw new IllegalStateException("Illegal state transition from '" + this.state + "' to '" + state + "'");
+  private void setState(final EvaluatorState toState) {
+    while (true) {
+      final EvaluatorState fromState = this.state.get();
+      if (!isLegal(fromState, toState)) {
+        throw new IllegalStateException("Illegal state transition from '" + fromState + "' to '" + toState + "'");
+      }
+      if (this.state.compareAndSet(fromState, toState)) {
+        return;
+      }
     }
-    this.state = state;
   }
 }
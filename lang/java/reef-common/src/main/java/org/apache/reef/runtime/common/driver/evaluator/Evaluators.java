@@ -26,15 +26,17 @@ import org.apache.reef.util.SingletonAsserter;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages all Evaluators.
  * See EvaluatorManager for the Driver side representation of a single Evaluator.
+ * <p/>
+ * Lookups do not take a lock, as they happen for every heartbeat of every Evaluator.
  */
 @DriverSide
 @Private
@@ -45,7 +47,7 @@ public final class Evaluators implements AutoCloseable {
   /**
    * A map between evaluatorId and the EvaluatorManager that handles this evaluator.
    */
-  private final Map<String, EvaluatorManager> evaluators = new HashMap<>();
+  private final ConcurrentMap<String, EvaluatorManager> evaluators = new ConcurrentHashMap<>();
 
 
   @Inject
@@ -59,10 +61,7 @@ public final class Evaluators implements AutoCloseable {
    */
   @Override
   public void close() {
-    final List<EvaluatorManager> evaluatorsCopy;
-    synchronized (this) {
-      evaluatorsCopy = new ArrayList<>(this.evaluators.values());
-    }
+    final List<EvaluatorManager> evaluatorsCopy = new ArrayList<>(this.evaluators.values());
     for (final EvaluatorManager evaluatorManager : evaluatorsCopy) {
       LOG.log(Level.WARNING, "Unclean shutdown of evaluator {0}", evaluatorManager.getId());
       if (!evaluatorManager.isClosed()) {
@@ -75,12 +74,10 @@ public final class Evaluators implements AutoCloseable {
    * Return true if <em>all</em> evaluators are in closed state
    * (and their processing queues are empty).
    */
-  public synchronized boolean allEvaluatorsAreClosed() {
-    synchronized (this.evaluators) {
-      for (final EvaluatorManager eval : this.evaluators.values()) {
-        if (!eval.isClosed()) {
-          return false;
-        }
+  public boolean allEvaluatorsAreClosed() {
+    for (final EvaluatorManager eval : this.evaluators.values()) {
+      if (!eval.isClosed()) {
+        return false;
       }
     }
     return true;
@@ -90,7 +87,7 @@ public final class Evaluators implements AutoCloseable {
    * @param evaluatorId
    * @return the EvaluatorManager for the given id, if one exists.
    */
-  public synchronized Optional<EvaluatorManager> get(final String evaluatorId) {
+  public Optional<EvaluatorManager> get(final String evaluatorId) {
     return Optional.ofNullable(this.evaluators.get(evaluatorId));
   }
 
@@ -116,9 +113,9 @@ public final class Evaluators implements AutoCloseable {
    * @param evaluatorManager
    * @throws java.lang.IllegalArgumentException if the EvaluatorManager is already known.
    */
-  public synchronized void put(final EvaluatorManager evaluatorManager) {
+  public void put(final EvaluatorManager evaluatorManager) {
     final String evaluatorId = evaluatorManager.getId();
-    final EvaluatorManager prev = this.evaluators.put(evaluatorId, evaluatorManager);
+    final EvaluatorManager prev = this.evaluators.putIfAbsent(evaluatorId, evaluatorManager);
     LOG.log(Level.FINEST, "Adding: {0} previous: {1}", new Object[]{evaluatorId, prev});
     if (prev != null) {
       throw new IllegalArgumentException(
@@ -75,6 +75,10 @@ public final class RunningTaskImpl implements RunningTask {
   public void send(final byte[] message) {
     LOG.log(Level.FINEST, "MESSAGE: Task id[" + taskId + "] on evaluator id[" + evaluatorManager.getId() + "]");
 
+    if (this.taskRepresenter.sendDirect(message)) {
+      return;
+    }
+
     final ContextControlProto contextControlProto = ContextControlProto.newBuilder()
         .setTaskMessage(ByteString.copyFrom(message))
         .build();
@@ -25,12 +25,15 @@ import org.apache.reef.driver.restart.DriverRestartManager;
 import org.apache.reef.driver.restart.EvaluatorRestartState;
 import org.apache.reef.driver.task.FailedTask;
 import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.context.EvaluatorContext;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorManager;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorMessageDispatcher;
 import org.apache.reef.runtime.common.utils.ExceptionCodec;
+import org.apache.reef.runtime.common.utils.TaskMessageStream;
 import org.apache.reef.util.Optional;
+import org.apache.reef.wake.EventHandler;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -51,8 +54,13 @@ public final class TaskRepresenter {
   private final String taskId;
   private final DriverRestartManager driverRestartManager;
 
+  /**
+   * The direct message stream to the Task, or null if its Evaluator doesn't support it.
+   */
+  private final TaskMessageStream messageStream;
+
   // Mutable state
-  private ReefServiceProtos.State state = ReefServiceProtos.State.INIT;
+  private volatile ReefServiceProtos.State state = ReefServiceProtos.State.INIT;
 
   public TaskRepresenter(final String taskId,
                          final EvaluatorContext context,
@@ -66,6 +74,52 @@ public final class TaskRepresenter {
     this.evaluatorManager = evaluatorManager;
     this.exceptionCodec = exceptionCodec;
     this.driverRestartManager = driverRestartManager;
+    this.messageStream = evaluatorManager.supportsTaskMessageStreams() ? this.newMessageStream() : null;
+  }
+
+  private TaskMessageStream newMessageStream() {
+    return new TaskMessageStream(this.evaluatorManager.getId(), this.taskId,
+        new EventHandler<EvaluatorRuntimeProtocol.TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessageBatchProto) {
+            TaskRepresenter.this.evaluatorManager.sendTaskMessages(taskMessageBatchProto);
+          }
+        },
+        new EventHandler<ReefServiceProtos.TaskStatusProto.TaskMessageProto>() {
+          @Override
+          public void onNext(final ReefServiceProtos.TaskStatusProto.TaskMessageProto taskMessageProto) {
+            TaskRepresenter.this.messageDispatcher.onTaskMessage(
+                new TaskMessageImpl(taskMessageProto.getMessage().toByteArray(),
+                    TaskRepresenter.this.taskId, TaskRepresenter.this.context.getId(),
+                    taskMessageProto.getSourceId()));
+          }
+        });
+  }
+
+  /**
+   * Sends a message to the Task through the direct message stream.
+   *
+   * @param message the message.
+   * @return false if the message has to go through the Evaluator control channel instead.
+   */
+  boolean sendDirect(final byte[] message) {
+    if (this.messageStream == null || this.isNotRunning()) {
+      return false;
+    }
+    return this.messageStream.send("", message);
+  }
+
+  /**
+   * Handles the messages of the Task that came through the direct message stream.
+   *
+   * @param taskMessageBatchProto messages of the Task and acknowledgement of the messages of the Driver.
+   */
+  public void onTaskMessages(final EvaluatorRuntimeProtocol.TaskMessageBatchProto taskMessageBatchProto) {
+    if (this.messageStream == null) {
+      this.evaluatorManager.rejectTaskMessages(taskMessageBatchProto);
+    } else {
+      this.messageStream.onBatch(taskMessageBatchProto);
+    }
   }
 
   private static byte[] getResult(final ReefServiceProtos.TaskStatusProto taskStatusProto) {
@@ -206,5 +260,8 @@ public final class TaskRepresenter {
     LOG.log(Level.FINE, "Task [{0}] state transition from [{1}] to [{2}]",
         new Object[]{this.taskId, this.state, newState});
     this.state = newState;
+    if (this.messageStream != null && this.isNotRunning()) {
+      this.messageStream.close();
+    }
   }
 }
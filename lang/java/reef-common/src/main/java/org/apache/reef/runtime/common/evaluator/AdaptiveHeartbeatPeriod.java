@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+/**
+ * The heartbeat period of an Evaluator, adapted to its activity and to the hints of the Driver.
+ * <p/>
+ * The period doubles after every periodic heartbeat that reports nothing new, up to the maximum period,
+ * and falls back to the base period as soon as a heartbeat carries a status change or messages.
+ * The Driver can ask for a longer period, which is also bounded by the maximum period.
+ * With a maximum period no longer than the base period, the period stays fixed.
+ * <p/>
+ * Not thread-safe: HeartBeatManager calls it under its lock.
+ */
+final class AdaptiveHeartbeatPeriod {
+
+  private final int heartbeatPeriod;
+  private final int maxHeartbeatPeriod;
+
+  /**
+   * The current heartbeat period, between heartbeatPeriod and maxHeartbeatPeriod.
+   */
+  private int period;
+  /**
+   * The shortest heartbeat period the Driver asked for, 0 if it did not ask for any.
+   */
+  private int periodHint = 0;
+
+  AdaptiveHeartbeatPeriod(final int heartbeatPeriod, final int maxHeartbeatPeriod) {
+    this.heartbeatPeriod = heartbeatPeriod;
+    this.maxHeartbeatPeriod = Math.max(heartbeatPeriod, maxHeartbeatPeriod);
+    this.period = heartbeatPeriod;
+  }
+
+  /**
+   * Adapts the period to a heartbeat.
+   *
+   * @param active   whether the heartbeat carries a status change or messages
+   * @param periodic whether this is the periodic heartbeat; only those stretch the period
+   * @return the time in ms until the next periodic heartbeat
+   */
+  int onHeartbeat(final boolean active, final boolean periodic) {
+    if (active) {
+      this.period = this.heartbeatPeriod;
+    } else if (periodic) {
+      this.period = (int) Math.min(2L * this.period, this.maxHeartbeatPeriod);
+    }
+    return this.getPeriod();
+  }
+
+  /**
+   * Sets the heartbeat period the Driver asks for. 0 lifts the request.
+   */
+  void setHint(final long hint) {
+    this.periodHint = (int) Math.min(Math.max(hint, 0), this.maxHeartbeatPeriod);
+  }
+
+  /**
+   * @return the time in ms until the next periodic heartbeat
+   */
+  int getPeriod() {
+    return Math.max(this.period, this.periodHint);
+  }
+}
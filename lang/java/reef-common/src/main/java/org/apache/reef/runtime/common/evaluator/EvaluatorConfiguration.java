@@ -41,7 +41,9 @@ public final class EvaluatorConfiguration extends ConfigurationModuleBuilder {
   public static final RequiredParameter<String> ROOT_CONTEXT_CONFIGURATION = new RequiredParameter<>();
   public static final OptionalParameter<String> ROOT_SERVICE_CONFIGURATION = new OptionalParameter<>();
   public static final OptionalParameter<String> TASK_CONFIGURATION = new OptionalParameter<>();
+  public static final OptionalParameter<Boolean> TASK_MESSAGE_STREAM = new OptionalParameter<>();
   public static final OptionalParameter<Integer> HEARTBEAT_PERIOD = new OptionalParameter<>();
+  public static final OptionalParameter<Integer> MAX_HEARTBEAT_PERIOD = new OptionalParameter<>();
   public static final OptionalParameter<String> APPLICATION_IDENTIFIER = new OptionalParameter<>();
 
   /**
@@ -52,8 +54,10 @@ public final class EvaluatorConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(ErrorHandlerRID.class, DRIVER_REMOTE_IDENTIFIER)
       .bindNamedParameter(EvaluatorIdentifier.class, EVALUATOR_IDENTIFIER)
       .bindNamedParameter(HeartbeatPeriod.class, HEARTBEAT_PERIOD)
+      .bindNamedParameter(MaxHeartbeatPeriod.class, MAX_HEARTBEAT_PERIOD)
       .bindNamedParameter(RootContextConfiguration.class, ROOT_CONTEXT_CONFIGURATION)
       .bindNamedParameter(InitialTaskConfiguration.class, TASK_CONFIGURATION)
+      .bindNamedParameter(InitialTaskMessageStream.class, TASK_MESSAGE_STREAM)
       .bindNamedParameter(RootServiceConfiguration.class, ROOT_SERVICE_CONFIGURATION)
       .bindNamedParameter(ApplicationIdentifier.class, APPLICATION_IDENTIFIER)
       .bindNamedParameter(LaunchID.class, APPLICATION_IDENTIFIER);
@@ -27,6 +27,7 @@ import org.apache.reef.runtime.common.evaluator.context.ContextManager;
 import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
 import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
 import org.apache.reef.runtime.common.evaluator.parameters.HeartbeatPeriod;
+import org.apache.reef.runtime.common.evaluator.task.TaskMessageStreams;
 import org.apache.reef.runtime.common.utils.ExceptionCodec;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.tang.annotations.Parameter;
@@ -53,6 +54,7 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
   private final String evaluatorIdentifier;
   private final ExceptionCodec exceptionCodec;
   private final AutoCloseable evaluatorControlChannel;
+  private final TaskMessageStreams taskMessageStreams;
 
   private ReefServiceProtos.State state = ReefServiceProtos.State.INIT;
 
@@ -66,7 +68,8 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
       final Clock clock,
       final ContextManager contextManagerFuture,
       final RemoteManager remoteManager,
-      final ExceptionCodec exceptionCodec) {
+      final ExceptionCodec exceptionCodec,
+      final TaskMessageStreams taskMessageStreams) {
 
     this.heartBeatManager = heartBeatManager;
     this.contextManager = contextManagerFuture;
@@ -76,6 +79,8 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
     this.exceptionCodec = exceptionCodec;
     this.evaluatorControlChannel =
         remoteManager.registerHandler(driverRID, EvaluatorControlProto.class, this);
+    // Instantiated here, before the Contexts fork this injector, so that all Tasks share it.
+    this.taskMessageStreams = taskMessageStreams;
 
     // start the heartbeats
     clock.scheduleAlarm(heartbeatPeriod, heartbeatAlarmHandler);
@@ -92,6 +97,8 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
             "Identifier mismatch: message for evaluator id[" + message.getIdentifier()
                 + "] sent to evaluator id[" + this.evaluatorIdentifier + "]"
         ));
+      } else if (ReefServiceProtos.State.RUNNING != this.state && isHeartbeatRequestOnly(message)) {
+        LOG.log(Level.FINE, "Ignoring a heartbeat request received in state {0}", this.state);
       } else if (ReefServiceProtos.State.RUNNING != this.state) {
         this.onException(new RuntimeException(
             "Evaluator sent a control message but its state is not "
@@ -99,6 +106,14 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
         ));
       } else {
 
+        if (message.hasHeartbeatPeriodHint()) {
+          this.heartBeatManager.setHeartbeatPeriodHint(message.getHeartbeatPeriodHint());
+        }
+
+        if (message.getRequestFullStatus()) {
+          this.heartBeatManager.sendFullStatus();
+        }
+
         if (message.hasContextControl()) {
 
           LOG.log(Level.FINEST, "Send task control message to ContextManager");
@@ -125,6 +140,15 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
     }
   }
 
+  /**
+   * The Driver sends heartbeat period hints and full status requests in reply to heartbeats,
+   * so they can cross the last heartbeat of an Evaluator that is shutting down.
+   */
+  private static boolean isHeartbeatRequestOnly(final EvaluatorControlProto message) {
+    return (message.hasHeartbeatPeriodHint() || message.hasRequestFullStatus())
+        && !message.hasContextControl() && !message.hasKillEvaluator();
+  }
+
   private void onException(final Throwable exception) {
     synchronized (this.heartBeatManager) {
       this.state = ReefServiceProtos.State.FAILED;
@@ -199,6 +223,11 @@ final class EvaluatorRuntime implements EventHandler<EvaluatorControlProto> {
           } catch (final Exception e) {
             LOG.log(Level.SEVERE, "Exception during shutdown of evaluatorControlChannel.", e);
           }
+          try {
+            EvaluatorRuntime.this.taskMessageStreams.close();
+          } catch (final Exception e) {
+            LOG.log(Level.SEVERE, "Exception during shutdown of taskMessageStreams.", e);
+          }
           LOG.log(Level.FINEST, "EvaluatorRuntime shutdown complete");
         }
       }
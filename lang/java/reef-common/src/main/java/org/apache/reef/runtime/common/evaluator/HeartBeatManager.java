@@ -22,7 +22,9 @@ import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.evaluator.context.ContextManager;
 import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.HeartbeatFullStatusInterval;
 import org.apache.reef.runtime.common.evaluator.parameters.HeartbeatPeriod;
+import org.apache.reef.runtime.common.evaluator.parameters.MaxHeartbeatPeriod;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.annotations.Parameter;
@@ -38,17 +40,37 @@ import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Sends the heartbeats of this Evaluator to the Driver.
+ * <p/>
+ * Most heartbeats are incremental: they only carry the context and task statuses that changed since the
+ * previous heartbeat, or that carry messages. Every HeartbeatFullStatusInterval heartbeats, whenever a
+ * specific status must be delivered, and when the Driver noticed that it missed a heartbeat, the complete
+ * status is sent. See HeartbeatStatusTracker.
+ * <p/>
+ * If MaxHeartbeatPeriod is set above HeartbeatPeriod, the heartbeat period adapts to the activity of the
+ * Evaluator and to the load of the Driver, see AdaptiveHeartbeatPeriod. Every heartbeat
+ * tells the Driver how long it may have to wait for the next one.
+ */
 @Unit
 public final class HeartBeatManager {
 
   private static final Logger LOG = Logger.getLogger(HeartBeatManager.class.getName());
 
   private final Clock clock;
-  private final int heartbeatPeriod;
   private final EventHandler<EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto> evaluatorHeartbeatHandler;
   private final InjectionFuture<EvaluatorRuntime> evaluatorRuntime;
   private final InjectionFuture<ContextManager> contextManager;
 
+  private final HeartbeatStatusTracker statusTracker;
+
+  private final AdaptiveHeartbeatPeriod period;
+  /**
+   * Identifies the last alarm scheduled, so that the alarms it replaced are ignored.
+   */
+  private long alarmGeneration = 0;
+  private long nextHeartbeatTime;
+
   @Inject
   private HeartBeatManager(
       final InjectionFuture<EvaluatorRuntime> evaluatorRuntime,
@@ -56,21 +78,26 @@ public final class HeartBeatManager {
       final Clock clock,
       final RemoteManager remoteManager,
       @Parameter(HeartbeatPeriod.class) final int heartbeatPeriod,
+      @Parameter(MaxHeartbeatPeriod.class) final int maxHeartbeatPeriod,
+      @Parameter(HeartbeatFullStatusInterval.class) final int fullStatusInterval,
       @Parameter(DriverRemoteIdentifier.class) final String driverRID) {
 
     this.evaluatorRuntime = evaluatorRuntime;
     this.contextManager = contextManager;
     this.clock = clock;
-    this.heartbeatPeriod = heartbeatPeriod;
+    this.period = new AdaptiveHeartbeatPeriod(heartbeatPeriod, maxHeartbeatPeriod);
+    // EvaluatorRuntime schedules the first heartbeat.
+    this.nextHeartbeatTime = System.currentTimeMillis() + heartbeatPeriod;
+    this.statusTracker = new HeartbeatStatusTracker(fullStatusInterval);
     this.evaluatorHeartbeatHandler = remoteManager.getHandler(
         driverRID, EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.class);
   }
 
   /**
-   * Assemble a complete new heartbeat and send it out.
+   * Assemble a new heartbeat and send it out.
    */
   public synchronized void sendHeartbeat() {
-    this.sendHeartBeat(this.getEvaluatorHeartbeatProto());
+    this.sendHeartBeat(this.getEvaluatorHeartbeatProto(), false);
   }
 
   /**
@@ -80,7 +107,7 @@ public final class HeartBeatManager {
     this.sendHeartBeat(this.getEvaluatorHeartbeatProto(
         this.evaluatorRuntime.get().getEvaluatorStatus(),
         this.contextManager.get().getContextStatusCollection(),
-        Optional.of(taskStatusProto)));
+        Optional.of(taskStatusProto)), false);
   }
 
   /**
@@ -94,12 +121,12 @@ public final class HeartBeatManager {
     contextStatusList.add(contextStatusProto);
     contextStatusList.addAll(this.contextManager.get().getContextStatusCollection());
 
-    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto heartbeatProto =
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder heartbeatProto =
         this.getEvaluatorHeartbeatProto(
             this.evaluatorRuntime.get().getEvaluatorStatus(),
             contextStatusList, Optional.<ReefServiceProtos.TaskStatusProto>empty());
 
-    this.sendHeartBeat(heartbeatProto);
+    this.sendHeartBeat(heartbeatProto, false);
   }
 
   /**
@@ -113,6 +140,83 @@ public final class HeartBeatManager {
         .build());
   }
 
+  /**
+   * Called with the hashes of configurations the Driver sent by hash only, but this Evaluator does not have.
+   * Asks the Driver for them.
+   */
+  public synchronized void sendConfigurationRequest(final Collection<String> hashes) {
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder heartbeatProto = this.getEvaluatorHeartbeatProto();
+    heartbeatProto.addAllMissingConfigurations(hashes);
+    this.sendHeartBeat(heartbeatProto, false);
+  }
+
+  /**
+   * Called when the Driver missed a heartbeat and asks for the complete status.
+   */
+  synchronized void sendFullStatus() {
+    this.sendHeartBeat(this.getEvaluatorHeartbeatProto(
+        this.evaluatorRuntime.get().getEvaluatorStatus(),
+        this.contextManager.get().getContextStatusCollection(),
+        this.contextManager.get().getTaskStatus()), false);
+  }
+
+  /**
+   * Called with the heartbeat period the Driver asks for. 0 lifts the request.
+   */
+  synchronized void setHeartbeatPeriodHint(final long hint) {
+    LOG.log(Level.FINE, "The Driver asks for a heartbeat period of at least {0} ms", hint);
+    this.period.setHint(hint);
+  }
+
+  /**
+   * Adapts the heartbeat period to the activity reported by the heartbeat, and sends it out.
+   *
+   * @param heartbeatProto the heartbeat to send
+   * @param periodic       whether this is the periodic heartbeat, which schedules the next one
+   */
+  private void sendHeartBeat(final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder heartbeatProto,
+                             final boolean periodic) {
+    final int nextPeriod = this.period.onHeartbeat(
+        this.statusTracker.hasStatusChanged() || hasMessages(heartbeatProto), periodic);
+    final long now = System.currentTimeMillis();
+    if (periodic || this.nextHeartbeatTime - now > nextPeriod && this.evaluatorRuntime.get().isRunning()) {
+      this.scheduleHeartbeat(nextPeriod);
+    }
+
+    this.sendHeartBeat(heartbeatProto.setHeartbeatPeriod(Math.max(0, this.nextHeartbeatTime - now)).build());
+  }
+
+  private void scheduleHeartbeat(final int delay) {
+    final long generation = ++this.alarmGeneration;
+    this.nextHeartbeatTime = System.currentTimeMillis() + delay;
+    this.clock.scheduleAlarm(delay, new EventHandler<Alarm>() {
+      @Override
+      public void onNext(final Alarm alarm) {
+        HeartBeatManager.this.onHeartbeatAlarm(generation);
+      }
+    });
+  }
+
+  private synchronized void onHeartbeatAlarm(final long generation) {
+    if (generation != this.alarmGeneration) {
+      LOG.log(Level.FINEST, "Skipping a heartbeat alarm replaced by a later one");
+    } else if (this.evaluatorRuntime.get().isRunning()) {
+      this.sendHeartBeat(this.getEvaluatorHeartbeatProto(), true);
+    } else {
+      LOG.log(Level.FINEST,
+          "Not triggering a heartbeat, because state is: {0}", this.evaluatorRuntime.get().getState());
+    }
+  }
+
+  private static boolean hasMessages(final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProtoOrBuilder heartbeatProto) {
+    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : heartbeatProto.getContextStatusList()) {
+      if (contextStatusProto.getContextMessageCount() > 0) {
+        return true;
+      }
+    }
+    return heartbeatProto.hasTaskStatus() && heartbeatProto.getTaskStatus().getTaskMessageCount() > 0;
+  }
+
   /**
    * Sends the actual heartbeat out and logs it, so desired.
    *
@@ -127,47 +231,31 @@ public final class HeartBeatManager {
   }
 
 
-  private EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto getEvaluatorHeartbeatProto() {
-    return this.getEvaluatorHeartbeatProto(
+  /**
+   * Assembles an incremental heartbeat, or a complete one if one is due.
+   */
+  private EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder getEvaluatorHeartbeatProto() {
+    return this.statusTracker.getHeartbeat(
         this.evaluatorRuntime.get().getEvaluatorStatus(),
         this.contextManager.get().getContextStatusCollection(),
         this.contextManager.get().getTaskStatus());
   }
 
-  private EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto getEvaluatorHeartbeatProto(
+  /**
+   * Assembles a heartbeat with the complete status given.
+   */
+  private EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder getEvaluatorHeartbeatProto(
       final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto,
       final Iterable<ReefServiceProtos.ContextStatusProto> contextStatusProtos,
       final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto) {
-
-    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
-        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
-            .setTimestamp(System.currentTimeMillis())
-            .setEvaluatorStatus(evaluatorStatusProto);
-
-    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : contextStatusProtos) {
-      builder.addContextStatus(contextStatusProto);
-    }
-
-    if (taskStatusProto.isPresent()) {
-      builder.setTaskStatus(taskStatusProto.get());
-    }
-
-    return builder.build();
+    return this.statusTracker.getFullHeartbeat(evaluatorStatusProto, contextStatusProtos, taskStatusProto);
   }
 
   final class HeartbeatAlarmHandler implements EventHandler<Alarm> {
     @Override
     public void onNext(final Alarm alarm) {
-      synchronized (HeartBeatManager.this) {
-        if (evaluatorRuntime.get().isRunning()) {
-          HeartBeatManager.this.sendHeartbeat();
-          HeartBeatManager.this.clock.scheduleAlarm(HeartBeatManager.this.heartbeatPeriod, this);
-        } else {
-          LOG.log(Level.FINEST,
-              "Not triggering a heartbeat, because state is: {0}",
-              evaluatorRuntime.get().getState());
-        }
-      }
+      // The first heartbeat, scheduled by EvaluatorRuntime. HeartBeatManager schedules the following ones.
+      HeartBeatManager.this.onHeartbeatAlarm(0);
     }
   }
 }
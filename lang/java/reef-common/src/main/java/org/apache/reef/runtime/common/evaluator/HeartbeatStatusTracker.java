@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.apache.reef.proto.EvaluatorRuntimeProtocol;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.util.Optional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the context and task statuses reported to the Driver, to assemble incremental heartbeats.
+ * <p/>
+ * Incremental heartbeats only carry the context and task statuses that changed since the previous heartbeat,
+ * or that carry messages. Every fullStatusInterval heartbeats the complete status is sent. Each heartbeat
+ * carries a sequence number, so that the Driver can tell when it missed one and ask for the complete status.
+ * <p/>
+ * Not thread-safe: HeartBeatManager calls it under its lock.
+ */
+final class HeartbeatStatusTracker {
+
+  private final int fullStatusInterval;
+
+  /**
+   * The context statuses last reported to the Driver, by context id, without their messages.
+   */
+  private final Map<String, ReefServiceProtos.ContextStatusProto> reportedContextStatus = new HashMap<>();
+  /**
+   * The task status last reported to the Driver, without its messages.
+   */
+  private ReefServiceProtos.TaskStatusProto reportedTaskStatus = null;
+  private long sequenceNumber = 0;
+  private int heartbeatsSinceFullStatus = 0;
+  /**
+   * Whether the last heartbeat assembled reported a status different from the one before.
+   */
+  private boolean statusChanged = false;
+
+  HeartbeatStatusTracker(final int fullStatusInterval) {
+    this.fullStatusInterval = fullStatusInterval;
+  }
+
+  /**
+   * Assembles an incremental heartbeat, or a complete one if one is due.
+   */
+  EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder getHeartbeat(
+      final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto,
+      final Iterable<ReefServiceProtos.ContextStatusProto> contextStatusProtos,
+      final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto) {
+
+    if (this.heartbeatsSinceFullStatus + 1 >= this.fullStatusInterval) {
+      return this.getFullHeartbeat(evaluatorStatusProto, contextStatusProtos, taskStatusProto);
+    }
+    ++this.heartbeatsSinceFullStatus;
+
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
+        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
+            .setTimestamp(System.currentTimeMillis())
+            .setEvaluatorStatus(evaluatorStatusProto)
+            .setIncremental(true);
+
+    boolean changed = false;
+    final Map<String, ReefServiceProtos.ContextStatusProto> currentContextStatus = new HashMap<>();
+    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : contextStatusProtos) {
+      final ReefServiceProtos.ContextStatusProto status = withoutMessages(contextStatusProto);
+      currentContextStatus.put(status.getContextId(), status);
+      final boolean contextChanged = !status.equals(this.reportedContextStatus.get(status.getContextId()));
+      if (contextChanged || contextStatusProto.getContextMessageCount() > 0) {
+        builder.addContextStatus(contextStatusProto);
+      }
+      changed |= contextChanged;
+    }
+    changed |= !currentContextStatus.keySet().equals(this.reportedContextStatus.keySet());
+
+    final ReefServiceProtos.TaskStatusProto currentTaskStatus =
+        taskStatusProto.isPresent() ? withoutMessages(taskStatusProto.get()) : null;
+    final boolean taskChanged = currentTaskStatus == null ?
+        this.reportedTaskStatus != null : !currentTaskStatus.equals(this.reportedTaskStatus);
+    if (taskStatusProto.isPresent() && (taskChanged || taskStatusProto.get().getTaskMessageCount() > 0)) {
+      builder.setTaskStatus(taskStatusProto.get());
+    }
+    changed |= taskChanged;
+
+    this.setReportedStatus(currentContextStatus, currentTaskStatus, changed);
+    return builder.setSequenceNumber(++this.sequenceNumber);
+  }
+
+  /**
+   * Assembles a heartbeat with the complete status given.
+   */
+  EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder getFullHeartbeat(
+      final ReefServiceProtos.EvaluatorStatusProto evaluatorStatusProto,
+      final Iterable<ReefServiceProtos.ContextStatusProto> contextStatusProtos,
+      final Optional<ReefServiceProtos.TaskStatusProto> taskStatusProto) {
+
+    final EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.Builder builder =
+        EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto.newBuilder()
+            .setTimestamp(System.currentTimeMillis())
+            .setEvaluatorStatus(evaluatorStatusProto);
+
+    final Map<String, ReefServiceProtos.ContextStatusProto> currentContextStatus = new HashMap<>();
+    for (final ReefServiceProtos.ContextStatusProto contextStatusProto : contextStatusProtos) {
+      builder.addContextStatus(contextStatusProto);
+      currentContextStatus.put(contextStatusProto.getContextId(), withoutMessages(contextStatusProto));
+    }
+
+    ReefServiceProtos.TaskStatusProto currentTaskStatus = null;
+    if (taskStatusProto.isPresent()) {
+      builder.setTaskStatus(taskStatusProto.get());
+      currentTaskStatus = withoutMessages(taskStatusProto.get());
+    }
+
+    final boolean changed = !currentContextStatus.equals(this.reportedContextStatus) ||
+        (currentTaskStatus == null ? this.reportedTaskStatus != null : !currentTaskStatus.equals(reportedTaskStatus));
+    this.setReportedStatus(currentContextStatus, currentTaskStatus, changed);
+    this.heartbeatsSinceFullStatus = 0;
+    return builder.setSequenceNumber(++this.sequenceNumber);
+  }
+
+  /**
+   * @return whether the last heartbeat assembled reported a status different from the one before.
+   */
+  boolean hasStatusChanged() {
+    return this.statusChanged;
+  }
+
+  private void setReportedStatus(final Map<String, ReefServiceProtos.ContextStatusProto> contextStatus,
+                                 final ReefServiceProtos.TaskStatusProto taskStatus,
+                                 final boolean changed) {
+    this.reportedContextStatus.clear();
+    this.reportedContextStatus.putAll(contextStatus);
+    this.reportedTaskStatus = taskStatus;
+    this.statusChanged = changed;
+  }
+
+  private static ReefServiceProtos.ContextStatusProto withoutMessages(
+      final ReefServiceProtos.ContextStatusProto contextStatusProto) {
+    return contextStatusProto.getContextMessageCount() == 0 ?
+        contextStatusProto : contextStatusProto.toBuilder().clearContextMessage().build();
+  }
+
+  private static ReefServiceProtos.TaskStatusProto withoutMessages(
+      final ReefServiceProtos.TaskStatusProto taskStatusProto) {
+    return taskStatusProto.getTaskMessageCount() == 0 ?
+        taskStatusProto : taskStatusProto.toBuilder().clearTaskMessage().build();
+  }
+}
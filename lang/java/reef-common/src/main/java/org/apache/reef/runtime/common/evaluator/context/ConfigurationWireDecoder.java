@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.context;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.AddContextProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.ContextControlProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.SerializedConfigurationProto;
+import org.apache.reef.runtime.common.utils.ConfigurationHashCache;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import javax.inject.Inject;
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the context and task configurations the Driver sends to this Evaluator in the binary wire format.
+ * Mirrors the ConfigurationHashCache the Driver keeps for this Evaluator, so that configurations
+ * received before can be sent by hash only. Only receive() updates that mirror, once per message and in the order
+ * the Driver encoded the message; decode() and the configurations the Driver sends again leave it alone.
+ * <p/>
+ * Not thread-safe: ContextManager calls it under the lock of the HeartBeatManager.
+ */
+@EvaluatorSide
+@Private
+public final class ConfigurationWireDecoder {
+
+  private static final int MAX_RESENT_CONFIGURATIONS = 32;
+
+  private final ConfigurationSerializer configurationSerializer;
+
+  /**
+   * The configurations received in the binary wire format, mirroring the Driver's record of them.
+   */
+  private final ConfigurationHashCache<Configuration> receivedConfigurations = new ConfigurationHashCache<>();
+
+  /**
+   * The configurations the Driver sent again because this Evaluator missed them, most recent last.
+   */
+  private final Map<String, Configuration> resentConfigurations = new LinkedHashMap<String, Configuration>() {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, Configuration> eldest) {
+      return size() > MAX_RESENT_CONFIGURATIONS;
+    }
+  };
+
+  @Inject
+  public ConfigurationWireDecoder(final ConfigurationSerializer configurationSerializer) {
+    this.configurationSerializer = configurationSerializer;
+  }
+
+  /**
+   * Keeps the configurations the message carries the bytes of, in the order the Driver encoded them, and the
+   * configurations the Driver sent again. Has to be called exactly once per message, in the order received.
+   *
+   * @return the hashes of the configurations the message carries by hash only and this Evaluator does not have.
+   */
+  public List<String> receive(final ContextControlProto controlMessage) throws IOException, BindException {
+    final List<String> missing = new ArrayList<>();
+    for (final SerializedConfigurationProto serialized : getConfigurations(controlMessage)) {
+      receive(serialized, missing);
+    }
+    for (final SerializedConfigurationProto serialized : controlMessage.getConfigurationsList()) {
+      this.resentConfigurations.put(serialized.getHash(), fromBytes(serialized));
+    }
+    return missing;
+  }
+
+  /**
+   * Unlike receive(), leaves the mirrored configurations alone, so it can be asked again for a message that missed
+   * configurations once the Driver sent them again.
+   *
+   * @return the hashes of the configurations of a message passed to receive() this Evaluator still does not have.
+   */
+  public List<String> getMissing(final ContextControlProto controlMessage) {
+    final List<String> missing = new ArrayList<>();
+    for (final SerializedConfigurationProto serialized : getConfigurations(controlMessage)) {
+      if (find(serialized.getHash()) == null) {
+        missing.add(serialized.getHash());
+      }
+    }
+    return missing;
+  }
+
+  private void receive(final SerializedConfigurationProto serialized, final List<String> missing)
+      throws IOException, BindException {
+    final String hash = serialized.getHash();
+    if (this.receivedConfigurations.get(hash) != null) {
+      return;
+    }
+    if (serialized.hasConfiguration()) {
+      this.receivedConfigurations.put(hash, fromBytes(serialized));
+    } else if (this.resentConfigurations.containsKey(hash)) {
+      // The Driver still has it, so keep it where the Driver did.
+      this.receivedConfigurations.put(hash, this.resentConfigurations.get(hash));
+    } else {
+      missing.add(hash);
+    }
+  }
+
+  /**
+   * @return a configuration of a message that was passed to receive() and misses none.
+   */
+  public Configuration decode(final SerializedConfigurationProto serialized) {
+    final Configuration configuration = find(serialized.getHash());
+    if (configuration == null) {
+      throw new IllegalStateException("Received unknown configuration hash " + serialized.getHash());
+    }
+    return configuration;
+  }
+
+  private Configuration find(final String hash) {
+    final Configuration configuration = this.receivedConfigurations.peek(hash);
+    return configuration != null ? configuration : this.resentConfigurations.get(hash);
+  }
+
+  private Configuration fromBytes(final SerializedConfigurationProto serialized) throws IOException, BindException {
+    return this.configurationSerializer.fromByteArray(serialized.getConfiguration().toByteArray());
+  }
+
+  /**
+   * @return the configurations the message refers to, in the order the Driver encoded them.
+   */
+  private static List<SerializedConfigurationProto> getConfigurations(final ContextControlProto controlMessage) {
+    final List<SerializedConfigurationProto> configurations = new ArrayList<>(3);
+    if (controlMessage.hasAddContext()) {
+      final AddContextProto addContextProto = controlMessage.getAddContext();
+      if (addContextProto.hasBinaryContextConfiguration()) {
+        configurations.add(addContextProto.getBinaryContextConfiguration());
+      }
+      if (addContextProto.hasBinaryServiceConfiguration()) {
+        configurations.add(addContextProto.getBinaryServiceConfiguration());
+      }
+    }
+    if (controlMessage.hasStartTask() && controlMessage.getStartTask().hasBinaryConfiguration()) {
+      configurations.add(controlMessage.getStartTask().getBinaryConfiguration());
+    }
+    return configurations;
+  }
+
+  /**
+   * @return a configuration the Evaluator was launched with: either in the string format,
+   * or in the Base64 encoded binary wire format.
+   */
+  public Configuration decodeLaunchConfiguration(final String configuration) throws IOException, BindException {
+    // The string format is a JSON object, and '{' is not part of the Base64 alphabet.
+    if (configuration.startsWith("{")) {
+      return this.configurationSerializer.fromString(configuration);
+    }
+    return this.configurationSerializer.fromByteArray(DatatypeConverter.parseBase64Binary(configuration));
+  }
+}
@@ -25,19 +25,23 @@ import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.proto.EvaluatorRuntimeProtocol;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.evaluator.HeartBeatManager;
+import org.apache.reef.runtime.common.evaluator.parameters.InitialTaskMessageStream;
 import org.apache.reef.runtime.common.evaluator.task.TaskClientCodeException;
 import org.apache.reef.runtime.common.utils.ExceptionCodec;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
 import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -74,21 +78,45 @@ public final class ContextManager implements AutoCloseable {
 
   private final ExceptionCodec exceptionCodec;
 
+  /**
+   * To decode the configurations received in the binary wire format.
+   */
+  private final ConfigurationWireDecoder configurationWireDecoder;
+
+  private final boolean initialTaskMessageStream;
+
+  /**
+   * The control message waiting for configurations this Evaluator asked the Driver for, or null.
+   * It already went through ConfigurationWireDecoder.receive().
+   */
+  private EvaluatorRuntimeProtocol.ContextControlProto waitingControlMessage = null;
+
+  /**
+   * The control messages received after the waiting one, in the order received.
+   */
+  private final Queue<EvaluatorRuntimeProtocol.ContextControlProto> pendingControlMessages = new ArrayDeque<>();
+
   /**
    * @param launchContext           to instantiate the root context.
    * @param heartBeatManager        for status reporting to the Driver.
    * @param configurationSerializer
+   * @param configurationWireDecoder
    * @param exceptionCodec
+   * @param initialTaskMessageStream whether the Driver keeps a direct message stream for the initial task.
    */
   @Inject
   ContextManager(final InjectionFuture<RootContextLauncher> launchContext,
                  final HeartBeatManager heartBeatManager,
                  final ConfigurationSerializer configurationSerializer,
-                 final ExceptionCodec exceptionCodec) {
+                 final ConfigurationWireDecoder configurationWireDecoder,
+                 final ExceptionCodec exceptionCodec,
+                 @Parameter(InitialTaskMessageStream.class) final boolean initialTaskMessageStream) {
     this.launchContext = launchContext;
     this.heartBeatManager = heartBeatManager;
     this.configurationSerializer = configurationSerializer;
+    this.configurationWireDecoder = configurationWireDecoder;
     this.exceptionCodec = exceptionCodec;
+    this.initialTaskMessageStream = initialTaskMessageStream;
   }
 
   /**
@@ -104,7 +132,8 @@ public final class ContextManager implements AutoCloseable {
       if (this.launchContext.get().getInitialTaskConfiguration().isPresent()) {
         LOG.log(Level.FINEST, "Launching the initial Task");
         try {
-          this.contextStack.peek().startTask(this.launchContext.get().getInitialTaskConfiguration().get());
+          this.contextStack.peek().startTask(
+              this.launchContext.get().getInitialTaskConfiguration().get(), this.initialTaskMessageStream);
         } catch (final TaskClientCodeException e) {
           this.handleTaskException(e);
         }
@@ -121,6 +150,7 @@ public final class ContextManager implements AutoCloseable {
     synchronized (this.contextStack) {
       if (!this.contextStackIsEmpty()) {
         this.contextStack.lastElement().close();
+        this.launchContext.get().close();
       }
     }
   }
@@ -138,6 +168,9 @@ public final class ContextManager implements AutoCloseable {
    * Processes the given ContextControlProto to launch / close / suspend Tasks and Contexts.
    * <p/>
    * This also triggers the HeartBeatManager to send a heartbeat with the result of this operation.
+   * <p/>
+   * A message that refers to configurations this Evaluator does not have waits, together with the messages
+   * received after it, until the Driver sent those configurations.
    *
    * @param controlMessage the message to process
    */
@@ -145,58 +178,114 @@ public final class ContextManager implements AutoCloseable {
       final EvaluatorRuntimeProtocol.ContextControlProto controlMessage) {
 
     synchronized (this.heartBeatManager) {
-      try {
-        if (controlMessage.hasAddContext() && controlMessage.hasRemoveContext()) {
-          throw new IllegalArgumentException(
-              "Received a message with both add and remove context. This is unsupported.");
+      if (controlMessage.getConfigurationsCount() > 0) {
+        this.receiveConfigurations(controlMessage);
+        if (this.waitingControlMessage == null) {
+          return;
+        }
+        final List<String> stillMissing = this.configurationWireDecoder.getMissing(this.waitingControlMessage);
+        if (!stillMissing.isEmpty()) {
+          LOG.log(Level.WARNING, "Still missing configurations {0}", stillMissing);
+          return;
+        }
+        final EvaluatorRuntimeProtocol.ContextControlProto waiting = this.waitingControlMessage;
+        this.waitingControlMessage = null;
+        this.handle(waiting);
+        while (this.waitingControlMessage == null && !this.pendingControlMessages.isEmpty()) {
+          this.handleOrWait(this.pendingControlMessages.poll());
         }
+      } else {
+        this.handleOrWait(controlMessage);
+      }
+    }
+  }
 
-        final byte[] message = controlMessage.hasTaskMessage() ?
-            controlMessage.getTaskMessage().toByteArray() : null;
-
-        if (controlMessage.hasAddContext()) {
-          this.addContext(controlMessage.getAddContext());
-          if (controlMessage.hasStartTask()) {
-            // We support submitContextAndTask()
-            this.startTask(controlMessage.getStartTask());
-          } else {
-            // We need to trigger a heartbeat here.
-            // In other cases, the heartbeat will be triggered by the TaskRuntime
-            // Therefore this call can not go into addContext.
-            this.heartBeatManager.sendHeartbeat();
-          }
-        } else if (controlMessage.hasRemoveContext()) {
-          this.removeContext(controlMessage.getRemoveContext().getContextId());
-        } else if (controlMessage.hasStartTask()) {
+  /**
+   * Processes the message, unless it has to wait for configurations or for an earlier message.
+   * In that case, asks the Driver for the missing configurations.
+   */
+  private void handleOrWait(final EvaluatorRuntimeProtocol.ContextControlProto controlMessage) {
+    if (this.waitingControlMessage != null) {
+      this.pendingControlMessages.add(controlMessage);
+      return;
+    }
+    final List<String> missingConfigurations = this.receiveConfigurations(controlMessage);
+    if (!missingConfigurations.isEmpty()) {
+      LOG.log(Level.INFO, "Asking the Driver for configurations {0}", missingConfigurations);
+      this.waitingControlMessage = controlMessage;
+      this.heartBeatManager.sendConfigurationRequest(missingConfigurations);
+      return;
+    }
+    this.handle(controlMessage);
+  }
+
+  /**
+   * @return the hashes of the configurations the message refers to but does not carry, and this Evaluator
+   * does not have.
+   */
+  private List<String> receiveConfigurations(final EvaluatorRuntimeProtocol.ContextControlProto controlMessage) {
+    try {
+      return this.configurationWireDecoder.receive(controlMessage);
+    } catch (final IOException | BindException e) {
+      throw new RuntimeException("Unable to read configuration.", e);
+    }
+  }
+
+  /**
+   * Processes a message whose configurations this Evaluator has.
+   */
+  private void handle(final EvaluatorRuntimeProtocol.ContextControlProto controlMessage) {
+    try {
+      if (controlMessage.hasAddContext() && controlMessage.hasRemoveContext()) {
+        throw new IllegalArgumentException(
+            "Received a message with both add and remove context. This is unsupported.");
+      }
+
+      final byte[] message = controlMessage.hasTaskMessage() ?
+          controlMessage.getTaskMessage().toByteArray() : null;
+
+      if (controlMessage.hasAddContext()) {
+        this.addContext(controlMessage.getAddContext());
+        if (controlMessage.hasStartTask()) {
+          // We support submitContextAndTask()
           this.startTask(controlMessage.getStartTask());
-        } else if (controlMessage.hasStopTask()) {
-          this.contextStack.peek().closeTask(message);
-        } else if (controlMessage.hasSuspendTask()) {
-          this.contextStack.peek().suspendTask(message);
-        } else if (controlMessage.hasTaskMessage()) {
-          this.contextStack.peek().deliverTaskMessage(message);
-        } else if (controlMessage.hasContextMessage()) {
-          final EvaluatorRuntimeProtocol.ContextMessageProto contextMessageProto = controlMessage.getContextMessage();
-          boolean deliveredMessage = false;
-          for (final ContextRuntime context : this.contextStack) {
-            if (context.getIdentifier().equals(contextMessageProto.getContextId())) {
-              context.handleContextMessage(contextMessageProto.getMessage().toByteArray());
-              deliveredMessage = true;
-              break;
-            }
-          }
-          if (!deliveredMessage) {
-            throw new IllegalStateException(
-                "Sent message to unknown context " + contextMessageProto.getContextId());
-          }
         } else {
-          throw new RuntimeException("Unknown task control message: " + controlMessage);
+          // We need to trigger a heartbeat here.
+          // In other cases, the heartbeat will be triggered by the TaskRuntime
+          // Therefore this call can not go into addContext.
+          this.heartBeatManager.sendHeartbeat();
+        }
+      } else if (controlMessage.hasRemoveContext()) {
+        this.removeContext(controlMessage.getRemoveContext().getContextId());
+      } else if (controlMessage.hasStartTask()) {
+        this.startTask(controlMessage.getStartTask());
+      } else if (controlMessage.hasStopTask()) {
+        this.contextStack.peek().closeTask(message);
+      } else if (controlMessage.hasSuspendTask()) {
+        this.contextStack.peek().suspendTask(message);
+      } else if (controlMessage.hasTaskMessage()) {
+        this.contextStack.peek().deliverTaskMessage(message);
+      } else if (controlMessage.hasContextMessage()) {
+        final EvaluatorRuntimeProtocol.ContextMessageProto contextMessageProto = controlMessage.getContextMessage();
+        boolean deliveredMessage = false;
+        for (final ContextRuntime context : this.contextStack) {
+          if (context.getIdentifier().equals(contextMessageProto.getContextId())) {
+            context.handleContextMessage(contextMessageProto.getMessage().toByteArray());
+            deliveredMessage = true;
+            break;
+          }
+        }
+        if (!deliveredMessage) {
+          throw new IllegalStateException(
+              "Sent message to unknown context " + contextMessageProto.getContextId());
         }
-      } catch (final TaskClientCodeException e) {
-        this.handleTaskException(e);
-      } catch (final ContextClientCodeException e) {
-        this.handleContextException(e);
+      } else {
+        throw new RuntimeException("Unknown task control message: " + controlMessage);
       }
+    } catch (final TaskClientCodeException e) {
+      this.handleTaskException(e);
+    } catch (final ContextClientCodeException e) {
+      this.handleContextException(e);
     }
 
   }
@@ -250,11 +339,15 @@ public final class ContextManager implements AutoCloseable {
               currentTopContext.getIdentifier() + "`");
         }
 
-        final Configuration contextConfiguration =
+        final Configuration contextConfiguration = addContextProto.hasBinaryContextConfiguration() ?
+            this.configurationWireDecoder.decode(addContextProto.getBinaryContextConfiguration()) :
             this.configurationSerializer.fromString(addContextProto.getContextConfiguration());
 
         final ContextRuntime newTopContext;
-        if (addContextProto.hasServiceConfiguration()) {
+        if (addContextProto.hasBinaryServiceConfiguration()) {
+          newTopContext = currentTopContext.spawnChildContext(contextConfiguration,
+              this.configurationWireDecoder.decode(addContextProto.getBinaryServiceConfiguration()));
+        } else if (addContextProto.hasServiceConfiguration()) {
           newTopContext = currentTopContext.spawnChildContext(contextConfiguration,
               this.configurationSerializer.fromString(addContextProto.getServiceConfiguration()));
         } else {
@@ -294,6 +387,9 @@ public final class ContextManager implements AutoCloseable {
         this.heartBeatManager.sendHeartbeat(); // Ensure Driver gets notified of context DONE state
       }
       this.contextStack.pop();
+      if (this.contextStack.isEmpty()) {
+        this.launchContext.get().close();
+      }
       /*
       * At this moment, the Evaluator is actually idle and has some time till the Driver sends it additional work.
       * Also, a potentially large object graph just became orphaned: all the objects instantiated by the context
@@ -320,9 +416,10 @@ public final class ContextManager implements AutoCloseable {
       }
 
       try {
-        final Configuration taskConfig =
+        final Configuration taskConfig = startTaskProto.hasBinaryConfiguration() ?
+            this.configurationWireDecoder.decode(startTaskProto.getBinaryConfiguration()) :
             this.configurationSerializer.fromString(startTaskProto.getConfiguration());
-        currentActiveContext.startTask(taskConfig);
+        currentActiveContext.startTask(taskConfig, startTaskProto.getMessageStream());
       } catch (IOException | BindException e) {
         throw new RuntimeException("Unable to read configuration.", e);
       }
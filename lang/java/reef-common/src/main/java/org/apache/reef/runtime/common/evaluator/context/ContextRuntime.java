@@ -225,13 +225,14 @@ public final class ContextRuntime {
   /**
    * Launches a Task on this context.
    *
-   * @param taskConfig the configuration to be used for the task.
+   * @param taskConfig    the configuration to be used for the task.
+   * @param messageStream whether the Driver keeps a direct message stream for the task.
    * @throws org.apache.reef.runtime.common.evaluator.task.TaskClientCodeException If the Task cannot be instantiated
    * due to user code / configuration issues.
    * @throws IllegalStateException                                                 If this method is called when
    * there is either a task or child context already present.
    */
-  void startTask(final Configuration taskConfig) throws TaskClientCodeException {
+  void startTask(final Configuration taskConfig, final boolean messageStream) throws TaskClientCodeException {
 
     synchronized (this.contextLifeCycle) {
 
@@ -253,7 +254,7 @@ public final class ContextRuntime {
       try {
         final Injector taskInjector = this.contextInjector.forkInjector(taskConfig);
         final TaskRuntime taskRuntime = taskInjector.getInstance(TaskRuntime.class);
-        taskRuntime.initialize();
+        taskRuntime.initialize(messageStream);
         this.taskRuntimeThread = new Thread(taskRuntime, taskRuntime.getId());
         this.taskRuntimeThread.start();
         this.task = Optional.of(taskRuntime);
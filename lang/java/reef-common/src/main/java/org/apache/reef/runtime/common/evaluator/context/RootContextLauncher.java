@@ -18,6 +18,7 @@
  */
 package org.apache.reef.runtime.common.evaluator.context;
 
+import org.apache.reef.evaluator.context.parameters.ServiceInstantiationThreads;
 import org.apache.reef.runtime.common.evaluator.parameters.InitialTaskConfiguration;
 import org.apache.reef.runtime.common.evaluator.parameters.RootContextConfiguration;
 import org.apache.reef.runtime.common.evaluator.parameters.RootServiceConfiguration;
@@ -25,46 +26,53 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
-import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.implementation.java.InjectorImpl;
 import org.apache.reef.util.Optional;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Helper class that encapsulates the root context configuration: With or without services and an initial task.
  */
 final class RootContextLauncher {
 
+  private static final Logger LOG = Logger.getLogger(RootContextLauncher.class.getName());
+
   private final Injector injector;
   private final Configuration rootContextConfiguration;
   private final Optional<Configuration> rootServiceConfiguration;
   private final Optional<Configuration> initialTaskConfiguration;
-  private final ConfigurationSerializer configurationSerializer;
   private ContextRuntime rootContext = null;
+  /**
+   * The pool the services of all contexts are instantiated on, if ServiceInstantiationThreads is greater than 1.
+   */
+  private ForkJoinPool parallelInjectionPool = null;
 
   @Inject
   RootContextLauncher(@Parameter(RootContextConfiguration.class) final String rootContextConfiguration,
                       @Parameter(RootServiceConfiguration.class) final String rootServiceConfiguration,
                       @Parameter(InitialTaskConfiguration.class) final String initialTaskConfiguration,
-                      final Injector injector, final ConfigurationSerializer configurationSerializer)
+                      final Injector injector, final ConfigurationWireDecoder decoder)
       throws IOException, BindException {
     this.injector = injector;
-    this.configurationSerializer = configurationSerializer;
-    this.rootContextConfiguration = this.configurationSerializer.fromString(rootContextConfiguration);
-    this.rootServiceConfiguration = Optional.of(this.configurationSerializer.fromString(rootServiceConfiguration));
-    this.initialTaskConfiguration = Optional.of(this.configurationSerializer.fromString(initialTaskConfiguration));
+    this.rootContextConfiguration = decoder.decodeLaunchConfiguration(rootContextConfiguration);
+    this.rootServiceConfiguration = Optional.of(decoder.decodeLaunchConfiguration(rootServiceConfiguration));
+    this.initialTaskConfiguration = Optional.of(decoder.decodeLaunchConfiguration(initialTaskConfiguration));
   }
 
   @Inject
   RootContextLauncher(@Parameter(RootContextConfiguration.class) final String rootContextConfiguration,
                       final Injector injector,
                       @Parameter(RootServiceConfiguration.class) final String rootServiceConfiguration,
-                      final ConfigurationSerializer configurationSerializer) throws IOException, BindException {
+                      final ConfigurationWireDecoder decoder) throws IOException, BindException {
     this.injector = injector;
-    this.configurationSerializer = configurationSerializer;
-    this.rootContextConfiguration = this.configurationSerializer.fromString(rootContextConfiguration);
-    this.rootServiceConfiguration = Optional.of(this.configurationSerializer.fromString(rootServiceConfiguration));
+    this.rootContextConfiguration = decoder.decodeLaunchConfiguration(rootContextConfiguration);
+    this.rootServiceConfiguration = Optional.of(decoder.decodeLaunchConfiguration(rootServiceConfiguration));
     this.initialTaskConfiguration = Optional.empty();
   }
 
@@ -72,21 +80,19 @@ final class RootContextLauncher {
   RootContextLauncher(final Injector injector,
                       @Parameter(RootContextConfiguration.class) final String rootContextConfiguration,
                       @Parameter(InitialTaskConfiguration.class) final String initialTaskConfiguration,
-                      final ConfigurationSerializer configurationSerializer) throws IOException, BindException {
+                      final ConfigurationWireDecoder decoder) throws IOException, BindException {
     this.injector = injector;
-    this.configurationSerializer = configurationSerializer;
-    this.rootContextConfiguration = this.configurationSerializer.fromString(rootContextConfiguration);
+    this.rootContextConfiguration = decoder.decodeLaunchConfiguration(rootContextConfiguration);
     this.rootServiceConfiguration = Optional.empty();
-    this.initialTaskConfiguration = Optional.of(this.configurationSerializer.fromString(initialTaskConfiguration));
+    this.initialTaskConfiguration = Optional.of(decoder.decodeLaunchConfiguration(initialTaskConfiguration));
   }
 
   @Inject
   RootContextLauncher(@Parameter(RootContextConfiguration.class) final String rootContextConfiguration,
-                      final Injector injector, final ConfigurationSerializer configurationSerializer)
+                      final Injector injector, final ConfigurationWireDecoder decoder)
       throws IOException, BindException {
     this.injector = injector;
-    this.configurationSerializer = configurationSerializer;
-    this.rootContextConfiguration = this.configurationSerializer.fromString(rootContextConfiguration);
+    this.rootContextConfiguration = decoder.decodeLaunchConfiguration(rootContextConfiguration);
     this.rootServiceConfiguration = Optional.empty();
     this.initialTaskConfiguration = Optional.empty();
   }
@@ -96,30 +102,52 @@ final class RootContextLauncher {
    * <p/>
    * This also launches the initial task if there is any.
    *
-   * @param injector
-   * @param rootContextConfiguration
-   * @param rootServiceConfiguration
    * @return ContextRuntime
    * @throws ContextClientCodeException
    */
-  private static ContextRuntime getRootContext(final Injector injector,
-                                               final Configuration rootContextConfiguration,
-                                               final Optional<Configuration> rootServiceConfiguration)
-      throws ContextClientCodeException {
-    final ContextRuntime result;
-    if (rootServiceConfiguration.isPresent()) {
-      final Injector rootServiceInjector;
+  private ContextRuntime newRootContext() throws ContextClientCodeException {
+    final Injector rootServiceInjector;
+    if (this.rootServiceConfiguration.isPresent()) {
       try {
-        rootServiceInjector = injector.forkInjector(rootServiceConfiguration.get());
+        rootServiceInjector = this.injector.forkInjector(this.rootServiceConfiguration.get());
       } catch (final BindException e) {
-        throw new ContextClientCodeException(ContextClientCodeException.getIdentifier(rootContextConfiguration),
+        throw new ContextClientCodeException(ContextClientCodeException.getIdentifier(this.rootContextConfiguration),
             Optional.<String>empty(), "Unable to instatiate the root context", e);
       }
-      result = new ContextRuntime(rootServiceInjector, rootContextConfiguration);
     } else {
-      result = new ContextRuntime(injector.forkInjector(), rootContextConfiguration);
+      rootServiceInjector = this.injector.forkInjector();
+    }
+    bindParallelInjection(rootServiceInjector);
+    try {
+      return new ContextRuntime(rootServiceInjector, this.rootContextConfiguration);
+    } catch (final ContextClientCodeException | RuntimeException e) {
+      // There is no root context to close later.
+      this.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Lets the root service injector, and thereby those of all contexts, instantiate independent services in parallel
+   * if ServiceInstantiationThreads is greater than 1.
+   */
+  private void bindParallelInjection(final Injector rootServiceInjector) throws ContextClientCodeException {
+    try {
+      final int threads = rootServiceInjector.getNamedInstance(ServiceInstantiationThreads.class);
+      if (threads > 1) {
+        if (!(rootServiceInjector instanceof InjectorImpl)) {
+          LOG.log(Level.WARNING, "{0} does not support parallel injection, instantiating services sequentially",
+              rootServiceInjector.getClass().getName());
+          return;
+        }
+        LOG.log(Level.FINE, "Instantiating services on {0} threads", threads);
+        this.parallelInjectionPool = new ForkJoinPool(threads);
+        ((InjectorImpl) rootServiceInjector).bindParallelInjection(this.parallelInjectionPool);
+      }
+    } catch (final InjectionException | BindException e) {
+      throw new ContextClientCodeException(ContextClientCodeException.getIdentifier(this.rootContextConfiguration),
+          Optional.<String>empty(), "Unable to set up parallel service instantiation", e);
     }
-    return result;
   }
 
   /**
@@ -127,7 +155,7 @@ final class RootContextLauncher {
    */
   ContextRuntime getRootContext() throws ContextClientCodeException {
     if (null == this.rootContext) {
-      this.rootContext = getRootContext(this.injector, this.rootContextConfiguration, this.rootServiceConfiguration);
+      this.rootContext = newRootContext();
     }
     return this.rootContext;
   }
@@ -135,4 +163,15 @@ final class RootContextLauncher {
   Optional<Configuration> getInitialTaskConfiguration() {
     return this.initialTaskConfiguration;
   }
+
+  /**
+   * Shuts down the pool the services were instantiated on, if any. Called once the root context is closed,
+   * as the child contexts and the tasks inject with the same pool until then.
+   */
+  void close() {
+    if (this.parallelInjectionPool != null) {
+      LOG.log(Level.FINE, "Shutting down the service instantiation pool");
+      this.parallelInjectionPool.shutdown();
+    }
+  }
 }
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Every how many heartbeats the evaluator sends its complete context and task status.
+ * The heartbeats in between only carry the statuses that changed.
+ */
+@NamedParameter(doc = "Every how many heartbeats the evaluator sends its complete context and task status. " +
+    "The heartbeats in between only carry the statuses that changed. 1 sends the complete status every time.",
+    default_value = "10")
+public final class HeartbeatFullStatusInterval implements Name<Integer> {
+  private HeartbeatFullStatusInterval() {
+  }
+}
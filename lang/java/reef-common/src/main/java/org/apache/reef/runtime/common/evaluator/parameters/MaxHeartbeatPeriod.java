@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The longest the evaluator waits between two heartbeats in ms.
+ * While nothing changes, the heartbeat period grows from HeartbeatPeriod up to this value.
+ * By default, the period stays at HeartbeatPeriod, as task and context messages that become pending while the
+ * period is stretched wait for the next heartbeat.
+ */
+@NamedParameter(doc = "The longest the evaluator waits between two heartbeats in ms. While nothing changes, " +
+    "the heartbeat period grows from HeartbeatPeriod up to this value. This also bounds the period the Driver " +
+    "may ask for under load. 0, the default, keeps the period at HeartbeatPeriod.", default_value = "0")
+public final class MaxHeartbeatPeriod implements Name<Integer> {
+  private MaxHeartbeatPeriod() {
+  }
+}
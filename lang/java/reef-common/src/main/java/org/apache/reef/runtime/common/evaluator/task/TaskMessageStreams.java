@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator.task;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.TaskMessageBatchProto;
+import org.apache.reef.proto.ReefServiceProtos.TaskStatusProto.TaskMessageProto;
+import org.apache.reef.runtime.common.evaluator.HeartBeatManager;
+import org.apache.reef.runtime.common.evaluator.parameters.DriverRemoteIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.runtime.common.utils.TaskMessageStream;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The direct message streams between the Driver and the Tasks of this Evaluator, keyed by Task ID.
+ * <p/>
+ * A Task only gets a stream if the Driver said it keeps one for it. Otherwise, or once the Driver rejected the
+ * stream, the messages of the Task go through heartbeats instead, in the order sent.
+ * <p/>
+ * The Evaluator instantiates this before any Context, so that all Tasks share it.
+ */
+@Private
+@EvaluatorSide
+public final class TaskMessageStreams implements EventHandler<TaskMessageBatchProto>, AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageStreams.class.getName());
+
+  private final String evaluatorId;
+  private final EventHandler<TaskMessageBatchProto> link;
+  private final AutoCloseable channel;
+  private final HeartBeatManager heartBeatManager;
+  private final Map<String, Messages> tasks = new HashMap<>();
+
+  @Inject
+  private TaskMessageStreams(@Parameter(EvaluatorIdentifier.class) final String evaluatorId,
+                             @Parameter(DriverRemoteIdentifier.class) final String driverRID,
+                             final RemoteManager remoteManager,
+                             final HeartBeatManager heartBeatManager) {
+    this.evaluatorId = evaluatorId;
+    this.heartBeatManager = heartBeatManager;
+    this.link = remoteManager.getHandler(driverRID, TaskMessageBatchProto.class);
+    this.channel = remoteManager.registerHandler(driverRID, TaskMessageBatchProto.class, this);
+  }
+
+  /**
+   * Opens the stream of a Task.
+   *
+   * @param taskId   the Task.
+   * @param direct   whether the Driver keeps a direct message stream for the Task.
+   * @param receiver receives the messages of the Driver for the Task that come through the stream.
+   */
+  synchronized void open(final String taskId, final boolean direct, final EventHandler<TaskMessageProto> receiver) {
+    if (this.tasks.containsKey(taskId)) {
+      throw new IllegalStateException("The message stream of Task " + taskId + " is already open.");
+    }
+    this.tasks.put(taskId,
+        new Messages(direct ? new TaskMessageStream(this.evaluatorId, taskId, this.link, receiver) : null));
+  }
+
+  /**
+   * Closes the stream of a Task after its messages have been delivered: acknowledged by the Driver, or sent with
+   * a heartbeat.
+   *
+   * @param taskId the Task.
+   */
+  void close(final String taskId) {
+    final Messages messages = this.get(taskId);
+    if (messages == null) {
+      return;
+    }
+    final TaskMessageStream stream = messages.getStream();
+    if (stream != null) {
+      stream.close();
+    }
+    if (messages.hasHeartbeatMessages()) {
+      this.heartBeatManager.sendHeartbeat();
+    }
+    synchronized (this) {
+      this.tasks.remove(taskId);
+    }
+  }
+
+  /**
+   * Sends a message of a Task to the Driver right away.
+   *
+   * @param taskId   the Task sending the message.
+   * @param sourceId the source of the message.
+   * @param message  the message.
+   * @throws IllegalStateException if the Task is not running.
+   */
+  public void send(final String taskId, final String sourceId, final byte[] message) {
+    final Messages messages = this.get(taskId);
+    if (messages == null) {
+      throw new IllegalStateException("Task " + taskId + " is not running.");
+    }
+    final TaskMessageStream stream = messages.getStream();
+    if (stream == null || !stream.send(sourceId, message)) {
+      messages.addHeartbeatMessage(TaskMessageProto.newBuilder()
+          .setSourceId(sourceId)
+          .setMessage(ByteString.copyFrom(message))
+          .build());
+      this.heartBeatManager.sendHeartbeat();
+    }
+  }
+
+  /**
+   * @return the messages of the Task to send with the next heartbeat, in the order sent. Called by TaskStatus.
+   */
+  List<TaskMessageProto> takeHeartbeatMessages(final String taskId) {
+    final Messages messages = this.get(taskId);
+    return messages == null ? new ArrayList<TaskMessageProto>(0) : messages.takeHeartbeatMessages();
+  }
+
+  @Override
+  public void onNext(final TaskMessageBatchProto batch) {
+    final Messages messages = this.get(batch.getTaskId());
+    if (messages == null || messages.getStream() == null) {
+      LOG.log(Level.WARNING, "Dropping {0} messages for Task {1}, which has no message stream.",
+          new Object[]{batch.getMessageCount(), batch.getTaskId()});
+    } else if (batch.getRejected()) {
+      LOG.log(Level.INFO, "The Driver has no message stream for Task {0}, sending its messages with heartbeats.",
+          batch.getTaskId());
+      messages.reject();
+      this.heartBeatManager.sendHeartbeat();
+    } else {
+      messages.getStream().onBatch(batch);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.channel.close();
+  }
+
+  private synchronized Messages get(final String taskId) {
+    return this.tasks.get(taskId);
+  }
+
+  /**
+   * The message stream of a Task, and its messages waiting for a heartbeat.
+   */
+  private static final class Messages {
+    private TaskMessageStream stream;
+    private final List<TaskMessageProto> heartbeatMessages = new ArrayList<>();
+
+    private Messages(final TaskMessageStream stream) {
+      this.stream = stream;
+    }
+
+    private synchronized TaskMessageStream getStream() {
+      return this.stream;
+    }
+
+    /**
+     * Sends the messages the Driver did not acknowledge, and the ones still queued, with heartbeats instead.
+     * Under the lock of this object, so that messages the stream refuses from now on go after them.
+     */
+    private synchronized void reject() {
+      if (this.stream != null) {
+        this.heartbeatMessages.addAll(this.stream.reject());
+        this.stream = null;
+      }
+    }
+
+    private synchronized void addHeartbeatMessage(final TaskMessageProto message) {
+      this.heartbeatMessages.add(message);
+    }
+
+    private synchronized boolean hasHeartbeatMessages() {
+      return !this.heartbeatMessages.isEmpty();
+    }
+
+    private synchronized List<TaskMessageProto> takeHeartbeatMessages() {
+      final List<TaskMessageProto> messages = new ArrayList<>(this.heartbeatMessages);
+      this.heartbeatMessages.clear();
+      return messages;
+    }
+  }
+}
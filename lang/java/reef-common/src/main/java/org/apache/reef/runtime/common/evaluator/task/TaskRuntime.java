@@ -22,6 +22,7 @@ import org.apache.reef.annotations.audience.EvaluatorSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.proto.ReefServiceProtos.TaskStatusProto.TaskMessageProto;
 import org.apache.reef.runtime.common.evaluator.HeartBeatManager;
 import org.apache.reef.runtime.common.evaluator.task.exceptions.*;
 import org.apache.reef.tang.InjectionFuture;
@@ -69,6 +70,11 @@ public final class TaskRuntime implements Runnable {
 
   private final TaskStatus currentStatus;
 
+  /**
+   * The direct message streams between the Driver and the Tasks.
+   */
+  private final TaskMessageStreams messageStreams;
+
   // TODO: Document
   @Inject
   private TaskRuntime(
@@ -81,9 +87,10 @@ public final class TaskRuntime implements Runnable {
       final InjectionFuture<EventHandler<SuspendEvent>> fSuspendHandler,
       @Parameter(TaskConfigurationOptions.MessageHandler.class)
       final InjectionFuture<EventHandler<DriverMessage>> fMessageHandler,
-      final TaskLifeCycleHandlers taskLifeCycleHandlers) {
+      final TaskLifeCycleHandlers taskLifeCycleHandlers,
+      final TaskMessageStreams messageStreams) {
     this(heartBeatManager, task, currentStatus, fCloseHandler, fSuspendHandler, fMessageHandler, null,
-        taskLifeCycleHandlers);
+        taskLifeCycleHandlers, messageStreams);
   }
 
   // TODO: Document
@@ -99,7 +106,8 @@ public final class TaskRuntime implements Runnable {
       @Parameter(TaskConfigurationOptions.MessageHandler.class)
       final InjectionFuture<EventHandler<DriverMessage>> fMessageHandler,
       @Parameter(TaskConfigurationOptions.Memento.class) final String memento,
-      final TaskLifeCycleHandlers taskLifeCycleHandlers) {
+      final TaskLifeCycleHandlers taskLifeCycleHandlers,
+      final TaskMessageStreams messageStreams) {
 
     this.heartBeatManager = heartBeatManager;
     this.task = task;
@@ -113,13 +121,23 @@ public final class TaskRuntime implements Runnable {
     this.fMessageHandler = fMessageHandler;
 
     this.currentStatus = currentStatus;
+    this.messageStreams = messageStreams;
   }
 
   /**
    * This method needs to be called before a Task can be run().
    * It informs the Driver that the Task is initializing.
+   *
+   * @param messageStream whether the Driver keeps a direct message stream for the Task. If not, the messages
+   *                      of the Task go through heartbeats.
    */
-  public void initialize() {
+  public void initialize(final boolean messageStream) {
+    this.messageStreams.open(this.getTaskId(), messageStream, new EventHandler<TaskMessageProto>() {
+      @Override
+      public void onNext(final TaskMessageProto message) {
+        TaskRuntime.this.deliverDirect(message.getMessage().toByteArray());
+      }
+    });
     this.currentStatus.setInit();
   }
 
@@ -138,6 +156,9 @@ public final class TaskRuntime implements Runnable {
       // Call Task.call()
       final byte[] result = this.runTask();
 
+      // Deliver the messages of the Task before its result
+      this.messageStreams.close(this.getTaskId());
+
       // Inform the Driver about it
       this.currentStatus.setResult(result);
 
@@ -153,6 +174,8 @@ public final class TaskRuntime implements Runnable {
     } catch (final TaskCallFailure e) {
       LOG.log(Level.WARNING, "Caught an exception during Task.call().", e.getCause());
       this.currentStatus.setException(e);
+    } finally {
+      this.messageStreams.close(this.getTaskId());
     }
   }
 
@@ -253,6 +276,30 @@ public final class TaskRuntime implements Runnable {
     }
   }
 
+  /**
+   * Deliver a message that came through the direct message stream to the Task. Unlike deliver(), this does not
+   * hold the lock of the heart beat manager while the message handler runs.
+   *
+   * @param message the message to be delivered.
+   */
+  private void deliverDirect(final byte[] message) {
+    if (this.currentStatus.isNotRunning()) {
+      LOG.log(Level.WARNING,
+          "Trying to send a message to a task that is in state: {0}. Ignoring.",
+          this.currentStatus.getState());
+      return;
+    }
+    try {
+      this.deliverMessageToTask(message);
+    } catch (final TaskMessageHandlerFailure taskMessageHandlerFailure) {
+      LOG.log(Level.WARNING, "Exception while executing task message handler.",
+          taskMessageHandlerFailure.getCause());
+      synchronized (this.heartBeatManager) {
+        this.currentStatus.setException(taskMessageHandlerFailure.getCause());
+      }
+    }
+  }
+
   /**
    * @return the ID of the Context this task is executing in.
    */
@@ -48,9 +48,10 @@ public final class TaskStatus {
   private final HeartBeatManager heartBeatManager;
   private final Set<TaskMessageSource> evaluatorMessageSources;
   private final ExceptionCodec exceptionCodec;
+  private final TaskMessageStreams messageStreams;
   private Optional<Throwable> lastException = Optional.empty();
   private Optional<byte[]> result = Optional.empty();
-  private State state = State.PRE_INIT;
+  private volatile State state = State.PRE_INIT;
 
 
   @Inject
@@ -59,12 +60,14 @@ public final class TaskStatus {
              @Parameter(TaskConfigurationOptions.TaskMessageSources.class)
              final Set<TaskMessageSource> evaluatorMessageSources,
              final HeartBeatManager heartBeatManager,
-             final ExceptionCodec exceptionCodec) {
+             final ExceptionCodec exceptionCodec,
+             final TaskMessageStreams messageStreams) {
     this.taskId = taskId;
     this.contextId = contextId;
     this.heartBeatManager = heartBeatManager;
     this.evaluatorMessageSources = evaluatorMessageSources;
     this.exceptionCodec = exceptionCodec;
+    this.messageStreams = messageStreams;
   }
 
   /**
@@ -149,12 +152,16 @@ public final class TaskStatus {
     } else if (this.lastException.isPresent()) {
       final byte[] error = this.exceptionCodec.toBytes(this.lastException.get());
       resultBuilder.setResult(ByteString.copyFrom(error));
-    } else if (this.state == State.RUNNING) {
-      for (final TaskMessage taskMessage : this.getMessages()) {
-        resultBuilder.addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
-            .setSourceId(taskMessage.getMessageSourceID())
-            .setMessage(ByteString.copyFrom(taskMessage.get()))
-            .build());
+    } else {
+      // Sent before the result, by TaskRuntime.
+      resultBuilder.addAllTaskMessage(this.messageStreams.takeHeartbeatMessages(this.taskId));
+      if (this.state == State.RUNNING) {
+        for (final TaskMessage taskMessage : this.getMessages()) {
+          resultBuilder.addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
+              .setSourceId(taskMessage.getMessageSourceID())
+              .setMessage(ByteString.copyFrom(taskMessage.get()))
+              .build());
+        }
       }
     }
 
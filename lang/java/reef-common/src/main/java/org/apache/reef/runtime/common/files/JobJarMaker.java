@@ -74,7 +74,8 @@ public final class JobJarMaker {
         );
       } else {
         try {
-          java.nio.file.Files.copy(sourceFile.toPath(), destinationFile.toPath());
+          // The folder is only read to make the JAR, so the files don't need to be copied.
+          LocalFileCache.linkOrCopy(sourceFile, destinationFile);
         } catch (final IOException e) {
           final String message = new StringBuilder("Copy of file [")
               .append(sourceFile.getAbsolutePath())
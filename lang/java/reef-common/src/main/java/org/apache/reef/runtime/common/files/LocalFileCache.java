@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.files;
+
+import org.apache.reef.annotations.audience.Private;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A content-addressed store of files on the local disk, shared by the jobs of a runtime.
+ * <p/>
+ * Each file is stored once, named by the SHA-256 of its content. Adding a file hashes it while copying it into the
+ * cache, so the entry always has the content the file had when it was added. A file whose path, size and modification
+ * time are the same as when this instance last added it is not read again. Staging a file adds it and then hard-links
+ * the entry into the job or Evaluator folder, or copies it where linking isn't possible. The entries are read-only and
+ * never modified, so staged files are read-only as well, and later changes to the original files don't affect them.
+ * <p/>
+ * Several processes can use the same folder at once: files are written to a temporary name and then renamed.
+ */
+@Private
+public final class LocalFileCache {
+
+  private static final Logger LOG = Logger.getLogger(LocalFileCache.class.getName());
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File folder;
+
+  /**
+   * The files this instance added, by their absolute path.
+   */
+  private final Map<File, Added> added = new HashMap<>();
+
+  /**
+   * @param folder the folder of the cache. It is created when needed.
+   */
+  public LocalFileCache(final File folder) {
+    this.folder = folder.getAbsoluteFile();
+  }
+
+  /**
+   * Places a read-only file with the content of source at destination: a hard link to the cache entry of that
+   * content, or a copy of it. A file at destination is replaced.
+   *
+   * @param source      the file to stage.
+   * @param destination where to stage it.
+   * @throws IOException if source can't be read or destination can't be written.
+   */
+  public void stage(final File source, final File destination) throws IOException {
+    linkOrCopy(this.add(source), destination);
+    destination.setReadOnly();
+  }
+
+  /**
+   * Adds the content of the given file to the cache, unless it is there already. The file is not read again if its
+   * size and modification time are the same as when this instance last added it.
+   *
+   * @param source the file to add.
+   * @return the cache entry with the content of source. It must not be modified.
+   * @throws IOException if source can't be read or the cache can't be written.
+   */
+  public File add(final File source) throws IOException {
+    final File absoluteSource = source.getAbsoluteFile();
+    // Taken before reading it, so that a change while reading it is noticed the next time.
+    final long length = absoluteSource.length();
+    final long lastModified = absoluteSource.lastModified();
+    synchronized (this.added) {
+      final Added previous = this.added.get(absoluteSource);
+      if (previous != null && previous.length == length && previous.lastModified == lastModified
+          && previous.entry.exists()) {
+        return previous.entry;
+      }
+    }
+    final File entry = this.addContent(absoluteSource);
+    synchronized (this.added) {
+      this.added.put(absoluteSource, new Added(length, lastModified, entry));
+    }
+    return entry;
+  }
+
+  private File addContent(final File source) throws IOException {
+    this.folder.mkdirs();
+    final File temporary = this.newTemporaryFile();
+    try {
+      final File entry;
+      try (final InputStream in = new FileInputStream(source)) {
+        entry = new File(this.folder, copyAndHash(in, temporary));
+      }
+      if (!entry.exists()) {
+        temporary.setReadOnly();
+        Files.move(temporary.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        LOG.log(Level.FINEST, "Added {0} to the file cache as {1}", new Object[]{source, entry});
+      }
+      return entry;
+    } finally {
+      Files.deleteIfExists(temporary.toPath());
+    }
+  }
+
+  /**
+   * Hard-links destination to source, or copies source to destination where that isn't possible.
+   * A file at destination is replaced. Only for files that are read and never written, as both names then refer
+   * to the same file.
+   *
+   * @param source      the file to link to.
+   * @param destination the link to create.
+   * @throws IOException if neither works.
+   */
+  public static void linkOrCopy(final File source, final File destination) throws IOException {
+    Files.deleteIfExists(destination.toPath());
+    try {
+      Files.createLink(destination.toPath(), source.toPath());
+    } catch (final FileSystemException | UnsupportedOperationException e) {
+      LOG.log(Level.FINEST, "Unable to link {0} to {1}, copying it instead: {2}",
+          new Object[]{destination, source, e});
+      Files.copy(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * @return the SHA-256 of the content of the given file, as a hex string.
+   * @throws IOException if the file can't be read.
+   */
+  public static String hashOf(final File file) throws IOException {
+    try (final InputStream in = new FileInputStream(file)) {
+      return copyAndHash(in, null);
+    }
+  }
+
+  /**
+   * Reads the given stream to its end, writing it to the given file, if any.
+   *
+   * @return the SHA-256 of what was read, as a hex string.
+   */
+  private static String copyAndHash(final InputStream in, final File destination) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+    }
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    try (final OutputStream out = destination == null ? null : new FileOutputStream(destination)) {
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        digest.update(buffer, 0, read);
+        if (out != null) {
+          out.write(buffer, 0, read);
+        }
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  private File newTemporaryFile() {
+    return new File(this.folder, "tmp-" + UUID.randomUUID());
+  }
+
+  private static String toHex(final byte[] bytes) {
+    final char[] hex = new char[2 * bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+  /**
+   * A file added to the cache, with the size and modification time it had then.
+   */
+  private static final class Added {
+    private final long length;
+    private final long lastModified;
+    private final File entry;
+
+    private Added(final long length, final long lastModified, final File entry) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.entry = entry;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LocalFileCache{" +
+        "folder=" + this.folder +
+        '}';
+  }
+}
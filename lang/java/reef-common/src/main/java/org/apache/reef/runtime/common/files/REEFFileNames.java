@@ -40,8 +40,12 @@ public final class REEFFileNames {
   private static final String EVALUATOR_CONFIGURATION_NAME = "evaluator.conf";
   private static final String EVALUATOR_CONFIGURATION_PATH =
       LOCAL_FOLDER_PATH + '/' + EVALUATOR_CONFIGURATION_NAME;
+  private static final String CLASS_HIERARCHY_SNAPSHOT_NAME = "javaClassHierarchy.bin";
+  private static final String CLASS_HIERARCHY_SNAPSHOT_PATH =
+      GLOBAL_FOLDER_PATH + '/' + CLASS_HIERARCHY_SNAPSHOT_NAME;
   private static final String JAR_FILE_SUFFIX = ".jar";
   private static final String JOB_FOLDER_PREFIX = "reef-job-";
+  private static final String FILE_CACHE_FOLDER = "file-cache";
   private static final String EVALUATOR_FOLDER_PREFIX = "reef-evaluator-";
   private static final String DRIVER_STDERR = "driver.stderr";
   private static final String DRIVER_STDOUT = "driver.stdout";
@@ -160,6 +164,20 @@ public final class REEFFileNames {
     return EVALUATOR_CONFIGURATION_PATH;
   }
 
+  /**
+   * @return The name under which a class hierarchy snapshot of the job jars is stored in REEF_BASE_FOLDER/GLOBAL_FOLDER
+   */
+  public String getClassHierarchySnapshotName() {
+    return CLASS_HIERARCHY_SNAPSHOT_NAME;
+  }
+
+  /**
+   * @return the path to the class hierarchy snapshot of the job jars.
+   */
+  public String getClassHierarchySnapshotPath() {
+    return CLASS_HIERARCHY_SNAPSHOT_PATH;
+  }
+
   /**
    * @return The suffix used for JAR files, including the "."
    */
@@ -176,6 +194,13 @@ public final class REEFFileNames {
     return JOB_FOLDER_PREFIX;
   }
 
+  /**
+   * @return The name of the folder in the root folder of a runtime that holds the files shared by its jobs.
+   */
+  public String getFileCacheFolderName() {
+    return FILE_CACHE_FOLDER;
+  }
+
   /**
    * @return The name used within the current working directory of the driver to redirect standard error to.
    */
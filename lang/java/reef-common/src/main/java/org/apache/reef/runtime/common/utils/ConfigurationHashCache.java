@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.apache.reef.annotations.audience.Private;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The configurations most recently exchanged between the Driver and one Evaluator, keyed by the hash of their
+ * binary form. The Driver and the Evaluator each keep one of these and look up and add the same hashes in the same
+ * order, so the Driver knows which configurations the Evaluator still has and only sends the bytes of the others.
+ * Only those mirrored accesses may use {@link #get(String)} and {@link #put(String, Object)}; any other lookup has
+ * to use {@link #peek(String)}, which leaves the order alone. Should the two get out of sync nonetheless, the
+ * Evaluator asks the Driver for the configurations it misses.
+ *
+ * @param <V> what is kept per configuration.
+ */
+@Private
+public final class ConfigurationHashCache<V> {
+
+  /**
+   * How many configurations are kept. Has to be the same on both sides.
+   */
+  static final int MAX_CONFIGURATIONS = 32;
+
+  private final Map<String, V> entries = new LinkedHashMap<String, V>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+      return size() > MAX_CONFIGURATIONS;
+    }
+  };
+
+  /**
+   * @return the value kept for the hash, or null if there is none. Marks the hash as most recently used.
+   */
+  public synchronized V get(final String hash) {
+    return this.entries.get(hash);
+  }
+
+  /**
+   * @return the value kept for the hash, or null if there is none. Unlike get(), leaves the order of the hashes alone.
+   */
+  public synchronized V peek(final String hash) {
+    for (final Map.Entry<String, V> entry : this.entries.entrySet()) {
+      if (entry.getKey().equals(hash)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Keeps the value for the hash, evicting the least recently used hash if the cache is full.
+   */
+  public synchronized void put(final String hash, final V value) {
+    this.entries.put(hash, value);
+  }
+}
@@ -28,10 +28,15 @@ import org.apache.reef.wake.impl.ThreadPoolStage;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Delayed event router that dispatches messages to the proper event handler by type.
  * This class is used in EvaluatorManager to isolate user threads from REEF.
+ * <p/>
+ * The events are either processed by a thread pool owned by this stage,
+ * or by an Executor shared with other stages, in which case the number of events
+ * of this stage processed at the same time is bounded.
  */
 @Private
 @DriverSide
@@ -47,9 +52,13 @@ public final class DispatchingEStage implements AutoCloseable {
    */
   private final EventHandler<Throwable> errorHandler;
   /**
-   * Thread pool to process delayed event handler invocations.
+   * Thread pool to process delayed event handler invocations, if owned by this stage.
    */
   private final ThreadPoolStage<DelayedOnNext> stage;
+  /**
+   * Executor to process delayed event handler invocations on a shared Executor.
+   */
+  private final SerializingExecutor executor;
 
   /**
    * @param errorHandler used for exceptions thrown from the event handlers registered.
@@ -65,21 +74,38 @@ public final class DispatchingEStage implements AutoCloseable {
         new EventHandler<DelayedOnNext>() {
           @Override
           public void onNext(final DelayedOnNext promise) {
-            promise.handler.onNext(promise.message);
+            promise.run();
           }
         }, numThreads
     );
+    this.executor = null;
+  }
 
+  /**
+   * Constructs a DispatchingEStage that processes its events on an Executor shared with other stages.
+   *
+   * @param errorHandler   used for exceptions thrown from the event handlers registered.
+   * @param sharedExecutor the executor to process events on.
+   * @param maxConcurrency maximum number of events of this stage processed at the same time.
+   *                       With 1, events are processed one at a time in the order received.
+   */
+  public DispatchingEStage(final EventHandler<Throwable> errorHandler,
+                           final Executor sharedExecutor,
+                           final int maxConcurrency) {
+    this.errorHandler = errorHandler;
+    this.stage = null;
+    this.executor = new SerializingExecutor(sharedExecutor, maxConcurrency);
   }
 
   /**
-   * Constructs a DispatchingEStage that uses the Thread pool and ErrorHandler of another one.
+   * Constructs a DispatchingEStage that uses the Thread pool (or Executor) and ErrorHandler of another one.
    *
    * @param other
    */
   public DispatchingEStage(final DispatchingEStage other) {
     this.errorHandler = other.errorHandler;
     this.stage = other.stage;
+    this.executor = other.executor;
   }
 
   /**
@@ -107,31 +133,42 @@ public final class DispatchingEStage implements AutoCloseable {
   @SuppressWarnings("unchecked")
   public <T, U extends T> void onNext(final Class<T> type, final U message) {
     final EventHandler<T> handler = (EventHandler<T>) this.handlers.get(type);
-    this.stage.onNext(new DelayedOnNext(handler, message));
+    final DelayedOnNext delayedOnNext = new DelayedOnNext(handler, message);
+    if (this.stage != null) {
+      this.stage.onNext(delayedOnNext);
+    } else {
+      this.executor.execute(delayedOnNext);
+    }
   }
 
   /**
    * Return true if there are no messages queued or in processing, false otherwise.
    */
   public boolean isEmpty() {
-    return this.stage.getQueueLength() == 0;
+    if (this.stage != null) {
+      return this.stage.getQueueLength() == 0;
+    } else {
+      return this.executor.getQueueLength() == 0;
+    }
   }
 
   /**
-   * Close the internal thread pool.
+   * Close the internal thread pool. A shared Executor is left to its owner to close.
    *
    * @throws Exception forwarded from EStage.close() call.
    */
   @Override
   public void close() throws Exception {
-    this.stage.close();
+    if (this.stage != null) {
+      this.stage.close();
+    }
   }
 
   /**
    * Delayed EventHandler.onNext() call.
    * Contains a message object and EventHandler to process it.
    */
-  private static final class DelayedOnNext {
+  private static final class DelayedOnNext implements Runnable {
 
     private final EventHandler<Object> handler;
     private final Object message;
@@ -141,5 +178,10 @@ public final class DispatchingEStage implements AutoCloseable {
       this.handler = (EventHandler<Object>) handler;
       this.message = message;
     }
+
+    @Override
+    public void run() {
+      this.handler.onNext(this.message);
+    }
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.apache.reef.annotations.audience.Private;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executor that runs its commands on a (possibly shared) underlying Executor,
+ * with at most maxConcurrency of them running at the same time.
+ * With maxConcurrency of 1, commands run one at a time in submission order.
+ * <p/>
+ * This allows many independent event sources to share one bounded thread pool,
+ * while each of them still sees its events delivered in order.
+ */
+@Private
+public final class SerializingExecutor implements Executor {
+
+  private static final Logger LOG = Logger.getLogger(SerializingExecutor.class.getName());
+
+  /**
+   * Maximum number of commands a drainer runs before yielding its thread to other sources.
+   */
+  private static final int MAX_COMMANDS_PER_DRAIN = 64;
+
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger(0);
+  private final AtomicInteger drainers = new AtomicInteger(0);
+  private final Runnable drainer = new Runnable() {
+    @Override
+    public void run() {
+      drain();
+    }
+  };
+
+  /**
+   * @param executor       the underlying executor to run the commands on.
+   * @param maxConcurrency maximum number of commands of this executor running at the same time.
+   */
+  public SerializingExecutor(final Executor executor, final int maxConcurrency) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("maxConcurrency " + maxConcurrency + " is less than or equal to 0");
+    }
+    this.executor = executor;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    this.queued.incrementAndGet();
+    this.queue.add(command);
+    this.scheduleDrainer();
+  }
+
+  /**
+   * @return the number of commands submitted but not yet started.
+   */
+  public int getQueueLength() {
+    return this.queued.get();
+  }
+
+  /**
+   * Starts a new drainer on the underlying executor, unless maxConcurrency of them are running already.
+   */
+  private void scheduleDrainer() {
+    while (true) {
+      final int current = this.drainers.get();
+      if (current >= this.maxConcurrency) {
+        return;
+      }
+      if (this.drainers.compareAndSet(current, current + 1)) {
+        break;
+      }
+    }
+    try {
+      this.executor.execute(this.drainer);
+    } catch (final RejectedExecutionException e) {
+      this.drainers.decrementAndGet();
+      LOG.log(Level.WARNING, "Underlying executor rejected the commands; " + this.queued.get() + " remain queued", e);
+    }
+  }
+
+  private void drain() {
+    try {
+      for (int i = 0; i < MAX_COMMANDS_PER_DRAIN; ++i) {
+        final Runnable command = this.queue.poll();
+        if (command == null) {
+          break;
+        }
+        this.queued.decrementAndGet();
+        command.run();
+      }
+    } finally {
+      this.drainers.decrementAndGet();
+      // Commands may have been added after the last poll(), or the drainer may have yielded.
+      if (!this.queue.isEmpty()) {
+        this.scheduleDrainer();
+      }
+    }
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.TaskMessageBatchProto;
+import org.apache.reef.proto.ReefServiceProtos.TaskStatusProto.TaskMessageProto;
+import org.apache.reef.wake.EventHandler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One end of the direct message channel between the Driver and a running Task.
+ * <p/>
+ * Messages are sent right away on the thread that calls send(). Messages sent while another thread is sending
+ * are queued and go out in one batch with the next send, so the channel batches by itself under load.
+ * <p/>
+ * Each side acknowledges the messages it delivered, and send() blocks while WINDOW messages are not
+ * acknowledged yet. Acknowledgements ride along with the outgoing batches, or are sent on their own once
+ * half of the window has been delivered. Hence a receiver must not block on send() of the same stream while
+ * handling a message. close() asks the other side to acknowledge right away and waits for it, so that all messages
+ * were delivered once it returns.
+ * <p/>
+ * A side that has no stream for the Task rejects the batches it gets. The sender then stops sending: reject()
+ * hands back the messages that were not acknowledged, to be sent through heartbeats instead.
+ */
+@Private
+public final class TaskMessageStream {
+
+  private static final Logger LOG = Logger.getLogger(TaskMessageStream.class.getName());
+
+  /**
+   * How many messages can be sent ahead of the acknowledgements of the other side.
+   */
+  static final int WINDOW = 1024;
+
+  /**
+   * The most messages sent in one batch.
+   */
+  static final int MAX_BATCH_SIZE = 128;
+
+  /**
+   * How long close() waits for the other side to acknowledge the messages sent.
+   */
+  static final long CLOSE_TIMEOUT_MS = 60000;
+
+  private final String evaluatorId;
+  private final String taskId;
+  private final EventHandler<TaskMessageBatchProto> link;
+  private final EventHandler<TaskMessageProto> receiver;
+
+  private final Queue<TaskMessageProto> queue = new ArrayDeque<>();
+
+  /**
+   * The messages sent but not acknowledged yet, oldest first.
+   */
+  private final Queue<TaskMessageProto> unacknowledged = new ArrayDeque<>();
+
+  /**
+   * True while a thread sends the queue to the other side.
+   */
+  private boolean sending = false;
+  private boolean closed = false;
+  private boolean rejected = false;
+
+  /**
+   * True if the other side asked to acknowledge the messages received right away.
+   */
+  private boolean acknowledgementRequested = false;
+
+  private long sent = 0;
+  private long acknowledged = 0;
+  private long received = 0;
+  private long receivedAcknowledged = 0;
+
+  /**
+   * @param evaluatorId the Evaluator the Task runs on.
+   * @param taskId      the Task this stream belongs to.
+   * @param link        sends batches to the other side.
+   * @param receiver    receives the messages from the other side, in order.
+   */
+  public TaskMessageStream(final String evaluatorId,
+                           final String taskId,
+                           final EventHandler<TaskMessageBatchProto> link,
+                           final EventHandler<TaskMessageProto> receiver) {
+    this.evaluatorId = evaluatorId;
+    this.taskId = taskId;
+    this.link = link;
+    this.receiver = receiver;
+  }
+
+  /**
+   * Sends a message to the other side. Blocks while the window of unacknowledged messages is full.
+   *
+   * @param sourceId the source of the message. Empty for messages of the Driver.
+   * @param message  the message.
+   * @return false if the other side rejected the stream. The message was not sent then.
+   * @throws IllegalStateException if the stream is closed.
+   */
+  public boolean send(final String sourceId, final byte[] message) {
+    final TaskMessageProto messageProto = TaskMessageProto.newBuilder()
+        .setSourceId(sourceId)
+        .setMessage(ByteString.copyFrom(message))
+        .build();
+    synchronized (this) {
+      while (!this.closed && !this.rejected && this.sent + this.queue.size() - this.acknowledged >= WINDOW) {
+        try {
+          this.wait();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting to send to Task " + this.taskId, e);
+        }
+      }
+      if (this.rejected) {
+        return false;
+      }
+      if (this.closed) {
+        throw new IllegalStateException("The message stream of Task " + this.taskId + " is closed.");
+      }
+      this.queue.add(messageProto);
+      if (this.sending) {
+        return true;
+      }
+      this.sending = true;
+    }
+    this.sendQueue();
+    return true;
+  }
+
+  /**
+   * Delivers the messages of a batch from the other side to the receiver and takes note of its acknowledgement.
+   *
+   * @param batch the batch received.
+   */
+  public void onBatch(final TaskMessageBatchProto batch) {
+    if (batch.hasAcknowledged()) {
+      synchronized (this) {
+        if (batch.getAcknowledged() > this.acknowledged) {
+          for (long i = this.acknowledged; i < batch.getAcknowledged(); ++i) {
+            this.unacknowledged.poll();
+          }
+          this.acknowledged = batch.getAcknowledged();
+          this.notifyAll();
+        }
+      }
+    }
+    if (batch.getMessageCount() == 0 && !batch.getAcknowledge()) {
+      return;
+    }
+    for (final TaskMessageProto message : batch.getMessageList()) {
+      this.receiver.onNext(message);
+    }
+    synchronized (this) {
+      this.received += batch.getMessageCount();
+      this.acknowledgementRequested |= batch.getAcknowledge();
+      if (this.sending || !this.isAcknowledgementDue()) {
+        return;
+      }
+      this.sending = true;
+    }
+    this.sendQueue();
+  }
+
+  /**
+   * Stops the stream because the other side rejected it. Threads blocked in send() return false.
+   *
+   * @return the messages the other side did not acknowledge, and the ones not sent yet, in the order sent.
+   */
+  public synchronized List<TaskMessageProto> reject() {
+    this.rejected = true;
+    this.notifyAll();
+    final List<TaskMessageProto> messages = new ArrayList<>(this.unacknowledged.size() + this.queue.size());
+    messages.addAll(this.unacknowledged);
+    messages.addAll(this.queue);
+    this.unacknowledged.clear();
+    this.queue.clear();
+    return messages;
+  }
+
+  /**
+   * Closes the stream, after the messages already queued have been sent and the other side acknowledged them,
+   * or rejected the stream. Threads blocked in send() fail.
+   */
+  public void close() {
+    synchronized (this) {
+      this.closed = true;
+      this.notifyAll();
+      if (!this.awaitSent() || this.rejected || this.acknowledged >= this.sent) {
+        return;
+      }
+      this.sending = true;
+    }
+    final TaskMessageBatchProto.Builder request = TaskMessageBatchProto.newBuilder()
+        .setEvaluatorId(this.evaluatorId)
+        .setTaskId(this.taskId)
+        .setAcknowledge(true);
+    synchronized (this) {
+      request.setAcknowledged(this.received);
+      this.receivedAcknowledged = this.received;
+    }
+    final boolean acknowledgementDue;
+    try {
+      this.link.onNext(request.build());
+    } finally {
+      synchronized (this) {
+        // The other side may have asked for an acknowledgement meanwhile.
+        acknowledgementDue = this.isAcknowledgementDue();
+        this.sending = acknowledgementDue;
+        this.notifyAll();
+      }
+    }
+    if (acknowledgementDue) {
+      this.sendQueue();
+    }
+    synchronized (this) {
+      final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MS;
+      while (!this.rejected && this.acknowledged < this.sent) {
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          LOG.log(Level.WARNING, "Closing the message stream of Task {0} with {1} messages not acknowledged.",
+              new Object[]{this.taskId, this.sent - this.acknowledged});
+          return;
+        }
+        try {
+          this.wait(remaining);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits while another thread sends the queue.
+   *
+   * @return false if interrupted.
+   */
+  private boolean awaitSent() {
+    while (this.sending) {
+      try {
+        this.wait();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isAcknowledgementDue() {
+    return this.acknowledgementRequested || this.received - this.receivedAcknowledged >= WINDOW / 2;
+  }
+
+  /**
+   * Sends batches until the queue is empty and no acknowledgement is due. Only one thread at a time does this.
+   */
+  private void sendQueue() {
+    while (true) {
+      final TaskMessageBatchProto.Builder batch = TaskMessageBatchProto.newBuilder()
+          .setEvaluatorId(this.evaluatorId)
+          .setTaskId(this.taskId);
+      synchronized (this) {
+        if (this.rejected || this.queue.isEmpty() && !this.isAcknowledgementDue()) {
+          this.sending = false;
+          this.notifyAll();
+          return;
+        }
+        while (!this.queue.isEmpty() && batch.getMessageCount() < MAX_BATCH_SIZE) {
+          final TaskMessageProto message = this.queue.poll();
+          batch.addMessage(message);
+          this.unacknowledged.add(message);
+        }
+        this.sent += batch.getMessageCount();
+        batch.setAcknowledged(this.received);
+        this.receivedAcknowledged = this.received;
+        this.acknowledgementRequested = false;
+      }
+      try {
+        this.link.onNext(batch.build());
+      } catch (final RuntimeException e) {
+        synchronized (this) {
+          this.sending = false;
+          this.notifyAll();
+        }
+        throw e;
+      }
+    }
+  }
+}
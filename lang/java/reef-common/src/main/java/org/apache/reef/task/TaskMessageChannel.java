@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.task;
+
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.runtime.common.evaluator.task.TaskMessageStreams;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Sends messages from the Task to the Driver right away, without waiting for a heartbeat.
+ * The Driver receives them as TaskMessage, just like the messages of a TaskMessageSource.
+ * <p/>
+ * Messages sent while others are in flight are batched. send() blocks if the Driver falls too far behind
+ * in receiving them. Messages sent by the Driver with RunningTask.send() reach the DriverMessage handler
+ * of the Task through the same channel; that handler must not block on send().
+ */
+@TaskSide
+@Public
+@Unstable
+public final class TaskMessageChannel {
+
+  private final String taskId;
+  private final TaskMessageStreams messageStreams;
+
+  @Inject
+  TaskMessageChannel(@Parameter(TaskConfigurationOptions.Identifier.class) final String taskId,
+                     final TaskMessageStreams messageStreams) {
+    this.taskId = taskId;
+    this.messageStreams = messageStreams;
+  }
+
+  /**
+   * Send a message to the Driver, with the class name of this channel as its source ID.
+   *
+   * @param message the message.
+   */
+  public void send(final byte[] message) {
+    this.send(TaskMessageChannel.class.getName(), message);
+  }
+
+  /**
+   * Send a message to the Driver.
+   *
+   * @param sourceId the ID reported by TaskMessage.getMessageSourceID() on the Driver.
+   * @param message  the message.
+   */
+  public void send(final String sourceId, final byte[] message) {
+    this.messageStreams.send(this.taskId, sourceId, message);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.context;
+
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
+import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.driver.evaluator.EvaluatorType;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.AddContextProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.ContextControlProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.SerializedConfigurationProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.StartTaskProto;
+import org.apache.reef.runtime.common.evaluator.context.ConfigurationWireDecoder;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the binary wire format of configurations: encoded by ConfigurationWireEncoder on the Driver
+ * and decoded by ConfigurationWireDecoder on the Evaluator.
+ */
+public final class ConfigurationWireEncoderTest {
+
+  private final ConfigurationSerializer serializer = new AvroConfigurationSerializer();
+  private ConfigurationWireEncoder encoder;
+
+  private static Configuration context(final int i) {
+    return ContextConfiguration.CONF.set(ContextConfiguration.IDENTIFIER, "Context-" + i).build();
+  }
+
+  private static ContextControlProto startTask(final SerializedConfigurationProto configuration) {
+    return ContextControlProto.newBuilder()
+        .setStartTask(StartTaskProto.newBuilder()
+            .setContextId("Context")
+            .setConfiguration("")
+            .setBinaryConfiguration(configuration))
+        .build();
+  }
+
+  private static ContextControlProto addContext(final SerializedConfigurationProto context,
+                                                final SerializedConfigurationProto service) {
+    return ContextControlProto.newBuilder()
+        .setAddContext(AddContextProto.newBuilder()
+            .setParentContextId("Context")
+            .setContextConfiguration("")
+            .setBinaryContextConfiguration(context)
+            .setBinaryServiceConfiguration(service))
+        .build();
+  }
+
+  @Before
+  public void setUp() {
+    final EvaluatorProcess process = mock(EvaluatorProcess.class);
+    when(process.getType()).thenReturn(EvaluatorType.JVM);
+    final EvaluatorDescriptor descriptor = mock(EvaluatorDescriptor.class);
+    when(descriptor.getProcess()).thenReturn(process);
+    this.encoder = new ConfigurationWireEncoder(
+        descriptor, true, new SerializedConfigurationCache(this.serializer), this.serializer);
+  }
+
+  private void assertDecodes(final Configuration expected, final ConfigurationWireDecoder decoder,
+                             final ContextControlProto message) {
+    Assert.assertEquals(this.serializer.toString(expected),
+        this.serializer.toString(decoder.decode(message.getStartTask().getBinaryConfiguration())));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, BindException {
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+
+    final ContextControlProto first = startTask(this.encoder.encode(context(0)));
+    Assert.assertTrue(first.getStartTask().getBinaryConfiguration().hasConfiguration());
+    Assert.assertEquals(Collections.emptyList(), decoder.receive(first));
+    assertDecodes(context(0), decoder, first);
+
+    final ContextControlProto second = startTask(this.encoder.encode(context(0)));
+    Assert.assertFalse("Sent by hash only", second.getStartTask().getBinaryConfiguration().hasConfiguration());
+    Assert.assertEquals(Collections.emptyList(), decoder.receive(second));
+    assertDecodes(context(0), decoder, second);
+  }
+
+  @Test
+  public void testMirroredCachesStayInSync() throws IOException, BindException {
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+    final Random random = new Random(42);
+    for (int i = 0; i < 300; ++i) {
+      final Configuration configuration = context(random.nextInt(48));
+      final ContextControlProto message = startTask(this.encoder.encode(configuration));
+      Assert.assertEquals(Collections.emptyList(), decoder.receive(message));
+      assertDecodes(configuration, decoder, message);
+    }
+  }
+
+  @Test
+  public void testDecodingLeavesTheMirroredCacheAlone() throws IOException, BindException {
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+    final Random random = new Random(42);
+    for (int i = 0; i < 300; ++i) {
+      final Configuration context = context(random.nextInt(48));
+      final Configuration service = context(random.nextInt(48));
+      final ContextControlProto message = addContext(this.encoder.encode(context), this.encoder.encode(service));
+      Assert.assertEquals(Collections.emptyList(), decoder.receive(message));
+      // Decoded in a different order than received, and more than once.
+      for (int j = 0; j < 2; ++j) {
+        Assert.assertEquals(this.serializer.toString(service), this.serializer.toString(
+            decoder.decode(message.getAddContext().getBinaryServiceConfiguration())));
+        Assert.assertEquals(this.serializer.toString(context), this.serializer.toString(
+            decoder.decode(message.getAddContext().getBinaryContextConfiguration())));
+      }
+    }
+  }
+
+  @Test
+  public void testMissingConfigurationIsSentAgain() throws IOException, BindException {
+    this.encoder.encode(context(0));
+
+    // An Evaluator that did not keep what it received before.
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+    final ContextControlProto message = startTask(this.encoder.encode(context(0)));
+    final String hash = message.getStartTask().getBinaryConfiguration().getHash();
+    final List<String> missing = decoder.receive(message);
+    Assert.assertEquals(Collections.singletonList(hash), missing);
+
+    final ContextControlProto configurations = ContextControlProto.newBuilder()
+        .addAllConfigurations(this.encoder.getMissingConfigurations(missing))
+        .build();
+    Assert.assertEquals(Collections.emptyList(), decoder.receive(configurations));
+    Assert.assertEquals(Collections.emptyList(), decoder.getMissing(message));
+    assertDecodes(context(0), decoder, message);
+  }
+
+  @Test
+  public void testConfigurationEvictedOnTheDriverIsSentAgain() throws IOException, BindException {
+    this.encoder.encode(context(0));
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+    final ContextControlProto message = startTask(this.encoder.encode(context(0)));
+    // The Driver moves on before the Evaluator asks for the configuration it misses.
+    for (int i = 1; i < 100; ++i) {
+      this.encoder.encode(context(i));
+    }
+    final List<String> missing = decoder.receive(message);
+    Assert.assertEquals(1, missing.size());
+    final List<SerializedConfigurationProto> configurations = this.encoder.getMissingConfigurations(missing);
+    Assert.assertEquals(1, configurations.size());
+    Assert.assertTrue(configurations.get(0).hasConfiguration());
+    decoder.receive(ContextControlProto.newBuilder().addAllConfigurations(configurations).build());
+    Assert.assertEquals(Collections.emptyList(), decoder.getMissing(message));
+    assertDecodes(context(0), decoder, message);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUnknownConfigurationRequest() {
+    this.encoder.getMissingConfigurations(Collections.singletonList("unknown"));
+  }
+
+  @Test
+  public void testLaunchConfiguration() throws IOException, BindException {
+    final ConfigurationWireDecoder decoder = new ConfigurationWireDecoder(this.serializer);
+    final String encoded = this.encoder.encodeForLaunch(context(0));
+    Assert.assertNotEquals(this.serializer.toString(context(0)), encoded);
+    Assert.assertEquals(this.serializer.toString(context(0)),
+        this.serializer.toString(decoder.decodeLaunchConfiguration(encoded)));
+    Assert.assertEquals(this.serializer.toString(context(1)),
+        this.serializer.toString(decoder.decodeLaunchConfiguration(this.serializer.toString(context(1)))));
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.driver.catalog.ResourceCatalog;
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.driver.evaluator.EvaluatorProcessFactory;
+import org.apache.reef.driver.parameters.ContextActiveHandlers;
+import org.apache.reef.driver.restart.DriverRuntimeRestartManager;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchHandler;
+import org.apache.reef.runtime.common.driver.api.ResourceReleaseHandler;
+import org.apache.reef.runtime.common.driver.catalog.ResourceCatalogImpl;
+import org.apache.reef.runtime.common.driver.parameters.JobIdentifier;
+import org.apache.reef.runtime.common.driver.resourcemanager.ResourceEventImpl;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.RemoteIdentifier;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.apache.reef.wake.remote.impl.SocketRemoteIdentifier;
+import org.apache.reef.wake.time.Clock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Simulates many Evaluators heartbeating to one Driver, in-process.
+ * Each round delivers one heartbeat per Evaluator from several threads, like the transport does;
+ * rounds stand for seconds of Evaluators heartbeating at 1 Hz.
+ * <p/>
+ * Setting up the Evaluators takes more than half a minute, so the benchmark is not part of the unit tests.
+ * Remove the Ignore annotation to run it.
+ */
+@Ignore("Benchmark of the heartbeat path with 5000 Evaluators; run by hand")
+public final class EvaluatorHeartbeatBenchmarkTest {
+
+  private static final int NUM_EVALUATORS = 5000;
+  private static final int NUM_ROUNDS = 5;
+  private static final int NUM_TRANSPORT_THREADS = 8;
+  private static final String CONTEXT_ID = "RootContext";
+
+  private final RemoteIdentifier evaluatorRemoteId =
+      new SocketRemoteIdentifier(new InetSocketAddress("127.0.0.1", 40000));
+
+  private Injector injector;
+
+  @Before
+  public void setUp() throws InjectionException {
+    this.injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ResourceCatalog.class, ResourceCatalogImpl.class)
+        .bindNamedParameter(JobIdentifier.class, "EvaluatorHeartbeatBenchmark")
+        .bindSetEntry(ContextActiveHandlers.class, KeepContextHandler.class)
+        .build());
+    final EvaluatorProcessFactory processFactory = mock(EvaluatorProcessFactory.class);
+    doReturn(mock(EvaluatorProcess.class)).when(processFactory).newEvaluatorProcess();
+    this.injector.bindVolatileInstance(EvaluatorProcessFactory.class, processFactory);
+    this.injector.bindVolatileInstance(ResourceLaunchHandler.class, mock(ResourceLaunchHandler.class));
+    this.injector.bindVolatileInstance(ResourceReleaseHandler.class, mock(ResourceReleaseHandler.class));
+    this.injector.bindVolatileInstance(DriverRuntimeRestartManager.class, mock(DriverRuntimeRestartManager.class));
+  }
+
+  @Test
+  public void testHeartbeatsOfManyEvaluators() throws Exception {
+    // Driver singletons have to exist before EvaluatorManagerFactory forks an injector per Evaluator.
+    final RemoteManager remoteManager = this.injector.getInstance(RemoteManager.class);
+    final EvaluatorDispatcherPool dispatcherPool = this.injector.getInstance(EvaluatorDispatcherPool.class);
+    this.injector.getInstance(Clock.class);
+    final Evaluators evaluators = this.injector.getInstance(Evaluators.class);
+    final EvaluatorManagerFactory factory = this.injector.getInstance(EvaluatorManagerFactory.class);
+    final EvaluatorHeartbeatHandler heartbeatHandler = this.injector.getInstance(EvaluatorHeartbeatHandler.class);
+
+    final long setupStart = System.currentTimeMillis();
+    final List<String> evaluatorIds = new ArrayList<>(NUM_EVALUATORS);
+    for (int i = 0; i < NUM_EVALUATORS; ++i) {
+      final String evaluatorId = "Evaluator-" + i;
+      final EvaluatorManager evaluatorManager = factory.getNewEvaluatorManagerForRecoveredEvaluator(
+          ResourceEventImpl.newRecoveryBuilder()
+              .setIdentifier(evaluatorId)
+              .setNodeId("node-" + (i % 100) + ":1000")
+              .setResourceMemory(128)
+              .setVirtualCores(1)
+              .setRackName("rack")
+              .build());
+      evaluatorManager.onResourceLaunch(ResourceLaunchEventImpl.newBuilder()
+          .setIdentifier(evaluatorId)
+          .setRemoteId("socket://127.0.0.1:40001")
+          .setEvaluatorConf(Tang.Factory.getTang().newConfigurationBuilder().build())
+          .setProcess(evaluatorManager.getEvaluatorDescriptor().getProcess())
+          .build());
+      evaluators.put(evaluatorManager);
+      evaluatorIds.add(evaluatorId);
+    }
+    System.out.println("Set up " + NUM_EVALUATORS + " evaluators in " +
+        (System.currentTimeMillis() - setupStart) + " ms");
+
+    final ExecutorService transport = Executors.newFixedThreadPool(NUM_TRANSPORT_THREADS);
+    final AtomicLong failures = new AtomicLong(0);
+    try {
+      for (int round = 1; round <= NUM_ROUNDS; ++round) {
+        final long roundStart = System.nanoTime();
+        final long timestamp = round;
+        final CountDownLatch processed = new CountDownLatch(NUM_EVALUATORS);
+        for (final String evaluatorId : evaluatorIds) {
+          transport.execute(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                heartbeatHandler.onNext(newHeartbeat(evaluatorId, timestamp));
+              } catch (final RuntimeException e) {
+                failures.incrementAndGet();
+              } finally {
+                processed.countDown();
+              }
+            }
+          });
+        }
+        Assert.assertTrue("Heartbeats not processed in time", processed.await(60, TimeUnit.SECONDS));
+        System.out.println("Round " + round + ": " + NUM_EVALUATORS + " heartbeats processed in " +
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart) + " ms");
+      }
+    } finally {
+      transport.shutdown();
+      transport.awaitTermination(10, TimeUnit.SECONDS);
+      dispatcherPool.close();
+      remoteManager.close();
+    }
+
+    System.out.println("Note this is not a real benchmark of heartbeat throughput");
+    Assert.assertEquals("Heartbeats failed", 0, failures.get());
+    for (final String evaluatorId : evaluatorIds) {
+      Assert.assertTrue("Evaluator " + evaluatorId + " is not running",
+          evaluators.get(evaluatorId).get().getEvaluatorDescriptor() != null);
+    }
+    Assert.assertFalse(evaluators.allEvaluatorsAreClosed());
+  }
+
+  /**
+   * Keeps the contexts open, unlike the default handler which closes them.
+   */
+  static final class KeepContextHandler implements EventHandler<ActiveContext> {
+    @Inject
+    KeepContextHandler() {
+    }
+
+    @Override
+    public void onNext(final ActiveContext activeContext) {
+    }
+  }
+
+  private RemoteMessage<EvaluatorHeartbeatProto> newHeartbeat(final String evaluatorId, final long timestamp) {
+    final EvaluatorHeartbeatProto heartbeat = EvaluatorHeartbeatProto.newBuilder()
+        .setTimestamp(timestamp)
+        .setEvaluatorStatus(ReefServiceProtos.EvaluatorStatusProto.newBuilder()
+            .setEvaluatorId(evaluatorId)
+            .setState(ReefServiceProtos.State.RUNNING)
+            .build())
+        .addContextStatus(ReefServiceProtos.ContextStatusProto.newBuilder()
+            .setContextId(CONTEXT_ID)
+            .setContextState(ReefServiceProtos.ContextStatusProto.State.READY)
+            .build())
+        .build();
+    return new RemoteMessage<EvaluatorHeartbeatProto>() {
+      @Override
+      public RemoteIdentifier getIdentifier() {
+        return evaluatorRemoteId;
+      }
+
+      @Override
+      public EvaluatorHeartbeatProto getMessage() {
+        return heartbeat;
+      }
+    };
+  }
+}
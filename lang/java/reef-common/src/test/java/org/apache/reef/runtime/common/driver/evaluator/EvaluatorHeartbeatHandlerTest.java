@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.driver.catalog.ResourceCatalog;
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.driver.evaluator.EvaluatorProcessFactory;
+import org.apache.reef.driver.parameters.ContextActiveHandlers;
+import org.apache.reef.driver.restart.DriverRuntimeRestartManager;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorControlProto;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
+import org.apache.reef.runtime.common.driver.api.ResourceLaunchHandler;
+import org.apache.reef.runtime.common.driver.api.ResourceReleaseHandler;
+import org.apache.reef.runtime.common.driver.catalog.ResourceCatalogImpl;
+import org.apache.reef.runtime.common.driver.parameters.JobIdentifier;
+import org.apache.reef.runtime.common.driver.resourcemanager.ResourceEventImpl;
+import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.RemoteIdentifier;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.apache.reef.wake.remote.impl.SocketRemoteIdentifier;
+import org.apache.reef.wake.time.Clock;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test the handling of Evaluator heartbeats on the Driver, which does not take global locks.
+ */
+public final class EvaluatorHeartbeatHandlerTest {
+
+  private static final int NUM_EVALUATORS = 20;
+  private static final int NUM_ROUNDS = 3;
+  private static final int NUM_TRANSPORT_THREADS = 4;
+  private static final String CONTEXT_ID = "RootContext";
+
+  /**
+   * Number of ActiveContext events per Evaluator.
+   */
+  private static final ConcurrentMap<String, AtomicInteger> ACTIVE_CONTEXTS = new ConcurrentHashMap<>();
+
+  /**
+   * The control messages sent to the Evaluators.
+   */
+  private static final BlockingQueue<EvaluatorControlProto> CONTROL_MESSAGES = new LinkedBlockingQueue<>();
+
+  private static final RemoteIdentifier EVALUATOR_REMOTE_ID =
+      new SocketRemoteIdentifier(new InetSocketAddress("127.0.0.1", 40000));
+
+  // The Driver side is set up once, as Evaluators may only be instantiated once per JVM.
+  private static EvaluatorDispatcherPool dispatcherPool;
+  private static Evaluators evaluators;
+  private static EvaluatorManagerFactory factory;
+  private static EvaluatorHeartbeatHandler heartbeatHandler;
+
+  @BeforeClass
+  public static void setUpDriver() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ResourceCatalog.class, ResourceCatalogImpl.class)
+        .bindNamedParameter(JobIdentifier.class, "EvaluatorHeartbeatHandlerTest")
+        .bindSetEntry(ContextActiveHandlers.class, CountingContextHandler.class)
+        .build());
+    final EvaluatorProcessFactory processFactory = mock(EvaluatorProcessFactory.class);
+    doReturn(mock(EvaluatorProcess.class)).when(processFactory).newEvaluatorProcess();
+    injector.bindVolatileInstance(EvaluatorProcessFactory.class, processFactory);
+    injector.bindVolatileInstance(ResourceLaunchHandler.class, mock(ResourceLaunchHandler.class));
+    injector.bindVolatileInstance(ResourceReleaseHandler.class, mock(ResourceReleaseHandler.class));
+    injector.bindVolatileInstance(DriverRuntimeRestartManager.class, mock(DriverRuntimeRestartManager.class));
+
+    // Messages to the Evaluators end up in CONTROL_MESSAGES.
+    final RemoteManager remoteManager = mock(RemoteManager.class);
+    doReturn("socket://127.0.0.1:40000").when(remoteManager).getMyIdentifier();
+    doReturn(new EventHandler<Object>() {
+      @Override
+      public void onNext(final Object message) {
+        if (message instanceof EvaluatorControlProto) {
+          CONTROL_MESSAGES.add((EvaluatorControlProto) message);
+        }
+      }
+    }).when(remoteManager).getHandler(anyString(), any(Class.class));
+    injector.bindVolatileInstance(RemoteManager.class, remoteManager);
+
+    // Driver singletons have to exist before EvaluatorManagerFactory forks an injector per Evaluator.
+    dispatcherPool = injector.getInstance(EvaluatorDispatcherPool.class);
+    injector.getInstance(Clock.class);
+    evaluators = injector.getInstance(Evaluators.class);
+    factory = injector.getInstance(EvaluatorManagerFactory.class);
+    heartbeatHandler = injector.getInstance(EvaluatorHeartbeatHandler.class);
+  }
+
+  @AfterClass
+  public static void tearDownDriver() throws Exception {
+    dispatcherPool.close();
+  }
+
+  private static EvaluatorManager newEvaluator(final String evaluatorId) {
+    final EvaluatorManager evaluatorManager = factory.getNewEvaluatorManagerForRecoveredEvaluator(
+        ResourceEventImpl.newRecoveryBuilder()
+            .setIdentifier(evaluatorId)
+            .setNodeId("node:1000")
+            .setResourceMemory(128)
+            .setVirtualCores(1)
+            .setRackName("rack")
+            .build());
+    evaluatorManager.onResourceLaunch(ResourceLaunchEventImpl.newBuilder()
+        .setIdentifier(evaluatorId)
+        .setRemoteId("socket://127.0.0.1:40001")
+        .setEvaluatorConf(Tang.Factory.getTang().newConfigurationBuilder().build())
+        .setProcess(evaluatorManager.getEvaluatorDescriptor().getProcess())
+        .build());
+    evaluators.put(evaluatorManager);
+    return evaluatorManager;
+  }
+
+  /**
+   * Heartbeats delivered concurrently by several transport threads each reach their own Evaluator.
+   */
+  @Test
+  public void testConcurrentHeartbeatsReachTheirEvaluator() throws Exception {
+    final List<String> evaluatorIds = new ArrayList<>(NUM_EVALUATORS);
+    for (int i = 0; i < NUM_EVALUATORS; ++i) {
+      evaluatorIds.add(newEvaluator("Evaluator-" + i).getId());
+    }
+
+    final ExecutorService transport = Executors.newFixedThreadPool(NUM_TRANSPORT_THREADS);
+    try {
+      for (int round = 1; round <= NUM_ROUNDS; ++round) {
+        final long timestamp = round;
+        final CountDownLatch processed = new CountDownLatch(NUM_EVALUATORS);
+        final List<Future<?>> results = new ArrayList<>(NUM_EVALUATORS);
+        for (final String evaluatorId : evaluatorIds) {
+          results.add(transport.submit(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                heartbeatHandler.onNext(newHeartbeat(evaluatorId, timestamp));
+              } finally {
+                processed.countDown();
+              }
+            }
+          }));
+        }
+        Assert.assertTrue("Heartbeats not processed in time", processed.await(30, TimeUnit.SECONDS));
+        for (final Future<?> result : results) {
+          result.get();
+        }
+      }
+    } finally {
+      transport.shutdown();
+      transport.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // ActiveContext events are dispatched asynchronously.
+    final long deadline = System.currentTimeMillis() + 30000;
+    while (ACTIVE_CONTEXTS.size() < NUM_EVALUATORS && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    for (final String evaluatorId : evaluatorIds) {
+      Assert.assertTrue("Evaluator " + evaluatorId + " is closed", !evaluators.get(evaluatorId).get().isClosed());
+      Assert.assertNotNull("No active context for " + evaluatorId, ACTIVE_CONTEXTS.get(evaluatorId));
+      Assert.assertEquals("The context of " + evaluatorId + " became active more than once",
+          1, ACTIVE_CONTEXTS.get(evaluatorId).get());
+    }
+    Assert.assertEquals(NUM_EVALUATORS, ACTIVE_CONTEXTS.size());
+    Assert.assertFalse(evaluators.allEvaluatorsAreClosed());
+  }
+
+  /**
+   * A heartbeat of a closed Evaluator is dropped without waiting for the lock of that Evaluator.
+   */
+  @Test
+  public void testHeartbeatOfClosedEvaluatorDoesNotTakeTheLock() throws Exception {
+    final EvaluatorManager evaluatorManager = newEvaluator("Evaluator-closed");
+    evaluatorManager.close();
+    Assert.assertTrue(evaluatorManager.isClosed());
+
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Thread lockHolder = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (evaluatorManager.getEvaluatorDescriptor()) {
+          locked.countDown();
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+    });
+    lockHolder.start();
+    try {
+      Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+      final ExecutorService transport = Executors.newSingleThreadExecutor();
+      try {
+        transport.submit(new Runnable() {
+          @Override
+          public void run() {
+            evaluatorManager.onEvaluatorHeartbeatMessage(newHeartbeat(evaluatorManager.getId(), 1));
+          }
+        }).get(10, TimeUnit.SECONDS);
+      } finally {
+        transport.shutdownNow();
+      }
+    } finally {
+      release.countDown();
+      lockHolder.join();
+    }
+    Assert.assertNull("A closed Evaluator must not report contexts", ACTIVE_CONTEXTS.get(evaluatorManager.getId()));
+  }
+
+  /**
+   * A gap in the sequence of incremental heartbeats makes the Driver ask for the complete status, once.
+   */
+  @Test
+  public void testHeartbeatGapRequestsFullStatus() throws Exception {
+    final String evaluatorId = newEvaluator("Evaluator-gap").getId();
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 1, 1, true));
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 2, 2, true));
+    Assert.assertNull("No gap yet", pollControlMessage(evaluatorId, 500));
+
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 3, 5, true));
+    final EvaluatorControlProto request = pollControlMessage(evaluatorId, 10000);
+    Assert.assertNotNull("The Driver did not ask for the full status", request);
+    Assert.assertTrue(request.getRequestFullStatus());
+
+    // Until the full status arrives, further gaps do not repeat the request.
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 4, 8, true));
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 5, 9, false));
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 6, 10, true));
+    Assert.assertNull("The full status was requested twice", pollControlMessage(evaluatorId, 500));
+
+    heartbeatHandler.onNext(newHeartbeat(evaluatorId, 7, 12, true));
+    Assert.assertNotNull("The Driver did not ask again after a new gap", pollControlMessage(evaluatorId, 10000));
+  }
+
+  private static EvaluatorControlProto pollControlMessage(final String evaluatorId, final long timeoutMillis)
+      throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (true) {
+      final EvaluatorControlProto message =
+          CONTROL_MESSAGES.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      if (message == null || message.getIdentifier().equals(evaluatorId)) {
+        return message;
+      }
+    }
+  }
+
+  /**
+   * Counts the ActiveContext events per Evaluator and keeps the contexts open,
+   * unlike the default handler which closes them.
+   */
+  static final class CountingContextHandler implements EventHandler<ActiveContext> {
+    @Inject
+    CountingContextHandler() {
+    }
+
+    @Override
+    public void onNext(final ActiveContext activeContext) {
+      ACTIVE_CONTEXTS.putIfAbsent(activeContext.getEvaluatorId(), new AtomicInteger(0));
+      ACTIVE_CONTEXTS.get(activeContext.getEvaluatorId()).incrementAndGet();
+    }
+  }
+
+  private static RemoteMessage<EvaluatorHeartbeatProto> newHeartbeat(final String evaluatorId, final long timestamp) {
+    return newHeartbeat(EvaluatorHeartbeatProto.newBuilder(), evaluatorId, timestamp);
+  }
+
+  private static RemoteMessage<EvaluatorHeartbeatProto> newHeartbeat(final String evaluatorId, final long timestamp,
+                                                                     final long sequenceNumber,
+                                                                     final boolean incremental) {
+    return newHeartbeat(EvaluatorHeartbeatProto.newBuilder()
+        .setSequenceNumber(sequenceNumber)
+        .setIncremental(incremental), evaluatorId, timestamp);
+  }
+
+  private static RemoteMessage<EvaluatorHeartbeatProto> newHeartbeat(final EvaluatorHeartbeatProto.Builder builder,
+                                                                     final String evaluatorId, final long timestamp) {
+    final EvaluatorHeartbeatProto heartbeat = builder
+        .setTimestamp(timestamp)
+        .setEvaluatorStatus(ReefServiceProtos.EvaluatorStatusProto.newBuilder()
+            .setEvaluatorId(evaluatorId)
+            .setState(ReefServiceProtos.State.RUNNING)
+            .build())
+        .addContextStatus(ReefServiceProtos.ContextStatusProto.newBuilder()
+            .setContextId(CONTEXT_ID)
+            .setContextState(ReefServiceProtos.ContextStatusProto.State.READY)
+            .build())
+        .build();
+    return new RemoteMessage<EvaluatorHeartbeatProto>() {
+      @Override
+      public RemoteIdentifier getIdentifier() {
+        return EVALUATOR_REMOTE_ID;
+      }
+
+      @Override
+      public EvaluatorHeartbeatProto getMessage() {
+        return heartbeat;
+      }
+    };
+  }
+}
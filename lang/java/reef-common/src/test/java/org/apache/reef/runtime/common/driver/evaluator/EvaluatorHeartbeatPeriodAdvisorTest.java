@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the heartbeat period hint the Driver derives from its dispatcher backlog.
+ */
+public final class EvaluatorHeartbeatPeriodAdvisorTest {
+
+  @Test
+  public void testHintFollowsBacklog() throws InterruptedException {
+    final EvaluatorDispatcherPool pool = new EvaluatorDispatcherPool(1);
+    try {
+      final EvaluatorHeartbeatPeriodAdvisor advisor = new EvaluatorHeartbeatPeriodAdvisor(pool, 2, 30000);
+      Assert.assertEquals(0, advisor.getHeartbeatPeriodHint());
+
+      final CountDownLatch blocker = new CountDownLatch(1);
+      final CountDownLatch started = new CountDownLatch(1);
+      pool.execute(new Runnable() {
+        @Override
+        public void run() {
+          started.countDown();
+          try {
+            blocker.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      final CountDownLatch drained = new CountDownLatch(3);
+      for (int i = 0; i < 3; ++i) {
+        pool.execute(new Runnable() {
+          @Override
+          public void run() {
+            drained.countDown();
+          }
+        });
+      }
+      Assert.assertEquals(3, pool.getQueueLength());
+      Assert.assertEquals(30000, advisor.getHeartbeatPeriodHint());
+
+      blocker.countDown();
+      Assert.assertTrue(drained.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(0, advisor.getHeartbeatPeriodHint());
+    } finally {
+      pool.close();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the lock-free state transitions of EvaluatorStatusManager.
+ */
+public final class EvaluatorStatusManagerTest {
+
+  private static EvaluatorStatusManager newStatusManager() throws InjectionException {
+    return Tang.Factory.getTang().newInjector().getInstance(EvaluatorStatusManager.class);
+  }
+
+  @Test
+  public void testTransitions() throws InjectionException {
+    final EvaluatorStatusManager statusManager = newStatusManager();
+    Assert.assertTrue(statusManager.isAllocated());
+    statusManager.setSubmitted();
+    Assert.assertTrue(statusManager.isSubmitted());
+    statusManager.setRunning();
+    Assert.assertTrue(statusManager.isRunning());
+    Assert.assertTrue(statusManager.isAllocatedOrSubmittedOrRunning());
+    statusManager.setDone();
+    Assert.assertTrue(statusManager.isDoneOrFailedOrKilled());
+    Assert.assertFalse(statusManager.isAllocatedOrSubmittedOrRunning());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testIllegalTransition() throws InjectionException {
+    final EvaluatorStatusManager statusManager = newStatusManager();
+    statusManager.setKilled();
+    statusManager.setRunning();
+  }
+
+  /**
+   * Of several threads that race to move a running Evaluator into different final states, exactly one wins.
+   */
+  @Test
+  public void testConcurrentFinalTransitions() throws Exception {
+    final int numThreads = 3;
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      for (int i = 0; i < 100; ++i) {
+        final EvaluatorStatusManager statusManager = newStatusManager();
+        statusManager.setSubmitted();
+        statusManager.setRunning();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<String>> results = new ArrayList<>(numThreads);
+        for (final String target : new String[]{"DONE", "FAILED", "KILLED"}) {
+          results.add(executor.submit(new Callable<String>() {
+            @Override
+            public String call() throws InterruptedException {
+              start.await();
+              try {
+                switch (target) {
+                case "DONE":
+                  statusManager.setDone();
+                  break;
+                case "FAILED":
+                  statusManager.setFailed();
+                  break;
+                default:
+                  statusManager.setKilled();
+                  break;
+                }
+                return target;
+              } catch (final IllegalStateException e) {
+                return null;
+              }
+            }
+          }));
+        }
+        start.countDown();
+
+        String winner = null;
+        for (final Future<String> result : results) {
+          final String target = result.get(10, TimeUnit.SECONDS);
+          if (target != null) {
+            Assert.assertNull("More than one final transition succeeded", winner);
+            winner = target;
+          }
+        }
+        Assert.assertNotNull("No final transition succeeded", winner);
+        Assert.assertEquals(winner, statusManager.toString());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the heartbeat period adaptation of AdaptiveHeartbeatPeriod.
+ */
+public final class AdaptiveHeartbeatPeriodTest {
+
+  @Test
+  public void testIdlePeriodDoublesUpToMax() {
+    final AdaptiveHeartbeatPeriod period = new AdaptiveHeartbeatPeriod(1000, 5000);
+    Assert.assertEquals(1000, period.getPeriod());
+    Assert.assertEquals(2000, period.onHeartbeat(false, true));
+    Assert.assertEquals(4000, period.onHeartbeat(false, true));
+    Assert.assertEquals(5000, period.onHeartbeat(false, true));
+    Assert.assertEquals(5000, period.onHeartbeat(false, true));
+  }
+
+  @Test
+  public void testActivityResetsPeriod() {
+    final AdaptiveHeartbeatPeriod period = new AdaptiveHeartbeatPeriod(1000, 8000);
+    period.onHeartbeat(false, true);
+    period.onHeartbeat(false, true);
+    Assert.assertEquals(1000, period.onHeartbeat(true, false));
+    Assert.assertEquals(2000, period.onHeartbeat(false, true));
+    Assert.assertEquals(1000, period.onHeartbeat(true, true));
+  }
+
+  @Test
+  public void testNonPeriodicHeartbeatsDoNotStretchPeriod() {
+    final AdaptiveHeartbeatPeriod period = new AdaptiveHeartbeatPeriod(1000, 8000);
+    Assert.assertEquals(2000, period.onHeartbeat(false, true));
+    Assert.assertEquals(2000, period.onHeartbeat(false, false));
+    Assert.assertEquals(2000, period.onHeartbeat(false, false));
+  }
+
+  @Test
+  public void testPeriodIsFixedByDefault() {
+    final AdaptiveHeartbeatPeriod period = new AdaptiveHeartbeatPeriod(1000, 0);
+    for (int i = 0; i < 10; ++i) {
+      Assert.assertEquals(1000, period.onHeartbeat(false, true));
+    }
+    period.setHint(30000);
+    Assert.assertEquals(1000, period.getPeriod());
+  }
+
+  @Test
+  public void testDriverHint() {
+    final AdaptiveHeartbeatPeriod period = new AdaptiveHeartbeatPeriod(1000, 60000);
+    period.setHint(30000);
+    Assert.assertEquals(30000, period.getPeriod());
+    Assert.assertEquals("Activity does not override the hint", 30000, period.onHeartbeat(true, false));
+
+    period.setHint(120000);
+    Assert.assertEquals("The hint is bounded by the maximum period", 60000, period.getPeriod());
+
+    period.setHint(0);
+    Assert.assertEquals(1000, period.getPeriod());
+    Assert.assertEquals(2000, period.onHeartbeat(false, true));
+
+    period.setHint(-1);
+    Assert.assertEquals(2000, period.getPeriod());
+  }
+}
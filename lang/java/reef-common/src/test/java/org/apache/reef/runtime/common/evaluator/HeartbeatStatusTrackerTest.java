@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.evaluator;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.EvaluatorHeartbeatProto;
+import org.apache.reef.proto.ReefServiceProtos;
+import org.apache.reef.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test the incremental heartbeats assembled by HeartbeatStatusTracker.
+ */
+public final class HeartbeatStatusTrackerTest {
+
+  private static final ReefServiceProtos.EvaluatorStatusProto EVALUATOR_STATUS =
+      ReefServiceProtos.EvaluatorStatusProto.newBuilder()
+          .setEvaluatorId("Evaluator")
+          .setState(ReefServiceProtos.State.RUNNING)
+          .build();
+
+  private static ReefServiceProtos.ContextStatusProto context(final String id,
+                                                             final ReefServiceProtos.ContextStatusProto.State state) {
+    return ReefServiceProtos.ContextStatusProto.newBuilder().setContextId(id).setContextState(state).build();
+  }
+
+  private static ReefServiceProtos.TaskStatusProto task(final ReefServiceProtos.State state) {
+    return ReefServiceProtos.TaskStatusProto.newBuilder()
+        .setTaskId("Task")
+        .setContextId("Root")
+        .setState(state)
+        .build();
+  }
+
+  private static List<ReefServiceProtos.ContextStatusProto> contexts(
+      final ReefServiceProtos.ContextStatusProto... contexts) {
+    final List<ReefServiceProtos.ContextStatusProto> list = new ArrayList<>();
+    for (final ReefServiceProtos.ContextStatusProto context : contexts) {
+      list.add(context);
+    }
+    return list;
+  }
+
+  private static final Optional<ReefServiceProtos.TaskStatusProto> NO_TASK = Optional.empty();
+
+  @Test
+  public void testOnlyChangesAreSent() {
+    final HeartbeatStatusTracker tracker = new HeartbeatStatusTracker(100);
+    final ReefServiceProtos.ContextStatusProto root = context("Root", ReefServiceProtos.ContextStatusProto.State.READY);
+    final ReefServiceProtos.ContextStatusProto child =
+        context("Child", ReefServiceProtos.ContextStatusProto.State.READY);
+
+    final EvaluatorHeartbeatProto first = tracker.getHeartbeat(EVALUATOR_STATUS, contexts(root), NO_TASK).build();
+    Assert.assertTrue(first.getIncremental());
+    Assert.assertEquals(1, first.getSequenceNumber());
+    Assert.assertEquals("The first heartbeat reports every context", 1, first.getContextStatusCount());
+    Assert.assertTrue(tracker.hasStatusChanged());
+
+    final EvaluatorHeartbeatProto unchanged = tracker.getHeartbeat(EVALUATOR_STATUS, contexts(root), NO_TASK).build();
+    Assert.assertEquals(2, unchanged.getSequenceNumber());
+    Assert.assertEquals(0, unchanged.getContextStatusCount());
+    Assert.assertFalse(unchanged.hasTaskStatus());
+    Assert.assertFalse(tracker.hasStatusChanged());
+
+    final EvaluatorHeartbeatProto newChild =
+        tracker.getHeartbeat(EVALUATOR_STATUS, contexts(root, child), Optional.of(task(ReefServiceProtos.State.INIT)))
+            .build();
+    Assert.assertEquals(1, newChild.getContextStatusCount());
+    Assert.assertEquals("Child", newChild.getContextStatus(0).getContextId());
+    Assert.assertTrue(newChild.hasTaskStatus());
+    Assert.assertTrue(tracker.hasStatusChanged());
+
+    final EvaluatorHeartbeatProto taskRunning = tracker.getHeartbeat(
+        EVALUATOR_STATUS, contexts(root, child), Optional.of(task(ReefServiceProtos.State.RUNNING))).build();
+    Assert.assertEquals(0, taskRunning.getContextStatusCount());
+    Assert.assertEquals(ReefServiceProtos.State.RUNNING, taskRunning.getTaskStatus().getState());
+  }
+
+  @Test
+  public void testMessagesAreAlwaysSent() {
+    final HeartbeatStatusTracker tracker = new HeartbeatStatusTracker(100);
+    final ReefServiceProtos.ContextStatusProto root = context("Root", ReefServiceProtos.ContextStatusProto.State.READY);
+    final ReefServiceProtos.TaskStatusProto running = task(ReefServiceProtos.State.RUNNING);
+    tracker.getHeartbeat(EVALUATOR_STATUS, contexts(root), Optional.of(running));
+
+    final ReefServiceProtos.ContextStatusProto rootWithMessage = root.toBuilder()
+        .addContextMessage(ReefServiceProtos.ContextStatusProto.ContextMessageProto.newBuilder()
+            .setSourceId("source")
+            .setMessage(ByteString.copyFromUtf8("message")))
+        .build();
+    final ReefServiceProtos.TaskStatusProto runningWithMessage = running.toBuilder()
+        .addTaskMessage(ReefServiceProtos.TaskStatusProto.TaskMessageProto.newBuilder()
+            .setSourceId("source")
+            .setMessage(ByteString.copyFromUtf8("message")))
+        .build();
+    final EvaluatorHeartbeatProto heartbeat = tracker.getHeartbeat(
+        EVALUATOR_STATUS, contexts(rootWithMessage), Optional.of(runningWithMessage)).build();
+    Assert.assertEquals(rootWithMessage, heartbeat.getContextStatus(0));
+    Assert.assertEquals(runningWithMessage, heartbeat.getTaskStatus());
+    Assert.assertFalse("Messages are no status change", tracker.hasStatusChanged());
+  }
+
+  @Test
+  public void testFullStatusInterval() {
+    final HeartbeatStatusTracker tracker = new HeartbeatStatusTracker(3);
+    final ReefServiceProtos.ContextStatusProto root = context("Root", ReefServiceProtos.ContextStatusProto.State.READY);
+    for (int i = 1; i <= 9; ++i) {
+      final EvaluatorHeartbeatProto heartbeat = tracker.getHeartbeat(EVALUATOR_STATUS, contexts(root), NO_TASK).build();
+      Assert.assertEquals(i, heartbeat.getSequenceNumber());
+      Assert.assertEquals("Heartbeat " + i, i % 3 != 0, heartbeat.getIncremental());
+      Assert.assertEquals(heartbeat.getIncremental() && i > 1 ? 0 : 1, heartbeat.getContextStatusCount());
+    }
+
+    final EvaluatorHeartbeatProto full = tracker.getFullHeartbeat(EVALUATOR_STATUS, contexts(root), NO_TASK).build();
+    Assert.assertFalse(full.getIncremental());
+    Assert.assertEquals(10, full.getSequenceNumber());
+    Assert.assertEquals(1, full.getContextStatusCount());
+  }
+
+  /**
+   * Applying the incremental heartbeats to the state last known, as the Driver does, yields the current status.
+   */
+  @Test
+  public void testApplyingDeltas() {
+    final Random random = new Random(42);
+    final HeartbeatStatusTracker tracker = new HeartbeatStatusTracker(7);
+    final ReefServiceProtos.ContextStatusProto.State[] contextStates =
+        ReefServiceProtos.ContextStatusProto.State.values();
+    final ReefServiceProtos.State[] taskStates = ReefServiceProtos.State.values();
+
+    final Map<String, ReefServiceProtos.ContextStatusProto> actual = new HashMap<>();
+    final Map<String, ReefServiceProtos.ContextStatusProto> known = new HashMap<>();
+    ReefServiceProtos.TaskStatusProto actualTask = null;
+    ReefServiceProtos.TaskStatusProto knownTask = null;
+    for (int i = 0; i < 200; ++i) {
+      final String contextId = "Context-" + random.nextInt(5);
+      if (random.nextBoolean()) {
+        actual.put(contextId, context(contextId, contextStates[random.nextInt(contextStates.length)]));
+      }
+      if (random.nextInt(4) == 0) {
+        actualTask = task(taskStates[random.nextInt(taskStates.length)]);
+      }
+
+      final EvaluatorHeartbeatProto heartbeat = tracker.getHeartbeat(
+          EVALUATOR_STATUS, new ArrayList<>(actual.values()), Optional.ofNullable(actualTask)).build();
+      if (!heartbeat.getIncremental()) {
+        known.clear();
+      }
+      for (final ReefServiceProtos.ContextStatusProto contextStatus : heartbeat.getContextStatusList()) {
+        known.put(contextStatus.getContextId(), contextStatus);
+      }
+      if (heartbeat.hasTaskStatus()) {
+        knownTask = heartbeat.getTaskStatus();
+      }
+      Assert.assertEquals("Heartbeat " + heartbeat.getSequenceNumber(), actual, known);
+      Assert.assertEquals("Heartbeat " + heartbeat.getSequenceNumber(), actualTask, knownTask);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+
+/**
+ * Tests for LocalFileCache.
+ */
+public final class LocalFileCacheTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testSameContentIsStoredOnce() throws IOException {
+    final LocalFileCache cache = new LocalFileCache(this.temporaryFolder.newFolder("cache"));
+    final File first = this.write("first.jar", "content");
+    final File second = this.write("second.jar", "content");
+    final File jobFolder = this.temporaryFolder.newFolder("job");
+
+    cache.stage(first, new File(jobFolder, "first.jar"));
+    cache.stage(second, new File(jobFolder, "second.jar"));
+
+    Assert.assertEquals(cache.add(first), cache.add(second));
+    Assert.assertEquals("content", read(new File(jobFolder, "second.jar")));
+  }
+
+  @Test
+  public void testStagedFilesAreReadOnlyLinks() throws IOException {
+    final LocalFileCache cache = new LocalFileCache(this.temporaryFolder.newFolder("cache"));
+    final File original = this.write("file.txt", "content");
+    final File evaluatorFolder = this.temporaryFolder.newFolder("evaluator");
+    final File staged = new File(evaluatorFolder, "file.txt");
+    final File otherStaged = new File(evaluatorFolder, "other.txt");
+    cache.stage(original, staged);
+    cache.stage(original, otherStaged);
+
+    Assert.assertFalse(Files.getPosixFilePermissions(staged.toPath()).contains(PosixFilePermission.OWNER_WRITE));
+    Assert.assertTrue(Files.isSameFile(cache.add(original).toPath(), staged.toPath()));
+    Assert.assertEquals("content", read(otherStaged));
+  }
+
+  @Test
+  public void testChangeOfTimeIsStaged() throws IOException {
+    final LocalFileCache cache = new LocalFileCache(this.temporaryFolder.newFolder("cache"));
+    final File original = this.write("file.txt", "old");
+    final long lastModified = original.lastModified();
+    final File staged = new File(this.temporaryFolder.newFolder("job"), "file.txt");
+    cache.stage(original, staged);
+
+    Files.write(original.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(original.setLastModified(lastModified + 2000));
+    cache.stage(original, staged);
+    Assert.assertEquals("new", read(staged));
+  }
+
+  @Test
+  public void testUnchangedFileIsNotReadAgain() throws IOException {
+    final LocalFileCache cache = new LocalFileCache(this.temporaryFolder.newFolder("cache"));
+    final File original = this.write("file.txt", "old");
+    final long lastModified = original.lastModified();
+    final File entry = cache.add(original);
+
+    // Same path, size and modification time: taken to be unchanged.
+    Files.write(original.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(original.setLastModified(lastModified));
+    Assert.assertEquals(entry, cache.add(original));
+    Assert.assertEquals("old", read(entry));
+  }
+
+  @Test
+  public void testStagedFilesDontFollowTheOriginal() throws IOException {
+    final LocalFileCache cache = new LocalFileCache(this.temporaryFolder.newFolder("cache"));
+    final File original = this.write("file.txt", "old");
+    final File staged = new File(this.temporaryFolder.newFolder("job"), "file.txt");
+    cache.stage(original, staged);
+
+    Files.write(original.toPath(), "new content".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("old", read(staged));
+
+    cache.stage(original, staged);
+    Assert.assertEquals("new content", read(staged));
+  }
+
+  @Test
+  public void testCacheIsSharedAcrossInstances() throws IOException {
+    final File cacheFolder = this.temporaryFolder.newFolder("cache");
+    final File original = this.write("file.txt", "content");
+    final File entry = new LocalFileCache(cacheFolder).add(original);
+    Assert.assertEquals(LocalFileCache.hashOf(original), entry.getName());
+    Assert.assertEquals(entry, new LocalFileCache(cacheFolder).add(original));
+  }
+
+  private File write(final String name, final String content) throws IOException {
+    final File file = this.temporaryFolder.newFile(name);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+}
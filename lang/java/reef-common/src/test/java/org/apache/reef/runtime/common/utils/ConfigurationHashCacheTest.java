@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ConfigurationHashCache.
+ */
+public final class ConfigurationHashCacheTest {
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    final ConfigurationHashCache<Integer> cache = new ConfigurationHashCache<>();
+    for (int i = 0; i <= ConfigurationHashCache.MAX_CONFIGURATIONS; ++i) {
+      cache.put("hash-" + i, i);
+      // Keep the first entry in use, so that the second one is the first to be evicted.
+      Assert.assertEquals(Integer.valueOf(0), cache.get("hash-0"));
+    }
+    Assert.assertNull(cache.get("hash-1"));
+    Assert.assertEquals(Integer.valueOf(2), cache.get("hash-2"));
+  }
+
+  @Test
+  public void testMirroredCachesAgree() {
+    final ConfigurationHashCache<Boolean> driverSide = new ConfigurationHashCache<>();
+    final ConfigurationHashCache<String> evaluatorSide = new ConfigurationHashCache<>();
+    for (int i = 0; i < 500; ++i) {
+      final String hash = "hash-" + (i * 7919 % 50);
+      final boolean sendBytes = driverSide.get(hash) == null;
+      if (sendBytes) {
+        driverSide.put(hash, Boolean.TRUE);
+      }
+      final boolean evaluatorHasIt = evaluatorSide.get(hash) != null;
+      Assert.assertEquals(sendBytes, !evaluatorHasIt);
+      if (!evaluatorHasIt) {
+        evaluatorSide.put(hash, hash);
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for SerializingExecutor.
+ */
+public final class SerializingExecutorTest {
+
+  private static final int NUM_SOURCES = 50;
+  private static final int NUM_EVENTS = 1000;
+
+  private ExecutorService sharedPool;
+
+  @Before
+  public void setUp() {
+    this.sharedPool = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    this.sharedPool.shutdown();
+    this.sharedPool.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Many sources sharing a small pool must each see their events in submission order.
+   */
+  @Test
+  public void testInOrderPerSource() throws InterruptedException {
+    final List<List<Integer>> received = new ArrayList<>();
+    final CountDownLatch done = new CountDownLatch(NUM_SOURCES * NUM_EVENTS);
+    final List<SerializingExecutor> executors = new ArrayList<>();
+    for (int i = 0; i < NUM_SOURCES; ++i) {
+      received.add(Collections.synchronizedList(new ArrayList<Integer>()));
+      executors.add(new SerializingExecutor(this.sharedPool, 1));
+    }
+
+    for (int event = 0; event < NUM_EVENTS; ++event) {
+      for (int source = 0; source < NUM_SOURCES; ++source) {
+        final List<Integer> list = received.get(source);
+        final int value = event;
+        executors.get(source).execute(new Runnable() {
+          @Override
+          public void run() {
+            list.add(value);
+            done.countDown();
+          }
+        });
+      }
+    }
+
+    Assert.assertTrue("Not all events were processed", done.await(30, TimeUnit.SECONDS));
+    for (int source = 0; source < NUM_SOURCES; ++source) {
+      final List<Integer> list = received.get(source);
+      Assert.assertEquals(NUM_EVENTS, list.size());
+      for (int event = 0; event < NUM_EVENTS; ++event) {
+        Assert.assertEquals("Events of source " + source + " out of order", event, list.get(event).intValue());
+      }
+    }
+    for (final SerializingExecutor executor : executors) {
+      Assert.assertEquals(0, executor.getQueueLength());
+    }
+  }
+
+  /**
+   * No more than maxConcurrency commands of one executor may run at the same time.
+   */
+  @Test
+  public void testMaxConcurrency() throws InterruptedException {
+    final int maxConcurrency = 2;
+    final AtomicInteger running = new AtomicInteger(0);
+    final AtomicInteger maxRunning = new AtomicInteger(0);
+    final CountDownLatch done = new CountDownLatch(NUM_EVENTS);
+    final SerializingExecutor executor = new SerializingExecutor(this.sharedPool, maxConcurrency);
+
+    for (int i = 0; i < NUM_EVENTS; ++i) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          final int now = running.incrementAndGet();
+          int max;
+          do {
+            max = maxRunning.get();
+          } while (now > max && !maxRunning.compareAndSet(max, now));
+          running.decrementAndGet();
+          done.countDown();
+        }
+      });
+    }
+
+    Assert.assertTrue("Not all events were processed", done.await(30, TimeUnit.SECONDS));
+    Assert.assertTrue("Too many concurrent commands: " + maxRunning.get(), maxRunning.get() <= maxConcurrency);
+  }
+
+  /**
+   * An exception thrown by a command must not stop the commands queued after it.
+   */
+  @Test
+  public void testExceptionDoesNotStall() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(1);
+    final SerializingExecutor executor = new SerializingExecutor(this.sharedPool, 1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw new IllegalStateException("Expected in test");
+      }
+    });
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        done.countDown();
+      }
+    });
+    Assert.assertTrue("Event after the failed one was not processed", done.await(30, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.utils;
+
+import org.apache.reef.proto.EvaluatorRuntimeProtocol.TaskMessageBatchProto;
+import org.apache.reef.proto.ReefServiceProtos.TaskStatusProto.TaskMessageProto;
+import org.apache.reef.wake.EventHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for TaskMessageStream.
+ */
+public final class TaskMessageStreamTest {
+
+  @Test
+  public void testMessagesAreSentRightAway() {
+    final Collector<TaskMessageProto> received = new Collector<>();
+    final Collector<TaskMessageBatchProto> batches = new Collector<>();
+    final TaskMessageStream receiver =
+        new TaskMessageStream("evaluator", "task", new Collector<TaskMessageBatchProto>(), received);
+    final TaskMessageStream sender = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            batches.onNext(batch);
+            receiver.onBatch(batch);
+          }
+        }, new Collector<TaskMessageProto>());
+
+    for (int i = 0; i < 3; ++i) {
+      sender.send("source", new byte[]{(byte) i});
+      Assert.assertEquals(i + 1, received.size());
+      Assert.assertEquals(i, received.get(i).getMessage().byteAt(0));
+      Assert.assertEquals("source", received.get(i).getSourceId());
+    }
+    Assert.assertEquals(3, batches.size());
+  }
+
+  @Test
+  public void testMessagesAreBatchedWhileSending() throws InterruptedException {
+    final CountDownLatch linkEntered = new CountDownLatch(1);
+    final CountDownLatch linkReleased = new CountDownLatch(1);
+    final Collector<TaskMessageBatchProto> batches = new Collector<>();
+    final TaskMessageStream sender = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            batches.onNext(batch);
+            linkEntered.countDown();
+            try {
+              linkReleased.await();
+            } catch (final InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        }, new Collector<TaskMessageProto>());
+
+    final Thread firstSender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        sender.send("source", new byte[]{0});
+      }
+    });
+    firstSender.start();
+    Assert.assertTrue(linkEntered.await(10, TimeUnit.SECONDS));
+
+    // The first sender is still sending, so these are queued and return right away.
+    for (int i = 1; i <= 10; ++i) {
+      sender.send("source", new byte[]{(byte) i});
+    }
+    linkReleased.countDown();
+    firstSender.join();
+
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(1, batches.get(0).getMessageCount());
+    Assert.assertEquals(10, batches.get(1).getMessageCount());
+  }
+
+  @Test
+  public void testSendBlocksUntilAcknowledged() throws InterruptedException {
+    final Collector<TaskMessageBatchProto> inFlight = new Collector<>();
+    final Collector<TaskMessageProto> received = new Collector<>();
+    final TaskMessageStream[] senderHolder = new TaskMessageStream[1];
+    final TaskMessageStream receiver = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            senderHolder[0].onBatch(batch);
+          }
+        }, received);
+    final TaskMessageStream sender =
+        new TaskMessageStream("evaluator", "task", inFlight, new Collector<TaskMessageProto>());
+    senderHolder[0] = sender;
+
+    final Thread sendingThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i <= TaskMessageStream.WINDOW; ++i) {
+          sender.send("source", new byte[]{(byte) i});
+        }
+      }
+    });
+    sendingThread.start();
+
+    // Nothing is acknowledged yet, so the last message waits for the window.
+    while (sendingThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(TaskMessageStream.WINDOW, countMessages(inFlight));
+
+    // Delivering the batches lets the receiver acknowledge them, which releases the sender.
+    int delivered = 0;
+    while (sendingThread.isAlive() || delivered < inFlight.size()) {
+      if (delivered < inFlight.size()) {
+        receiver.onBatch(inFlight.get(delivered++));
+      } else {
+        Thread.sleep(10);
+      }
+    }
+    Assert.assertEquals(TaskMessageStream.WINDOW + 1, received.size());
+  }
+
+  @Test
+  public void testCloseFailsBlockedSenders() throws InterruptedException {
+    final TaskMessageStream[] senderHolder = new TaskMessageStream[1];
+    final TaskMessageStream sender = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          private long sent = 0;
+
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            // Acknowledges all messages, but only when asked to.
+            this.sent += batch.getMessageCount();
+            if (batch.getAcknowledge()) {
+              senderHolder[0].onBatch(acknowledgement(this.sent));
+            }
+          }
+        }, new Collector<TaskMessageProto>());
+    senderHolder[0] = sender;
+    final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+    final Thread sendingThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          for (int i = 0; i <= TaskMessageStream.WINDOW; ++i) {
+            sender.send("source", new byte[]{(byte) i});
+          }
+        } catch (final IllegalStateException e) {
+          failures.add(e);
+        }
+      }
+    });
+    sendingThread.start();
+    while (sendingThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+    sender.close();
+    sendingThread.join();
+    Assert.assertEquals(1, failures.size());
+  }
+
+  @Test
+  public void testCloseWaitsForAcknowledgement() {
+    final Collector<TaskMessageProto> received = new Collector<>();
+    final TaskMessageStream[] senderHolder = new TaskMessageStream[1];
+    final TaskMessageStream receiver = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            senderHolder[0].onBatch(batch);
+          }
+        }, received);
+    final TaskMessageStream sender = new TaskMessageStream("evaluator", "task",
+        new EventHandler<TaskMessageBatchProto>() {
+          @Override
+          public void onNext(final TaskMessageBatchProto batch) {
+            receiver.onBatch(batch);
+          }
+        }, new Collector<TaskMessageProto>());
+    senderHolder[0] = sender;
+
+    for (int i = 0; i < 10; ++i) {
+      Assert.assertTrue(sender.send("source", new byte[]{(byte) i}));
+    }
+    // Too few messages for the receiver to acknowledge them by itself: close() asks for it.
+    sender.close();
+    Assert.assertEquals(10, received.size());
+    Assert.assertEquals(Collections.emptyList(), sender.reject());
+  }
+
+  @Test
+  public void testRejectReturnsTheMessagesNotAcknowledged() {
+    final Collector<TaskMessageBatchProto> inFlight = new Collector<>();
+    final TaskMessageStream sender =
+        new TaskMessageStream("evaluator", "task", inFlight, new Collector<TaskMessageProto>());
+    for (int i = 0; i < 5; ++i) {
+      Assert.assertTrue(sender.send("source", new byte[]{(byte) i}));
+    }
+    sender.onBatch(acknowledgement(2));
+
+    final List<TaskMessageProto> rejected = sender.reject();
+    Assert.assertEquals(3, rejected.size());
+    for (int i = 0; i < 3; ++i) {
+      Assert.assertEquals(i + 2, rejected.get(i).getMessage().byteAt(0));
+    }
+    Assert.assertFalse("A rejected stream sends nothing", sender.send("source", new byte[]{5}));
+    Assert.assertEquals(5, countMessages(inFlight));
+    sender.close();
+  }
+
+  private static TaskMessageBatchProto acknowledgement(final long acknowledged) {
+    return TaskMessageBatchProto.newBuilder()
+        .setEvaluatorId("evaluator")
+        .setTaskId("task")
+        .setAcknowledged(acknowledged)
+        .build();
+  }
+
+  private static int countMessages(final Collector<TaskMessageBatchProto> batches) {
+    int count = 0;
+    for (int i = 0; i < batches.size(); ++i) {
+      count += batches.get(i).getMessageCount();
+    }
+    return count;
+  }
+
+  /**
+   * Keeps the events it receives.
+   */
+  private static final class Collector<T> implements EventHandler<T> {
+    private final List<T> events = new ArrayList<>();
+
+    @Override
+    public synchronized void onNext(final T event) {
+      this.events.add(event);
+    }
+
+    synchronized int size() {
+      return this.events.size();
+    }
+
+    synchronized T get(final int index) {
+      return this.events.get(index);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.api;
+
+import org.apache.reef.annotations.audience.TaskSide;
+
+/**
+ * A {@link DataSet} that can also be scanned with a {@link DataSetCursor}, which reuses the key and value
+ * instances instead of allocating new ones for every record.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@TaskSide
+public interface CursorDataSet<K, V> extends DataSet<K, V> {
+
+  /**
+   * @return a cursor positioned before the first record.
+   */
+  DataSetCursor<K, V> cursor();
+}
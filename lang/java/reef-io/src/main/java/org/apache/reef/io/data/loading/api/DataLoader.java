@@ -26,6 +26,7 @@ import org.apache.reef.driver.evaluator.EvaluatorRequest;
 import org.apache.reef.driver.evaluator.EvaluatorRequestor;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
 import org.apache.reef.io.data.loading.impl.AvroEvaluatorRequestSerializer;
+import org.apache.reef.io.data.loading.impl.InputFormatLoadingService;
 import org.apache.reef.io.network.util.Pair;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.annotations.Parameter;
@@ -162,6 +163,21 @@ public class DataLoader {
     }
   }
 
+  /**
+   * @return a request for one data evaluator, preferably on the hosts or racks of the splits not loaded yet.
+   */
+  private EvaluatorRequest newRequestCloseToData(final InputFormatLoadingService<?, ?> inputFormatLoadingService) {
+    final EvaluatorRequest.Builder builder = EvaluatorRequest.newBuilder()
+        .setMemory(this.dataEvalMemoryMB).setNumber(1).setNumberOfCores(this.dataEvalCore);
+    for (final String host : inputFormatLoadingService.getUnallocatedSplitHosts()) {
+      builder.addNodeName(host);
+    }
+    for (final String rack : inputFormatLoadingService.getUnallocatedSplitRacks()) {
+      builder.addRackName(rack);
+    }
+    return builder.build();
+  }
+
   public class StartHandler implements EventHandler<StartTime> {
     @Override
     public void onNext(final StartTime startTime) {
@@ -227,6 +243,14 @@ public class DataLoader {
 
       } else {
 
+        if (dataLoadingService instanceof InputFormatLoadingService
+            && !((InputFormatLoadingService<?, ?>) dataLoadingService).acceptDataEvaluator(allocatedEvaluator)) {
+          LOG.log(Level.FINE, "Releasing {0} to wait for an evaluator closer to the data", evalId);
+          allocatedEvaluator.close();
+          requestor.submit(newRequestCloseToData((InputFormatLoadingService<?, ?>) dataLoadingService));
+          return;
+        }
+
         final int evaluatorsForDataRequest = numDataRequestsToSubmit.decrementAndGet();
         LOG.log(Level.FINE, "Evaluators for data request: {0}", evaluatorsForDataRequest);
 
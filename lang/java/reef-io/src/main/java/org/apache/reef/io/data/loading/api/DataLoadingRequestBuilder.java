@@ -25,6 +25,7 @@ import org.apache.reef.client.DriverConfiguration;
 import org.apache.reef.driver.evaluator.EvaluatorRequest;
 import org.apache.reef.io.data.loading.impl.DistributedDataSetPartitionSerializer;
 import org.apache.reef.io.data.loading.impl.AvroEvaluatorRequestSerializer;
+import org.apache.reef.io.data.loading.impl.DelaySchedulingEvaluatorToPartitionStrategy;
 import org.apache.reef.io.data.loading.impl.SingleDataCenterEvaluatorToPartitionStrategy;
 import org.apache.reef.io.data.loading.impl.DistributedDataSetPartition;
 import org.apache.reef.io.data.loading.impl.InputFormatLoadingService;
@@ -56,6 +57,15 @@ public final class DataLoadingRequestBuilder
   private final List<EvaluatorRequest> computeRequests = new ArrayList<>();
   private final List<EvaluatorRequest> dataRequests = new ArrayList<>();
   private boolean inMemory = false;
+  private boolean serializeInMemory = false;
+  private boolean compressInMemory = false;
+  private int splitsPerEvaluator = 1;
+  private int numberOfLoadingThreads = 0;
+  /**
+   * Delay scheduling is off while negative.
+   */
+  private long localityDelay = -1;
+  private int maxLocalityDeclines = 0;
   private boolean renewFailedEvaluators = true;
   private ConfigurationModule driverConfigurationModule = null;
   private String inputFormatClass;
@@ -140,6 +150,67 @@ public final class DataLoadingRequestBuilder
     return this;
   }
 
+  /**
+   * Keeps the data loaded into memory as serialized records, which takes less memory than the records themselves
+   * but deserializes them on every pass. Only applies if the data is loaded into memory.
+   *
+   * @param serialize whether to keep the records serialized
+   * @param compress  whether to compress the serialized records
+   * @return this
+   */
+  public DataLoadingRequestBuilder serializeInMemory(final boolean serialize, final boolean compress) {
+    this.serializeInMemory = serialize;
+    this.compressInMemory = compress;
+    return this;
+  }
+
+  /**
+   * Assigns up to the given number of splits to each data evaluator, which then reads them in parallel. Fewer data
+   * evaluators are requested accordingly.
+   *
+   * @param splitsPerEvaluator the maximum number of splits per data evaluator
+   * @return this
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public DataLoadingRequestBuilder setSplitsPerEvaluator(final int splitsPerEvaluator) {
+    if (splitsPerEvaluator < 1) {
+      throw new IllegalArgumentException("Each data evaluator needs at least one split");
+    }
+    this.splitsPerEvaluator = splitsPerEvaluator;
+    return this;
+  }
+
+  /**
+   * Sets the number of threads with which a data evaluator reads its splits. By default, one thread per split is
+   * used, up to the number of processors.
+   *
+   * @param numberOfLoadingThreads the number of threads
+   * @return this
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public DataLoadingRequestBuilder setNumberOfLoadingThreads(final int numberOfLoadingThreads) {
+    this.numberOfLoadingThreads = numberOfLoadingThreads;
+    return this;
+  }
+
+  /**
+   * Declines data evaluators away from the data for a while, in the hope of getting better placed ones.
+   * Internally, a {@link DelaySchedulingEvaluatorToPartitionStrategy} is binded.
+   * Only applies to data sets given by {@link #setInputPath(String)}.
+   *
+   * @param localityDelay       how long to wait for a node local evaluator, in milliseconds, before accepting a rack
+   *                            local one. Any evaluator is accepted after twice as long.
+   * @param maxLocalityDeclines how many evaluators to decline before accepting a rack local one. Any evaluator is
+   *                            accepted after twice as many.
+   * @return this
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public DataLoadingRequestBuilder setLocalityDelay(final long localityDelay, final int maxLocalityDeclines) {
+    this.localityDelay = localityDelay;
+    this.maxLocalityDeclines = maxLocalityDeclines;
+    return this;
+  }
+
   @SuppressWarnings("checkstyle:hiddenfield")
   public DataLoadingRequestBuilder renewFailedEvaluators(final boolean renewFailedEvaluators) {
     this.renewFailedEvaluators = renewFailedEvaluators;
@@ -258,6 +329,10 @@ public final class DataLoadingRequestBuilder
     }
 
     jcb.bindNamedParameter(LoadDataIntoMemory.class, Boolean.toString(this.inMemory))
+       .bindNamedParameter(SerializeDataInMemory.class, Boolean.toString(this.serializeInMemory))
+       .bindNamedParameter(CompressDataInMemory.class, Boolean.toString(this.compressInMemory))
+       .bindNamedParameter(SplitsPerEvaluator.class, Integer.toString(this.splitsPerEvaluator))
+       .bindNamedParameter(NumberOfLoadingThreads.class, Integer.toString(this.numberOfLoadingThreads))
        .bindNamedParameter(JobConfExternalConstructor.InputFormatClass.class, inputFormatClass);
 
     final Iterator<DistributedDataSetPartition> partitions = this.distributedDataSet.iterator();
@@ -269,7 +344,13 @@ public final class DataLoadingRequestBuilder
 
     // we do this check for backwards compatibility, if the user defined it
     // wants to use the single data center loading strategy, we bind that implementation.
-    if (this.singleDataCenterStrategy) {
+    if (this.singleDataCenterStrategy && this.localityDelay >= 0) {
+      jcb.bindImplementation(EvaluatorToPartitionStrategy.class, DelaySchedulingEvaluatorToPartitionStrategy.class)
+          .bindNamedParameter(DelaySchedulingEvaluatorToPartitionStrategy.LocalityDelay.class,
+              Long.toString(this.localityDelay))
+          .bindNamedParameter(DelaySchedulingEvaluatorToPartitionStrategy.MaxLocalityDeclines.class,
+              Integer.toString(this.maxLocalityDeclines));
+    } else if (this.singleDataCenterStrategy) {
       jcb.bindImplementation(EvaluatorToPartitionStrategy.class, SingleDataCenterEvaluatorToPartitionStrategy.class);
     } else {
       // otherwise, we bind the strategy that will allow the user to specify
@@ -304,4 +385,21 @@ public final class DataLoadingRequestBuilder
   @NamedParameter(default_value = "false")
   public static final class LoadDataIntoMemory implements Name<Boolean> {
   }
+
+  @NamedParameter(doc = "Whether data loaded into memory is kept as serialized records", default_value = "false")
+  public static final class SerializeDataInMemory implements Name<Boolean> {
+  }
+
+  @NamedParameter(doc = "Whether serialized records in memory are compressed", default_value = "false")
+  public static final class CompressDataInMemory implements Name<Boolean> {
+  }
+
+  @NamedParameter(doc = "The maximum number of splits assigned to a data evaluator", default_value = "1")
+  public static final class SplitsPerEvaluator implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "The number of threads with which a data evaluator reads its splits, "
+      + "or 0 for one per split, up to the number of processors", default_value = "0")
+  public static final class NumberOfLoadingThreads implements Name<Integer> {
+  }
 }
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.api;
+
+import org.apache.reef.annotations.audience.TaskSide;
+
+/**
+ * A cursor over the records of a {@link CursorDataSet}.
+ * <p/>
+ * The key and value returned may be the same instances for every record and are only valid until the next call to
+ * {@link #advance()}. Clients that retain records have to copy them or use the iterator of the data set instead.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@TaskSide
+public interface DataSetCursor<K, V> {
+
+  /**
+   * Moves to the next record.
+   *
+   * @return false, if there are no more records.
+   */
+  boolean advance();
+
+  /**
+   * @return the key of the current record.
+   * @throws IllegalStateException if there is no current record, i.e. {@link #advance()} wasn't called yet or
+   *                               returned false.
+   */
+  K getKey();
+
+  /**
+   * @return the value of the current record.
+   * @throws IllegalStateException if there is no current record, i.e. {@link #advance()} wasn't called yet or
+   *                               returned false.
+   */
+  V getValue();
+}
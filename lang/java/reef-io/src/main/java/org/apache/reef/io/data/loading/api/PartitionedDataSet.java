@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.api;
+
+import org.apache.reef.annotations.audience.TaskSide;
+
+import java.util.List;
+
+/**
+ * A {@link DataSet} made of several partitions, which can be processed in parallel.
+ * <p/>
+ * Iterating over the data set itself returns the records of all partitions.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@TaskSide
+public interface PartitionedDataSet<K, V> extends DataSet<K, V> {
+
+  /**
+   * @return the partitions of this data set.
+   */
+  List<DataSet<K, V>> getPartitions();
+}
@@ -27,11 +27,13 @@ import org.apache.reef.annotations.Unstable;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.catalog.NodeDescriptor;
 import org.apache.reef.io.data.loading.api.EvaluatorToPartitionStrategy;
+import org.apache.reef.runtime.common.utils.Constants;
 import org.apache.reef.tang.ExternalConstructor;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -171,6 +173,48 @@ public abstract class AbstractEvaluatorToPartitionStrategy implements EvaluatorT
    */
   @Override
   public NumberedSplit<InputSplit> getInputSplit(final NodeDescriptor nodeDescriptor, final String evaluatorId) {
+    final NumberedSplit<InputSplit> split = findSplit(nodeDescriptor, evaluatorId);
+    if (split == null) {
+      throw new RuntimeException("Unable to find an input split to evaluator " + evaluatorId);
+    }
+    return split;
+  }
+
+  /**
+   * Get up to maxSplits input splits to be assigned to this evaluator. The
+   * first one is the split returned by {@link #getInputSplit(NodeDescriptor, String)}.
+   * <p/>
+   * The additional splits are allocated under derived ids, one per split,
+   * so that repeated calls return the same splits.
+   * <p/>
+   * This is not part of {@link EvaluatorToPartitionStrategy}, so that existing
+   * implementations of that interface don't break. InputFormatLoadingService
+   * assigns several splits per evaluator only with strategies derived from this class.
+   *
+   * @param evaluatorId
+   * @param maxSplits
+   * @return the numberedSplits
+   * @throws RuntimeException
+   *           if couldn't find any split
+   */
+  public List<NumberedSplit<InputSplit>> getInputSplits(final NodeDescriptor nodeDescriptor, final String evaluatorId,
+                                                        final int maxSplits) {
+    final List<NumberedSplit<InputSplit>> splits = new ArrayList<>(maxSplits);
+    splits.add(getInputSplit(nodeDescriptor, evaluatorId));
+    for (int i = 1; i < maxSplits; i++) {
+      final NumberedSplit<InputSplit> split = findSplit(nodeDescriptor, evaluatorId + "#" + i);
+      if (split == null) {
+        break;
+      }
+      splits.add(split);
+    }
+    return splits;
+  }
+
+  /**
+   * @return the split allocated to the given id, allocating one if needed, or null if none is left.
+   */
+  private NumberedSplit<InputSplit> findSplit(final NodeDescriptor nodeDescriptor, final String evaluatorId) {
     synchronized (evaluatorToSplits) {
       if (evaluatorToSplits.containsKey(evaluatorId)) {
         LOG.log(Level.FINE, "Found an already allocated split, {0}", evaluatorToSplits.toString());
@@ -184,20 +228,83 @@ public abstract class AbstractEvaluatorToPartitionStrategy implements EvaluatorT
       LOG.log(Level.FINE, "Found splits possibly hosted for {0} at {1}", new Object[] {evaluatorId, hostName});
       final NumberedSplit<InputSplit> split = allocateSplit(evaluatorId, locationToSplits.get(hostName));
       if (split != null) {
+        splitAllocated(nodeDescriptor, split);
         return split;
       }
     }
     LOG.log(Level.FINE, "{0} does not host any splits or someone else took splits hosted here. Picking other ones",
         hostName);
     final NumberedSplit<InputSplit> split = tryAllocate(nodeDescriptor, evaluatorId);
-    if (split == null) {
-      throw new RuntimeException("Unable to find an input split to evaluator " + evaluatorId);
-    } else {
+    if (split != null) {
       LOG.log(Level.FINE, evaluatorToSplits.toString());
+      splitAllocated(nodeDescriptor, split);
     }
     return split;
   }
 
+  /**
+   * Decides whether to load data on the given evaluator. A strategy may
+   * decline evaluators placed far from the data, in the hope of getting
+   * better placed ones. By default, accepts every evaluator.
+   * <p/>
+   * Not part of {@link EvaluatorToPartitionStrategy}, so that existing
+   * implementations of that interface keep compiling.
+   *
+   * @param nodeDescriptor
+   *          the node descriptor where the evaluator is running on
+   * @param evaluatorId
+   *          the evaluator id
+   * @return false, if the evaluator should be released and another one requested
+   */
+  public boolean acceptEvaluator(final NodeDescriptor nodeDescriptor, final String evaluatorId) {
+    return true;
+  }
+
+  /**
+   * @return the hosts that hold replicas of the splits not allocated yet,
+   *         to request replacements for declined evaluators close to the data
+   */
+  public Set<String> getUnallocatedSplitHosts() {
+    final Set<String> hosts = new HashSet<>();
+    for (final NumberedSplit<InputSplit> split : unallocatedSplits) {
+      try {
+        hosts.addAll(Arrays.asList(split.getEntry().getLocations()));
+      } catch (final IOException e) {
+        LOG.log(Level.FINE, "Unable to get the locations of split " + split, e);
+      }
+    }
+    return hosts;
+  }
+
+  /**
+   * @return the racks of the partitions whose splits are not allocated yet,
+   *         leaving out partitions that may be loaded on any rack
+   */
+  public Set<String> getUnallocatedSplitRacks() {
+    final Set<String> racks = new HashSet<>();
+    for (final NumberedSplit<InputSplit> split : unallocatedSplits) {
+      final String location = split.getLocation();
+      if (location != null && !location.equals(Constants.ANY_RACK)
+          && !location.equals(Constants.RACK_PATH_SEPARATOR + Constants.ANY_RACK)) {
+        racks.add(location);
+      }
+    }
+    return racks;
+  }
+
+  /**
+   * Called whenever a split has been allocated to an evaluator on the given node.
+   * By default we provide an empty implementation.
+   *
+   * @param nodeDescriptor
+   *          the node of the evaluator
+   * @param numberedSplit
+   *          the allocated split
+   */
+  protected void splitAllocated(final NodeDescriptor nodeDescriptor, final NumberedSplit<InputSplit> numberedSplit) {
+    // empty implementation by default
+  }
+
   @Override
   public int getNumberOfSplits() {
     return this.totalNumberOfSplits;
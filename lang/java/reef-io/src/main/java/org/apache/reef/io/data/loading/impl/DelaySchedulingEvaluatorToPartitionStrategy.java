@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.reef.annotations.Unstable;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A strategy for single data center network topologies that uses delay
+ * scheduling: evaluators that are not on a node hosting an unallocated split
+ * are declined for a while, in the hope of getting better placed ones.
+ * <p/>
+ * After the given delay or number of declined evaluators, evaluators in the
+ * rack of a split are accepted as well, and after twice as much, any
+ * evaluator. The wait starts over whenever a split is allocated on a node
+ * hosting it.
+ * <p/>
+ * The racks of the hosts of the splits are learned from the nodes of the
+ * evaluators offered, so rack locality is only detected for known hosts.
+ */
+@DriverSide
+@Unstable
+public final class DelaySchedulingEvaluatorToPartitionStrategy extends AbstractEvaluatorToPartitionStrategy {
+  private static final Logger LOG = Logger.getLogger(DelaySchedulingEvaluatorToPartitionStrategy.class.getName());
+
+  /**
+   * The localities of a split with respect to an evaluator, from best to worst.
+   */
+  private enum Locality {
+    NODE_LOCAL, RACK_LOCAL, OFF_RACK
+  }
+
+  private final long localityDelay;
+  private final int maxLocalityDeclines;
+
+  private ConcurrentMap<String, String> hostToRack;
+  private final AtomicInteger nodeLocalAllocations = new AtomicInteger(0);
+  private final AtomicInteger rackLocalAllocations = new AtomicInteger(0);
+  private final AtomicInteger offRackAllocations = new AtomicInteger(0);
+
+  /**
+   * When the current wait for a node local evaluator started, or 0 if no evaluator was declined since.
+   */
+  private long waitingSince = 0;
+  private int declines = 0;
+
+  @Inject
+  DelaySchedulingEvaluatorToPartitionStrategy(
+      @Parameter(JobConfExternalConstructor.InputFormatClass.class) final String inputFormatClassName,
+      @Parameter(DistributedDataSetPartitionSerializer.DistributedDataSetPartitions.class)
+      final Set<String> serializedDataPartitions,
+      @Parameter(LocalityDelay.class) final long localityDelay,
+      @Parameter(MaxLocalityDeclines.class) final int maxLocalityDeclines) {
+    super(inputFormatClassName, serializedDataPartitions);
+    this.localityDelay = localityDelay;
+    this.maxLocalityDeclines = maxLocalityDeclines;
+  }
+
+  @Override
+  protected void setUp() {
+    hostToRack = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  protected void updateLocations(final NumberedSplit<InputSplit> numberedSplit) {
+    for (final String location : getLocations(numberedSplit)) {
+      BlockingQueue<NumberedSplit<InputSplit>> newSplitQue = new LinkedBlockingQueue<NumberedSplit<InputSplit>>();
+      final BlockingQueue<NumberedSplit<InputSplit>> splitQue = locationToSplits.putIfAbsent(location, newSplitQue);
+      if (splitQue != null) {
+        newSplitQue = splitQue;
+      }
+      newSplitQue.add(numberedSplit);
+    }
+  }
+
+  @Override
+  public synchronized boolean acceptEvaluator(final NodeDescriptor nodeDescriptor, final String evaluatorId) {
+    learnRack(nodeDescriptor);
+    if (evaluatorToSplits.containsKey(evaluatorId) || unallocatedSplits.isEmpty()) {
+      return true;
+    }
+
+    Locality best = Locality.OFF_RACK;
+    for (final NumberedSplit<InputSplit> split : unallocatedSplits) {
+      final Locality locality = getLocality(nodeDescriptor, split);
+      if (locality.compareTo(best) < 0) {
+        best = locality;
+        if (best == Locality.NODE_LOCAL) {
+          return true;
+        }
+      }
+    }
+
+    final long now = System.currentTimeMillis();
+    if (waitingSince == 0) {
+      waitingSince = now;
+    }
+    final long waited = now - waitingSince;
+    final Locality allowed;
+    if (declines >= 2 * maxLocalityDeclines || waited >= 2 * localityDelay) {
+      allowed = Locality.OFF_RACK;
+    } else if (declines >= maxLocalityDeclines || waited >= localityDelay) {
+      allowed = Locality.RACK_LOCAL;
+    } else {
+      allowed = Locality.NODE_LOCAL;
+    }
+
+    if (best.compareTo(allowed) <= 0) {
+      return true;
+    }
+    declines++;
+    LOG.log(Level.FINE, "Declining {0} on {1}: best locality {2}, waited {3} ms and declined {4} evaluators",
+        new Object[] {evaluatorId, nodeDescriptor.getName(), best, waited, declines});
+    return false;
+  }
+
+  /**
+   * Prefers splits in the rack of the evaluator.
+   */
+  @Override
+  protected NumberedSplit<InputSplit> tryAllocate(final NodeDescriptor nodeDescriptor, final String evaluatorId) {
+    learnRack(nodeDescriptor);
+    final BlockingQueue<NumberedSplit<InputSplit>> rackLocalSplits = new LinkedBlockingQueue<>();
+    for (final NumberedSplit<InputSplit> split : unallocatedSplits) {
+      if (getLocality(nodeDescriptor, split) == Locality.RACK_LOCAL) {
+        rackLocalSplits.add(split);
+      }
+    }
+    if (!rackLocalSplits.isEmpty()) {
+      LOG.log(Level.FINE, "Picking a split in the rack of {0}", evaluatorId);
+      final NumberedSplit<InputSplit> split = allocateSplit(evaluatorId, rackLocalSplits);
+      if (split != null) {
+        return split;
+      }
+    }
+    LOG.fine("Picking a random split from the unallocated ones");
+    return allocateSplit(evaluatorId, unallocatedSplits);
+  }
+
+  @Override
+  protected synchronized void splitAllocated(final NodeDescriptor nodeDescriptor,
+                                             final NumberedSplit<InputSplit> numberedSplit) {
+    switch (getLocality(nodeDescriptor, numberedSplit)) {
+    case NODE_LOCAL:
+      nodeLocalAllocations.incrementAndGet();
+      waitingSince = 0;
+      declines = 0;
+      break;
+    case RACK_LOCAL:
+      rackLocalAllocations.incrementAndGet();
+      break;
+    default:
+      offRackAllocations.incrementAndGet();
+      break;
+    }
+    if (unallocatedSplits.isEmpty()) {
+      LOG.log(Level.INFO, "All splits allocated: {0} node local, {1} rack local, {2} off rack",
+          new Object[] {nodeLocalAllocations.get(), rackLocalAllocations.get(), offRackAllocations.get()});
+    }
+  }
+
+  /**
+   * @return the number of splits allocated to an evaluator on a node hosting them.
+   */
+  public int getNodeLocalAllocations() {
+    return nodeLocalAllocations.get();
+  }
+
+  /**
+   * @return the number of splits allocated to an evaluator in the rack of a node hosting them.
+   */
+  public int getRackLocalAllocations() {
+    return rackLocalAllocations.get();
+  }
+
+  /**
+   * @return the number of splits allocated to an evaluator elsewhere.
+   */
+  public int getOffRackAllocations() {
+    return offRackAllocations.get();
+  }
+
+  private void learnRack(final NodeDescriptor nodeDescriptor) {
+    if (nodeDescriptor.getRackDescriptor() != null) {
+      hostToRack.put(nodeDescriptor.getName(), nodeDescriptor.getRackDescriptor().getName());
+    }
+  }
+
+  private Locality getLocality(final NodeDescriptor nodeDescriptor, final NumberedSplit<InputSplit> numberedSplit) {
+    final String[] locations = getLocations(numberedSplit);
+    for (final String location : locations) {
+      if (location.equals(nodeDescriptor.getName())) {
+        return Locality.NODE_LOCAL;
+      }
+    }
+    if (nodeDescriptor.getRackDescriptor() != null) {
+      final String rack = nodeDescriptor.getRackDescriptor().getName();
+      for (final String location : locations) {
+        if (rack.equals(hostToRack.get(location))) {
+          return Locality.RACK_LOCAL;
+        }
+      }
+    }
+    return Locality.OFF_RACK;
+  }
+
+  private static String[] getLocations(final NumberedSplit<InputSplit> numberedSplit) {
+    try {
+      return numberedSplit.getEntry().getLocations();
+    } catch (final IOException e) {
+      throw new RuntimeException("Unable to get InputSplits using the specified InputFormat", e);
+    }
+  }
+
+  @NamedParameter(doc = "How long to wait for an evaluator on a node hosting a split, in milliseconds, "
+      + "before accepting one in its rack. Twice as long before accepting any evaluator.", default_value = "3000")
+  public static final class LocalityDelay implements Name<Long> {
+  }
+
+  @NamedParameter(doc = "How many evaluators to decline while waiting for one on a node hosting a split "
+      + "before accepting one in its rack. Twice as many before accepting any evaluator.", default_value = "3")
+  public static final class MaxLocalityDeclines implements Name<Integer> {
+  }
+}
@@ -20,7 +20,8 @@ package org.apache.reef.io.data.loading.impl;
 
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.WritableComparable;
-import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
 import org.apache.reef.io.network.util.Pair;
 
 import javax.inject.Inject;
@@ -29,7 +30,7 @@ import java.util.Iterator;
 import java.util.List;
 
 public class InMemoryInputFormatDataSet<K extends WritableComparable<K>, V extends Writable>
-    implements DataSet<K, V> {
+    implements CursorDataSet<K, V> {
 
   private final InputFormatDataSet<K, V> inputFormatDataSet;
   private List<Pair<K, V>> recordsList = null;
@@ -42,12 +43,51 @@ public class InMemoryInputFormatDataSet<K extends WritableComparable<K>, V exten
 
   @Override
   public synchronized Iterator<Pair<K, V>> iterator() {
+    return getRecords().iterator();
+  }
+
+  /**
+   * The cursor hands out the loaded keys and values themselves, so it allocates nothing per record. Like those of the
+   * iterator, they are shared by all iterators and cursors and must not be modified.
+   */
+  @Override
+  public synchronized DataSetCursor<K, V> cursor() {
+    final List<Pair<K, V>> records = getRecords();
+    return new DataSetCursor<K, V>() {
+      private int index = -1;
+
+      @Override
+      public boolean advance() {
+        if (index < records.size()) {
+          ++index;
+        }
+        return index < records.size();
+      }
+
+      @Override
+      public K getKey() {
+        return current().getFirst();
+      }
+
+      @Override
+      public V getValue() {
+        return current().getSecond();
+      }
+
+      private Pair<K, V> current() {
+        InputFormatDataSet.checkHasRecord(index >= 0 && index < records.size());
+        return records.get(index);
+      }
+    };
+  }
+
+  private List<Pair<K, V>> getRecords() {
     if (recordsList == null) {
       recordsList = new ArrayList<>();
       for (final Pair<K, V> keyValue : inputFormatDataSet) {
         recordsList.add(keyValue);
       }
     }
-    return recordsList.iterator();
+    return recordsList;
   }
 }
@@ -23,7 +23,8 @@ import org.apache.hadoop.io.WritableComparable;
 import org.apache.hadoop.mapred.Counters.Counter;
 import org.apache.hadoop.mapred.*;
 import org.apache.reef.annotations.audience.TaskSide;
-import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
 import org.apache.reef.io.network.util.Pair;
 
 import javax.inject.Inject;
@@ -31,11 +32,14 @@ import java.io.IOException;
 import java.util.Iterator;
 
 /**
- * An implementation of {@link DataSet} that reads records using a RecordReader
+ * An implementation of {@link org.apache.reef.io.data.loading.api.DataSet} that reads records using a RecordReader
  * encoded inside an InputSplit.
  * <p/>
  * The input split is injected through an external constructor by deserializing
  * the input split assigned to this evaluator.
+ * <p/>
+ * The iterator allocates a new key, value and {@link Pair} for every record. The cursor reuses a single key and
+ * value for all records, for clients that don't retain them.
  *
  * @param <K>
  * @param <V>
@@ -43,7 +47,7 @@ import java.util.Iterator;
 @TaskSide
 public final class
     InputFormatDataSet<K extends WritableComparable<K>, V extends Writable>
-    implements DataSet<K, V> {
+    implements CursorDataSet<K, V> {
 
   private final DummyReporter dummyReporter = new DummyReporter();
   private final JobConf jobConf;
@@ -60,9 +64,18 @@ public final class
 
   @Override
   public Iterator<Pair<K, V>> iterator() {
+    return new RecordReaderIterator(this.newRecordReader());
+  }
+
+  @Override
+  public DataSetCursor<K, V> cursor() {
+    return new RecordReaderCursor(this.newRecordReader());
+  }
+
+  private RecordReader<K, V> newRecordReader() {
     try {
 
-      final RecordReader newRecordReader =
+      final RecordReader<K, V> newRecordReader =
           this.inputFormat.getRecordReader(this.split, this.jobConf, this.dummyReporter);
 
       if (newRecordReader == this.lastRecordReader) {
@@ -70,7 +83,7 @@ public final class
       }
 
       this.lastRecordReader = newRecordReader;
-      return new RecordReaderIterator(newRecordReader);
+      return newRecordReader;
 
     } catch (final IOException ex) {
       throw new RuntimeException("Can't instantiate iterator.", ex);
@@ -115,6 +128,53 @@ public final class
     }
   }
 
+  private final class RecordReaderCursor implements DataSetCursor<K, V> {
+
+    private final RecordReader<K, V> recordReader;
+    private final K key;
+    private final V value;
+    private boolean hasRecord = false;
+
+    RecordReaderCursor(final RecordReader<K, V> recordReader) {
+      this.recordReader = recordReader;
+      this.key = recordReader.createKey();
+      this.value = recordReader.createValue();
+    }
+
+    @Override
+    public boolean advance() {
+      try {
+        this.hasRecord = this.recordReader.next(this.key, this.value);
+        return this.hasRecord;
+      } catch (final IOException ex) {
+        throw new RuntimeException("Unable to get InputSplits using the specified InputFormat", ex);
+      }
+    }
+
+    @Override
+    public K getKey() {
+      checkHasRecord(this.hasRecord);
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      checkHasRecord(this.hasRecord);
+      return this.value;
+    }
+  }
+
+  /**
+   * Checks that a cursor has a current record before it returns its key or value.
+   *
+   * @throws IllegalStateException if it has none.
+   */
+  static void checkHasRecord(final boolean hasRecord) {
+    if (!hasRecord) {
+      throw new IllegalStateException("The cursor has no current record: advance() wasn't called or returned false");
+    }
+  }
+
   private final class DummyReporter implements Reporter {
 
     @Override
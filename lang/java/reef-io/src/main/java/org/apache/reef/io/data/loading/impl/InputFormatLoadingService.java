@@ -25,18 +25,23 @@ import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.driver.context.ContextConfiguration;
 import org.apache.reef.driver.context.ServiceConfiguration;
 import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
 import org.apache.reef.io.data.loading.api.DataLoadingRequestBuilder;
 import org.apache.reef.io.data.loading.api.DataLoadingService;
 import org.apache.reef.io.data.loading.api.DataSet;
 import org.apache.reef.io.data.loading.api.EvaluatorToPartitionStrategy;
 import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
 
 import javax.inject.Inject;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,25 +69,84 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
 
   private final boolean inMemory;
 
+  private final boolean serializeInMemory;
+
+  private final boolean compressInMemory;
+
+  private final int splitsPerEvaluator;
+
+  private final int numberOfLoadingThreads;
+
   private final String inputFormatClass;
 
   @Inject
   public InputFormatLoadingService(
       final EvaluatorToPartitionStrategy<InputSplit> evaluatorToPartitionStrategy,
       @Parameter(DataLoadingRequestBuilder.LoadDataIntoMemory.class) final boolean inMemory,
+      @Parameter(DataLoadingRequestBuilder.SerializeDataInMemory.class) final boolean serializeInMemory,
+      @Parameter(DataLoadingRequestBuilder.CompressDataInMemory.class) final boolean compressInMemory,
+      @Parameter(DataLoadingRequestBuilder.SplitsPerEvaluator.class) final int splitsPerEvaluator,
+      @Parameter(DataLoadingRequestBuilder.NumberOfLoadingThreads.class) final int numberOfLoadingThreads,
       @Parameter(JobConfExternalConstructor.InputFormatClass.class) final String inputFormatClass) {
     this.inMemory = inMemory;
+    this.serializeInMemory = serializeInMemory;
+    this.compressInMemory = compressInMemory;
+    if (splitsPerEvaluator > 1 && !(evaluatorToPartitionStrategy instanceof AbstractEvaluatorToPartitionStrategy)) {
+      LOG.log(Level.WARNING, "{0} can only assign one split per evaluator. Ignoring SplitsPerEvaluator = {1}",
+          new Object[]{evaluatorToPartitionStrategy.getClass().getName(), splitsPerEvaluator});
+      this.splitsPerEvaluator = 1;
+    } else {
+      this.splitsPerEvaluator = splitsPerEvaluator;
+    }
+    this.numberOfLoadingThreads = numberOfLoadingThreads;
     this.inputFormatClass = inputFormatClass;
     this.evaluatorToPartitionStrategy = evaluatorToPartitionStrategy;
   }
 
   /**
-   * This method actually returns the number of splits in all partition of the data.
+   * This method actually returns the number of data evaluators needed for the splits
+   * in all partition of the data, i.e. the number of splits if each evaluator loads one.
    * We should probably need to rename it in the future
    */
   @Override
   public int getNumberOfPartitions() {
-    return evaluatorToPartitionStrategy.getNumberOfSplits();
+    final int numberOfSplits = evaluatorToPartitionStrategy.getNumberOfSplits();
+    return (numberOfSplits + this.splitsPerEvaluator - 1) / this.splitsPerEvaluator;
+  }
+
+  /**
+   * Decides whether to load data on the given Evaluator. Only strategies extending
+   * {@link AbstractEvaluatorToPartitionStrategy} may decline Evaluators.
+   *
+   * @return false, if the Evaluator should be released and another one requested.
+   */
+  public boolean acceptDataEvaluator(final AllocatedEvaluator allocatedEvaluator) {
+    if (!(this.evaluatorToPartitionStrategy instanceof AbstractEvaluatorToPartitionStrategy)) {
+      return true;
+    }
+    return ((AbstractEvaluatorToPartitionStrategy) this.evaluatorToPartitionStrategy).acceptEvaluator(
+        allocatedEvaluator.getEvaluatorDescriptor().getNodeDescriptor(),
+        allocatedEvaluator.getId());
+  }
+
+  /**
+   * @return the hosts holding the splits that are not allocated yet, or none if the strategy does not track them.
+   */
+  public Set<String> getUnallocatedSplitHosts() {
+    if (!(this.evaluatorToPartitionStrategy instanceof AbstractEvaluatorToPartitionStrategy)) {
+      return Collections.emptySet();
+    }
+    return ((AbstractEvaluatorToPartitionStrategy) this.evaluatorToPartitionStrategy).getUnallocatedSplitHosts();
+  }
+
+  /**
+   * @return the racks of the splits that are not allocated yet, or none if the strategy does not track them.
+   */
+  public Set<String> getUnallocatedSplitRacks() {
+    if (!(this.evaluatorToPartitionStrategy instanceof AbstractEvaluatorToPartitionStrategy)) {
+      return Collections.emptySet();
+    }
+    return ((AbstractEvaluatorToPartitionStrategy) this.evaluatorToPartitionStrategy).getUnallocatedSplitRacks();
   }
 
   @Override
@@ -101,6 +165,10 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
   @Override
   public Configuration getServiceConfiguration(final AllocatedEvaluator allocatedEvaluator) {
 
+    if (this.splitsPerEvaluator > 1) {
+      return this.getMultiSplitServiceConfiguration(allocatedEvaluator);
+    }
+
     try {
 
       final NumberedSplit<InputSplit> numberedSplit =
@@ -108,15 +176,17 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
               allocatedEvaluator.getEvaluatorDescriptor().getNodeDescriptor(),
               allocatedEvaluator.getId());
 
+      final Class<? extends CursorDataSet> dataSetClass = this.getDataSetClass();
+
       final Configuration serviceConfiguration = ServiceConfiguration.CONF
-          .set(ServiceConfiguration.SERVICES,
-              this.inMemory ? InMemoryInputFormatDataSet.class : InputFormatDataSet.class)
+          .set(ServiceConfiguration.SERVICES, dataSetClass)
           .build();
 
       return Tang.Factory.getTang().newConfigurationBuilder(serviceConfiguration)
-          .bindImplementation(
-              DataSet.class,
-              this.inMemory ? InMemoryInputFormatDataSet.class : InputFormatDataSet.class)
+          .bindImplementation(DataSet.class, dataSetClass)
+          .bindImplementation(CursorDataSet.class, dataSetClass)
+          .bindNamedParameter(DataLoadingRequestBuilder.CompressDataInMemory.class,
+              Boolean.toString(this.compressInMemory))
           .bindNamedParameter(JobConfExternalConstructor.InputFormatClass.class, inputFormatClass)
           .bindNamedParameter(JobConfExternalConstructor.InputPath.class, numberedSplit.getPath())
           .bindNamedParameter(
@@ -134,6 +204,56 @@ public class InputFormatLoadingService<K, V> implements DataLoadingService {
     }
   }
 
+  private Configuration getMultiSplitServiceConfiguration(final AllocatedEvaluator allocatedEvaluator) {
+
+    try {
+
+      final List<NumberedSplit<InputSplit>> numberedSplits =
+          ((AbstractEvaluatorToPartitionStrategy) this.evaluatorToPartitionStrategy).getInputSplits(
+              allocatedEvaluator.getEvaluatorDescriptor().getNodeDescriptor(),
+              allocatedEvaluator.getId(), this.splitsPerEvaluator);
+      LOG.log(Level.FINE, "Assigning {0} splits to {1}",
+          new Object[] {numberedSplits.size(), allocatedEvaluator.getId()});
+
+      final Configuration serviceConfiguration = ServiceConfiguration.CONF
+          .set(ServiceConfiguration.SERVICES, MultiSplitInputFormatDataSet.class)
+          .build();
+
+      final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder(serviceConfiguration);
+      for (final NumberedSplit<InputSplit> numberedSplit : numberedSplits) {
+        cb.bindSetEntry(MultiSplitInputFormatDataSet.SerializedInputSplits.class,
+            WritableSerializer.serialize(numberedSplit.getEntry()));
+      }
+      return cb
+          .bindImplementation(DataSet.class, MultiSplitInputFormatDataSet.class)
+          .bindImplementation(CursorDataSet.class, MultiSplitInputFormatDataSet.class)
+          .bindNamedParameter(DataLoadingRequestBuilder.LoadDataIntoMemory.class, Boolean.toString(this.inMemory))
+          .bindNamedParameter(DataLoadingRequestBuilder.SerializeDataInMemory.class,
+              Boolean.toString(this.serializeInMemory))
+          .bindNamedParameter(DataLoadingRequestBuilder.CompressDataInMemory.class,
+              Boolean.toString(this.compressInMemory))
+          .bindNamedParameter(DataLoadingRequestBuilder.NumberOfLoadingThreads.class,
+              Integer.toString(this.numberOfLoadingThreads))
+          .bindNamedParameter(JobConfExternalConstructor.InputFormatClass.class, inputFormatClass)
+          .bindNamedParameter(JobConfExternalConstructor.InputPath.class, numberedSplits.get(0).getPath())
+          .bindConstructor(JobConf.class, JobConfExternalConstructor.class)
+          .build();
+
+    } catch (final BindException ex) {
+      final String evalId = allocatedEvaluator.getId();
+      final String msg = "Unable to create configuration for evaluator " + evalId;
+      LOG.log(Level.WARNING, msg, ex);
+      throw new RuntimeException(msg, ex);
+    }
+  }
+
+  private Class<? extends CursorDataSet> getDataSetClass() {
+    if (!this.inMemory) {
+      return InputFormatDataSet.class;
+    }
+    return this.serializeInMemory ? SerializedInMemoryInputFormatDataSet.class : InMemoryInputFormatDataSet.class;
+  }
+
   @Override
   public String getComputeContextIdPrefix() {
     return COMPUTE_CONTEXT_PREFIX;
@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
+import org.apache.reef.io.data.loading.api.DataLoadingRequestBuilder;
+import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
+import org.apache.reef.io.data.loading.api.PartitionedDataSet;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link PartitionedDataSet} over several input splits assigned to this evaluator, one partition per split.
+ * <p/>
+ * The splits are read by a pool of threads. If the data is loaded into memory, all splits are loaded in parallel
+ * on first access. Otherwise, the iterator merges the records of the splits as the threads read them, so the
+ * records of different splits are interleaved. That iterator is {@link AutoCloseable}: closing it before it is
+ * exhausted stops the threads. The cursor reads the splits one after the other, with their cursors.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@TaskSide
+public final class MultiSplitInputFormatDataSet<K extends WritableComparable<K>, V extends Writable>
+    implements PartitionedDataSet<K, V>, CursorDataSet<K, V> {
+
+  /**
+   * The number of records the reading threads hand to the iterator at once.
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * How long a reading thread waits for room in the queue before it checks whether the iterator was closed.
+   */
+  private static final long OFFER_TIMEOUT_MS = 100;
+
+  private final List<CursorDataSet<K, V>> partitions;
+  private final boolean inMemory;
+  private final int numberOfThreads;
+  private boolean loaded = false;
+
+  @Inject
+  public MultiSplitInputFormatDataSet(
+      final JobConf jobConf,
+      @Parameter(SerializedInputSplits.class) final Set<String> serializedInputSplits,
+      @Parameter(DataLoadingRequestBuilder.LoadDataIntoMemory.class) final boolean inMemory,
+      @Parameter(DataLoadingRequestBuilder.SerializeDataInMemory.class) final boolean serializeInMemory,
+      @Parameter(DataLoadingRequestBuilder.CompressDataInMemory.class) final boolean compressInMemory,
+      @Parameter(DataLoadingRequestBuilder.NumberOfLoadingThreads.class) final int numberOfLoadingThreads) {
+    final List<CursorDataSet<K, V>> dataSets = new ArrayList<>(serializedInputSplits.size());
+    for (final String serializedInputSplit : serializedInputSplits) {
+      final InputSplit split = WritableSerializer.deserialize(serializedInputSplit, jobConf);
+      final InputFormatDataSet<K, V> dataSet = new InputFormatDataSet<>(split, jobConf);
+      if (!inMemory) {
+        dataSets.add(dataSet);
+      } else if (serializeInMemory) {
+        dataSets.add(new SerializedInMemoryInputFormatDataSet<>(dataSet, jobConf, compressInMemory));
+      } else {
+        dataSets.add(new InMemoryInputFormatDataSet<>(dataSet));
+      }
+    }
+    this.partitions = Collections.unmodifiableList(dataSets);
+    this.inMemory = inMemory;
+    this.numberOfThreads = numberOfLoadingThreads > 0 ? numberOfLoadingThreads
+        : Math.min(dataSets.size(), Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * If the data is loaded into memory, loads all partitions first.
+   */
+  @Override
+  public synchronized List<DataSet<K, V>> getPartitions() {
+    if (this.inMemory && !this.loaded) {
+      this.load();
+    }
+    return Collections.<DataSet<K, V>>unmodifiableList(this.partitions);
+  }
+
+  @Override
+  public Iterator<Pair<K, V>> iterator() {
+    final List<DataSet<K, V>> dataSets = this.getPartitions();
+    if (this.inMemory) {
+      return new ConcatenatingIterator(dataSets.iterator());
+    }
+    return new ParallelIterator(dataSets);
+  }
+
+  @Override
+  public DataSetCursor<K, V> cursor() {
+    this.getPartitions();
+    return new ConcatenatingCursor();
+  }
+
+  /**
+   * Reads all partitions into memory, in parallel.
+   */
+  private void load() {
+    final ExecutorService executor = newExecutor(this.numberOfThreads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>(this.partitions.size());
+      for (final DataSet<K, V> partition : this.partitions) {
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            partition.iterator();
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+      this.loaded = true;
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading the input splits", ex);
+    } catch (final ExecutionException ex) {
+      throw new RuntimeException("Unable to load the input splits", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The threads are daemons, so that readers blocked on an abandoned iterator don't keep the evaluator alive.
+   */
+  private static ExecutorService newExecutor(final int numberOfThreads) {
+    final AtomicInteger threadNumber = new AtomicInteger(0);
+    return Executors.newFixedThreadPool(numberOfThreads, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread thread = new Thread(r, "MultiSplitInputFormatDataSet-" + threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  private final class ConcatenatingIterator implements Iterator<Pair<K, V>> {
+
+    private final Iterator<DataSet<K, V>> dataSets;
+    private Iterator<Pair<K, V>> current = Collections.emptyIterator();
+
+    ConcatenatingIterator(final Iterator<DataSet<K, V>> dataSets) {
+      this.dataSets = dataSets;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!this.current.hasNext() && this.dataSets.hasNext()) {
+        this.current = this.dataSets.next().iterator();
+      }
+      return this.current.hasNext();
+    }
+
+    @Override
+    public Pair<K, V> next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return this.current.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Remove is not supported on a multi split DataSet");
+    }
+  }
+
+  private final class ConcatenatingCursor implements DataSetCursor<K, V> {
+
+    private final Iterator<CursorDataSet<K, V>> dataSets = partitions.iterator();
+    private DataSetCursor<K, V> current = null;
+    private boolean hasRecord = false;
+
+    @Override
+    public boolean advance() {
+      this.hasRecord = this.current != null && this.current.advance();
+      while (!this.hasRecord && this.dataSets.hasNext()) {
+        this.current = this.dataSets.next().cursor();
+        this.hasRecord = this.current.advance();
+      }
+      return this.hasRecord;
+    }
+
+    @Override
+    public K getKey() {
+      InputFormatDataSet.checkHasRecord(this.hasRecord);
+      return this.current.getKey();
+    }
+
+    @Override
+    public V getValue() {
+      InputFormatDataSet.checkHasRecord(this.hasRecord);
+      return this.current.getValue();
+    }
+  }
+
+  /**
+   * Takes batches of records from the reading threads. Each thread ends a split by handing over an empty batch.
+   * The threads stop once they read all splits, or once the iterator is closed, which it also is when it fails.
+   */
+  private final class ParallelIterator implements Iterator<Pair<K, V>>, AutoCloseable {
+
+    private final BlockingQueue<List<Pair<K, V>>> batches;
+    private final ExecutorService executor;
+    private volatile Throwable failure = null;
+    private volatile boolean closed = false;
+    private int splitsLeft;
+    private Iterator<Pair<K, V>> current = Collections.emptyIterator();
+
+    ParallelIterator(final List<DataSet<K, V>> dataSets) {
+      this.batches = new ArrayBlockingQueue<>(2 * numberOfThreads);
+      this.splitsLeft = dataSets.size();
+      this.executor = newExecutor(numberOfThreads);
+      for (final DataSet<K, V> dataSet : dataSets) {
+        this.executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            read(dataSet);
+          }
+        });
+      }
+      this.executor.shutdown();
+    }
+
+    private void read(final DataSet<K, V> dataSet) {
+      try {
+        List<Pair<K, V>> batch = new ArrayList<>(BATCH_SIZE);
+        for (final Pair<K, V> record : dataSet) {
+          batch.add(record);
+          if (batch.size() == BATCH_SIZE) {
+            if (!this.hand(batch)) {
+              return;
+            }
+            batch = new ArrayList<>(BATCH_SIZE);
+          }
+        }
+        if (!batch.isEmpty() && !this.hand(batch)) {
+          return;
+        }
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        this.failure = ex;
+      } catch (final RuntimeException ex) {
+        this.failure = ex;
+      }
+      try {
+        this.hand(Collections.<Pair<K, V>>emptyList());
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Hands the batch to the iterator, waiting for room in the queue until the iterator is closed.
+     *
+     * @return false, if the iterator was closed.
+     */
+    private boolean hand(final List<Pair<K, V>> batch) throws InterruptedException {
+      while (!this.closed) {
+        if (this.batches.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!this.current.hasNext() && this.splitsLeft > 0) {
+        final List<Pair<K, V>> batch;
+        try {
+          batch = this.batches.take();
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          this.close();
+          throw new RuntimeException("Interrupted while reading the input splits", ex);
+        }
+        if (batch.isEmpty()) {
+          --this.splitsLeft;
+          if (this.failure != null) {
+            this.close();
+            throw new RuntimeException("Unable to read an input split", this.failure);
+          }
+        } else {
+          this.current = batch.iterator();
+        }
+      }
+      return this.current.hasNext();
+    }
+
+    /**
+     * Stops the reading threads. The iterator has no more records afterwards.
+     */
+    @Override
+    public void close() {
+      this.closed = true;
+      this.splitsLeft = 0;
+      this.current = Collections.emptyIterator();
+      this.executor.shutdownNow();
+      this.batches.clear();
+    }
+
+    @Override
+    public Pair<K, V> next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return this.current.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Remove is not supported on a multi split DataSet");
+    }
+  }
+
+  @NamedParameter(doc = "The serialized input splits assigned to this evaluator")
+  public static final class SerializedInputSplits implements Name<Set<String>> {
+  }
+}
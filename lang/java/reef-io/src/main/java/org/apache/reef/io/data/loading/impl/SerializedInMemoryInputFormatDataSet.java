@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.data.loading.api.DataLoadingRequestBuilder;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An in-memory {@link CursorDataSet} that keeps the records of its split in serialized form.
+ * <p/>
+ * The split is read once and the records are written with {@link Writable#write} into blocks of about
+ * {@link #BLOCK_SIZE} bytes, which are optionally compressed. Compared to {@link InMemoryInputFormatDataSet}, this
+ * saves the per-object overhead of the Writables at the cost of deserializing them on every pass.
+ * <p/>
+ * The iterator deserializes every record into a new key, value and {@link Pair}, so callers may keep them. The cursor
+ * reuses one key and one value for all records, in the way of Hadoop's RecordReader.
+ * <p/>
+ * When the records are compressed, each iterator and cursor holds native memory for decompression until it reaches
+ * the end of the records or is closed. Iterators and cursors implement {@link Closeable} for callers
+ * that stop early.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+@TaskSide
+public final class SerializedInMemoryInputFormatDataSet<K extends WritableComparable<K>, V extends Writable>
+    implements CursorDataSet<K, V> {
+
+  /**
+   * The number of bytes of serialized records per block.
+   */
+  static final int BLOCK_SIZE = 1 << 20;
+
+  private final InputFormatDataSet<K, V> inputFormatDataSet;
+  private final JobConf jobConf;
+  private final boolean compress;
+  private List<Block> blocks = null;
+  private Class<?> keyClass = null;
+  private Class<?> valueClass = null;
+
+  @Inject
+  public SerializedInMemoryInputFormatDataSet(
+      final InputFormatDataSet<K, V> inputFormatDataSet,
+      final JobConf jobConf,
+      @Parameter(DataLoadingRequestBuilder.CompressDataInMemory.class) final boolean compress) {
+    this.inputFormatDataSet = inputFormatDataSet;
+    this.jobConf = jobConf;
+    this.compress = compress;
+  }
+
+  @Override
+  public synchronized Iterator<Pair<K, V>> iterator() {
+    if (this.blocks == null) {
+      this.load();
+    }
+    return new RecordIterator();
+  }
+
+  @Override
+  public synchronized DataSetCursor<K, V> cursor() {
+    if (this.blocks == null) {
+      this.load();
+    }
+    return new RecordCursor();
+  }
+
+  /**
+   * @return the number of bytes held by the blocks.
+   */
+  synchronized long getStoredBytes() {
+    if (this.blocks == null) {
+      this.load();
+    }
+    long result = 0;
+    for (final Block block : this.blocks) {
+      result += block.data.length;
+    }
+    return result;
+  }
+
+  private void load() {
+    final List<Block> loaded = new ArrayList<>();
+    final DataOutputBuffer buffer = new DataOutputBuffer(BLOCK_SIZE);
+    final Deflater deflater = this.compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    int records = 0;
+    try {
+      for (final Pair<K, V> record : this.inputFormatDataSet) {
+        if (this.keyClass == null) {
+          this.keyClass = record.getFirst().getClass();
+          this.valueClass = record.getSecond().getClass();
+        }
+        record.getFirst().write(buffer);
+        record.getSecond().write(buffer);
+        ++records;
+        if (buffer.getLength() >= BLOCK_SIZE) {
+          loaded.add(Block.of(buffer, records, deflater));
+          buffer.reset();
+          records = 0;
+        }
+      }
+      if (records > 0) {
+        loaded.add(Block.of(buffer, records, deflater));
+      }
+    } catch (final IOException ex) {
+      throw new RuntimeException("Unable to serialize the records of the split", ex);
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+    this.blocks = loaded;
+  }
+
+  /**
+   * Serialized records, compressed if the inflated length differs from the length of the data.
+   */
+  private static final class Block {
+    private final byte[] data;
+    private final int length;
+    private final int records;
+
+    private Block(final byte[] data, final int length, final int records) {
+      this.data = data;
+      this.length = length;
+      this.records = records;
+    }
+
+    private static Block of(final DataOutputBuffer buffer, final int records, final Deflater deflater) {
+      final int length = buffer.getLength();
+      if (deflater == null) {
+        return new Block(Arrays.copyOf(buffer.getData(), length), length, records);
+      }
+      deflater.reset();
+      deflater.setInput(buffer.getData(), 0, length);
+      deflater.finish();
+      byte[] compressed = new byte[Math.max(64, length / 2)];
+      int compressedLength = 0;
+      while (!deflater.finished()) {
+        if (compressedLength == compressed.length) {
+          compressed = Arrays.copyOf(compressed, compressed.length * 2);
+        }
+        compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+      }
+      if (compressedLength >= length) {
+        return new Block(Arrays.copyOf(buffer.getData(), length), length, records);
+      }
+      return new Block(Arrays.copyOf(compressed, compressedLength), length, records);
+    }
+
+    private boolean isCompressed() {
+      return this.data.length != this.length;
+    }
+  }
+
+  /**
+   * Reads the records of the blocks in order. Ends its Inflater once it reaches the end of the records or is closed.
+   */
+  private abstract class BlockReader implements Closeable {
+
+    private final DataInputBuffer in = new DataInputBuffer();
+    private Inflater inflater = null;
+    private byte[] inflated = null;
+    private int blockIndex = 0;
+    private int recordsLeft = 0;
+
+    final boolean hasMoreRecords() {
+      return this.recordsLeft > 0 || this.blockIndex < blocks.size();
+    }
+
+    /**
+     * Deserializes the next record into the given key and value.
+     */
+    final void readRecord(final K key, final V value) {
+      if (this.recordsLeft == 0) {
+        if (this.blockIndex == blocks.size()) {
+          throw new NoSuchElementException();
+        }
+        this.openBlock(blocks.get(this.blockIndex++));
+      }
+      try {
+        key.readFields(this.in);
+        value.readFields(this.in);
+      } catch (final IOException ex) {
+        throw new RuntimeException("Unable to deserialize a record", ex);
+      }
+      --this.recordsLeft;
+      if (!this.hasMoreRecords()) {
+        this.close();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    final K newKey() {
+      return (K) ReflectionUtils.newInstance(keyClass, jobConf);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V newValue() {
+      return (V) ReflectionUtils.newInstance(valueClass, jobConf);
+    }
+
+    /**
+     * Skips the remaining records and releases the Inflater, if any.
+     */
+    @Override
+    public final void close() {
+      this.blockIndex = blocks.size();
+      this.recordsLeft = 0;
+      if (this.inflater != null) {
+        this.inflater.end();
+        this.inflater = null;
+      }
+    }
+
+    private void openBlock(final Block block) {
+      if (!block.isCompressed()) {
+        this.in.reset(block.data, block.length);
+      } else {
+        if (this.inflated == null || this.inflated.length < block.length) {
+          this.inflated = new byte[block.length];
+        }
+        if (this.inflater == null) {
+          this.inflater = new Inflater();
+        } else {
+          this.inflater.reset();
+        }
+        this.inflater.setInput(block.data);
+        try {
+          int inflatedLength = 0;
+          while (inflatedLength < block.length) {
+            final int n = this.inflater.inflate(this.inflated, inflatedLength, block.length - inflatedLength);
+            if (n == 0 && (this.inflater.finished() || this.inflater.needsInput())) {
+              throw new DataFormatException("Block ends after " + inflatedLength + " of " + block.length + " bytes");
+            }
+            inflatedLength += n;
+          }
+        } catch (final DataFormatException ex) {
+          throw new RuntimeException("Unable to decompress a block of records", ex);
+        }
+        this.in.reset(this.inflated, block.length);
+      }
+      this.recordsLeft = block.records;
+    }
+  }
+
+  /**
+   * Returns a new Pair, key and value for every record.
+   */
+  private final class RecordIterator extends BlockReader implements Iterator<Pair<K, V>> {
+
+    @Override
+    public boolean hasNext() {
+      return this.hasMoreRecords();
+    }
+
+    @Override
+    public Pair<K, V> next() {
+      if (!this.hasMoreRecords()) {
+        throw new NoSuchElementException();
+      }
+      final Pair<K, V> record = new Pair<>(this.newKey(), this.newValue());
+      this.readRecord(record.getFirst(), record.getSecond());
+      return record;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Remove is not supported on a cached DataSet");
+    }
+  }
+
+  /**
+   * Reads every record into the same key and value.
+   */
+  private final class RecordCursor extends BlockReader implements DataSetCursor<K, V> {
+
+    private final K key;
+    private final V value;
+    private boolean hasRecord = false;
+
+    RecordCursor() {
+      this.key = keyClass == null ? null : this.newKey();
+      this.value = valueClass == null ? null : this.newValue();
+    }
+
+    @Override
+    public boolean advance() {
+      this.hasRecord = this.hasMoreRecords();
+      if (this.hasRecord) {
+        this.readRecord(this.key, this.value);
+      }
+      return this.hasRecord;
+    }
+
+    @Override
+    public K getKey() {
+      InputFormatDataSet.checkHasRecord(this.hasRecord);
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      InputFormatDataSet.checkHasRecord(this.hasRecord);
+      return this.value;
+    }
+  }
+}
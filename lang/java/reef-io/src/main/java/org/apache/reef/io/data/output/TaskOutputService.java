@@ -55,18 +55,41 @@ public final class TaskOutputService implements OutputService {
    */
   private final String outputPath;
 
+  /**
+   * Write-behind buffers of the output streams.
+   */
+  private final WriteBehindBuffers writeBehindBuffers;
+
+  private final int outputBlockSize;
+
+  private final long outputMemoryBudget;
+
+  private final String outputCompressionCodec;
+
   /**
    * Service constructor - instantiated via TANG.
    *
    * @param taskOutputStreamProvider Output stream provider object through which tasks create file output streams.
    * @param outputPath Path of the directory where output files are created.
+   * @param writeBehindBuffers Write-behind buffers of the output streams.
+   * @param outputBlockSize Size of the blocks in which output is written in the background.
+   * @param outputMemoryBudget Memory for the blocks being filled or waiting to be written.
+   * @param outputCompressionCodec Class of the Hadoop compression codec for the output.
    */
   @Inject
   private TaskOutputService(
       final TaskOutputStreamProvider taskOutputStreamProvider,
-      @Parameter(OutputPath.class) final String outputPath) {
+      @Parameter(OutputPath.class) final String outputPath,
+      final WriteBehindBuffers writeBehindBuffers,
+      @Parameter(OutputBlockSize.class) final int outputBlockSize,
+      @Parameter(OutputMemoryBudget.class) final long outputMemoryBudget,
+      @Parameter(OutputCompressionCodec.class) final String outputCompressionCodec) {
     this.taskOutputStreamProvider = taskOutputStreamProvider;
     this.outputPath = outputPath;
+    this.writeBehindBuffers = writeBehindBuffers;
+    this.outputBlockSize = outputBlockSize;
+    this.outputMemoryBudget = outputMemoryBudget;
+    this.outputCompressionCodec = outputCompressionCodec;
   }
 
   /**
@@ -88,17 +111,21 @@ public final class TaskOutputService implements OutputService {
         .bindImplementation(OutputStreamProvider.class, taskOutputStreamProvider.getClass())
         .bindImplementation(TaskOutputStreamProvider.class, taskOutputStreamProvider.getClass())
         .bindNamedParameter(OutputPath.class, outputPath)
+        .bindNamedParameter(OutputBlockSize.class, Integer.toString(outputBlockSize))
+        .bindNamedParameter(OutputMemoryBudget.class, Long.toString(outputMemoryBudget))
+        .bindNamedParameter(OutputCompressionCodec.class, outputCompressionCodec)
         .build();
   }
 
   /**
-   * Handles the ContextStop event: Close the output stream provider.
+   * Handles the ContextStop event: Flush the output streams and close the output stream provider.
    */
   private final class ContextStopHandler implements EventHandler<ContextStop> {
     @Override
     public void onNext(final ContextStop contextStop) {
       LOG.log(Level.INFO, "Context stopped, close the OutputStreamProvider.");
       try {
+        writeBehindBuffers.close();
         taskOutputStreamProvider.close();
       } catch (final IOException e) {
         throw new RuntimeException(e);
@@ -123,4 +150,29 @@ public final class TaskOutputService implements OutputService {
   @NamedParameter(doc = "Path of the directory where output files are created")
   public static final class OutputPath implements Name<String> {
   }
+
+  /**
+   * Size of the blocks in which output is written in the background.
+   */
+  @NamedParameter(doc = "Size of the blocks in which output is written in the background, "
+      + "or 0 to write synchronously", default_value = "1048576")
+  public static final class OutputBlockSize implements Name<Integer> {
+  }
+
+  /**
+   * Memory for the blocks being filled or waiting to be written, shared by the output streams of an Evaluator.
+   */
+  @NamedParameter(doc = "Memory for the blocks being filled or waiting to be written, in bytes",
+      default_value = "67108864")
+  public static final class OutputMemoryBudget implements Name<Long> {
+  }
+
+  /**
+   * Class of the Hadoop compression codec for the output.
+   */
+  @NamedParameter(doc = "Class of the Hadoop compression codec for the output",
+      default_value = OutputCompressionCodec.NONE)
+  public static final class OutputCompressionCodec implements Name<String> {
+    public static final String NONE = "NONE";
+  }
 }
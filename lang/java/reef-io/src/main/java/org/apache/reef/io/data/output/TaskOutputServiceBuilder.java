@@ -20,6 +20,7 @@ package org.apache.reef.io.data.output;
 
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
 import org.apache.reef.tang.formats.RequiredImpl;
 import org.apache.reef.tang.formats.RequiredParameter;
 
@@ -38,9 +39,27 @@ public final class TaskOutputServiceBuilder extends ConfigurationModuleBuilder {
    */
   public static final RequiredParameter<String> OUTPUT_PATH = new RequiredParameter<>();
 
+  /**
+   * Size of the blocks in which output is written in the background, or 0 to write synchronously.
+   */
+  public static final OptionalParameter<Integer> OUTPUT_BLOCK_SIZE = new OptionalParameter<>();
+
+  /**
+   * Memory for the blocks being filled or waiting to be written, shared by the output streams of an Evaluator.
+   */
+  public static final OptionalParameter<Long> OUTPUT_MEMORY_BUDGET = new OptionalParameter<>();
+
+  /**
+   * Class of the Hadoop compression codec for the output.
+   */
+  public static final OptionalParameter<String> OUTPUT_COMPRESSION_CODEC = new OptionalParameter<>();
+
   public static final ConfigurationModule CONF = new TaskOutputServiceBuilder()
       .bindImplementation(OutputService.class, TaskOutputService.class)
       .bindImplementation(TaskOutputStreamProvider.class, TASK_OUTPUT_STREAM_PROVIDER)
       .bindNamedParameter(TaskOutputService.OutputPath.class, OUTPUT_PATH)
+      .bindNamedParameter(TaskOutputService.OutputBlockSize.class, OUTPUT_BLOCK_SIZE)
+      .bindNamedParameter(TaskOutputService.OutputMemoryBudget.class, OUTPUT_MEMORY_BUDGET)
+      .bindNamedParameter(TaskOutputService.OutputCompressionCodec.class, OUTPUT_COMPRESSION_CODEC)
       .build();
 }
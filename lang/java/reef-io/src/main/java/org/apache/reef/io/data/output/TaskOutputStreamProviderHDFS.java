@@ -45,22 +45,31 @@ public final class TaskOutputStreamProviderHDFS extends TaskOutputStreamProvider
    */
   private FileSystem fs;
 
+  /**
+   * Write-behind buffers of the output streams.
+   */
+  private final WriteBehindBuffers writeBehindBuffers;
+
   /**
    * Constructor - instantiated via TANG.
    *
    * @param outputPath path of the output directory on HDFS to write outputs.
+   * @param writeBehindBuffers write-behind buffers of the output streams.
    */
   @Inject
   private TaskOutputStreamProviderHDFS(
-      @Parameter(TaskOutputService.OutputPath.class) final String outputPath) throws IOException {
+      @Parameter(TaskOutputService.OutputPath.class) final String outputPath,
+      final WriteBehindBuffers writeBehindBuffers) throws IOException {
     this.outputPath = outputPath;
+    this.writeBehindBuffers = writeBehindBuffers;
     final JobConf jobConf = new JobConf();
     fs = FileSystem.get(jobConf);
   }
 
   /**
    * create a file output stream using the given name.
-   * The path of the file on HDFS is 'outputPath/name/taskId'.
+   * The path of the file on HDFS is 'outputPath/name/taskId',
+   * followed by the extension of the compression codec, if any.
    *
    * @param name name of the created output stream
    *             It is used as the name of the directory if the created output stream is a file output stream
@@ -73,7 +82,8 @@ public final class TaskOutputStreamProviderHDFS extends TaskOutputStreamProvider
     if (!fs.exists(new Path(directoryPath))) {
       fs.mkdirs(new Path(directoryPath));
     }
-    return fs.create(new Path(directoryPath + Path.SEPARATOR + getTaskId()));
+    final Path path = new Path(directoryPath + Path.SEPARATOR + getTaskId() + writeBehindBuffers.getFileExtension());
+    return writeBehindBuffers.wrap(path.toString(), fs.create(path));
   }
 
   @Override
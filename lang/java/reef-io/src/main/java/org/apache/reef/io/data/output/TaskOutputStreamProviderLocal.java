@@ -37,20 +37,29 @@ public final class TaskOutputStreamProviderLocal extends TaskOutputStreamProvide
    */
   private final String outputPath;
 
+  /**
+   * Write-behind buffers of the output streams.
+   */
+  private final WriteBehindBuffers writeBehindBuffers;
+
   /**
    * Constructor - instantiated via TANG.
    *
    * @param outputPath path of the output directory on the local disk to write outputs.
+   * @param writeBehindBuffers write-behind buffers of the output streams.
    */
   @Inject
   private TaskOutputStreamProviderLocal(
-      @Parameter(TaskOutputService.OutputPath.class) final String outputPath) {
+      @Parameter(TaskOutputService.OutputPath.class) final String outputPath,
+      final WriteBehindBuffers writeBehindBuffers) {
     this.outputPath = outputPath;
+    this.writeBehindBuffers = writeBehindBuffers;
   }
 
   /**
    * create a file output stream using the given name.
-   * The path of the file on the local file system is 'outputPath/name/taskId'.
+   * The path of the file on the local file system is 'outputPath/name/taskId',
+   * followed by the extension of the compression codec, if any.
    *
    * @param name name of the created output stream
    *             It is used as the name of the directory if the created output stream is a file output stream
@@ -68,8 +77,8 @@ public final class TaskOutputStreamProviderLocal extends TaskOutputStreamProvide
       }
     }
 
-    final File file = new File(directoryPath + File.separator + getTaskId());
-    return new DataOutputStream(new FileOutputStream(file));
+    final File file = new File(directoryPath + File.separator + getTaskId() + writeBehindBuffers.getFileExtension());
+    return writeBehindBuffers.wrap(file.getPath(), new FileOutputStream(file));
   }
 
   @Override
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.output;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The write-behind buffers of the task output streams of an Evaluator.
+ * <p>
+ * Streams created through {@link #wrap(String, OutputStream)} collect their data in blocks, which are compressed
+ * and written on a thread per stream. The blocks of all streams, those being filled as well as those waiting to be
+ * written, come from a pool bounded by a memory budget and are reused; a task only waits for the storage when it is
+ * used up. The streams that are still open are closed by {@link #close()}.
+ */
+@TaskSide
+public final class WriteBehindBuffers {
+  private static final Logger LOG = Logger.getLogger(WriteBehindBuffers.class.getName());
+
+  /**
+   * Creates a stream on top of another one.
+   */
+  interface StreamWrapper {
+    OutputStream wrap(final OutputStream out) throws IOException;
+  }
+
+  private final int blockSize;
+  /**
+   * One permit per block that fits into the memory budget.
+   */
+  private final Semaphore budget;
+  private final CompressionCodec codec;
+  private final Set<WriteBehindOutputStream> openStreams =
+      Collections.newSetFromMap(new ConcurrentHashMap<WriteBehindOutputStream, Boolean>());
+  private final AtomicLong bytesWritten = new AtomicLong(0);
+  private final AtomicLong bytesStored = new AtomicLong(0);
+  private final List<String> failedStreams = new ArrayList<>();
+  private final Queue<byte[]> freeBlocks = new ConcurrentLinkedQueue<>();
+
+  @Inject
+  private WriteBehindBuffers(
+      @Parameter(TaskOutputService.OutputBlockSize.class) final int blockSize,
+      @Parameter(TaskOutputService.OutputMemoryBudget.class) final long memoryBudget,
+      @Parameter(TaskOutputService.OutputCompressionCodec.class) final String codecClassName) {
+    this.blockSize = blockSize;
+    this.budget = blockSize <= 0 ? null
+        : new Semaphore((int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudget / blockSize)));
+    if (TaskOutputService.OutputCompressionCodec.NONE.equals(codecClassName)) {
+      this.codec = null;
+    } else {
+      try {
+        this.codec = (CompressionCodec) ReflectionUtils.newInstance(Class.forName(codecClassName), new JobConf());
+      } catch (final ClassNotFoundException e) {
+        throw new IllegalArgumentException("Unknown compression codec " + codecClassName, e);
+      }
+    }
+  }
+
+  /**
+   * @return the extension of the files written through the compression codec, or the empty string.
+   */
+  public String getFileExtension() {
+    return this.codec == null ? "" : this.codec.getDefaultExtension();
+  }
+
+  /**
+   * Wraps the given stream to the storage with a write-behind buffer and the compression codec, if any.
+   *
+   * @param name the name of the stream, for logging.
+   * @param out  the stream to the storage.
+   * @return the stream for the task to write to.
+   * @throws IOException if the compressing stream can't be created.
+   */
+  public DataOutputStream wrap(final String name, final OutputStream out) throws IOException {
+    final StreamWrapper compressed = this.codec == null ? null : new StreamWrapper() {
+      @Override
+      public OutputStream wrap(final OutputStream rawOut) throws IOException {
+        return codec.createOutputStream(rawOut);
+      }
+    };
+    if (this.blockSize <= 0) {
+      return new DataOutputStream(compressed == null ? out : compressed.wrap(out));
+    }
+    final WriteBehindOutputStream stream =
+        new WriteBehindOutputStream(name, this, this.blockSize, out, compressed);
+    this.openStreams.add(stream);
+    return new DataOutputStream(stream);
+  }
+
+  /**
+   * Closes the streams that are still open, writing their remaining data, and reports what was written.
+   *
+   * @throws IOException if some data could not be written.
+   */
+  public void close() throws IOException {
+    for (final WriteBehindOutputStream stream : new ArrayList<>(this.openStreams)) {
+      try {
+        stream.close();
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Unable to close " + stream.getName(), e);
+      }
+    }
+    this.freeBlocks.clear();
+    synchronized (this.failedStreams) {
+      if (!this.failedStreams.isEmpty()) {
+        throw new IOException("Task output may be incomplete, unable to write " + this.failedStreams);
+      }
+    }
+    LOG.log(Level.INFO, "Task output durable: {0} bytes written, {1} bytes stored",
+        new Object[] {this.bytesWritten.get(), this.bytesStored.get()});
+  }
+
+  /**
+   * Called by a stream once it is closed, by the task or by {@link #close()}.
+   *
+   * @param failed whether some of the data of the stream could not be written.
+   */
+  void closed(final WriteBehindOutputStream stream, final boolean failed) {
+    if (this.openStreams.remove(stream)) {
+      this.bytesWritten.addAndGet(stream.getBytesWritten());
+      this.bytesStored.addAndGet(stream.getBytesStored());
+      if (failed) {
+        synchronized (this.failedStreams) {
+          this.failedStreams.add(stream.getName());
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes a block from the pool, if the memory budget allows it.
+   *
+   * @return the block, or null if the budget is used up.
+   */
+  byte[] tryTakeBlock() {
+    if (!this.budget.tryAcquire()) {
+      return null;
+    }
+    final byte[] block = this.freeBlocks.poll();
+    return block == null ? new byte[this.blockSize] : block;
+  }
+
+  /**
+   * Returns a block taken with {@link #tryTakeBlock()} to the pool.
+   */
+  void returnBlock(final byte[] block) {
+    this.freeBlocks.offer(block);
+    this.budget.release();
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.output;
+
+import org.apache.reef.annotations.audience.TaskSide;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An output stream that collects the data written to it in blocks and writes
+ * full blocks on a thread of its own, so that the writer only waits for the
+ * storage if the memory budget shared with other streams is used up.
+ * <p>
+ * The blocks, including the one being filled, are taken from the pool of
+ * {@link WriteBehindBuffers}. If it has none to spare, the stream waits for
+ * its own blocks to be written and, failing that, fills a small fallback
+ * buffer of its own instead, which it writes through to the storage once full.
+ * It tries the pool again after each such write.
+ * <p>
+ * Compression, if any, also happens on that thread.
+ */
+@TaskSide
+final class WriteBehindOutputStream extends OutputStream {
+
+  /**
+   * The largest size of the buffer used when the pool has no block to spare.
+   */
+  static final int FALLBACK_SIZE = 4096;
+
+  private final String name;
+  private final WriteBehindBuffers buffers;
+  private final int blockSize;
+  private final CountingOutputStream counter;
+  private final OutputStream out;
+  private final ExecutorService writer;
+  private final AtomicLong bytesWritten = new AtomicLong(0);
+
+  /**
+   * The block being filled, or null if the stream holds none. Either taken from the pool, or the fallback.
+   */
+  private byte[] block = null;
+  private int count = 0;
+  /**
+   * The buffer filled when the pool has no block to spare, allocated on first use.
+   */
+  private byte[] fallback = null;
+  /**
+   * The last block handed to the writer. Blocks are written in order, so it is done once this is.
+   */
+  private Future<?> lastWrite = null;
+  private volatile IOException failure = null;
+  private boolean closed = false;
+
+  /**
+   * @param name       the name of the stream, for thread names and messages.
+   * @param buffers    the buffers the stream is registered with.
+   * @param blockSize  the number of bytes collected before they are written.
+   * @param rawOut     the stream to the storage.
+   * @param compressed creates the compressing stream on top of the stream to the storage, if not null.
+   */
+  WriteBehindOutputStream(final String name, final WriteBehindBuffers buffers, final int blockSize,
+                          final OutputStream rawOut,
+                          final WriteBehindBuffers.StreamWrapper compressed) throws IOException {
+    this.name = name;
+    this.buffers = buffers;
+    this.blockSize = blockSize;
+    this.counter = new CountingOutputStream(rawOut);
+    this.out = compressed == null ? this.counter : compressed.wrap(this.counter);
+    this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        return new Thread(r, "WriteBehindOutputStream-" + name);
+      }
+    });
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    this.checkOpen();
+    if (this.block != null && this.count == this.block.length) {
+      this.writeBlock();
+    }
+    if (this.block == null) {
+      this.takeBlock();
+    }
+    this.block[this.count++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    this.checkOpen();
+    int written = 0;
+    while (written < len) {
+      if (this.block != null && this.count == this.block.length) {
+        this.writeBlock();
+      }
+      if (this.block == null) {
+        this.takeBlock();
+      }
+      if (this.block == this.fallback && this.count == 0 && len - written >= this.fallback.length) {
+        // no point in copying what fills the fallback anyway
+        this.block = null;
+        this.writeThrough(b, off + written, len - written);
+        return;
+      }
+      final int chunk = Math.min(len - written, this.block.length - this.count);
+      System.arraycopy(b, off + written, this.block, this.count, chunk);
+      this.count += chunk;
+      written += chunk;
+    }
+  }
+
+  /**
+   * Waits until everything written so far has been handed to the storage.
+   */
+  @Override
+  public void flush() throws IOException {
+    this.checkOpen();
+    this.writeBlock();
+    this.submit(new IORunnable() {
+      @Override
+      public void run() throws IOException {
+        out.flush();
+      }
+    }, null, false);
+    this.awaitWrites();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    boolean failed = true;
+    try {
+      this.writeBlock();
+      this.submit(new IORunnable() {
+        @Override
+        public void run() throws IOException {
+          out.close();
+        }
+      }, null, true);
+      this.awaitWrites();
+      failed = false;
+    } finally {
+      this.closed = true;
+      this.writer.shutdown();
+      if (this.block != null && this.block != this.fallback) {
+        this.buffers.returnBlock(this.block);
+        this.block = null;
+      }
+      this.buffers.closed(this, failed);
+    }
+  }
+
+  String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return the number of bytes written to this stream.
+   */
+  long getBytesWritten() {
+    return this.bytesWritten.get();
+  }
+
+  /**
+   * @return the number of bytes handed to the storage, after compression.
+   */
+  long getBytesStored() {
+    return this.counter.getCount();
+  }
+
+  private void checkOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("Stream " + this.name + " is closed");
+    }
+    if (this.failure != null) {
+      throw new IOException("Unable to write " + this.name, this.failure);
+    }
+  }
+
+  /**
+   * Takes a block to fill from the pool. If there is none, waits until the blocks of this stream are written
+   * and tries again, as those return to the pool. If the memory budget is used up by other streams,
+   * takes the fallback instead.
+   */
+  private void takeBlock() throws IOException {
+    this.block = this.buffers.tryTakeBlock();
+    if (this.block == null) {
+      this.awaitWrites();
+      this.block = this.buffers.tryTakeBlock();
+    }
+    if (this.block == null) {
+      if (this.fallback == null) {
+        this.fallback = new byte[Math.min(this.blockSize, FALLBACK_SIZE)];
+      }
+      this.block = this.fallback;
+    }
+  }
+
+  /**
+   * Hands the current block, if it holds any data, to the writer. A block of the pool returns to it once written;
+   * the fallback is written through, as it is filled again right away.
+   */
+  private void writeBlock() throws IOException {
+    if (this.count == 0) {
+      return;
+    }
+    final byte[] full = this.block;
+    final int length = this.count;
+    final boolean pooled = full != this.fallback;
+    this.block = null;
+    this.count = 0;
+    if (!pooled) {
+      this.writeThrough(full, 0, length);
+      return;
+    }
+    this.submit(new IORunnable() {
+      @Override
+      public void run() throws IOException {
+        out.write(full, 0, length);
+        bytesWritten.addAndGet(length);
+      }
+    }, full, false);
+  }
+
+  /**
+   * Writes the given data on the writer thread, after the blocks handed to it before, and waits until it is written.
+   */
+  private void writeThrough(final byte[] b, final int off, final int len) throws IOException {
+    this.submit(new IORunnable() {
+      @Override
+      public void run() throws IOException {
+        out.write(b, off, len);
+        bytesWritten.addAndGet(len);
+      }
+    }, null, false);
+    this.awaitWrites();
+  }
+
+  /**
+   * @param usedBlock        the block to return to the pool once the task is done, or null.
+   * @param runsAfterFailure whether to run the task even if an earlier one failed.
+   */
+  private void submit(final IORunnable io, final byte[] usedBlock, final boolean runsAfterFailure) {
+    this.lastWrite = this.writer.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          if (failure == null || runsAfterFailure) {
+            io.run();
+          }
+        } catch (final IOException e) {
+          if (failure == null) {
+            failure = e;
+          }
+        } finally {
+          if (usedBlock != null) {
+            buffers.returnBlock(usedBlock);
+          }
+        }
+      }
+    });
+  }
+
+  private void awaitWrites() throws IOException {
+    if (this.lastWrite != null) {
+      try {
+        this.lastWrite.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while writing " + this.name);
+      } catch (final ExecutionException e) {
+        throw new IOException("Unable to write " + this.name, e.getCause());
+      }
+    }
+    if (this.failure != null) {
+      throw new IOException("Unable to write " + this.name, this.failure);
+    }
+  }
+
+  private interface IORunnable {
+    void run() throws IOException;
+  }
+
+  /**
+   * Counts the bytes handed to the storage.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private final AtomicLong written = new AtomicLong(0);
+
+    CountingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      this.out.write(b);
+      this.written.incrementAndGet();
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      this.out.write(b, off, len);
+      this.written.addAndGet(len);
+    }
+
+    long getCount() {
+      return this.written.get();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A double-buffered stream to a file of a LocalScratchSpace. A full buffer is written on the I/O thread of the
+ * scratch space while the caller fills the other one, and the caller only waits if both are full.
+ */
+final class AsyncFileOutputStream extends OutputStream {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private final LocalScratchSpace scratchSpace;
+  private final File file;
+  private final FileOutputStream out;
+  private byte[] buffer = new byte[BUFFER_SIZE];
+  /**
+   * Allocated once a second buffer is needed, so that small files only take one.
+   */
+  private byte[] spare = null;
+  private int count = 0;
+  private Future<Void> pending = null;
+  private boolean closed = false;
+
+  AsyncFileOutputStream(final LocalScratchSpace scratchSpace, final File file) throws IOException {
+    this.scratchSpace = scratchSpace;
+    this.file = file;
+    this.out = new FileOutputStream(file);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if (this.count == this.buffer.length) {
+      this.writeBuffer();
+    }
+    this.buffer[this.count++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    int written = 0;
+    while (written < len) {
+      if (this.count == this.buffer.length) {
+        this.writeBuffer();
+      }
+      final int chunk = Math.min(len - written, this.buffer.length - this.count);
+      System.arraycopy(b, off + written, this.buffer, this.count, chunk);
+      this.count += chunk;
+      written += chunk;
+    }
+  }
+
+  /**
+   * Waits until everything written so far is in the file.
+   */
+  @Override
+  public void flush() throws IOException {
+    this.writeBuffer();
+    this.awaitPending();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!this.closed) {
+      this.closed = true;
+      try {
+        this.flush();
+      } finally {
+        this.out.close();
+      }
+    }
+  }
+
+  /**
+   * Hands the current buffer to the I/O thread, once the previous one is written.
+   */
+  private void writeBuffer() throws IOException {
+    if (this.count == 0) {
+      return;
+    }
+    this.scratchSpace.reserve(this.file, this.count);
+    this.awaitPending();
+
+    final byte[] full = this.buffer;
+    final int length = this.count;
+    this.pending = this.scratchSpace.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        out.write(full, 0, length);
+        return null;
+      }
+    });
+    this.buffer = this.spare != null ? this.spare : new byte[BUFFER_SIZE];
+    this.spare = full;
+    this.count = 0;
+  }
+
+  private void awaitPending() throws IOException {
+    if (this.pending == null) {
+      return;
+    }
+    try {
+      this.pending.get();
+      this.pending = null;
+    } catch (final InterruptedException e) {
+      // The write may still be running, so its buffer can't be reused.
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing " + this.file);
+    } catch (final ExecutionException e) {
+      this.pending = null;
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Unable to write " + this.file, e.getCause());
+    }
+  }
+}
@@ -28,11 +28,13 @@ import java.io.IOException;
 
 public final class CodecFileAccumulable<T, C extends Codec<T>> implements Accumulable<T> {
 
+  private final LocalScratchSpace scratchSpace;
   private final File filename;
   private final C codec;
 
   public CodecFileAccumulable(final LocalStorageService s, final C codec) {
-    this.filename = s.getScratchSpace().newFile();
+    this.scratchSpace = s.getScratchSpace();
+    this.filename = this.scratchSpace.newFile();
     this.codec = codec;
   }
 
@@ -43,7 +45,7 @@ public final class CodecFileAccumulable<T, C extends Codec<T>> implements Accumu
   @Override
   public Accumulator<T> accumulator() throws StorageException {
     try {
-      return new CodecFileAccumulator<>(this.codec, this.filename);
+      return new CodecFileAccumulator<>(this.codec, this.scratchSpace, this.filename);
     } catch (final IOException e) {
       throw new StorageException(e);
     }
@@ -28,11 +28,12 @@ import java.io.*;
 final class CodecFileAccumulator<T> implements Accumulator<T> {
 
   private final Codec<T> codec;
-  private final ObjectOutputStream out;
+  private final DataOutputStream out;
 
-  public CodecFileAccumulator(final Codec<T> codec, final File file) throws IOException {
+  public CodecFileAccumulator(final Codec<T> codec, final LocalScratchSpace scratchSpace, final File file)
+      throws IOException {
     this.codec = codec;
-    this.out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    this.out = new DataOutputStream(scratchSpace.newOutputStream(file));
   }
 
   @Override
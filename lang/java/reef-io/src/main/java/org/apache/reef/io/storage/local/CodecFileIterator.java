@@ -18,61 +18,33 @@
  */
 package org.apache.reef.io.storage.local;
 
-import org.apache.reef.exception.evaluator.ServiceRuntimeException;
-import org.apache.reef.exception.evaluator.StorageException;
 import org.apache.reef.io.serialization.Codec;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
+/**
+ * Reads the values written by CodecFileAccumulator from a memory-mapped file.
+ */
 final class CodecFileIterator<T> implements Iterator<T> {
 
   private final Codec<T> codec;
-  private final ObjectInputStream in;
-  private int sz = 0;
+  private final MappedFrameIterator frames;
 
   CodecFileIterator(final Codec<T> codec, final File file) throws IOException {
-    this.in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
     this.codec = codec;
-    this.readNextSize();
-  }
-
-  private void readNextSize() throws IOException {
-    if (this.hasNext()) {
-      try {
-        this.sz = this.in.readInt();
-        if (this.sz == -1) {
-          this.in.close();
-        }
-      } catch (final IOException ex) {
-        this.sz = -1; // Don't read from that file again.
-        this.in.close();
-        throw ex;
-      }
-    }
+    this.frames = new MappedFrameIterator(file);
   }
 
   @Override
   public boolean hasNext() {
-    return this.sz != -1;
+    return this.frames.hasNext();
   }
 
   @Override
   public T next() {
-    if (!this.hasNext()) {
-      throw new NoSuchElementException("Moving past the end of the file.");
-    }
-    try {
-      final byte[] buf = new byte[this.sz];
-      for (int rem = buf.length; rem > 0;) {
-        rem -= this.in.read(buf, buf.length - rem, rem);
-      }
-      this.readNextSize();
-      return this.codec.decode(buf);
-    } catch (final IOException e) {
-      throw new ServiceRuntimeException(new StorageException(e));
-    }
+    return MappedFrameIterator.decode(this.codec, this.frames.next());
   }
 
   @Override
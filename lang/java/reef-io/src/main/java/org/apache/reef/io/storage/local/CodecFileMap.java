@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
+import org.apache.reef.exception.evaluator.StorageException;
+import org.apache.reef.io.ExternalMap;
+import org.apache.reef.io.serialization.Codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An ExternalMap that keeps its values in files in the scratch space and only the most recently used ones in memory.
+ * <p>
+ * The values are encoded with the given Codec and appended to a log of segment files. Only the keys and the
+ * positions of their values in the log are kept in memory, next to an LRU cache of decoded values. Full segments are
+ * memory-mapped for reading. When less than half of a full segment is still in use, its remaining values are moved
+ * to the end of the log and the segment is deleted.
+ * <p>
+ * The segment files are counted against the quota of the scratch space while they exist.
+ * <p>
+ * Values put into the map are cached as given, so they should not be modified afterwards.
+ *
+ * @param <T> the entry type of the map
+ */
+public final class CodecFileMap<T> implements ExternalMap<T>, AutoCloseable {
+
+  /**
+   * The default size of the segment files.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private final LocalScratchSpace scratchSpace;
+  private final Codec<T> codec;
+  private final int segmentSize;
+
+  /**
+   * The location of the value of each key in the log.
+   */
+  private final Map<String, Location> index = new HashMap<>();
+
+  /**
+   * The most recently used values, evicted in the order of their last access.
+   */
+  private final Map<String, T> cache;
+
+  private final List<Segment> sealedSegments = new ArrayList<>();
+  private Segment activeSegment;
+  private int segmentCount = 0;
+
+  /**
+   * @param s         the storage service in the scratch space of which the segment files are created.
+   * @param codec     the codec for the values.
+   * @param cacheSize the number of decoded values to keep in memory.
+   */
+  public CodecFileMap(final LocalStorageService s, final Codec<T> codec, final int cacheSize) {
+    this(s, codec, cacheSize, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * @param s           the storage service in the scratch space of which the segment files are created.
+   * @param codec       the codec for the values.
+   * @param cacheSize   the number of decoded values to keep in memory.
+   * @param segmentSize the size in bytes from which on segment files are sealed and memory-mapped.
+   */
+  public CodecFileMap(final LocalStorageService s, final Codec<T> codec, final int cacheSize, final int segmentSize) {
+    this.scratchSpace = s.getScratchSpace();
+    this.codec = codec;
+    this.segmentSize = segmentSize;
+    this.cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, T> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  @Override
+  public synchronized boolean containsKey(final CharSequence key) {
+    return this.index.containsKey(key.toString());
+  }
+
+  @Override
+  public synchronized T get(final CharSequence key) {
+    final String k = key.toString();
+    final T cached = this.cache.get(k);
+    if (cached != null) {
+      return cached;
+    }
+    final Location location = this.index.get(k);
+    if (location == null) {
+      return null;
+    }
+    final T value = this.decode(location);
+    this.cache.put(k, value);
+    return value;
+  }
+
+  @Override
+  public synchronized T put(final CharSequence key, final T value) {
+    final T previous = this.get(key);
+    this.putAll(Collections.singletonMap(key, value));
+    return previous;
+  }
+
+  @Override
+  public synchronized T remove(final CharSequence key) {
+    final T previous = this.get(key);
+    final String k = key.toString();
+    this.cache.remove(k);
+    final Location location = this.index.remove(k);
+    if (location != null) {
+      this.release(location);
+    }
+    return previous;
+  }
+
+  /**
+   * Appends all values to the log in one write.
+   */
+  @Override
+  public synchronized void putAll(final Map<? extends CharSequence, ? extends T> m) {
+    final List<String> keys = new ArrayList<>(m.size());
+    final List<byte[]> values = new ArrayList<>(m.size());
+    for (final Map.Entry<? extends CharSequence, ? extends T> entry : m.entrySet()) {
+      keys.add(entry.getKey().toString());
+      values.add(this.codec.encode(entry.getValue()));
+    }
+
+    try {
+      final List<Location> locations = this.append(keys, values);
+      int i = 0;
+      for (final Map.Entry<? extends CharSequence, ? extends T> entry : m.entrySet()) {
+        final String key = keys.get(i);
+        final Location previous = this.index.put(key, locations.get(i));
+        this.cache.put(key, entry.getValue());
+        if (previous != null) {
+          this.release(previous);
+        }
+        ++i;
+      }
+    } catch (final IOException e) {
+      throw new ServiceRuntimeException(new StorageException(e));
+    }
+  }
+
+  /**
+   * Reads the values that are not in memory in the order in which they are stored.
+   */
+  @Override
+  public synchronized Iterable<Map.Entry<CharSequence, T>> getAll(final Set<? extends CharSequence> keys) {
+    final List<Map.Entry<CharSequence, T>> result = new ArrayList<>(keys.size());
+    final List<Map.Entry<CharSequence, Location>> toRead = new ArrayList<>();
+    for (final CharSequence key : keys) {
+      final String k = key.toString();
+      final T cached = this.cache.get(k);
+      if (cached != null) {
+        result.add(new AbstractMap.SimpleImmutableEntry<CharSequence, T>(key, cached));
+      } else {
+        final Location location = this.index.get(k);
+        if (location != null) {
+          toRead.add(new AbstractMap.SimpleImmutableEntry<>(key, location));
+        }
+      }
+    }
+
+    Collections.sort(toRead, new Comparator<Map.Entry<CharSequence, Location>>() {
+      @Override
+      public int compare(final Map.Entry<CharSequence, Location> e1, final Map.Entry<CharSequence, Location> e2) {
+        final Location l1 = e1.getValue();
+        final Location l2 = e2.getValue();
+        if (l1.segment.id != l2.segment.id) {
+          return l1.segment.id < l2.segment.id ? -1 : 1;
+        }
+        return Long.compare(l1.offset, l2.offset);
+      }
+    });
+    for (final Map.Entry<CharSequence, Location> entry : toRead) {
+      result.add(new AbstractMap.SimpleImmutableEntry<CharSequence, T>(
+          entry.getKey(), this.decode(entry.getValue())));
+    }
+    return result;
+  }
+
+  /**
+   * Deletes the segment files. The map must not be used afterwards.
+   */
+  @Override
+  public synchronized void close() {
+    for (final Segment segment : this.sealedSegments) {
+      segment.delete();
+    }
+    this.sealedSegments.clear();
+    if (this.activeSegment != null) {
+      this.activeSegment.delete();
+      this.activeSegment = null;
+    }
+    this.index.clear();
+    this.cache.clear();
+  }
+
+  /**
+   * Appends the given records to the log, starting new segments as needed.
+   *
+   * @return the locations of the values.
+   */
+  private List<Location> append(final List<String> keys, final List<byte[]> values) throws IOException {
+    final List<Location> locations = new ArrayList<>(keys.size());
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+    for (int i = 0; i < keys.size(); ++i) {
+      final byte[] key = keys.get(i).getBytes(StandardCharsets.UTF_8);
+      final byte[] value = values.get(i);
+      final int recordSize = 8 + key.length + value.length;
+
+      if (this.activeSegment == null) {
+        this.activeSegment = this.newSegment();
+      } else if (this.activeSegment.size + buffer.size() > 0
+          && this.activeSegment.size + buffer.size() + recordSize > this.segmentSize) {
+        this.activeSegment.write(buffer.toByteArray());
+        buffer.reset();
+        this.seal();
+      }
+
+      out.writeInt(key.length);
+      out.write(key);
+      out.writeInt(value.length);
+      final long offset = this.activeSegment.size + buffer.size();
+      out.write(value);
+      locations.add(new Location(this.activeSegment, offset, value.length, recordSize));
+      this.activeSegment.liveBytes += recordSize;
+    }
+    out.flush();
+    this.activeSegment.write(buffer.toByteArray());
+    return locations;
+  }
+
+  private Segment newSegment() throws IOException {
+    return new Segment(this.segmentCount++, this.scratchSpace, this.scratchSpace.newFile());
+  }
+
+  /**
+   * Maps the active segment for reading and starts a new one.
+   */
+  private void seal() throws IOException {
+    this.activeSegment.seal();
+    this.sealedSegments.add(this.activeSegment);
+    this.activeSegment = this.newSegment();
+  }
+
+  /**
+   * Decodes the value at the given location, straight from the mapping if its segment is sealed.
+   */
+  private T decode(final Location location) {
+    final Segment segment = location.segment;
+    if (segment.mapped != null) {
+      final ByteBuffer value = segment.mapped.asReadOnlyBuffer();
+      value.limit((int) location.offset + location.length);
+      value.position((int) location.offset);
+      return MappedFrameIterator.decode(this.codec, value.slice());
+    }
+    return this.codec.decode(this.read(location));
+  }
+
+  private byte[] read(final Location location) {
+    try {
+      return location.segment.read(location.offset, location.length);
+    } catch (final IOException e) {
+      throw new ServiceRuntimeException(new StorageException(e));
+    }
+  }
+
+  /**
+   * Marks the given value as no longer in use, compacting its segment if it is mostly unused.
+   */
+  private void release(final Location location) {
+    final Segment segment = location.segment;
+    segment.liveBytes -= location.recordSize;
+    if (segment.mapped != null && segment.liveBytes * 2 < segment.size) {
+      try {
+        this.compact(segment);
+      } catch (final IOException e) {
+        throw new ServiceRuntimeException(new StorageException(e));
+      }
+    }
+  }
+
+  /**
+   * Moves the values still in use in the given sealed segment to the end of the log and deletes the segment.
+   */
+  private void compact(final Segment segment) throws IOException {
+    final List<String> keys = new ArrayList<>();
+    final List<byte[]> values = new ArrayList<>();
+    final ByteBuffer records = segment.mapped.duplicate();
+    records.position(0);
+    while (records.position() < segment.size) {
+      final byte[] key = new byte[records.getInt()];
+      records.get(key);
+      final int length = records.getInt();
+      final long offset = records.position();
+      final String k = new String(key, StandardCharsets.UTF_8);
+      final Location location = this.index.get(k);
+      if (location != null && location.segment == segment && location.offset == offset) {
+        final byte[] value = new byte[length];
+        records.get(value);
+        keys.add(k);
+        values.add(value);
+      } else {
+        records.position(records.position() + length);
+      }
+    }
+
+    this.sealedSegments.remove(segment);
+    final List<Location> locations = this.append(keys, values);
+    for (int i = 0; i < keys.size(); ++i) {
+      this.index.put(keys.get(i), locations.get(i));
+    }
+    segment.delete();
+  }
+
+  /**
+   * The position of a value in the log.
+   */
+  private static final class Location {
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+    private final int recordSize;
+
+    private Location(final Segment segment, final long offset, final int length, final int recordSize) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.recordSize = recordSize;
+    }
+  }
+
+  /**
+   * A file of the log. Records consist of the length of the key, the key in UTF-8, the length of the value and the
+   * encoded value.
+   */
+  private static final class Segment {
+    private final int id;
+    private final LocalScratchSpace scratchSpace;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long size = 0;
+    private long liveBytes = 0;
+    private MappedByteBuffer mapped = null;
+
+    private Segment(final int id, final LocalScratchSpace scratchSpace, final File file) throws IOException {
+      this.id = id;
+      this.scratchSpace = scratchSpace;
+      this.file = file;
+      this.randomAccessFile = new RandomAccessFile(file, "rw");
+      this.channel = this.randomAccessFile.getChannel();
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+      this.scratchSpace.reserve(this.file, bytes.length);
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+        this.size += this.channel.write(buffer, this.size);
+      }
+    }
+
+    /**
+     * Reads from the segment while it is still written to. Sealed segments are read from their mapping.
+     */
+    private byte[] read(final long offset, final int length) throws IOException {
+      final byte[] result = new byte[length];
+      final ByteBuffer buffer = ByteBuffer.wrap(result);
+      while (buffer.hasRemaining()) {
+        if (this.channel.read(buffer, offset + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of " + this.file);
+        }
+      }
+      return result;
+    }
+
+    private void seal() throws IOException {
+      this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+      this.randomAccessFile.close();
+    }
+
+    private void delete() {
+      try {
+        this.randomAccessFile.close();
+      } catch (final IOException e) {
+        throw new ServiceRuntimeException(new StorageException(e));
+      }
+      this.mapped = null;
+      this.scratchSpace.deleteFile(this.file);
+    }
+  }
+}
@@ -19,32 +19,63 @@
 package org.apache.reef.io.storage.local;
 
 import org.apache.reef.io.storage.ScratchSpace;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Temporary files of an Evaluator, with an optional quota on their total size.
+ * <p>
+ * The space used is counted as it is written through {@link #newOutputStream(File)} or by the spools and maps of
+ * this package, so files written by other means are not counted. Writes that would exceed the quota fail with a
+ * {@link ScratchSpaceQuotaExceededException}.
+ * <p>
+ * Writes can be done on a background I/O thread, one per scratch space, so that they overlap with computation.
+ */
 public class LocalScratchSpace implements ScratchSpace {
 
+  /**
+   * How long the I/O thread waits for more work before it ends.
+   */
+  private static final long IO_THREAD_KEEP_ALIVE_MILLIS = 1000;
+
   private final String jobName;
   private final String evaluatorName;
   private final Set<File> tempFiles = new ConcurrentSkipListSet<File>();
+  /**
+   * The bytes counted for each file.
+   */
+  private final ConcurrentMap<File, AtomicLong> fileSizes = new ConcurrentHashMap<>();
+  private final AtomicLong usedBytes = new AtomicLong(0);
+  private final ThreadPoolExecutor ioExecutor;
   /**
    * Zero denotes "unlimited".
    */
   private long quota;
 
   public LocalScratchSpace(final String jobName, final String evaluatorName) {
-    this.jobName = jobName;
-    this.evaluatorName = evaluatorName;
-    this.quota = 0;
+    this(jobName, evaluatorName, 0);
   }
 
   public LocalScratchSpace(final String jobName, final String evaluatorName, final long quota) {
     this.jobName = jobName;
     this.evaluatorName = evaluatorName;
     this.quota = quota;
+    this.ioExecutor = new ThreadPoolExecutor(1, 1, IO_THREAD_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory("LocalScratchSpace-" + evaluatorName));
+    this.ioExecutor.allowCoreThreadTimeOut(true);
   }
 
   public File newFile() {
@@ -59,19 +90,75 @@ public class LocalScratchSpace implements ScratchSpace {
     return ret;
   }
 
+  /**
+   * Opens the given file of this scratch space for writing. Full buffers are written on the I/O thread while the
+   * caller fills the next one.
+   *
+   * @param file a file created by {@link #newFile()}.
+   * @return a stream that counts the bytes written against the quota.
+   * @throws IOException if the file can't be opened.
+   */
+  public OutputStream newOutputStream(final File file) throws IOException {
+    return new AsyncFileOutputStream(this, file);
+  }
+
+  /**
+   * Deletes the given file of this scratch space and stops counting its bytes.
+   *
+   * @return true, if the file was deleted.
+   */
+  public boolean deleteFile(final File file) {
+    tempFiles.remove(file);
+    final AtomicLong size = fileSizes.remove(file);
+    if (size != null) {
+      usedBytes.addAndGet(-size.get());
+    }
+    return file.delete();
+  }
+
+  /**
+   * Counts the given number of bytes for the given file.
+   *
+   * @throws ScratchSpaceQuotaExceededException if that would exceed the quota. Nothing is counted then.
+   */
+  void reserve(final File file, final long bytes) throws ScratchSpaceQuotaExceededException {
+    final long used = usedBytes.addAndGet(bytes);
+    if (quota > 0 && used > quota) {
+      usedBytes.addAndGet(-bytes);
+      throw new ScratchSpaceQuotaExceededException(quota, used - bytes, bytes);
+    }
+    AtomicLong size = fileSizes.get(file);
+    if (size == null) {
+      final AtomicLong newSize = new AtomicLong(0);
+      size = fileSizes.putIfAbsent(file, newSize);
+      if (size == null) {
+        size = newSize;
+      }
+    }
+    size.addAndGet(bytes);
+  }
+
+  /**
+   * Runs the given I/O on the I/O thread of this scratch space. Tasks run one at a time, in the order submitted.
+   */
+  <T> Future<T> submit(final Callable<T> io) {
+    return ioExecutor.submit(io);
+  }
+
+  /**
+   * @return the space left in the quota or, without a quota, on the file system of the temporary files.
+   */
   @Override
   public long availableSpace() {
-    return quota;
+    if (quota > 0) {
+      return Math.max(0, quota - usedBytes.get());
+    }
+    return new File(System.getProperty("java.io.tmpdir")).getUsableSpace();
   }
 
   @Override
   public long usedSpace() {
-    long ret = 0;
-    for (final File f : tempFiles) {
-      // TODO: Error handling...
-      ret += f.length();
-    }
-    return ret;
+    return usedBytes.get();
   }
 
   @Override
@@ -82,6 +169,8 @@ public class LocalScratchSpace implements ScratchSpace {
       f.delete();
     }
     tempFiles.clear();
+    fileSizes.clear();
+    usedBytes.set(0);
   }
 
 }
@@ -30,9 +30,16 @@ public class LocalStorageService implements StorageService {
   private final LocalScratchSpace scratchSpace;
 
   public LocalStorageService(final String jobName, final String evaluatorName) {
+    this(jobName, evaluatorName, 0);
+  }
+
+  /**
+   * @param quota the number of bytes the scratch space may use, or zero for no limit.
+   */
+  public LocalStorageService(final String jobName, final String evaluatorName, final long quota) {
     this.jobName = jobName;
     this.evaluatorName = evaluatorName;
-    this.scratchSpace = new LocalScratchSpace(jobName, evaluatorName);
+    this.scratchSpace = new LocalScratchSpace(jobName, evaluatorName, quota);
   }
 
   @Override
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Maps a file for reading, one window at a time.
+ */
+final class MappedFile implements AutoCloseable {
+
+  /**
+   * The size of the windows. Frames larger than this get a window of their own.
+   */
+  private static final long WINDOW_SIZE = 1 << 30;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final long size;
+  private MappedByteBuffer window = null;
+  private long windowStart = 0;
+
+  MappedFile(final File file) throws IOException {
+    this.file = new RandomAccessFile(file, "r");
+    this.channel = this.file.getChannel();
+    this.size = this.channel.size();
+  }
+
+  /**
+   * @return the size of the file.
+   */
+  long size() {
+    return this.size;
+  }
+
+  /**
+   * Maps the given range of the file, if the current window does not contain it.
+   *
+   * @return the position of start in the window.
+   */
+  int map(final long start, final int length) throws IOException {
+    if (this.window == null || start < this.windowStart
+        || start + length > this.windowStart + this.window.capacity()) {
+      this.windowStart = start;
+      this.window = this.channel.map(
+          FileChannel.MapMode.READ_ONLY, start, Math.min(this.size - start, Math.max(WINDOW_SIZE, length)));
+    }
+    return (int) (start - this.windowStart);
+  }
+
+  /**
+   * @return the current window. Slices of it stay valid after the file is closed.
+   */
+  MappedByteBuffer window() {
+    return this.window;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.file.close();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An InputStream over a memory-mapped file. Reads copy from the mapping instead of making a system call.
+ */
+final class MappedFileInputStream extends InputStream {
+
+  /**
+   * How much to map at a time when reading single bytes or small arrays.
+   */
+  private static final int MIN_READ = 64 * 1024;
+
+  private final MappedFile file;
+  private long position = 0;
+
+  MappedFileInputStream(final File file) throws IOException {
+    this.file = new MappedFile(file);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (this.position >= this.file.size()) {
+      return -1;
+    }
+    final int index = this.map(1);
+    ++this.position;
+    return this.file.window().get(index) & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    final int available = (int) Math.min(len, this.file.size() - this.position);
+    if (available <= 0) {
+      return -1;
+    }
+    final int index = this.map(available);
+    final ByteBuffer view = this.file.window().duplicate();
+    view.position(index);
+    view.get(b, off, available);
+    this.position += available;
+    return available;
+  }
+
+  @Override
+  public long skip(final long n) {
+    final long skipped = Math.max(0, Math.min(n, this.file.size() - this.position));
+    this.position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, this.file.size() - this.position);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.file.close();
+  }
+
+  /**
+   * Maps at least length bytes from the current position, and at most as many as are left in the file.
+   *
+   * @return the position of the current position in the window.
+   */
+  private int map(final int length) throws IOException {
+    final long left = this.file.size() - this.position;
+    return this.file.map(this.position, (int) Math.min(left, Math.max(length, MIN_READ)));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
+import org.apache.reef.exception.evaluator.StorageException;
+import org.apache.reef.io.serialization.ByteBufferCodec;
+import org.apache.reef.io.serialization.Codec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the frames of a memory-mapped file, as written by FramingOutputStream and CodecFileAccumulator:
+ * each frame is preceded by its length, and a length of -1 or the end of the file ends the frames.
+ * <p>
+ * The frames are returned as read-only slices of the mapping, without copying them.
+ */
+final class MappedFrameIterator implements Iterator<ByteBuffer> {
+
+  private final MappedFile file;
+  private long position = 0;
+  private ByteBuffer next;
+
+  MappedFrameIterator(final File file) throws IOException {
+    this.file = new MappedFile(file);
+    this.next = this.readFrame();
+  }
+
+  /**
+   * Decodes the given frame, directly if the codec supports it.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T decode(final Codec<T> codec, final ByteBuffer frame) {
+    if (codec instanceof ByteBufferCodec) {
+      return ((ByteBufferCodec<T>) codec).decode(frame);
+    }
+    final byte[] buf = new byte[frame.remaining()];
+    frame.get(buf);
+    return codec.decode(buf);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.next != null;
+  }
+
+  @Override
+  public ByteBuffer next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException("Moving past the end of the file.");
+    }
+    final ByteBuffer result = this.next;
+    try {
+      this.next = this.readFrame();
+    } catch (final IOException e) {
+      throw new ServiceRuntimeException(new StorageException(e));
+    }
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Attempt to remove value from read-only input file!");
+  }
+
+  /**
+   * @return the next frame, or null at the end. The file is closed at the end.
+   */
+  private ByteBuffer readFrame() throws IOException {
+    if (this.position + 4 > this.file.size()) {
+      this.file.close();
+      return null;
+    }
+    final int lengthPosition = this.file.map(this.position, 4);
+    final int length = this.file.window().getInt(lengthPosition);
+    if (length == -1) {
+      this.file.close();
+      return null;
+    }
+    final int start = this.file.map(this.position + 4, length);
+    this.position += 4 + length;
+    final ByteBuffer frame = this.file.window().asReadOnlyBuffer();
+    frame.limit(start + length);
+    frame.position(start);
+    return frame.slice();
+  }
+}
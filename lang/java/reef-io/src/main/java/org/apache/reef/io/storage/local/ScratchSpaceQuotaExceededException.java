@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import java.io.IOException;
+
+/**
+ * Thrown when writing to the scratch space would exceed its quota.
+ */
+public final class ScratchSpaceQuotaExceededException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  ScratchSpaceQuotaExceededException(final long quota, final long used, final long requested) {
+    super("Scratch space quota of " + quota + " bytes exceeded: " + used + " bytes are used, "
+        + requested + " more were requested");
+  }
+}
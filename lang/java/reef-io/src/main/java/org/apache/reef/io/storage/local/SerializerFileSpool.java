@@ -49,9 +49,8 @@ public final class SerializerFileSpool<T> implements Spool<T> {
     this.file = service.getScratchSpace().newFile();
     final Accumulable<T> accumulable;
     try {
-      accumulable = out.create(new BufferedOutputStream(new FileOutputStream(
-          file)));
-    } catch (final FileNotFoundException e) {
+      accumulable = out.create(service.getScratchSpace().newOutputStream(file));
+    } catch (final IOException e) {
       throw new IllegalStateException(
           "Unable to create temporary file:" + file, e);
     }
@@ -83,8 +82,7 @@ public final class SerializerFileSpool<T> implements Spool<T> {
         throw new IllegalStateException(
             "Need to call close() on accumulator before calling iterator()!");
       }
-      return deserializer.create(
-          new BufferedInputStream(new FileInputStream(file))).iterator();
+      return deserializer.create(new MappedFileInputStream(file)).iterator();
     } catch (final IOException e) {
       throw new ServiceRuntimeException(e);
     }
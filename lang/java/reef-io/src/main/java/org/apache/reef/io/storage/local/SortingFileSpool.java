@@ -0,0 +1,529 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.exception.evaluator.ServiceException;
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
+import org.apache.reef.exception.evaluator.StorageException;
+import org.apache.reef.io.Accumulator;
+import org.apache.reef.io.Spool;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.FramingOutputStream;
+import org.apache.reef.io.storage.MergingIterator;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A Spool that returns its data sorted, using an external merge sort.
+ * <p>
+ * The encoded data is buffered in memory up to the given budget. When the budget is exceeded, the buffer is sorted
+ * and written as a run to a file in the scratch space. The iterator merges the runs. If all data fits into the
+ * budget, nothing is written to disk.
+ * <p>
+ * Sorting by a {@link LongKey} is faster than sorting with a Comparator: the keys are taken from the data as it is
+ * added and the buffer is sorted by them without decoding it. With a Comparator, the buffer is decoded for sorting,
+ * so the memory used while spilling exceeds the budget by the size of the decoded buffer.
+ * <p>
+ * Runs are written on the I/O thread of the scratch space while the next buffer is filled, so up to two buffers are
+ * held in memory. The space of a run is counted against the quota of the scratch space before it is written.
+ * <p>
+ * The iterator reads at most {@link #MAX_MERGE_FAN_IN} runs at once. If more runs were written, they are merged
+ * into longer runs, that many at a time, when the accumulator is closed.
+ *
+ * @param <T> the type of the data
+ */
+public final class SortingFileSpool<T> implements Spool<T> {
+
+  /**
+   * Extracts a primitive sort key from the data.
+   *
+   * @param <T> the type of the data
+   */
+  public interface LongKey<T> {
+    long getKey(final T datum);
+  }
+
+  /**
+   * Runs shorter than this are sorted by insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * The largest number of runs merged at once.
+   */
+  static final int MAX_MERGE_FAN_IN = 64;
+
+  private final LocalScratchSpace scratchSpace;
+  private final Codec<T> codec;
+  private final Comparator<T> comparator;
+  private final LongKey<T> longKey;
+  private final long memoryBudget;
+
+  private final List<File> runs = new ArrayList<>();
+  /**
+   * The write of the last run, if it may not have finished yet.
+   */
+  private Future<Void> pendingRun = null;
+  private byte[][] records = new byte[16][];
+  private long[] keys;
+  private int size = 0;
+  private long bufferedBytes = 0;
+
+  /**
+   * The buffered records, sorted once the accumulator is closed and no run was written.
+   */
+  private List<T> sortedInMemory = null;
+
+  private boolean canAppend = true;
+  private boolean canGetAccumulator = true;
+
+  /**
+   * @param service      the storage service in the scratch space of which the runs are written.
+   * @param codec        the codec for the data.
+   * @param comparator   the order in which to return the data.
+   * @param memoryBudget the number of bytes of encoded data to buffer before writing a run.
+   */
+  public SortingFileSpool(final LocalStorageService service, final Codec<T> codec, final Comparator<T> comparator,
+                          final long memoryBudget) {
+    this(service, codec, comparator, null, memoryBudget);
+  }
+
+  /**
+   * @param service      the storage service in the scratch space of which the runs are written.
+   * @param codec        the codec for the data.
+   * @param longKey      the key by which to sort the data, in ascending order.
+   * @param memoryBudget the number of bytes of encoded data and keys to buffer before writing a run.
+   */
+  public SortingFileSpool(final LocalStorageService service, final Codec<T> codec, final LongKey<T> longKey,
+                          final long memoryBudget) {
+    this(service, codec, new Comparator<T>() {
+      @Override
+      public int compare(final T o1, final T o2) {
+        return Long.compare(longKey.getKey(o1), longKey.getKey(o2));
+      }
+    }, longKey, memoryBudget);
+  }
+
+  private SortingFileSpool(final LocalStorageService service, final Codec<T> codec, final Comparator<T> comparator,
+                           final LongKey<T> longKey, final long memoryBudget) {
+    this.scratchSpace = service.getScratchSpace();
+    this.codec = codec;
+    this.comparator = comparator;
+    this.longKey = longKey;
+    this.memoryBudget = memoryBudget;
+    if (longKey != null) {
+      this.keys = new long[this.records.length];
+    }
+  }
+
+  @Override
+  public Accumulator<T> accumulator() {
+    if (!this.canGetAccumulator) {
+      throw new UnsupportedOperationException("Can only getAccumulator() once!");
+    }
+    this.canGetAccumulator = false;
+    return new Accumulator<T>() {
+      @Override
+      public void add(final T datum) throws ServiceException {
+        if (!canAppend) {
+          throw new IllegalStateException("add called after close!");
+        }
+        SortingFileSpool.this.add(datum);
+      }
+
+      @Override
+      public void close() throws ServiceException {
+        if (canAppend) {
+          canAppend = false;
+          if (runs.isEmpty()) {
+            sortedInMemory = decodeSorted();
+          } else if (size > 0) {
+            spill();
+          }
+          awaitPendingRun();
+          while (runs.size() > MAX_MERGE_FAN_IN) {
+            mergeRuns();
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * May be called repeatedly once the accumulator is closed.
+   */
+  @Override
+  public Iterator<T> iterator() {
+    if (this.canAppend) {
+      throw new IllegalStateException("Cannot call iterator() while accumulator is still open!");
+    }
+    if (this.sortedInMemory != null) {
+      return new ReadOnlyIterator<>(this.sortedInMemory.iterator());
+    }
+
+    @SuppressWarnings("unchecked")
+    final Iterator<T>[] runIterators = new Iterator[this.runs.size()];
+    for (int i = 0; i < runIterators.length; ++i) {
+      runIterators[i] = new RunIterator(this.runs.get(i));
+    }
+    return new MergingIterator<>(this.comparator, runIterators);
+  }
+
+  private void add(final T datum) throws StorageException {
+    if (this.size == this.records.length) {
+      this.records = Arrays.copyOf(this.records, this.size * 2);
+      if (this.keys != null) {
+        this.keys = Arrays.copyOf(this.keys, this.size * 2);
+      }
+    }
+    final byte[] record = this.codec.encode(datum);
+    this.records[this.size] = record;
+    if (this.keys != null) {
+      this.keys[this.size] = this.longKey.getKey(datum);
+    }
+    ++this.size;
+    this.bufferedBytes += record.length + (this.keys != null ? 8 : 0);
+    if (this.bufferedBytes > this.memoryBudget) {
+      this.spill();
+    }
+  }
+
+  /**
+   * Sorts the buffered records and writes them as a new run.
+   */
+  private void spill() throws StorageException {
+    final byte[][] sorted = this.sortBuffer();
+    this.clearBuffer();
+    final File run = this.scratchSpace.newFile();
+    long runBytes = 4;
+    for (final byte[] record : sorted) {
+      runBytes += 4 + record.length;
+    }
+    try {
+      this.scratchSpace.reserve(run, runBytes);
+    } catch (final ScratchSpaceQuotaExceededException e) {
+      this.scratchSpace.deleteFile(run);
+      throw new StorageException(e);
+    }
+    this.awaitPendingRun();
+    this.runs.add(run);
+    this.pendingRun = this.scratchSpace.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException, ServiceException {
+        try (final FramingOutputStream out =
+                 new FramingOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+          final Accumulator<byte[]> accumulator = out.accumulator();
+          for (final byte[] record : sorted) {
+            accumulator.add(record);
+          }
+          accumulator.close();
+        }
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Merges the oldest MAX_MERGE_FAN_IN runs into a new run and deletes them. The records are not encoded again.
+   */
+  private void mergeRuns() throws ServiceException {
+    final List<File> merged = new ArrayList<>(this.runs.subList(0, MAX_MERGE_FAN_IN));
+    final File run = this.scratchSpace.newFile();
+    long runBytes = 4;
+    for (final File input : merged) {
+      runBytes += input.length() - 4;
+    }
+    try {
+      this.scratchSpace.reserve(run, runBytes);
+    } catch (final ScratchSpaceQuotaExceededException e) {
+      this.scratchSpace.deleteFile(run);
+      throw new StorageException(e);
+    }
+
+    @SuppressWarnings("unchecked")
+    final Iterator<Decoded<T>>[] inputs = new Iterator[merged.size()];
+    for (int i = 0; i < inputs.length; ++i) {
+      inputs[i] = new EncodedRunIterator(merged.get(i));
+    }
+    final Iterator<Decoded<T>> mergedRecords = new MergingIterator<>(new Comparator<Decoded<T>>() {
+      @Override
+      public int compare(final Decoded<T> o1, final Decoded<T> o2) {
+        return comparator.compare(o1.datum, o2.datum);
+      }
+    }, inputs);
+    boolean written = false;
+    try (final FramingOutputStream out =
+             new FramingOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+      final Accumulator<byte[]> accumulator = out.accumulator();
+      while (mergedRecords.hasNext()) {
+        accumulator.add(mergedRecords.next().record);
+      }
+      accumulator.close();
+      written = true;
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    } finally {
+      if (!written) {
+        this.scratchSpace.deleteFile(run);
+      }
+    }
+
+    for (final File input : merged) {
+      this.scratchSpace.deleteFile(input);
+    }
+    this.runs.subList(0, merged.size()).clear();
+    this.runs.add(run);
+  }
+
+  /**
+   * Waits for the write of the last run to finish.
+   */
+  private void awaitPendingRun() throws StorageException {
+    if (this.pendingRun == null) {
+      return;
+    }
+    try {
+      this.pendingRun.get();
+      this.pendingRun = null;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StorageException(new InterruptedIOException("Interrupted while writing a run"));
+    } catch (final ExecutionException e) {
+      this.pendingRun = null;
+      throw new StorageException(e.getCause());
+    }
+  }
+
+  /**
+   * @return the buffered data, decoded and sorted.
+   */
+  private List<T> decodeSorted() {
+    final List<T> result = new ArrayList<>(this.size);
+    for (final byte[] record : this.sortBuffer()) {
+      result.add(this.codec.decode(record));
+    }
+    this.clearBuffer();
+    return result;
+  }
+
+  /**
+   * @return the buffered records in sorted order.
+   */
+  private byte[][] sortBuffer() {
+    if (this.keys != null) {
+      sort(this.keys, this.records, 0, this.size - 1);
+      return Arrays.copyOf(this.records, this.size);
+    }
+
+    final List<Decoded<T>> decoded = new ArrayList<>(this.size);
+    for (int i = 0; i < this.size; ++i) {
+      decoded.add(new Decoded<>(this.codec.decode(this.records[i]), this.records[i]));
+    }
+    Collections.sort(decoded, new Comparator<Decoded<T>>() {
+      @Override
+      public int compare(final Decoded<T> o1, final Decoded<T> o2) {
+        return comparator.compare(o1.datum, o2.datum);
+      }
+    });
+    final byte[][] result = new byte[this.size][];
+    for (int i = 0; i < this.size; ++i) {
+      result[i] = decoded.get(i).record;
+    }
+    return result;
+  }
+
+  private void clearBuffer() {
+    Arrays.fill(this.records, 0, this.size, null);
+    this.size = 0;
+    this.bufferedBytes = 0;
+  }
+
+  /**
+   * Sorts keys[low..high] and applies the same permutation to records, by quicksort.
+   */
+  private static void sort(final long[] keys, final byte[][] records, final int low, final int high) {
+    int lo = low;
+    int hi = high;
+    while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+      final int mid = (lo + hi) >>> 1;
+      // Median of three as the pivot, moved to hi.
+      if (keys[mid] < keys[lo]) {
+        swap(keys, records, mid, lo);
+      }
+      if (keys[hi] < keys[lo]) {
+        swap(keys, records, hi, lo);
+      }
+      if (keys[mid] < keys[hi]) {
+        swap(keys, records, mid, hi);
+      }
+      final long pivot = keys[hi];
+      // Three-way partition, so that many equal keys don't make the sort quadratic.
+      int less = lo;
+      int greater = hi;
+      int i = lo;
+      while (i <= greater) {
+        if (keys[i] < pivot) {
+          swap(keys, records, i++, less++);
+        } else if (keys[i] > pivot) {
+          swap(keys, records, i, greater--);
+        } else {
+          ++i;
+        }
+      }
+      // Recurse into the smaller part, loop on the larger one.
+      if (less - lo < hi - greater) {
+        sort(keys, records, lo, less - 1);
+        lo = greater + 1;
+      } else {
+        sort(keys, records, greater + 1, hi);
+        hi = less - 1;
+      }
+    }
+    for (int i = lo + 1; i <= hi; ++i) {
+      for (int j = i; j > lo && keys[j] < keys[j - 1]; --j) {
+        swap(keys, records, j, j - 1);
+      }
+    }
+  }
+
+  private static void swap(final long[] keys, final byte[][] records, final int i, final int j) {
+    final long key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    final byte[] record = records[i];
+    records[i] = records[j];
+    records[j] = record;
+  }
+
+  /**
+   * A datum together with its encoding.
+   */
+  private static final class Decoded<T> {
+    private final T datum;
+    private final byte[] record;
+
+    private Decoded(final T datum, final byte[] record) {
+      this.datum = datum;
+      this.record = record;
+    }
+  }
+
+  /**
+   * Reads and decodes a run.
+   */
+  private final class RunIterator implements Iterator<T> {
+    private final MappedFrameIterator frames;
+
+    private RunIterator(final File run) {
+      try {
+        this.frames = new MappedFrameIterator(run);
+      } catch (final IOException e) {
+        throw new ServiceRuntimeException(new StorageException(e));
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.frames.hasNext();
+    }
+
+    @Override
+    public T next() {
+      return MappedFrameIterator.decode(codec, this.frames.next());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Attempt to remove value from read-only input file!");
+    }
+  }
+
+  /**
+   * Reads a run, keeping the encoding of each datum.
+   */
+  private final class EncodedRunIterator implements Iterator<Decoded<T>> {
+    private final MappedFrameIterator frames;
+
+    private EncodedRunIterator(final File run) throws StorageException {
+      try {
+        this.frames = new MappedFrameIterator(run);
+      } catch (final IOException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.frames.hasNext();
+    }
+
+    @Override
+    public Decoded<T> next() {
+      final ByteBuffer frame = this.frames.next();
+      final byte[] record = new byte[frame.remaining()];
+      frame.duplicate().get(record);
+      return new Decoded<>(MappedFrameIterator.decode(codec, frame), record);
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Attempt to remove value from read-only input file!");
+    }
+  }
+
+  /**
+   * Hides the remove() of the underlying iterator.
+   */
+  private static final class ReadOnlyIterator<T> implements Iterator<T> {
+    private final Iterator<T> iterator;
+
+    private ReadOnlyIterator(final Iterator<T> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+      return this.iterator.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("This iterator is read-only. remove() does not make any sense!");
+    }
+  }
+}
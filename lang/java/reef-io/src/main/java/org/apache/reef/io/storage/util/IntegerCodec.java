@@ -18,11 +18,12 @@
  */
 package org.apache.reef.io.storage.util;
 
-import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.serialization.ByteBufferCodec;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
-public class IntegerCodec implements Codec<Integer> {
+public class IntegerCodec implements ByteBufferCodec<Integer> {
 
   @Override
   public byte[] encode(final Integer obj) {
@@ -34,4 +35,9 @@ public class IntegerCodec implements Codec<Integer> {
     return Integer.decode(new String(buf, StandardCharsets.UTF_8));
   }
 
+  @Override
+  public Integer decode(final ByteBuffer buf) {
+    return Integer.decode(StandardCharsets.UTF_8.decode(buf).toString());
+  }
+
 }
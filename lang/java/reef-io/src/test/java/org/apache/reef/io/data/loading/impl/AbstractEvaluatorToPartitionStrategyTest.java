@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.catalog.RackDescriptor;
+import org.apache.reef.runtime.common.utils.Constants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test the assignment of several splits per evaluator by AbstractEvaluatorToPartitionStrategy.
+ */
+public class AbstractEvaluatorToPartitionStrategyTest {
+
+  private static final String HOST_A = "host-a";
+  private static final String HOST_B = "host-b";
+
+  private File input;
+  private AbstractEvaluatorToPartitionStrategy strategy;
+
+  @Before
+  public void setUp() throws IOException {
+    this.input = File.createTempFile("AbstractEvaluatorToPartitionStrategyTest", ".txt");
+    try (final PrintWriter writer = new PrintWriter(this.input, "UTF-8")) {
+      for (int i = 0; i < 10000; ++i) {
+        writer.println(i);
+      }
+    }
+    final DistributedDataSetPartition partition = DistributedDataSetPartition.newBuilder()
+        .setPath(this.input.toURI().toString())
+        .setLocation(Constants.ANY_RACK)
+        .setDesiredSplits(4)
+        .build();
+    this.strategy = new SingleDataCenterEvaluatorToPartitionStrategy(TwoHostInputFormat.class.getName(),
+        Collections.singleton(DistributedDataSetPartitionSerializer.serialize(partition)));
+    Assert.assertEquals(4, this.strategy.getNumberOfSplits());
+  }
+
+  @After
+  public void tearDown() {
+    this.input.delete();
+  }
+
+  @Test
+  public void testRepeatedCallsReturnTheSameSplits() {
+    final NodeDescriptor node = newNode(HOST_A);
+    final List<NumberedSplit<InputSplit>> splits = this.strategy.getInputSplits(node, "e0", 2);
+    Assert.assertEquals(2, splits.size());
+    Assert.assertEquals(splits, this.strategy.getInputSplits(node, "e0", 2));
+    Assert.assertSame(splits.get(0), this.strategy.getInputSplit(node, "e0"));
+  }
+
+  @Test
+  public void testPrefersSplitsOnTheNode() throws IOException {
+    for (final NumberedSplit<InputSplit> split : this.strategy.getInputSplits(newNode(HOST_A), "e0", 2)) {
+      Assert.assertEquals(Arrays.asList(HOST_A), Arrays.asList(split.getEntry().getLocations()));
+    }
+    for (final NumberedSplit<InputSplit> split : this.strategy.getInputSplits(newNode(HOST_B), "e1", 2)) {
+      Assert.assertEquals(Arrays.asList(HOST_B), Arrays.asList(split.getEntry().getLocations()));
+    }
+  }
+
+  @Test
+  public void testRunsOutOfSplits() {
+    final Set<Integer> indices = new HashSet<>();
+    final List<NumberedSplit<InputSplit>> first = this.strategy.getInputSplits(newNode(HOST_A), "e0", 3);
+    Assert.assertEquals(3, first.size());
+    final List<NumberedSplit<InputSplit>> second = this.strategy.getInputSplits(newNode(HOST_B), "e1", 3);
+    Assert.assertEquals(1, second.size());
+    for (final NumberedSplit<InputSplit> split : first) {
+      indices.add(split.getIndex());
+    }
+    indices.add(second.get(0).getIndex());
+    Assert.assertEquals(4, indices.size());
+
+    try {
+      this.strategy.getInputSplits(newNode(HOST_B), "e2", 3);
+      Assert.fail("Assigned a split although none was left");
+    } catch (final RuntimeException expected) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testUnallocatedSplitLocations() {
+    Assert.assertEquals(new HashSet<>(Arrays.asList(HOST_A, HOST_B)), this.strategy.getUnallocatedSplitHosts());
+    this.strategy.getInputSplits(newNode(HOST_A), "e0", 2);
+    Assert.assertEquals(Collections.singleton(HOST_B), this.strategy.getUnallocatedSplitHosts());
+    Assert.assertTrue("Partitions on any rack must not restrict the rack",
+        this.strategy.getUnallocatedSplitRacks().isEmpty());
+    this.strategy.getInputSplits(newNode(HOST_B), "e1", 2);
+    Assert.assertTrue(this.strategy.getUnallocatedSplitHosts().isEmpty());
+  }
+
+  /**
+   * Places the splits of a TextInputFormat alternately on two hosts.
+   */
+  public static final class TwoHostInputFormat extends TextInputFormat {
+    @Override
+    public InputSplit[] getSplits(final JobConf job, final int numSplits) throws IOException {
+      final InputSplit[] splits = super.getSplits(job, numSplits);
+      for (int i = 0; i < splits.length; ++i) {
+        final FileSplit split = (FileSplit) splits[i];
+        splits[i] = new FileSplit(split.getPath(), split.getStart(), split.getLength(),
+            new String[]{i % 2 == 0 ? HOST_A : HOST_B});
+      }
+      return splits;
+    }
+  }
+
+  private static NodeDescriptor newNode(final String name) {
+    final RackDescriptor rack = new RackDescriptor() {
+      @Override
+      public List<NodeDescriptor> getNodes() {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public String getName() {
+        return "/r1";
+      }
+    };
+    return new NodeDescriptor() {
+      @Override
+      public InetSocketAddress getInetSocketAddress() {
+        return null;
+      }
+
+      @Override
+      public RackDescriptor getRackDescriptor() {
+        return rack;
+      }
+
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public String getId() {
+        return name;
+      }
+    };
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.catalog.RackDescriptor;
+import org.apache.reef.runtime.common.utils.Constants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test DelaySchedulingEvaluatorToPartitionStrategy.
+ */
+public class DelaySchedulingEvaluatorToPartitionStrategyTest {
+
+  private static final long NO_DELAY_LIMIT = 3600 * 1000;
+
+  private File input;
+  private DelaySchedulingEvaluatorToPartitionStrategy strategy;
+
+  @Before
+  public void setUp() throws IOException {
+    this.input = File.createTempFile("DelaySchedulingEvaluatorToPartitionStrategyTest", ".txt");
+    try (final PrintWriter writer = new PrintWriter(this.input, "UTF-8")) {
+      for (int i = 0; i < 10000; ++i) {
+        writer.println(i);
+      }
+    }
+    final DistributedDataSetPartition partition = DistributedDataSetPartition.newBuilder()
+        .setPath(this.input.toURI().toString())
+        .setLocation(Constants.ANY_RACK)
+        .setDesiredSplits(4)
+        .build();
+    this.strategy = new DelaySchedulingEvaluatorToPartitionStrategy(TextInputFormat.class.getName(),
+        Collections.singleton(DistributedDataSetPartitionSerializer.serialize(partition)), NO_DELAY_LIMIT, 2);
+    Assert.assertTrue(this.strategy.getNumberOfSplits() >= 3);
+  }
+
+  @After
+  public void tearDown() {
+    this.input.delete();
+  }
+
+  @Test
+  public void testDeclinesUntilLimits() {
+    // The splits of a local file are hosted on localhost.
+    final NodeDescriptor remote = newNode("remote", "/r2");
+    for (int i = 0; i < 4; ++i) {
+      Assert.assertFalse(this.strategy.acceptEvaluator(remote, "declined-" + i));
+    }
+    Assert.assertTrue(this.strategy.acceptEvaluator(remote, "e0"));
+    this.strategy.getInputSplit(remote, "e0");
+    Assert.assertEquals(1, this.strategy.getOffRackAllocations());
+
+    final NodeDescriptor local = newNode("localhost", "/r1");
+    Assert.assertTrue(this.strategy.acceptEvaluator(local, "e1"));
+    this.strategy.getInputSplit(local, "e1");
+    Assert.assertEquals(1, this.strategy.getNodeLocalAllocations());
+
+    // The node local allocation restarts the wait, and localhost is now known to be in /r1.
+    final NodeDescriptor neighbour = newNode("neighbour", "/r1");
+    Assert.assertFalse(this.strategy.acceptEvaluator(neighbour, "declined-4"));
+    Assert.assertFalse(this.strategy.acceptEvaluator(neighbour, "declined-5"));
+    Assert.assertTrue(this.strategy.acceptEvaluator(neighbour, "e2"));
+    this.strategy.getInputSplit(neighbour, "e2");
+    Assert.assertEquals(1, this.strategy.getRackLocalAllocations());
+  }
+
+  @Test
+  public void testAcceptsAfterDelay() {
+    final DistributedDataSetPartition partition = DistributedDataSetPartition.newBuilder()
+        .setPath(this.input.toURI().toString())
+        .setLocation(Constants.ANY_RACK)
+        .setDesiredSplits(4)
+        .build();
+    final DelaySchedulingEvaluatorToPartitionStrategy noDelay = new DelaySchedulingEvaluatorToPartitionStrategy(
+        TextInputFormat.class.getName(),
+        Collections.singleton(DistributedDataSetPartitionSerializer.serialize(partition)), 0, Integer.MAX_VALUE);
+    Assert.assertTrue(noDelay.acceptEvaluator(newNode("remote", "/r2"), "e0"));
+  }
+
+  private static NodeDescriptor newNode(final String name, final String rackName) {
+    final RackDescriptor rack = new RackDescriptor() {
+      @Override
+      public List<NodeDescriptor> getNodes() {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public String getName() {
+        return rackName;
+      }
+    };
+    return new NodeDescriptor() {
+      @Override
+      public InetSocketAddress getInetSocketAddress() {
+        return null;
+      }
+
+      @Override
+      public RackDescriptor getRackDescriptor() {
+        return rack;
+      }
+
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public String getId() {
+        return name;
+      }
+    };
+  }
+}
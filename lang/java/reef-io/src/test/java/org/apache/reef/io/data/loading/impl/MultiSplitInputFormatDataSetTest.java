@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.reef.io.data.loading.api.DataLoadingRequestBuilder;
+import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
+import org.apache.reef.io.data.loading.api.PartitionedDataSet;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Test MultiSplitInputFormatDataSet.
+ */
+public class MultiSplitInputFormatDataSetTest {
+
+  private static final int NUM_LINES = 100000;
+
+  private File input;
+  private JobConf jobConf;
+  private Set<String> serializedSplits;
+
+  @Before
+  public void setUp() throws IOException {
+    this.input = File.createTempFile("MultiSplitInputFormatDataSetTest", ".txt");
+    try (final PrintWriter writer = new PrintWriter(this.input, "UTF-8")) {
+      for (int i = 0; i < NUM_LINES; ++i) {
+        writer.println(i);
+      }
+    }
+    this.jobConf = new JobConf();
+    this.jobConf.setInputFormat(TextInputFormat.class);
+    FileInputFormat.setInputPaths(this.jobConf, this.input.toURI().toString());
+    final InputSplit[] splits = this.jobConf.getInputFormat().getSplits(this.jobConf, 4);
+    Assert.assertTrue(splits.length > 1);
+    this.serializedSplits = new HashSet<>();
+    for (final InputSplit split : splits) {
+      this.serializedSplits.add(WritableSerializer.serialize(split));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    this.input.delete();
+  }
+
+  @Test
+  public void testParallelIterator() {
+    final MultiSplitInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(false, false, 2);
+    Assert.assertEquals(this.serializedSplits.size(), dataSet.getPartitions().size());
+    assertAllLines(dataSet);
+  }
+
+  @Test(timeout = 60000)
+  public void testClosingTheIteratorStopsTheReaders() throws Exception {
+    final Iterator<Pair<LongWritable, Text>> iterator = this.newDataSet(false, false, 2).iterator();
+    Assert.assertTrue(iterator.hasNext());
+    iterator.next();
+    Assert.assertTrue(iterator instanceof AutoCloseable);
+    ((AutoCloseable) iterator).close();
+    Assert.assertFalse(iterator.hasNext());
+
+    while (hasReaderThreads()) {
+      Thread.sleep(10);
+    }
+  }
+
+  private static boolean hasReaderThreads() {
+    for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.getName().startsWith(MultiSplitInputFormatDataSet.class.getSimpleName() + "-")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void testInMemory() {
+    final MultiSplitInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(true, false, 0);
+    assertAllLines(dataSet);
+    assertAllLines(dataSet);
+
+    final BitSet seen = new BitSet(NUM_LINES);
+    for (final DataSet<LongWritable, Text> partition : dataSet.getPartitions()) {
+      for (final Pair<LongWritable, Text> record : partition) {
+        seen.set(Integer.parseInt(record.getSecond().toString()));
+      }
+    }
+    Assert.assertEquals(NUM_LINES, seen.cardinality());
+  }
+
+  @Test
+  public void testSerializedInMemory() {
+    final MultiSplitInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(true, true, 3);
+    assertAllLines(dataSet);
+  }
+
+  @Test
+  public void testCursor() {
+    final DataSetCursor<LongWritable, Text> cursor = this.newDataSet(true, true, 2).cursor();
+    final BitSet seen = new BitSet(NUM_LINES);
+    int count = 0;
+    while (cursor.advance()) {
+      seen.set(Integer.parseInt(cursor.getValue().toString()));
+      ++count;
+    }
+    Assert.assertEquals(NUM_LINES, count);
+    Assert.assertEquals(NUM_LINES, seen.cardinality());
+  }
+
+  @Test
+  public void testInjection() throws InjectionException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    for (final String serializedSplit : this.serializedSplits) {
+      cb.bindSetEntry(MultiSplitInputFormatDataSet.SerializedInputSplits.class, serializedSplit);
+    }
+    cb.bindImplementation(DataSet.class, MultiSplitInputFormatDataSet.class)
+        .bindNamedParameter(DataLoadingRequestBuilder.LoadDataIntoMemory.class, "true")
+        .bindNamedParameter(JobConfExternalConstructor.InputFormatClass.class, TextInputFormat.class.getName())
+        .bindNamedParameter(JobConfExternalConstructor.InputPath.class, this.input.toURI().toString())
+        .bindConstructor(JobConf.class, JobConfExternalConstructor.class);
+
+    @SuppressWarnings("unchecked")
+    final DataSet<LongWritable, Text> dataSet =
+        Tang.Factory.getTang().newInjector(cb.build()).getInstance(DataSet.class);
+    Assert.assertTrue(dataSet instanceof PartitionedDataSet);
+    assertAllLines(dataSet);
+  }
+
+  private MultiSplitInputFormatDataSet<LongWritable, Text> newDataSet(final boolean inMemory, final boolean serialize,
+                                                                      final int numberOfThreads) {
+    return new MultiSplitInputFormatDataSet<>(this.jobConf, this.serializedSplits, inMemory, serialize, serialize,
+        numberOfThreads);
+  }
+
+  /**
+   * The records of different splits may be interleaved, so only checks that every line is returned once.
+   */
+  private static void assertAllLines(final Iterable<Pair<LongWritable, Text>> dataSet) {
+    final BitSet seen = new BitSet(NUM_LINES);
+    int count = 0;
+    for (final Pair<LongWritable, Text> record : dataSet) {
+      seen.set(Integer.parseInt(record.getSecond().toString()));
+      ++count;
+    }
+    Assert.assertEquals(NUM_LINES, count);
+    Assert.assertEquals(NUM_LINES, seen.cardinality());
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.loading.impl;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.reef.io.data.loading.api.CursorDataSet;
+import org.apache.reef.io.data.loading.api.DataSetCursor;
+import org.apache.reef.io.network.util.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+
+/**
+ * Test SerializedInMemoryInputFormatDataSet.
+ */
+public class SerializedInMemoryInputFormatDataSetTest {
+
+  private static final int NUM_LINES = 200000;
+
+  private File input;
+  private JobConf jobConf;
+  private InputSplit split;
+
+  @Before
+  public void setUp() throws IOException {
+    this.input = File.createTempFile("SerializedInMemoryInputFormatDataSetTest", ".txt");
+    try (final PrintWriter writer = new PrintWriter(this.input, "UTF-8")) {
+      for (int i = 0; i < NUM_LINES; ++i) {
+        writer.println("line " + i);
+      }
+    }
+    this.jobConf = new JobConf();
+    this.jobConf.setInputFormat(TextInputFormat.class);
+    FileInputFormat.setInputPaths(this.jobConf, this.input.toURI().toString());
+    final InputSplit[] splits = this.jobConf.getInputFormat().getSplits(this.jobConf, 1);
+    Assert.assertEquals(1, splits.length);
+    this.split = splits[0];
+  }
+
+  @After
+  public void tearDown() {
+    this.input.delete();
+  }
+
+  @Test
+  public void testUncompressed() {
+    final SerializedInMemoryInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(false);
+    assertLines(dataSet);
+    assertLines(dataSet);
+  }
+
+  @Test
+  public void testCompressed() {
+    final SerializedInMemoryInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(true);
+    assertLines(dataSet);
+    assertLines(dataSet);
+    Assert.assertTrue(dataSet.getStoredBytes() < this.newDataSet(false).getStoredBytes());
+  }
+
+  @Test
+  public void testConcurrentIterators() {
+    final SerializedInMemoryInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(true);
+    final Iterator<Pair<LongWritable, Text>> first = dataSet.iterator();
+    final Iterator<Pair<LongWritable, Text>> second = dataSet.iterator();
+    for (int i = 0; i < NUM_LINES; ++i) {
+      Assert.assertEquals("line " + i, first.next().getSecond().toString());
+      Assert.assertEquals("line " + i, second.next().getSecond().toString());
+    }
+    Assert.assertFalse(first.hasNext());
+    Assert.assertFalse(second.hasNext());
+  }
+
+  @Test
+  public void testIteratorReturnsNewRecords() {
+    final Iterator<Pair<LongWritable, Text>> iterator = this.newDataSet(true).iterator();
+    final Pair<LongWritable, Text> first = iterator.next();
+    final Pair<LongWritable, Text> second = iterator.next();
+    Assert.assertNotSame(first, second);
+    Assert.assertEquals("line 0", first.getSecond().toString());
+    Assert.assertEquals("line 1", second.getSecond().toString());
+  }
+
+  @Test
+  public void testClosedIteratorEnds() throws IOException {
+    final SerializedInMemoryInputFormatDataSet<LongWritable, Text> dataSet = this.newDataSet(true);
+    final Iterator<Pair<LongWritable, Text>> iterator = dataSet.iterator();
+    iterator.next();
+    Assert.assertTrue(iterator instanceof Closeable);
+    ((Closeable) iterator).close();
+    ((Closeable) iterator).close();
+    Assert.assertFalse(iterator.hasNext());
+    assertLines(dataSet);
+  }
+
+  @Test
+  public void testCursor() {
+    assertCursor(new InputFormatDataSet<LongWritable, Text>(this.split, this.jobConf), true);
+    assertCursor(new InMemoryInputFormatDataSet<>(
+        new InputFormatDataSet<LongWritable, Text>(this.split, this.jobConf)), false);
+    assertCursor(this.newDataSet(false), true);
+    assertCursor(this.newDataSet(true), true);
+  }
+
+  @Test
+  public void testCursorWithoutRecord() {
+    assertCursorWithoutRecord(new InputFormatDataSet<LongWritable, Text>(this.split, this.jobConf));
+    assertCursorWithoutRecord(new InMemoryInputFormatDataSet<>(
+        new InputFormatDataSet<LongWritable, Text>(this.split, this.jobConf)));
+    assertCursorWithoutRecord(this.newDataSet(true));
+  }
+
+  private SerializedInMemoryInputFormatDataSet<LongWritable, Text> newDataSet(final boolean compress) {
+    return new SerializedInMemoryInputFormatDataSet<>(
+        new InputFormatDataSet<LongWritable, Text>(this.split, this.jobConf), this.jobConf, compress);
+  }
+
+  /**
+   * @param reusesRecords whether the cursor returns the same key and value for every record.
+   */
+  private static void assertCursor(final CursorDataSet<LongWritable, Text> dataSet, final boolean reusesRecords) {
+    final DataSetCursor<LongWritable, Text> cursor = dataSet.cursor();
+    Text value = null;
+    int i = 0;
+    while (cursor.advance()) {
+      Assert.assertEquals("line " + i, cursor.getValue().toString());
+      if (value == null) {
+        value = cursor.getValue();
+      } else if (reusesRecords) {
+        Assert.assertSame(value, cursor.getValue());
+      }
+      ++i;
+    }
+    Assert.assertEquals(NUM_LINES, i);
+  }
+
+  /**
+   * Checks that the cursor has no record before the first call to advance() and after the last one.
+   */
+  private static void assertCursorWithoutRecord(final CursorDataSet<LongWritable, Text> dataSet) {
+    final DataSetCursor<LongWritable, Text> cursor = dataSet.cursor();
+    assertNoRecord(cursor);
+    while (cursor.advance()) {
+      Assert.assertNotNull(cursor.getKey());
+    }
+    assertNoRecord(cursor);
+  }
+
+  private static void assertNoRecord(final DataSetCursor<LongWritable, Text> cursor) {
+    try {
+      cursor.getKey();
+      Assert.fail("getKey() returned without a current record");
+    } catch (final IllegalStateException expected) {
+      // Expected.
+    }
+    try {
+      cursor.getValue();
+      Assert.fail("getValue() returned without a current record");
+    } catch (final IllegalStateException expected) {
+      // Expected.
+    }
+  }
+
+  private static void assertLines(final Iterable<Pair<LongWritable, Text>> dataSet) {
+    int i = 0;
+    long offset = 0;
+    for (final Pair<LongWritable, Text> record : dataSet) {
+      final String line = "line " + i;
+      Assert.assertEquals(offset, record.getFirst().get());
+      Assert.assertEquals(line, record.getSecond().toString());
+      offset += line.length() + 1;
+      ++i;
+    }
+    Assert.assertEquals(NUM_LINES, i);
+  }
+}
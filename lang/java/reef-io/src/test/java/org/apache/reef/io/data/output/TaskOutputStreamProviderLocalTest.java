@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.data.output;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test the write-behind streams of TaskOutputStreamProviderLocal.
+ */
+public class TaskOutputStreamProviderLocalTest {
+
+  private static final int NUM_INTS = 100000;
+
+  private File outputDir;
+
+  @Before
+  public void setUp() throws IOException {
+    this.outputDir = File.createTempFile("TaskOutputStreamProviderLocalTest", "");
+    Assert.assertTrue(this.outputDir.delete());
+  }
+
+  @After
+  public void tearDown() {
+    final File[] dirs = this.outputDir.listFiles();
+    if (dirs != null) {
+      for (final File dir : dirs) {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+          for (final File file : files) {
+            file.delete();
+          }
+        }
+        dir.delete();
+      }
+    }
+    this.outputDir.delete();
+  }
+
+  @Test
+  public void testWriteBehind() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", TaskOutputService.OutputCompressionCodec.NONE);
+    final TaskOutputStreamProvider provider = injector.getInstance(TaskOutputStreamProvider.class);
+    provider.setTaskId("task");
+    try (final DataOutputStream out = provider.create("ints")) {
+      writeInts(out);
+    }
+    try (final InputStream in = new FileInputStream(new File(this.outputDir, "ints/task"))) {
+      assertInts(in);
+    }
+  }
+
+  @Test
+  public void testCompression() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", DefaultCodec.class.getName());
+    final TaskOutputStreamProvider provider = injector.getInstance(TaskOutputStreamProvider.class);
+    provider.setTaskId("task");
+    try (final DataOutputStream out = provider.create("ints")) {
+      writeInts(out);
+    }
+    final CompressionCodec codec = ReflectionUtils.newInstance(DefaultCodec.class, new JobConf());
+    final File file = new File(this.outputDir, "ints/task" + codec.getDefaultExtension());
+    Assert.assertTrue(file.length() < 4 * NUM_INTS);
+    try (final InputStream in = codec.createInputStream(new FileInputStream(file))) {
+      assertInts(in);
+    }
+  }
+
+  @Test
+  public void testCloseFlushesOpenStreams() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", TaskOutputService.OutputCompressionCodec.NONE);
+    final TaskOutputStreamProvider provider = injector.getInstance(TaskOutputStreamProvider.class);
+    provider.setTaskId("task");
+    writeInts(provider.create("ints"));
+    injector.getInstance(WriteBehindBuffers.class).close();
+    try (final InputStream in = new FileInputStream(new File(this.outputDir, "ints/task"))) {
+      assertInts(in);
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testMoreStreamsThanBlocks() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", TaskOutputService.OutputCompressionCodec.NONE);
+    final TaskOutputStreamProvider provider = injector.getInstance(TaskOutputStreamProvider.class);
+    provider.setTaskId("task");
+    // The memory budget of the test holds 4 blocks.
+    final DataOutputStream[] outs = new DataOutputStream[6];
+    for (int i = 0; i < outs.length; ++i) {
+      outs[i] = provider.create("ints" + i);
+    }
+    for (int i = 0; i < NUM_INTS; ++i) {
+      for (final DataOutputStream out : outs) {
+        out.writeInt(i);
+      }
+    }
+    for (final DataOutputStream out : outs) {
+      out.close();
+    }
+    for (int i = 0; i < outs.length; ++i) {
+      try (final InputStream in = new FileInputStream(new File(this.outputDir, "ints" + i + "/task"))) {
+        assertInts(in);
+      }
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testStarvedStreamWritesInBatches() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", TaskOutputService.OutputCompressionCodec.NONE);
+    final WriteBehindBuffers buffers = injector.getInstance(WriteBehindBuffers.class);
+    // The memory budget of the test holds 4 blocks, each kept by a stream that has not filled it.
+    final DataOutputStream[] holders = new DataOutputStream[4];
+    for (int i = 0; i < holders.length; ++i) {
+      holders[i] = buffers.wrap("holder" + i, new ByteArrayOutputStream());
+      holders[i].write(i);
+    }
+    final AtomicInteger writes = new AtomicInteger(0);
+    final ByteArrayOutputStream starved = new ByteArrayOutputStream() {
+      @Override
+      public synchronized void write(final int b) {
+        writes.incrementAndGet();
+        super.write(b);
+      }
+
+      @Override
+      public synchronized void write(final byte[] b, final int off, final int len) {
+        writes.incrementAndGet();
+        super.write(b, off, len);
+      }
+    };
+    try (final DataOutputStream out = buffers.wrap("starved", starved)) {
+      writeInts(out);
+    }
+    assertInts(new ByteArrayInputStream(starved.toByteArray()));
+    Assert.assertTrue("Wrote through in " + writes.get() + " writes", writes.get() <= 4 * NUM_INTS / 1024 + 1);
+    for (final DataOutputStream holder : holders) {
+      holder.close();
+    }
+  }
+
+  @Test
+  public void testFailedCloseIsReported() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("1024", TaskOutputService.OutputCompressionCodec.NONE);
+    final WriteBehindBuffers buffers = injector.getInstance(WriteBehindBuffers.class);
+    final DataOutputStream out = buffers.wrap("failing", new ByteArrayOutputStream() {
+      @Override
+      public void close() throws IOException {
+        throw new IOException("Expected");
+      }
+    });
+    writeInts(out);
+    try {
+      out.close();
+      Assert.fail("Closed a stream that failed to close");
+    } catch (final IOException expected) {
+      // Expected.
+    }
+    try {
+      buffers.close();
+      Assert.fail("Did not report the stream that failed to close");
+    } catch (final IOException e) {
+      Assert.assertTrue(e.getMessage().contains("failing"));
+    }
+  }
+
+  @Test
+  public void testSynchronous() throws InjectionException, IOException {
+    final Injector injector = this.newInjector("0", TaskOutputService.OutputCompressionCodec.NONE);
+    final TaskOutputStreamProvider provider = injector.getInstance(TaskOutputStreamProvider.class);
+    provider.setTaskId("task");
+    try (final DataOutputStream out = provider.create("ints")) {
+      writeInts(out);
+    }
+    try (final InputStream in = new FileInputStream(new File(this.outputDir, "ints/task"))) {
+      assertInts(in);
+    }
+  }
+
+  private Injector newInjector(final String blockSize, final String codec) throws InjectionException {
+    return Tang.Factory.getTang().newInjector(TaskOutputServiceBuilder.CONF
+        .set(TaskOutputServiceBuilder.TASK_OUTPUT_STREAM_PROVIDER, TaskOutputStreamProviderLocal.class)
+        .set(TaskOutputServiceBuilder.OUTPUT_PATH, this.outputDir.getPath())
+        .set(TaskOutputServiceBuilder.OUTPUT_BLOCK_SIZE, blockSize)
+        .set(TaskOutputServiceBuilder.OUTPUT_MEMORY_BUDGET, "4096")
+        .set(TaskOutputServiceBuilder.OUTPUT_COMPRESSION_CODEC, codec)
+        .build());
+  }
+
+  private static void writeInts(final DataOutputStream out) throws IOException {
+    for (int i = 0; i < NUM_INTS; ++i) {
+      out.writeInt(i);
+    }
+  }
+
+  private static void assertInts(final InputStream in) throws IOException {
+    final DataInputStream dataIn = new DataInputStream(in);
+    for (int i = 0; i < NUM_INTS; ++i) {
+      Assert.assertEquals(i, dataIn.readInt());
+    }
+    Assert.assertEquals(-1, dataIn.read());
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.reef.io.storage;
 
 import org.apache.reef.io.ExternalMap;
 import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.local.CodecFileMap;
+import org.apache.reef.io.storage.local.LocalStorageService;
 import org.apache.reef.io.storage.ram.CodecRamMap;
 import org.apache.reef.io.storage.ram.RamMap;
 import org.apache.reef.io.storage.ram.RamStorageService;
@@ -39,6 +41,42 @@ public class ExternalMapTest {
     genericTest(m);
   }
 
+  @Test
+  public void testCodecFileMap() {
+    final LocalStorageService localStore = new LocalStorageService("ExternalMapTest", "testCodecFileMap");
+    try (final CodecFileMap<Integer> m = new CodecFileMap<>(localStore, new IntegerCodec(), 1)) {
+      genericTest(m);
+    }
+    localStore.getScratchSpace().delete();
+  }
+
+  @Test
+  public void testCodecFileMapSpillsAndCompacts() {
+    final LocalStorageService localStore = new LocalStorageService("ExternalMapTest", "testCodecFileMapSpills");
+    try (final CodecFileMap<Integer> m = new CodecFileMap<>(localStore, new IntegerCodec(), 10, 256)) {
+      for (int round = 0; round < 5; ++round) {
+        final Map<String, Integer> batch = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+          batch.put("key" + i, round * 1000 + i);
+        }
+        m.putAll(batch);
+      }
+      for (int i = 0; i < 100; i += 2) {
+        Assert.assertEquals(4000 + i, (int) m.remove("key" + i));
+      }
+      for (int i = 0; i < 100; ++i) {
+        if (i % 2 == 0) {
+          Assert.assertFalse(m.containsKey("key" + i));
+        } else {
+          Assert.assertEquals(4000 + i, (int) m.get("key" + i));
+        }
+      }
+      // Overwritten and removed values must not take up space forever.
+      Assert.assertTrue(localStore.getScratchSpace().usedSpace() < 100 * 256);
+    }
+    localStore.getScratchSpace().delete();
+  }
+
   @Test
   public void testRamMap() {
     final RamStorageService ramStore = new RamStorageService();
@@ -19,9 +19,14 @@
 package org.apache.reef.io.storage;
 
 import org.apache.reef.exception.evaluator.ServiceException;
+import org.apache.reef.exception.evaluator.StorageException;
 import org.apache.reef.io.Accumulator;
 import org.apache.reef.io.Spool;
+import org.apache.reef.io.storage.local.LocalStorageService;
+import org.apache.reef.io.storage.local.ScratchSpaceQuotaExceededException;
+import org.apache.reef.io.storage.local.SortingFileSpool;
 import org.apache.reef.io.storage.ram.SortingRamSpool;
+import org.apache.reef.io.storage.util.IntegerCodec;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -54,6 +59,128 @@ public class SortingSpoolTest {
     genericTest(new SortingRamSpool<Integer>(backwards), backwards);
   }
 
+  @Test
+  public void testFileSpool() throws ServiceException {
+    final Comparator<Integer> forwards = new Comparator<Integer>() {
+
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return Integer.compare(o1, o2);
+      }
+
+    };
+    // A budget of a few records spills many runs, a large one none.
+    genericTest(newFileSpool(forwards, 16), forwards);
+    genericTest(newFileSpool(forwards, 1 << 20), forwards);
+  }
+
+  @Test
+  public void testFileSpoolComparator() throws ServiceException {
+    final Comparator<Integer> backwards = new Comparator<Integer>() {
+
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return -1 * o1.compareTo(o2);
+      }
+
+    };
+    genericTest(newFileSpool(backwards, 16), backwards);
+  }
+
+  @Test
+  public void testFileSpoolLongKey() throws ServiceException {
+    final SortingFileSpool.LongKey<Integer> key = new SortingFileSpool.LongKey<Integer>() {
+      @Override
+      public long getKey(final Integer datum) {
+        return datum;
+      }
+    };
+    final Comparator<Integer> forwards = new Comparator<Integer>() {
+
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return Integer.compare(o1, o2);
+      }
+
+    };
+    final LocalStorageService service = new LocalStorageService("SortingSpoolTest", "testFileSpoolLongKey");
+    genericTest(new SortingFileSpool<>(service, new IntegerCodec(), key, 64), forwards);
+    genericTest(new SortingFileSpool<>(service, new IntegerCodec(), key, 1 << 20), forwards);
+    service.getScratchSpace().delete();
+  }
+
+  @Test
+  public void testFileSpoolMergesManyRuns() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("SortingSpoolTest", "testFileSpoolMergesManyRuns");
+    final Comparator<Integer> forwards = new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return Integer.compare(o1, o2);
+      }
+    };
+    final IntegerCodec codec = new IntegerCodec();
+    final Spool<Integer> spool = new SortingFileSpool<>(service, codec, forwards, 16);
+    final List<Integer> data = new ArrayList<>();
+    final Random r = new Random(42);
+    final Accumulator<Integer> acc = spool.accumulator();
+    long framedBytes = 0;
+    // A few records per run, so hundreds of runs are merged in more than one pass.
+    for (int i = 0; i < 5000; i++) {
+      data.add(r.nextInt(1000));
+      acc.add(data.get(i));
+      framedBytes += 4 + codec.encode(data.get(i)).length;
+    }
+    acc.close();
+    // Each run ends with four bytes, so this bounds the number of runs left.
+    Assert.assertTrue(service.getScratchSpace().usedSpace() <= framedBytes + 4 * 64);
+
+    Collections.sort(data, forwards);
+    final List<Integer> sorted = new ArrayList<>();
+    for (final Integer datum : spool) {
+      sorted.add(datum);
+    }
+    Assert.assertEquals(data, sorted);
+    service.getScratchSpace().delete();
+  }
+
+  @Test
+  public void testFileSpoolQuota() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("SortingSpoolTest", "testFileSpoolQuota", 1000);
+    final Spool<Integer> spool = new SortingFileSpool<>(service, new IntegerCodec(), new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return Integer.compare(o1, o2);
+      }
+    }, 64);
+    final Accumulator<Integer> acc = spool.accumulator();
+    try {
+      for (int i = 0; i < 1000; i++) {
+        acc.add(i);
+      }
+      acc.close();
+      Assert.fail("The runs should exceed the quota");
+    } catch (final StorageException e) {
+      Assert.assertTrue(e.getCause() instanceof ScratchSpaceQuotaExceededException);
+    }
+    Assert.assertTrue(service.getScratchSpace().usedSpace() <= 1000);
+    service.getScratchSpace().delete();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFileSpoolAddAfterClose() throws ServiceException {
+    genericAddAfterCloseTest(newFileSpool(null, 16));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testFileSpoolCantRemove() throws ServiceException {
+    genericCantRemove(newFileSpool(null, 16));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFileSpoolIteratorBeforeClose() throws ServiceException {
+    genericIteratorBeforeClose(newFileSpool(null, 16));
+  }
+
   @Test(expected = IllegalStateException.class)
   public void testRamSpoolAddAfterClose() throws ServiceException {
     final Spool<Integer> s = new SortingRamSpool<>();
@@ -72,6 +199,11 @@ public class SortingSpoolTest {
     genericIteratorBeforeClose(s);
   }
 
+  private static Spool<Integer> newFileSpool(final Comparator<Integer> comparator, final long memoryBudget) {
+    final LocalStorageService service = new LocalStorageService("SortingSpoolTest", "newFileSpool");
+    return new SortingFileSpool<>(service, new IntegerCodec(), comparator, memoryBudget);
+  }
+
   void genericTest(final Spool<Integer> s, final Comparator<Integer> comparator)
       throws ServiceException {
     final List<Integer> l = new ArrayList<Integer>();
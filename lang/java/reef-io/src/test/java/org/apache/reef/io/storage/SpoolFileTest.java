@@ -27,7 +27,9 @@ import org.apache.reef.io.serialization.Deserializer;
 import org.apache.reef.io.serialization.Serializer;
 import org.apache.reef.io.storage.local.CodecFileAccumulable;
 import org.apache.reef.io.storage.local.CodecFileIterable;
+import org.apache.reef.io.storage.local.LocalScratchSpace;
 import org.apache.reef.io.storage.local.LocalStorageService;
+import org.apache.reef.io.storage.local.ScratchSpaceQuotaExceededException;
 import org.apache.reef.io.storage.local.SerializerFileSpool;
 import org.apache.reef.io.storage.ram.RamSpool;
 import org.apache.reef.io.storage.ram.RamStorageService;
@@ -171,6 +173,65 @@ public class SpoolFileTest {
     service.getScratchSpace().delete();
   }
 
+  @Test
+  public void testInteropWithoutByteBufferCodec() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("spoolTest", "file");
+    final IntegerCodec integerCodec = new IntegerCodec();
+    final Codec<Integer> c = new Codec<Integer>() {
+      @Override
+      public byte[] encode(final Integer obj) {
+        return integerCodec.encode(obj);
+      }
+
+      @Override
+      public Integer decode(final byte[] buf) {
+        return integerCodec.decode(buf);
+      }
+    };
+
+    final CodecFileAccumulable<Integer, Codec<Integer>> f = new CodecFileAccumulable<>(service, c);
+    final CodecFileIterable<Integer, Codec<Integer>> g = new CodecFileIterable<>(new File(f.getName()), c);
+    test(f, g);
+    service.getScratchSpace().delete();
+  }
+
+  @Test
+  public void testUsedSpace() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("spoolTest", "usedSpace");
+    final LocalScratchSpace scratchSpace = service.getScratchSpace();
+    final CodecFileAccumulable<Integer, Codec<Integer>> f = new CodecFileAccumulable<Integer, Codec<Integer>>(
+        service, new IntegerCodec());
+    try (Accumulator<Integer> acc = f.accumulator()) {
+      for (int i = 0; i < 1000; i++) {
+        acc.add(i);
+      }
+    }
+    final File file = new File(f.getName());
+    Assert.assertEquals(file.length(), scratchSpace.usedSpace());
+    Assert.assertTrue(scratchSpace.deleteFile(file));
+    Assert.assertEquals(0, scratchSpace.usedSpace());
+    scratchSpace.delete();
+  }
+
+  @Test
+  public void testQuota() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("spoolTest", "quota", 100);
+    final CodecFileAccumulable<Integer, Codec<Integer>> f = new CodecFileAccumulable<Integer, Codec<Integer>>(
+        service, new IntegerCodec());
+    final Accumulator<Integer> acc = f.accumulator();
+    try {
+      for (int i = 0; i < 1000; i++) {
+        acc.add(i);
+      }
+      acc.close();
+      Assert.fail("The file should exceed the quota");
+    } catch (final ServiceException e) {
+      Assert.assertTrue(e.getCause() instanceof ScratchSpaceQuotaExceededException);
+    }
+    Assert.assertEquals(0, service.getScratchSpace().usedSpace());
+    service.getScratchSpace().delete();
+  }
+
   protected void test(final Spool<Integer> f) throws ServiceException {
     test(f, f);
   }
@@ -19,13 +19,18 @@
 package org.apache.reef.runtime.local.client;
 
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
+import org.apache.reef.runtime.local.client.parameters.InProcessEvaluators;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
+import org.apache.reef.runtime.local.client.parameters.WarmEvaluatorPoolSize;
 import org.apache.reef.runtime.local.driver.LocalDriverConfiguration;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.inmemory.InMemoryTransportFactory;
 
 import javax.inject.Inject;
 
@@ -40,14 +45,20 @@ public final class DriverConfigurationProvider {
   private final int maxEvaluators;
   private final double jvmHeapSlack;
   private final Set<String> rackNames;
+  private final int warmEvaluatorPoolSize;
+  private final boolean inProcessEvaluators;
 
   @Inject
   DriverConfigurationProvider(@Parameter(MaxNumberOfEvaluators.class) final int maxEvaluators,
                               @Parameter(JVMHeapSlack.class) final double jvmHeapSlack,
-                              @Parameter(RackNames.class) final Set<String> rackNames) {
+                              @Parameter(RackNames.class) final Set<String> rackNames,
+                              @Parameter(WarmEvaluatorPoolSize.class) final int warmEvaluatorPoolSize,
+                              @Parameter(InProcessEvaluators.class) final boolean inProcessEvaluators) {
     this.maxEvaluators = maxEvaluators;
     this.jvmHeapSlack = jvmHeapSlack;
     this.rackNames = rackNames;
+    this.warmEvaluatorPoolSize = warmEvaluatorPoolSize;
+    this.inProcessEvaluators = inProcessEvaluators;
   }
 
   private Configuration getDriverConfiguration(final File jobFolder,
@@ -57,12 +68,20 @@ public final class DriverConfigurationProvider {
         .set(LocalDriverConfiguration.MAX_NUMBER_OF_EVALUATORS, this.maxEvaluators)
         .set(LocalDriverConfiguration.ROOT_FOLDER, jobFolder.getAbsolutePath())
         .set(LocalDriverConfiguration.JVM_HEAP_SLACK, this.jvmHeapSlack)
+        .set(LocalDriverConfiguration.WARM_EVALUATOR_POOL_SIZE, this.warmEvaluatorPoolSize)
+        .set(LocalDriverConfiguration.IN_PROCESS_EVALUATORS, this.inProcessEvaluators)
         .set(LocalDriverConfiguration.CLIENT_REMOTE_IDENTIFIER, clientRemoteId)
         .set(LocalDriverConfiguration.JOB_IDENTIFIER, jobId);
     for (final String rackName : rackNames) {
       configModule = configModule.set(LocalDriverConfiguration.RACK_NAMES, rackName);
     }
-    return configModule.build();
+    if (!this.inProcessEvaluators) {
+      return configModule.build();
+    }
+    // Evaluators running in the Driver process reach its transports in memory.
+    return Configurations.merge(configModule.build(), Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(TransportFactory.class, InMemoryTransportFactory.class)
+        .build());
   }
 
   /**
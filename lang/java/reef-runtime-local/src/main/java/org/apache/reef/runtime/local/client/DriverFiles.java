@@ -21,6 +21,7 @@ package org.apache.reef.runtime.local.client;
 import org.apache.reef.runtime.common.client.api.JobSubmissionEvent;
 import org.apache.reef.runtime.common.files.FileResource;
 import org.apache.reef.runtime.common.files.FileType;
+import org.apache.reef.runtime.common.files.LocalFileCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.OptionalParameter;
@@ -129,13 +130,8 @@ final class DriverFiles {
    * @throws IOException if one or more of the copies fail.
    */
   public void copyTo(final File destinationFolder) throws IOException {
-    destinationFolder.mkdirs();
-    final File reefFolder = new File(destinationFolder, fileNames.getREEFFolderName());
-
-    final File localFolder = new File(reefFolder, fileNames.getLocalFolderName());
-    final File globalFolder = new File(reefFolder, fileNames.getGlobalFolderName());
-    localFolder.mkdirs();
-    globalFolder.mkdirs();
+    final File localFolder = this.getLocalFolder(destinationFolder);
+    final File globalFolder = this.getGlobalFolder(destinationFolder);
 
     try {
       this.localFiles.createSymbolicLinkTo(localFolder);
@@ -151,6 +147,45 @@ final class DriverFiles {
     }
   }
 
+  /**
+   * Stages this set of files into the destination folder given, as copies of the entries of the file cache.
+   * <p/>
+   * Unlike symbolic links, the staged files don't change when the originals do, and they are the files' content
+   * at the time they were staged.
+   *
+   * @param destinationFolder the folder the files shall be staged to.
+   * @param fileCache         the cache that holds the content of the files.
+   * @throws IOException if one or more of the copies fail.
+   */
+  public void stageTo(final File destinationFolder, final LocalFileCache fileCache) throws IOException {
+    final File localFolder = this.getLocalFolder(destinationFolder);
+    final File globalFolder = this.getGlobalFolder(destinationFolder);
+
+    try {
+      this.localFiles.stageTo(localFolder, fileCache);
+      this.localLibs.stageTo(localFolder, fileCache);
+      this.globalLibs.stageTo(globalFolder, fileCache);
+      this.globalFiles.stageTo(globalFolder, fileCache);
+    } catch (final IOException e) {
+      LOG.log(Level.FINE, "Can't stage the files through " + fileCache + ", copying them instead.", e);
+      this.copyTo(destinationFolder);
+    }
+  }
+
+  private File getLocalFolder(final File destinationFolder) {
+    final File reefFolder = new File(destinationFolder, fileNames.getREEFFolderName());
+    final File localFolder = new File(reefFolder, fileNames.getLocalFolderName());
+    localFolder.mkdirs();
+    return localFolder;
+  }
+
+  private File getGlobalFolder(final File destinationFolder) {
+    final File reefFolder = new File(destinationFolder, fileNames.getREEFFolderName());
+    final File globalFolder = new File(reefFolder, fileNames.getGlobalFolderName());
+    globalFolder.mkdirs();
+    return globalFolder;
+  }
+
   /**
    * Fills out a ConfigurationModule.
    *
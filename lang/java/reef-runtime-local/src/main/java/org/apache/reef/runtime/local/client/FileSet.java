@@ -18,6 +18,7 @@
  */
 package org.apache.reef.runtime.local.client;
 
+import org.apache.reef.runtime.common.files.LocalFileCache;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.OptionalParameter;
 
@@ -96,6 +97,19 @@ final class FileSet {
     }
   }
 
+  /**
+   * Stages the files in the current FileSet into the given destinationFolder, as copies of the file cache entries.
+   *
+   * @param destinationFolder the folder where the files shall be staged.
+   * @param fileCache         the cache that holds the content of the files.
+   * @throws IOException
+   */
+  void stageTo(final File destinationFolder, final LocalFileCache fileCache) throws IOException {
+    for (final File f : this.theFiles) {
+      fileCache.stage(f, new File(destinationFolder, f.getName()));
+    }
+  }
+
   /**
    * Adds the file names of this FileSet to the given field of the given ConfigurationModule.
    *
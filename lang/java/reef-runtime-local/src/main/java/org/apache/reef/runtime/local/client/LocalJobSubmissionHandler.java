@@ -22,6 +22,7 @@ import org.apache.reef.annotations.audience.ClientSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.runtime.common.client.api.JobSubmissionEvent;
 import org.apache.reef.runtime.common.client.api.JobSubmissionHandler;
+import org.apache.reef.runtime.common.files.LocalFileCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
 import org.apache.reef.tang.Configuration;
@@ -52,6 +53,7 @@ final class LocalJobSubmissionHandler implements JobSubmissionHandler {
   private final PreparedDriverFolderLauncher driverLauncher;
   private final LoggingScopeFactory loggingScopeFactory;
   private final DriverConfigurationProvider driverConfigurationProvider;
+  private final LocalFileCache fileCache;
 
   @Inject
   public LocalJobSubmissionHandler(
@@ -71,6 +73,7 @@ final class LocalJobSubmissionHandler implements JobSubmissionHandler {
     this.driverLauncher = driverLauncher;
     this.driverConfigurationProvider = driverConfigurationProvider;
     this.rootFolderName = new File(rootFolderName).getAbsolutePath();
+    this.fileCache = new LocalFileCache(new File(this.rootFolderName, fileNames.getFileCacheFolderName()));
     this.loggingScopeFactory = loggingScopeFactory;
 
     LOG.log(Level.FINE, "Instantiated 'LocalJobSubmissionHandler'");
@@ -94,7 +97,7 @@ final class LocalJobSubmissionHandler implements JobSubmissionHandler {
         driverFolder.mkdirs();
 
         final DriverFiles driverFiles = DriverFiles.fromJobSubmission(t, this.fileNames);
-        driverFiles.copyTo(driverFolder);
+        driverFiles.stageTo(driverFolder, this.fileCache);
 
         final Configuration driverConfiguration = this.driverConfigurationProvider
             .getDriverConfiguration(jobFolder, t.getRemoteId(), t.getIdentifier(), t.getConfiguration());
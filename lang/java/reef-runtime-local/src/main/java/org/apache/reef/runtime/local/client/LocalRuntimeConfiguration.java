@@ -24,9 +24,11 @@ import org.apache.reef.runtime.common.client.api.JobSubmissionHandler;
 import org.apache.reef.runtime.common.files.RuntimeClasspathProvider;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.local.client.parameters.InProcessEvaluators;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmEvaluatorPoolSize;
 import org.apache.reef.tang.ConfigurationProvider;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
@@ -71,6 +73,20 @@ public class LocalRuntimeConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<String> RACK_NAMES = new OptionalParameter<>();
 
+  /**
+   * The number of Evaluator processes to keep started ahead of time, in addition to the running ones. An allocated
+   * Evaluator is handed to one of them instead of starting a new JVM, if it was to be started with the same command
+   * line and doesn't bring libraries of its own. Defaults to 0, which disables this.
+   */
+  public static final OptionalParameter<Integer> WARM_EVALUATOR_POOL_SIZE = new OptionalParameter<>();
+
+  /**
+   * Whether to run the Evaluators in threads of the Driver process. Such Evaluators share the heap, the working
+   * directory and the log of the Driver and talk to it in memory instead of over TCP. Evaluators that are not JVMs or
+   * that bring files of their own still get a process. Defaults to false.
+   */
+  public static final OptionalParameter<Boolean> IN_PROCESS_EVALUATORS = new OptionalParameter<>();
+
 
   /**
    * The ConfigurationModule for the local resourcemanager.
@@ -87,6 +103,8 @@ public class LocalRuntimeConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
       .bindSetEntry(DriverConfigurationProviders.class, DRIVER_CONFIGURATION_PROVIDERS)
       .bindSetEntry(RackNames.class, RACK_NAMES)
+      .bindNamedParameter(WarmEvaluatorPoolSize.class, WARM_EVALUATOR_POOL_SIZE)
+      .bindNamedParameter(InProcessEvaluators.class, IN_PROCESS_EVALUATORS)
       .build();
 
 
@@ -19,6 +19,7 @@
 package org.apache.reef.runtime.local.driver;
 
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.tang.Configuration;
 
 import java.io.File;
 import java.util.List;
@@ -38,6 +39,22 @@ interface Container extends AutoCloseable {
    */
   void run(final List<String> commandLine);
 
+  /**
+   * Makes the Container run the given commandLine in a process that was started ahead of time, if there is one.
+   * This changes the folder of the Container, so it has to be called before any files are added.
+   *
+   * @param commandLine the command line that will be passed to run().
+   * @return true if the Container will use such a process. Its folder then already holds the global files.
+   */
+  boolean useWarmProcess(final List<String> commandLine);
+
+  /**
+   * Runs the Evaluator in threads of this process instead of in a process of its own.
+   *
+   * @param evaluatorConfiguration the configuration of the Evaluator.
+   */
+  void runInProcess(final Configuration evaluatorConfiguration);
+
   /**
    * Copies the files to the working directory of the container.
    *
@@ -27,6 +27,7 @@ import org.apache.reef.runtime.common.driver.api.ResourceRequestEvent;
 import org.apache.reef.runtime.common.driver.api.RuntimeParameters;
 import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEventImpl;
+import org.apache.reef.runtime.common.files.LocalFileCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.utils.Constants;
 import org.apache.reef.runtime.common.utils.RemoteManager;
@@ -97,9 +98,11 @@ final class ContainerManager implements AutoCloseable {
   private final EventHandler<NodeDescriptorEvent> nodeDescriptorHandler;
   private final File rootFolder;
   private final REEFFileNames fileNames;
+  private final LocalFileCache fileCache;
   private final ReefRunnableProcessObserver processObserver;
   private final String localAddress;
   private final Collection<String> availableRacks;
+  private final WarmEvaluatorPool warmEvaluatorPool;
 
   @Inject
   ContainerManager(
@@ -113,7 +116,8 @@ final class ContainerManager implements AutoCloseable {
       final ReefRunnableProcessObserver processObserver,
       final LocalAddressProvider localAddressProvider,
       @Parameter(DefaultMemorySize.class) final int defaultMemorySize,
-      @Parameter(DefaultNumberOfCores.class) final int defaultNumberOfCores) {
+      @Parameter(DefaultNumberOfCores.class) final int defaultNumberOfCores,
+      final WarmEvaluatorPool warmEvaluatorPool) {
     this.capacity = capacity;
     this.defaultMemorySize = defaultMemorySize;
     this.defaultNumberOfCores = defaultNumberOfCores;
@@ -122,8 +126,12 @@ final class ContainerManager implements AutoCloseable {
     this.errorHandlerRID = remoteManager.getMyIdentifier();
     this.nodeDescriptorHandler = nodeDescriptorHandler;
     this.rootFolder = new File(rootFolderName);
+    // The job folder is in the root folder of the runtime, next to the file cache.
+    this.fileCache = new LocalFileCache(
+        new File(this.rootFolder.getAbsoluteFile().getParentFile(), fileNames.getFileCacheFolderName()));
     this.localAddress = localAddressProvider.getLocalAddress();
     this.availableRacks = normalize(rackNames);
+    this.warmEvaluatorPool = warmEvaluatorPool;
 
     LOG.log(Level.FINEST, "Initializing Container Manager with {0} containers", capacity);
 
@@ -355,7 +363,7 @@ final class ContainerManager implements AutoCloseable {
     processFolder.mkdirs();
     final ProcessContainer container = new ProcessContainer(
         this.errorHandlerRID, nodeId, processID, processFolder, megaBytes,
-        numberOfCores, rackName, this.fileNames, this.processObserver);
+        numberOfCores, rackName, this.fileNames, this.fileCache, this.processObserver, this.warmEvaluatorPool);
     this.containers.put(container.getContainerID(), container);
     LOG.log(Level.FINE, "Allocated {0}", container.getContainerID());
     return container;
@@ -392,6 +400,7 @@ final class ContainerManager implements AutoCloseable {
 
   @Override
   public synchronized void close() {
+    this.warmEvaluatorPool.close();
     synchronized (this.containers) {
       if (this.containers.isEmpty()) {
         LOG.log(Level.FINEST, "Clean shutdown with no outstanding containers.");
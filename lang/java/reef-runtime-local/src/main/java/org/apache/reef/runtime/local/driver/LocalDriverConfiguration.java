@@ -26,9 +26,11 @@ import org.apache.reef.runtime.common.launch.parameters.ErrorHandlerRID;
 import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.local.LocalClasspathProvider;
+import org.apache.reef.runtime.local.client.parameters.InProcessEvaluators;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
 import org.apache.reef.runtime.local.client.parameters.RackNames;
 import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmEvaluatorPoolSize;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
 import org.apache.reef.tang.formats.OptionalParameter;
@@ -57,6 +59,16 @@ public class LocalDriverConfiguration extends ConfigurationModuleBuilder {
   */
   public static final OptionalParameter<String> RACK_NAMES = new OptionalParameter<>();
 
+  /**
+   * The number of Evaluator processes to keep started ahead of time.
+   */
+  public static final OptionalParameter<Integer> WARM_EVALUATOR_POOL_SIZE = new OptionalParameter<>();
+
+  /**
+   * Whether to run the Evaluators in threads of the Driver process.
+   */
+  public static final OptionalParameter<Boolean> IN_PROCESS_EVALUATORS = new OptionalParameter<>();
+
   /**
    * The remote identifier to use for communications back to the client.
    */
@@ -81,6 +93,8 @@ public class LocalDriverConfiguration extends ConfigurationModuleBuilder {
       .bindNamedParameter(RootFolder.class, ROOT_FOLDER)
       .bindNamedParameter(JVMHeapSlack.class, JVM_HEAP_SLACK)
       .bindSetEntry(RackNames.class, RACK_NAMES)
+      .bindNamedParameter(WarmEvaluatorPoolSize.class, WARM_EVALUATOR_POOL_SIZE)
+      .bindNamedParameter(InProcessEvaluators.class, IN_PROCESS_EVALUATORS)
       .bindImplementation(RuntimeClasspathProvider.class, LocalClasspathProvider.class)
       .build();
 }
@@ -20,10 +20,14 @@ package org.apache.reef.runtime.local.driver;
 
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.runtime.common.files.LocalFileCache;
 import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.local.process.InProcessEvaluator;
 import org.apache.reef.runtime.local.process.ReefRunnableProcessObserver;
 import org.apache.reef.runtime.local.process.RunnableProcess;
 import org.apache.reef.runtime.local.process.RunnableProcessObserver;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.util.Optional;
 
 import java.io.File;
 import java.io.IOException;
@@ -35,7 +39,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * A Container that runs an Evaluator in a Process.
+ * A Container that runs an Evaluator in a Process, or in threads of this process.
  */
 @Private
 @TaskSide
@@ -45,24 +49,29 @@ final class ProcessContainer implements Container {
 
   private final String errorHandlerRID;
   private final String nodeID;
-  private final File folder;
+  private File folder;
   private final String containedID;
   private final int megaBytes;
   private final int numberOfCores;
   private final String rackName;
   private final REEFFileNames fileNames;
-  private final File reefFolder;
-  private final File localFolder;
-  private final File globalFolder;
+  private final LocalFileCache fileCache;
+  private File localFolder;
+  private File globalFolder;
   private final RunnableProcessObserver processObserver;
+  private final WarmEvaluatorPool warmEvaluatorPool;
   private Thread theThread;
   private RunnableProcess process;
+  private WarmEvaluatorPool.WarmProcess warmProcess;
+  private InProcessEvaluator inProcessEvaluator;
 
   /**
    * @param errorHandlerRID the remoteID of the error handler.
    * @param nodeID          the ID of the (fake) node this Container is instantiated on
    * @param containedID     the  ID used to identify this container uniquely
    * @param folder          the folder in which logs etc. will be deposited
+   * @param fileCache       the cache through which the files of the Evaluator are staged
+   * @param warmEvaluatorPool the processes started ahead of time
    */
   ProcessContainer(final String errorHandlerRID,
                    final String nodeID,
@@ -72,7 +81,9 @@ final class ProcessContainer implements Container {
                    final int numberOfCores,
                    final String rackName,
                    final REEFFileNames fileNames,
-                   final ReefRunnableProcessObserver processObserver) {
+                   final LocalFileCache fileCache,
+                   final ReefRunnableProcessObserver processObserver,
+                   final WarmEvaluatorPool warmEvaluatorPool) {
     this.errorHandlerRID = errorHandlerRID;
     this.nodeID = nodeID;
     this.containedID = containedID;
@@ -81,22 +92,31 @@ final class ProcessContainer implements Container {
     this.numberOfCores = numberOfCores;
     this.rackName = rackName;
     this.fileNames = fileNames;
+    this.fileCache = fileCache;
     this.processObserver = processObserver;
-    this.reefFolder = new File(folder, fileNames.getREEFFolderName());
-    this.localFolder = new File(reefFolder, fileNames.getLocalFolderName());
+    this.warmEvaluatorPool = warmEvaluatorPool;
+    this.setFolders();
     this.localFolder.mkdirs();
-    this.globalFolder = new File(reefFolder, fileNames.getGlobalFolderName());
     this.globalFolder.mkdirs();
   }
 
-  private static void copy(final Iterable<File> files, final File folder) throws IOException {
+  private void setFolders() {
+    final File reefFolder = new File(this.folder, this.fileNames.getREEFFolderName());
+    this.localFolder = new File(reefFolder, this.fileNames.getLocalFolderName());
+    this.globalFolder = new File(reefFolder, this.fileNames.getGlobalFolderName());
+  }
+
+  /**
+   * Stages the files of the Driver's global folder into the given folder, by way of the file cache.
+   */
+  static void copy(final Iterable<File> files, final File folder, final LocalFileCache fileCache) throws IOException {
     for (final File sourceFile : files) {
       final File destinationFile = new File(folder, sourceFile.getName());
       if (Files.isSymbolicLink(sourceFile.toPath())) {
         final Path linkTargetPath = Files.readSymbolicLink(sourceFile.toPath());
         Files.createSymbolicLink(destinationFile.toPath(), linkTargetPath);
       } else {
-        Files.copy(sourceFile.toPath(), destinationFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        fileCache.stage(sourceFile, destinationFile);
       }
     }
   }
@@ -104,7 +124,9 @@ final class ProcessContainer implements Container {
   @Override
   public void addLocalFiles(final Iterable<File> files) {
     try {
-      copy(files, this.localFolder);
+      for (final File file : files) {
+        this.fileCache.stage(file, new File(this.localFolder, file.getName()));
+      }
     } catch (final IOException e) {
       throw new RuntimeException("Unable to copy files to the evaluator folder.", e);
     }
@@ -114,14 +136,46 @@ final class ProcessContainer implements Container {
   @SuppressWarnings("checkstyle:hiddenfield")
   public void addGlobalFiles(final File globalFolder) {
     try {
-      copy(Arrays.asList(globalFolder.listFiles()), this.globalFolder);
+      copy(Arrays.asList(globalFolder.listFiles()), this.globalFolder, this.fileCache);
     } catch (final IOException e) {
       throw new RuntimeException("Unable to copy files to the evaluator folder.", e);
     }
   }
 
+  @Override
+  public boolean useWarmProcess(final List<String> commandLine) {
+    final Optional<WarmEvaluatorPool.WarmProcess> taken = this.warmEvaluatorPool.take(commandLine);
+    if (!taken.isPresent()) {
+      return false;
+    }
+    LOG.log(Level.FINE, "Container {0} uses a warm process in {1}",
+        new Object[]{this.containedID, taken.get().getFolder()});
+    // The folder made for this Container is still empty.
+    final File reefFolder = new File(this.folder, this.fileNames.getREEFFolderName());
+    this.localFolder.delete();
+    this.globalFolder.delete();
+    reefFolder.delete();
+    this.folder.delete();
+
+    this.warmProcess = taken.get();
+    this.folder = this.warmProcess.getFolder();
+    this.setFolders();
+    return true;
+  }
+
   @Override
   public void run(final List<String> commandLine) {
+    if (null != this.warmProcess) {
+      final String configurationFileName = commandLine.get(commandLine.size() - 1);
+      this.theThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          ProcessContainer.this.warmProcess.launch(ProcessContainer.this.containedID, configurationFileName);
+        }
+      });
+      this.theThread.start();
+      return;
+    }
     this.process = new RunnableProcess(commandLine,
         this.containedID,
         this.folder,
@@ -132,6 +186,13 @@ final class ProcessContainer implements Container {
     this.theThread.start();
   }
 
+  @Override
+  public void runInProcess(final Configuration evaluatorConfiguration) {
+    this.inProcessEvaluator = new InProcessEvaluator(evaluatorConfiguration, this.containedID, this.processObserver);
+    this.theThread = new Thread(this.inProcessEvaluator.getThreadGroup(), this.inProcessEvaluator, this.containedID);
+    this.theThread.start();
+  }
+
   @Override
   public boolean isRunning() {
     return null != this.theThread && this.theThread.isAlive();
@@ -171,7 +232,13 @@ final class ProcessContainer implements Container {
   public void close() {
     if (isRunning()) {
       LOG.log(Level.WARNING, "Force-closing a container that is still running: {0}", this);
-      this.process.cancel();
+      if (null != this.inProcessEvaluator) {
+        this.inProcessEvaluator.cancel();
+      } else if (null != this.warmProcess) {
+        this.warmProcess.cancel();
+      } else {
+        this.process.cancel();
+      }
     }
   }
 
@@ -21,6 +21,7 @@ package org.apache.reef.runtime.local.driver;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.evaluator.EvaluatorProcess;
+import org.apache.reef.driver.evaluator.JVMProcess;
 import org.apache.reef.proto.ReefServiceProtos;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseEvent;
@@ -31,9 +32,11 @@ import org.apache.reef.runtime.common.driver.resourcemanager.ResourceEventImpl;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEventImpl;
 import org.apache.reef.runtime.common.files.FileResource;
+import org.apache.reef.runtime.common.files.FileType;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.common.utils.RemoteManager;
+import org.apache.reef.runtime.local.client.parameters.InProcessEvaluators;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
@@ -70,6 +73,7 @@ public final class ResourceManager {
   private final REEFFileNames fileNames;
   private final double jvmHeapFactor;
   private final LoggingScopeFactory loggingScopeFactory;
+  private final boolean inProcessEvaluators;
 
   @Inject
   ResourceManager(
@@ -82,7 +86,8 @@ public final class ResourceManager {
       final ConfigurationSerializer configurationSerializer,
       final RemoteManager remoteManager,
       final REEFFileNames fileNames,
-      final LoggingScopeFactory loggingScopeFactory) {
+      final LoggingScopeFactory loggingScopeFactory,
+      @Parameter(InProcessEvaluators.class) final boolean inProcessEvaluators) {
 
     this.theContainers = containerManager;
     this.allocationHandler = allocationHandler;
@@ -92,6 +97,7 @@ public final class ResourceManager {
     this.fileNames = fileNames;
     this.jvmHeapFactor = 1.0 - jvmHeapSlack;
     this.loggingScopeFactory = loggingScopeFactory;
+    this.inProcessEvaluators = inProcessEvaluators;
 
     LOG.log(Level.FINE, "Instantiated 'ResourceManager'");
   }
@@ -110,6 +116,27 @@ public final class ResourceManager {
     return files;
   }
 
+  /**
+   * @return true if the launchRequest brings libraries of its own.
+   */
+  private static boolean hasLibraries(final ResourceLaunchEvent launchRequest) {
+    for (final FileResource frp : launchRequest.getFileSet()) {
+      if (frp.getType() == FileType.LIB) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true if the Evaluator of the launchRequest can run in threads of this process: it has to be a JVM
+   * without options of its own, and must not bring files, as it shares the working directory of the Driver.
+   */
+  private static boolean canRunInProcess(final ResourceLaunchEvent launchRequest) {
+    final EvaluatorProcess process = launchRequest.getProcess();
+    return process instanceof JVMProcess && !process.isOptionSet() && launchRequest.getFileSet().isEmpty();
+  }
+
   /**
    * Receives a resource request.
    * <p/>
@@ -161,10 +188,22 @@ public final class ResourceManager {
 
       final Container c = this.theContainers.get(launchRequest.getIdentifier());
 
+      if (this.inProcessEvaluators && canRunInProcess(launchRequest)) {
+        // Nothing to stage: the Evaluator uses the classpath of the Driver.
+        LOG.log(Level.FINEST, "Launching container in process: {0}", c);
+        c.runInProcess(launchRequest.getEvaluatorConf());
+        return;
+      }
+
+      final List<String> command = getLaunchCommand(launchRequest, c.getMemory());
+
       try (final LoggingScope lb = this.loggingScopeFactory
           .getNewLoggingScope("ResourceManager.onResourceLaunchRequest:evaluatorConfigurationFile")) {
-        // Add the global files and libraries.
-        c.addGlobalFiles(this.fileNames.getGlobalFolder());
+        // Add the global files and libraries. Processes started ahead of time have the global files already, but
+        // only see the libraries that were there when they started.
+        if (hasLibraries(launchRequest) || !c.useWarmProcess(command)) {
+          c.addGlobalFiles(this.fileNames.getGlobalFolder());
+        }
         c.addLocalFiles(getLocalFiles(launchRequest));
 
         // Make the configuration file of the evaluator.
@@ -180,7 +219,6 @@ public final class ResourceManager {
       try (final LoggingScope lc = this.loggingScopeFactory
           .getNewLoggingScope("ResourceManager.onResourceLaunchRequest:runCommand")) {
 
-        final List<String> command = getLaunchCommand(launchRequest, c.getMemory());
         LOG.log(Level.FINEST, "Launching container: {0}", c);
         c.run(command);
       }
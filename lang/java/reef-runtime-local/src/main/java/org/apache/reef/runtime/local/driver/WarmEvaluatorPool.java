@@ -0,0 +1,494 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.driver;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.REEFLauncher;
+import org.apache.reef.runtime.common.files.LocalFileCache;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.local.client.parameters.RootFolder;
+import org.apache.reef.runtime.local.client.parameters.WarmEvaluatorPoolSize;
+import org.apache.reef.runtime.local.process.ReefRunnableProcessObserver;
+import org.apache.reef.runtime.local.process.RunnableProcess;
+import org.apache.reef.runtime.local.process.RunnableProcessObserver;
+import org.apache.reef.runtime.local.process.WarmEvaluatorLauncher;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.Optional;
+
+import javax.inject.Inject;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a number of Evaluator processes started ahead of time, so that an allocated Evaluator doesn't have to wait
+ * for a JVM to start and load its classes.
+ * <p/>
+ * The processes run WarmEvaluatorLauncher with the command line Evaluators were launched with, in their own folder
+ * that already holds the global files. They connect back to a local socket once they are warmed up. A
+ * ProcessContainer then takes one of them instead of starting a new process and hands it the name of the
+ * configuration file of the Evaluator.
+ * <p/>
+ * The command line fixes the heap size of the process. Hence, the pool keeps processes for each of the last few
+ * command lines, so that Evaluators of different memory sizes don't release each other's processes.
+ */
+@Private
+@DriverSide
+final class WarmEvaluatorPool implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(WarmEvaluatorPool.class.getName());
+
+  /**
+   * The number of distinct command lines to keep processes for.
+   */
+  private static final int MAX_COMMAND_LINES = 3;
+
+  private final int size;
+  private final File rootFolder;
+  private final REEFFileNames fileNames;
+  private final LocalFileCache fileCache;
+  private final RunnableProcessObserver processObserver;
+  private final IDMaker idMaker = new IDMaker("Warm-");
+
+  /**
+   * Copies the global files and starts the processes, off the threads that allocate and launch Evaluators.
+   */
+  private final ExecutorService starter = Executors.newSingleThreadExecutor();
+
+  /**
+   * The processes that did not connect yet, by their ID.
+   */
+  private final Map<String, WarmProcess> starting = new HashMap<>();
+
+  /**
+   * The processes that connected and wait for an Evaluator, by the Evaluator launch command, up to the configuration
+   * file, they were started with. The command line used last comes last.
+   */
+  private final Map<List<String>, Deque<WarmProcess>> ready = new LinkedHashMap<>();
+
+  private ServerSocket serverSocket = null;
+  private boolean closed = false;
+
+  @Inject
+  WarmEvaluatorPool(@Parameter(WarmEvaluatorPoolSize.class) final int size,
+                    @Parameter(RootFolder.class) final String rootFolderName,
+                    final REEFFileNames fileNames,
+                    final ReefRunnableProcessObserver processObserver) {
+    this(size, rootFolderName, fileNames, (RunnableProcessObserver) processObserver);
+  }
+
+  WarmEvaluatorPool(final int size,
+                    final String rootFolderName,
+                    final REEFFileNames fileNames,
+                    final RunnableProcessObserver processObserver) {
+    this.size = size;
+    this.rootFolder = new File(rootFolderName);
+    this.fileNames = fileNames;
+    // The same folder as the one of the ContainerManager.
+    this.fileCache = new LocalFileCache(
+        new File(this.rootFolder.getAbsoluteFile().getParentFile(), fileNames.getFileCacheFolderName()));
+    this.processObserver = processObserver;
+  }
+
+  /**
+   * Takes a process started with the given Evaluator launch command, and starts another one in its place.
+   * Learns the commands the processes are started with from the calls to this method.
+   *
+   * @param command the command line the Evaluator would be started with.
+   * @return a process waiting for an Evaluator, or empty if there is none.
+   */
+  synchronized Optional<WarmProcess> take(final List<String> command) {
+    final Optional<List<String>> prefix = this.getCommandPrefix(command);
+    if (!prefix.isPresent()) {
+      return Optional.empty();
+    }
+
+    Deque<WarmProcess> processes = this.ready.remove(prefix.get());
+    if (null == processes) {
+      LOG.log(Level.FINE, "Starting warm Evaluator processes with a new command line: {0}", prefix.get());
+      processes = new ArrayDeque<>();
+    }
+    this.ready.put(prefix.get(), processes);
+    this.releaseLeastRecentlyUsed();
+
+    Optional<WarmProcess> taken = Optional.empty();
+    while (!taken.isPresent() && !processes.isEmpty()) {
+      final WarmProcess process = processes.poll();
+      if (process.take()) {
+        taken = Optional.of(process);
+      }
+    }
+    this.fill(prefix.get(), processes);
+    return taken;
+  }
+
+  /**
+   * @param command the command line an Evaluator would be started with.
+   * @return the number of processes that wait for an Evaluator with the given command line.
+   */
+  synchronized int getReadyCount(final List<String> command) {
+    final Optional<List<String>> prefix = this.getCommandPrefix(command);
+    final Deque<WarmProcess> processes = prefix.isPresent() ? this.ready.get(prefix.get()) : null;
+    return null == processes ? 0 : processes.size();
+  }
+
+  /**
+   * @return the part of the command up to the configuration file, or empty if the pool can't start it ahead of time.
+   */
+  private Optional<List<String>> getCommandPrefix(final List<String> command) {
+    if (this.size <= 0 || this.closed) {
+      return Optional.empty();
+    }
+    final int launcherIndex = command.indexOf(REEFLauncher.class.getName());
+    if (launcherIndex < 0 || launcherIndex != command.size() - 2) {
+      return Optional.empty();
+    }
+    return Optional.<List<String>>of(new ArrayList<>(command.subList(0, launcherIndex)));
+  }
+
+  /**
+   * Starts processes with the given command line until there are as many as configured.
+   */
+  private void fill(final List<String> prefix, final Deque<WarmProcess> processes) {
+    try {
+      this.openServerSocket();
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Unable to open the socket for warm Evaluator processes. Not starting any.", e);
+      return;
+    }
+    int count = processes.size();
+    for (final WarmProcess process : this.starting.values()) {
+      if (process.commandPrefix.equals(prefix)) {
+        ++count;
+      }
+    }
+    for (; count < this.size; ++count) {
+      final WarmProcess process = new WarmProcess(this.idMaker.getNextID(), prefix);
+      this.starting.put(process.id, process);
+      this.starter.submit(new Runnable() {
+        @Override
+        public void run() {
+          WarmEvaluatorPool.this.start(process);
+        }
+      });
+    }
+  }
+
+  private void start(final WarmProcess process) {
+    try {
+      final File reefFolder = new File(process.folder, this.fileNames.getREEFFolderName());
+      new File(reefFolder, this.fileNames.getLocalFolderName()).mkdirs();
+      final File globalFolder = new File(reefFolder, this.fileNames.getGlobalFolderName());
+      globalFolder.mkdirs();
+      final File[] globalFiles = this.fileNames.getGlobalFolder().listFiles();
+      if (globalFiles != null) {
+        ProcessContainer.copy(Arrays.asList(globalFiles), globalFolder, this.fileCache);
+      }
+      synchronized (this) {
+        if (this.closed || !this.starting.containsKey(process.id)) {
+          return;
+        }
+        process.start(this.serverSocket.getLocalPort());
+      }
+    } catch (final IOException | RuntimeException e) {
+      LOG.log(Level.WARNING, "Unable to start warm Evaluator process " + process.id, e);
+      synchronized (this) {
+        this.starting.remove(process.id);
+      }
+    }
+  }
+
+  private void openServerSocket() throws IOException {
+    if (this.serverSocket != null) {
+      return;
+    }
+    this.serverSocket = new ServerSocket(0, this.size * MAX_COMMAND_LINES, InetAddress.getLoopbackAddress());
+    final Thread acceptor = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        WarmEvaluatorPool.this.accept();
+      }
+    }, "WarmEvaluatorPool");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Accepts the connections of the processes once they are warmed up.
+   */
+  private void accept() {
+    while (true) {
+      final Socket socket;
+      try {
+        socket = this.serverSocket.accept();
+      } catch (final IOException e) {
+        LOG.log(Level.FINEST, "Stopped accepting warm Evaluator processes.", e);
+        return;
+      }
+      try {
+        final String id =
+            new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+        synchronized (this) {
+          final WarmProcess process = null == id ? null : this.starting.remove(id);
+          final Deque<WarmProcess> processes = null == process ? null : this.ready.get(process.commandPrefix);
+          if (null == processes) {
+            LOG.log(Level.WARNING, "Closing the connection of unknown warm Evaluator process {0}", id);
+            socket.close();
+          } else {
+            LOG.log(Level.FINE, "Warm Evaluator process {0} is ready.", id);
+            process.socket = socket;
+            processes.add(process);
+          }
+        }
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Unable to read the ID of a warm Evaluator process.", e);
+      }
+    }
+  }
+
+  /**
+   * Stops the processes of the command lines that were not used recently.
+   */
+  private void releaseLeastRecentlyUsed() {
+    final Iterator<Map.Entry<List<String>, Deque<WarmProcess>>> entries = this.ready.entrySet().iterator();
+    while (this.ready.size() > MAX_COMMAND_LINES) {
+      final Map.Entry<List<String>, Deque<WarmProcess>> entry = entries.next();
+      LOG.log(Level.FINE, "Stopping the warm Evaluator processes with command line {0}", entry.getKey());
+      for (final WarmProcess process : entry.getValue()) {
+        process.release();
+      }
+      final Iterator<WarmProcess> startingProcesses = this.starting.values().iterator();
+      while (startingProcesses.hasNext()) {
+        final WarmProcess process = startingProcesses.next();
+        if (process.commandPrefix.equals(entry.getKey())) {
+          process.release();
+          startingProcesses.remove();
+        }
+      }
+      entries.remove();
+    }
+  }
+
+  /**
+   * Stops the processes that are waiting for an Evaluator or still starting.
+   */
+  private void releaseAll() {
+    for (final Deque<WarmProcess> processes : this.ready.values()) {
+      for (final WarmProcess process : processes) {
+        process.release();
+      }
+    }
+    this.ready.clear();
+    for (final WarmProcess process : this.starting.values()) {
+      process.release();
+    }
+    this.starting.clear();
+  }
+
+  private synchronized void onExitBeforeTake(final WarmProcess process, final int exitCode) {
+    LOG.log(Level.FINE, "Warm Evaluator process {0} exited with {1} before running an Evaluator.",
+        new Object[]{process.id, exitCode});
+    this.starting.remove(process.id);
+    final Deque<WarmProcess> processes = this.ready.get(process.commandPrefix);
+    if (processes != null) {
+      processes.remove(process);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    this.closed = true;
+    this.releaseAll();
+    this.starter.shutdownNow();
+    if (this.serverSocket != null) {
+      try {
+        this.serverSocket.close();
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Unable to close the socket for warm Evaluator processes.", e);
+      }
+    }
+  }
+
+  /**
+   * An Evaluator process started ahead of time. Informs the process observer of REEF about it only once it was
+   * taken for an Evaluator, under the ID of its Container. That includes an exit between being taken and running
+   * the Evaluator.
+   */
+  final class WarmProcess implements RunnableProcessObserver {
+
+    private final String id;
+    private final List<String> commandPrefix;
+    private final File folder;
+    private final List<String> command;
+    private RunnableProcess process;
+    private Thread thread;
+    private Socket socket;
+    private boolean taken = false;
+    private boolean released = false;
+    private Integer exitValue = null;
+    private String containerId = null;
+
+    private WarmProcess(final String id, final List<String> commandPrefix) {
+      this.id = id;
+      this.commandPrefix = commandPrefix;
+      this.folder = new File(WarmEvaluatorPool.this.rootFolder, id + "-" + System.currentTimeMillis());
+      this.command = new ArrayList<>(commandPrefix);
+      this.command.add(WarmEvaluatorLauncher.class.getName());
+      this.command.add(InetAddress.getLoopbackAddress().getHostAddress());
+    }
+
+    private void start(final int port) {
+      this.command.add(Integer.toString(port));
+      this.command.add(this.id);
+      this.process = new RunnableProcess(this.command, this.id, this.folder, this,
+          WarmEvaluatorPool.this.fileNames.getEvaluatorStdoutFileName(),
+          WarmEvaluatorPool.this.fileNames.getEvaluatorStderrFileName());
+      this.thread = new Thread(this.process);
+      this.thread.start();
+    }
+
+    /**
+     * @return the folder the process runs in. It already holds the global files.
+     */
+    File getFolder() {
+      return this.folder;
+    }
+
+    /**
+     * Marks the process as taken for an Evaluator, unless it exited already. From then on, its exit is reported
+     * to the Container that runs the Evaluator.
+     *
+     * @return true if the process was taken.
+     */
+    private synchronized boolean take() {
+      if (null != this.exitValue || this.released || null == this.thread || !this.thread.isAlive()) {
+        return false;
+      }
+      this.taken = true;
+      return true;
+    }
+
+    /**
+     * Hands the Evaluator to the process and waits for it to exit.
+     * If the process exited since it was taken, reports the exit of the Container right away.
+     *
+     * @param evaluatorContainerId    the ID of the Container the process now belongs to.
+     * @param configurationFileName the name of the configuration file of the Evaluator, relative to the folder.
+     */
+    void launch(final String evaluatorContainerId, final String configurationFileName) {
+      final Integer exitedWith;
+      synchronized (this) {
+        this.containerId = evaluatorContainerId;
+        exitedWith = this.exitValue;
+        WarmEvaluatorPool.this.processObserver.onProcessStarted(evaluatorContainerId);
+      }
+      if (null != exitedWith) {
+        LOG.log(Level.WARNING, "Warm process {0} exited with {1} before running Evaluator {2}",
+            new Object[]{this.id, exitedWith, evaluatorContainerId});
+        WarmEvaluatorPool.this.processObserver.onProcessExit(evaluatorContainerId, exitedWith);
+        return;
+      }
+      try (final Writer writer = new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8)) {
+        writer.write(configurationFileName + "\n");
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Unable to hand Evaluator " + evaluatorContainerId + " to warm process " + this.id, e);
+        this.process.cancel();
+      }
+      try {
+        this.thread.join();
+      } catch (final InterruptedException e) {
+        LOG.log(Level.WARNING, "Interrupted while waiting for warm process " + this.id, e);
+      }
+    }
+
+    /**
+     * Kills the process.
+     */
+    void cancel() {
+      if (null != this.process) {
+        this.process.cancel();
+      }
+    }
+
+    /**
+     * Lets the process exit without running an Evaluator.
+     * Its exit is then not reported to anyone, as the pool forgets about the process right away.
+     */
+    private void release() {
+      synchronized (this) {
+        this.released = true;
+      }
+      if (null == this.socket) {
+        this.cancel();
+      } else {
+        try {
+          this.socket.close();
+        } catch (final IOException e) {
+          LOG.log(Level.FINE, "Unable to close the connection of warm process " + this.id, e);
+          this.cancel();
+        }
+      }
+    }
+
+    @Override
+    public void onProcessStarted(final String processId) {
+      LOG.log(Level.FINEST, "Warm Evaluator process {0} started.", processId);
+    }
+
+    @Override
+    public void onProcessExit(final String processId, final int exitCode) {
+      final String evaluatorContainerId;
+      final boolean inPool;
+      synchronized (this) {
+        this.exitValue = exitCode;
+        evaluatorContainerId = this.containerId;
+        inPool = !this.taken && !this.released;
+      }
+      if (null != evaluatorContainerId) {
+        WarmEvaluatorPool.this.processObserver.onProcessExit(evaluatorContainerId, exitCode);
+      } else if (inPool) {
+        WarmEvaluatorPool.this.onExitBeforeTake(this, exitCode);
+      } else {
+        LOG.log(Level.FINE, "Warm Evaluator process {0} exited with {1} after it was taken or released.",
+            new Object[]{processId, exitCode});
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.process;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.launch.REEFErrorHandler;
+import org.apache.reef.runtime.common.launch.REEFMessageCodec;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.inmemory.InMemoryTransportFactory;
+import org.apache.reef.wake.time.Clock;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A runnable class that runs an Evaluator in threads of this process, instead of in a process of its own.
+ * <p/>
+ * It does what REEFLauncher does in an Evaluator process, except for what would affect the whole process:
+ * it doesn't store a PID file, doesn't install an uncaught exception handler and doesn't exit. The Evaluator
+ * reaches the Driver through an in-memory transport. All threads the Evaluator starts belong to a thread group of
+ * its own; an exception thrown in one of them fails the Evaluator only.
+ */
+@Private
+@DriverSide
+public final class InProcessEvaluator implements Runnable {
+
+  private static final Logger LOG = Logger.getLogger(InProcessEvaluator.class.getName());
+
+  /**
+   * The exit code of a process that was killed, which is what a cancelled Evaluator reports.
+   */
+  private static final int KILLED_EXIT_CODE = 143;
+
+  private static final Configuration LAUNCHER_STATIC_CONFIG = Tang.Factory.getTang().newConfigurationBuilder()
+      .bindNamedParameter(RemoteConfiguration.ErrorHandler.class, REEFErrorHandler.class)
+      .bindNamedParameter(RemoteConfiguration.ManagerName.class, "REEF_LAUNCHER")
+      .bindNamedParameter(RemoteConfiguration.MessageCodec.class, REEFMessageCodec.class)
+      .bindImplementation(TransportFactory.class, InMemoryTransportFactory.class)
+      .bindNamedParameter(InMemoryTransportFactory.UseNetwork.class, "false")
+      .build();
+
+  private final Configuration evaluatorConfiguration;
+  private final String id;
+  private final RunnableProcessObserver processObserver;
+  private final ThreadGroup threadGroup;
+  private volatile Clock clock;
+  private volatile boolean failed = false;
+  private volatile boolean cancelled = false;
+  private volatile boolean ended = false;
+
+  /**
+   * @param evaluatorConfiguration the configuration of the Evaluator, as REEFLauncher would read it from disk.
+   * @param id                     the ID of the Evaluator. It also names its thread group.
+   * @param processObserver        will be informed of the start and the exit of the Evaluator.
+   */
+  public InProcessEvaluator(final Configuration evaluatorConfiguration,
+                            final String id,
+                            final RunnableProcessObserver processObserver) {
+    this.evaluatorConfiguration = Configurations.merge(evaluatorConfiguration, LAUNCHER_STATIC_CONFIG);
+    this.id = id;
+    this.processObserver = processObserver;
+    this.threadGroup = new EvaluatorThreadGroup(id);
+  }
+
+  /**
+   * @return the thread group to run this in. The threads started by the Evaluator end up in it as well.
+   */
+  public ThreadGroup getThreadGroup() {
+    return this.threadGroup;
+  }
+
+  /**
+   * Runs the Evaluator until its clock stops.
+   */
+  @Override
+  public void run() {
+    LOG.log(Level.FINEST, "Running Evaluator {0} in process", this.id);
+    this.processObserver.onProcessStarted(this.id);
+    try (final Clock evaluatorClock =
+             Tang.Factory.getTang().newInjector(this.evaluatorConfiguration).getInstance(Clock.class)) {
+      this.clock = evaluatorClock;
+      if (!this.cancelled) {
+        evaluatorClock.run();
+      }
+    } catch (final Throwable ex) {
+      this.fail("Unable to run the clock of Evaluator " + this.id, ex);
+    } finally {
+      this.ended = true;
+      this.interruptRemainingThreads();
+    }
+
+    final int exitCode = this.cancelled ? KILLED_EXIT_CODE : this.failed ? 1 : 0;
+    LOG.log(Level.FINEST, "Evaluator {0} exited with {1}", new Object[]{this.id, exitCode});
+    this.processObserver.onProcessExit(this.id, exitCode);
+  }
+
+  /**
+   * Stops the Evaluator if it is running.
+   */
+  public void cancel() {
+    this.cancelled = true;
+    final Clock evaluatorClock = this.clock;
+    if (evaluatorClock != null) {
+      evaluatorClock.stop();
+    }
+    this.threadGroup.interrupt();
+  }
+
+  /**
+   * Reports an error upstream the way REEFLauncher does, and stops the Evaluator.
+   */
+  private void fail(final String message, final Throwable throwable) {
+    if (this.ended || this.cancelled) {
+      // A process would be gone by now.
+      LOG.log(Level.FINE, "Evaluator " + this.id + " has ended or is being killed. " + message, throwable);
+      return;
+    }
+    LOG.log(Level.SEVERE, message, throwable);
+    this.failed = true;
+    try (final REEFErrorHandler errorHandler =
+             Tang.Factory.getTang().newInjector(this.evaluatorConfiguration).getInstance(REEFErrorHandler.class)) {
+      errorHandler.onNext(new Exception(message, throwable));
+    } catch (final InjectionException e) {
+      LOG.log(Level.SEVERE, "Unable to instantiate the error handler of Evaluator " + this.id, e);
+    }
+    final Clock evaluatorClock = this.clock;
+    if (evaluatorClock != null) {
+      evaluatorClock.stop();
+    }
+  }
+
+  /**
+   * The threads that outlive the clock would keep a process alive; here they are interrupted instead.
+   */
+  private void interruptRemainingThreads() {
+    final int remaining = this.threadGroup.activeCount() - 1;
+    if (remaining > 0) {
+      LOG.log(Level.FINE, "Interrupting {0} threads still running for Evaluator {1}",
+          new Object[]{remaining, this.id});
+      this.threadGroup.interrupt();
+      // This thread is in the group as well, but it isn't done yet.
+      Thread.interrupted();
+    }
+  }
+
+  /**
+   * The thread group of the Evaluator. It fails the Evaluator on uncaught exceptions, where the
+   * REEFUncaughtExceptionHandler would end the process.
+   */
+  private final class EvaluatorThreadGroup extends ThreadGroup {
+
+    EvaluatorThreadGroup(final String name) {
+      super(name);
+    }
+
+    @Override
+    public void uncaughtException(final Thread thread, final Throwable throwable) {
+      fail("Thread " + thread.getName() + " threw an uncaught exception.", throwable);
+    }
+  }
+}
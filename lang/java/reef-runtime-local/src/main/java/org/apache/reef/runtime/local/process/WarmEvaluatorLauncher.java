@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.process;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.runtime.common.REEFLauncher;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The main class of an Evaluator process started ahead of time by the local runtime.
+ * <p/>
+ * It loads the classes every Evaluator needs, then connects to the Driver and waits for the name of the
+ * configuration file of the Evaluator it becomes. It then runs REEFLauncher with that configuration file, just like
+ * a process started for the Evaluator would. If the Driver closes the connection instead, the process exits.
+ * <p/>
+ * Arguments: the host and port to connect to, and the ID of this process.
+ */
+@Private
+@EvaluatorSide
+public final class WarmEvaluatorLauncher {
+
+  private static final Logger LOG = Logger.getLogger(WarmEvaluatorLauncher.class.getName());
+
+  /**
+   * Classes on the start-up path of every Evaluator.
+   */
+  private static final String[] WARM_UP_CLASSES = {
+      "org.apache.reef.tang.formats.AvroConfigurationSerializer",
+      "org.apache.reef.wake.time.runtime.RuntimeClock",
+      "org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport",
+      "org.apache.reef.runtime.common.evaluator.EvaluatorRuntime",
+      "org.apache.reef.runtime.common.evaluator.HeartBeatManager",
+      "org.apache.reef.runtime.common.evaluator.context.ContextManager",
+  };
+
+  private WarmEvaluatorLauncher() {
+  }
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length != 3) {
+      throw new IllegalArgumentException("Expected the host, port and ID, but got " + args.length + " arguments.");
+    }
+
+    REEFLauncher.loadClassHierarchySnapshot(new REEFFileNames());
+    warmUp();
+
+    final String configurationFileName;
+    try (final Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+         final BufferedReader reader =
+             new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+         final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+      writer.write(args[2] + "\n");
+      writer.flush();
+      LOG.log(Level.FINE, "Process {0} is waiting for an Evaluator.", args[2]);
+      configurationFileName = reader.readLine();
+    }
+
+    if (null == configurationFileName) {
+      LOG.log(Level.INFO, "Process {0} was released without running an Evaluator.", args[2]);
+      return;
+    }
+
+    LOG.log(Level.FINE, "Process {0} runs the Evaluator configured in {1}",
+        new Object[]{args[2], configurationFileName});
+    REEFLauncher.main(new String[]{configurationFileName});
+  }
+
+  private static void warmUp() {
+    final ClassLoader classLoader = WarmEvaluatorLauncher.class.getClassLoader();
+    for (final String className : WARM_UP_CLASSES) {
+      try {
+        Class.forName(className, true, classLoader);
+      } catch (final ClassNotFoundException | LinkageError e) {
+        LOG.log(Level.FINE, "Unable to load " + className, e);
+      }
+    }
+  }
+}
@@ -127,7 +127,7 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager, filenames, loggingScopeFactory);
+        JVM_HEAP_SLACK, configurationSerializer, remoteManager, filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(1).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -144,7 +144,7 @@ public class ResourceManagerTest {
     // not sending notifications, there are no available free slots in the container manager
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -165,7 +165,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).addRackName(availableRacks.get(0)).addRackName(availableRacks.get(1)).build();
     // When
@@ -186,7 +186,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -207,7 +207,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("dc1/*").addRackName("/dc2/*").build();
     // When
@@ -230,7 +230,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addNodeName("Node-8").build();
     // When
@@ -260,7 +260,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, loggingScopeFactory, false);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("/dc3/rack1").addRackName("/*").build();
     // When
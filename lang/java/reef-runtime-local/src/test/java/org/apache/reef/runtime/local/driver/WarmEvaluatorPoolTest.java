@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.local.driver;
+
+import org.apache.reef.runtime.common.REEFLauncher;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.local.process.RunnableProcessObserver;
+import org.apache.reef.util.Optional;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the WarmEvaluatorPool, with processes that run WarmEvaluatorLauncher on the test class path.
+ */
+public final class WarmEvaluatorPoolTest {
+
+  private static final long TIMEOUT = 60000;
+
+  private RunnableProcessObserver observer;
+  private WarmEvaluatorPool pool;
+
+  @Before
+  public void setUp() {
+    this.observer = mock(RunnableProcessObserver.class);
+    this.pool = new WarmEvaluatorPool(1, "target/WARM_EVALUATOR_POOL", new REEFFileNames(), this.observer);
+  }
+
+  @After
+  public void tearDown() {
+    this.pool.close();
+  }
+
+  private static List<String> command(final int megaBytes) {
+    return Arrays.asList(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+        "-Xmx" + megaBytes + "m", "-cp", System.getProperty("java.class.path"),
+        REEFLauncher.class.getName(), "evaluator.conf");
+  }
+
+  private WarmEvaluatorPool.WarmProcess takeWhenReady(final List<String> command) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    Optional<WarmEvaluatorPool.WarmProcess> taken = this.pool.take(command);
+    while (!taken.isPresent() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+      taken = this.pool.take(command);
+    }
+    Assert.assertTrue("No warm process became ready", taken.isPresent());
+    return taken.get();
+  }
+
+  private void awaitReady(final List<String> command) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (this.pool.getReadyCount(command) == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    Assert.assertEquals(1, this.pool.getReadyCount(command));
+  }
+
+  /**
+   * A process that exits after it was taken, but before it runs the Evaluator, is reported as the exit of the
+   * Container that took it.
+   */
+  @Test(timeout = 2 * TIMEOUT)
+  public void testExitBetweenTakeAndLaunchIsReported() throws InterruptedException {
+    final WarmEvaluatorPool.WarmProcess process = this.takeWhenReady(command(64));
+    process.cancel();
+    process.launch("container-1", "evaluator.conf");
+    verify(this.observer).onProcessStarted("container-1");
+    verify(this.observer).onProcessExit(eq("container-1"), anyInt());
+  }
+
+  /**
+   * A process that fails to run the Evaluator is reported as the exit of its Container.
+   */
+  @Test(timeout = 2 * TIMEOUT)
+  public void testExitAfterLaunchIsReported() throws InterruptedException {
+    final WarmEvaluatorPool.WarmProcess process = this.takeWhenReady(command(64));
+    process.launch("container-2", "missing.conf");
+    verify(this.observer).onProcessStarted("container-2");
+    verify(this.observer).onProcessExit(eq("container-2"), not(eq(0)));
+  }
+
+  /**
+   * Taking processes for Evaluators of another memory size keeps the processes of the first one.
+   */
+  @Test(timeout = 3 * TIMEOUT)
+  public void testMemorySizesKeepTheirProcesses() throws InterruptedException {
+    this.pool.take(command(64));
+    this.awaitReady(command(64));
+
+    Assert.assertFalse(this.pool.take(command(128)).isPresent());
+    this.awaitReady(command(128));
+    Assert.assertEquals(1, this.pool.getReadyCount(command(64)));
+
+    Assert.assertTrue(this.pool.take(command(64)).isPresent());
+    Assert.assertTrue(this.pool.take(command(128)).isPresent());
+  }
+}
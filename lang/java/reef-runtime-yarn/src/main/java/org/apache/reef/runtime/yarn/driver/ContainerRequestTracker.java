@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.yarn.api.records.Container;
+import org.apache.hadoop.yarn.api.records.Priority;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.client.api.AMRMClient;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.util.Optional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Keeps track of the container requests of the driver, both before and after they are sent to the YARN RM.
+ * <p>
+ * Requests are grouped by their kind: priority, capability, locality and the nodes and racks they ask for.
+ * Several kinds of requests can be outstanding at the RM at once, as long as they don't conflict. Requests of the
+ * same priority conflict if they differ in capability or in locality relaxation: due to YARN-314, the RM only keeps
+ * one of them. Conflicting kinds are sent one after the other, in the order in which they were requested.
+ * <p>
+ * Allocated containers are matched against the outstanding requests of their priority, preferring requests for
+ * their node, then for their rack, then any request whose locality can be relaxed.
+ * <p>
+ * This class is not thread-safe.
+ */
+@Private
+@DriverSide
+final class ContainerRequestTracker {
+
+  /**
+   * The requests not yet sent to the RM, by kind, in the order in which the kinds were first requested.
+   */
+  private final Map<RequestKind, Queue<AMRMClient.ContainerRequest>> pending = new LinkedHashMap<>();
+
+  /**
+   * The requests sent to the RM and not yet matched with a container, by kind.
+   */
+  private final Map<RequestKind, Queue<AMRMClient.ContainerRequest>> outstanding = new HashMap<>();
+
+  /**
+   * The kinds of the outstanding requests, by priority. As outstanding requests don't conflict, all kinds
+   * of a priority have the same capability.
+   */
+  private final Map<Integer, List<RequestKind>> outstandingByPriority = new HashMap<>();
+
+  /**
+   * Adds the given requests to the ones waiting to be sent to the RM.
+   *
+   * @param containerRequests
+   */
+  void add(final AMRMClient.ContainerRequest... containerRequests) {
+    for (final AMRMClient.ContainerRequest containerRequest : containerRequests) {
+      final RequestKind kind = new RequestKind(containerRequest);
+      Queue<AMRMClient.ContainerRequest> requests = this.pending.get(kind);
+      if (requests == null) {
+        requests = new ArrayDeque<>();
+        this.pending.put(kind, requests);
+      }
+      requests.add(containerRequest);
+    }
+  }
+
+  /**
+   * Removes the requests that can be sent to the RM now and marks them as outstanding.
+   *
+   * @return the requests to send to the RM, possibly empty.
+   */
+  List<AMRMClient.ContainerRequest> takeRequestsToSend() {
+    final List<AMRMClient.ContainerRequest> result = new ArrayList<>();
+    final List<RequestKind> blocked = new ArrayList<>();
+    final Iterator<Map.Entry<RequestKind, Queue<AMRMClient.ContainerRequest>>> iterator =
+        this.pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<RequestKind, Queue<AMRMClient.ContainerRequest>> entry = iterator.next();
+      final RequestKind kind = entry.getKey();
+      // Kinds requested earlier keep their turn: a later kind never overtakes a conflicting earlier one.
+      if (conflictsWithAny(kind, blocked) || conflictsWithAny(kind, this.getOutstandingKinds(kind.priority))) {
+        blocked.add(kind);
+        continue;
+      }
+      iterator.remove();
+      Queue<AMRMClient.ContainerRequest> sent = this.outstanding.get(kind);
+      if (sent == null) {
+        sent = new ArrayDeque<>();
+        this.outstanding.put(kind, sent);
+        this.getOrCreateOutstandingKinds(kind.priority).add(kind);
+      }
+      sent.addAll(entry.getValue());
+      result.addAll(entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Matches the given container with an outstanding request and removes that request.
+   * We take into consideration that RM has some freedom in rounding up the allocation and in placing containers
+   * on other machines.
+   *
+   * @param container the newly allocated container.
+   * @param rackName  the rack of the node of the container, if known.
+   * @return the request matched, if any.
+   */
+  Optional<AMRMClient.ContainerRequest> match(final Container container, final String rackName) {
+    final List<RequestKind> candidates;
+    if (container.getPriority() != null) {
+      candidates = this.getOutstandingKinds(container.getPriority().getPriority());
+    } else {
+      candidates = new ArrayList<>(this.outstanding.keySet());
+    }
+
+    final String host = container.getNodeId().getHost();
+    RequestKind best = null;
+    int bestScore = 0;
+    for (final RequestKind kind : candidates) {
+      final int score = kind.score(container.getResource(), host, rackName);
+      if (score > bestScore) {
+        best = kind;
+        bestScore = score;
+      }
+    }
+    if (best == null) {
+      return Optional.empty();
+    }
+
+    final Queue<AMRMClient.ContainerRequest> requests = this.outstanding.get(best);
+    final AMRMClient.ContainerRequest result = requests.remove();
+    if (requests.isEmpty()) {
+      this.outstanding.remove(best);
+      final List<RequestKind> kinds = this.outstandingByPriority.get(best.priority);
+      kinds.remove(best);
+      if (kinds.isEmpty()) {
+        this.outstandingByPriority.remove(best.priority);
+      }
+    }
+    return Optional.of(result);
+  }
+
+  /**
+   * @param priority
+   * @return true, if requests of the given priority are outstanding at the RM.
+   */
+  boolean hasOutstandingRequests(final Priority priority) {
+    return this.outstandingByPriority.containsKey(priority.getPriority());
+  }
+
+  private List<RequestKind> getOutstandingKinds(final int priority) {
+    final List<RequestKind> result = this.outstandingByPriority.get(priority);
+    return result == null ? Collections.<RequestKind>emptyList() : result;
+  }
+
+  private List<RequestKind> getOrCreateOutstandingKinds(final int priority) {
+    List<RequestKind> result = this.outstandingByPriority.get(priority);
+    if (result == null) {
+      result = new ArrayList<>();
+      this.outstandingByPriority.put(priority, result);
+    }
+    return result;
+  }
+
+  private static boolean conflictsWithAny(final RequestKind kind, final List<RequestKind> others) {
+    for (final RequestKind other : others) {
+      if (kind.conflictsWith(other)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The properties of a container request that matter to the RM.
+   */
+  private static final class RequestKind {
+
+    private static final int ANY_MATCH = 1;
+    private static final int RACK_MATCH = 2;
+    private static final int NODE_MATCH = 3;
+
+    private final int priority;
+    private final int memory;
+    private final int virtualCores;
+    private final boolean relaxLocality;
+    private final Set<String> nodes;
+    private final Set<String> racks;
+
+    private RequestKind(final AMRMClient.ContainerRequest request) {
+      this.priority = request.getPriority().getPriority();
+      this.memory = request.getCapability().getMemory();
+      this.virtualCores = request.getCapability().getVirtualCores();
+      this.relaxLocality = request.getRelaxLocality();
+      this.nodes = request.getNodes() == null ? null : new HashSet<>(request.getNodes());
+      this.racks = request.getRacks() == null ? null : new HashSet<>(request.getRacks());
+    }
+
+    private boolean conflictsWith(final RequestKind other) {
+      return this.priority == other.priority
+          && (this.memory != other.memory
+              || this.virtualCores != other.virtualCores
+              || this.relaxLocality != other.relaxLocality);
+    }
+
+    /**
+     * @return how well a container of the given size and place satisfies requests of this kind, 0 if not at all.
+     */
+    private int score(final Resource resource, final String host, final String rackName) {
+      // TODO: check vcores once YARN-2380 is resolved
+      if (resource.getMemory() < this.memory) {
+        return 0;
+      }
+      final boolean nodeCondition = this.nodes == null || this.nodes.contains(host);
+      final boolean rackCondition = this.racks == null || this.racks.contains(rackName);
+      if (!this.relaxLocality && !(nodeCondition && rackCondition)) {
+        return 0;
+      } else if (this.nodes != null && this.nodes.contains(host)) {
+        return NODE_MATCH;
+      } else if (this.racks != null && this.racks.contains(rackName)) {
+        return RACK_MATCH;
+      } else {
+        return ANY_MATCH;
+      }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final RequestKind that = (RequestKind) o;
+      return this.priority == that.priority
+          && this.memory == that.memory
+          && this.virtualCores == that.virtualCores
+          && this.relaxLocality == that.relaxLocality
+          && (this.nodes == null ? that.nodes == null : this.nodes.equals(that.nodes))
+          && (this.racks == null ? that.racks == null : this.racks.equals(that.racks));
+    }
+
+    @Override
+    public int hashCode() {
+      int result = this.priority;
+      result = 31 * result + this.memory;
+      result = 31 * result + this.virtualCores;
+      result = 31 * result + (this.relaxLocality ? 1 : 0);
+      result = 31 * result + (this.nodes != null ? this.nodes.hashCode() : 0);
+      result = 31 * result + (this.racks != null ? this.racks.hashCode() : 0);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.yarn.api.records.LocalResource;
+import org.apache.hadoop.yarn.api.records.LocalResourceType;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.io.TempFileCreator;
+import org.apache.reef.runtime.common.files.FileResource;
+import org.apache.reef.runtime.common.files.JobJarMaker;
+import org.apache.reef.runtime.common.files.LocalFileCache;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.common.parameters.DeleteTempFiles;
+import org.apache.reef.runtime.yarn.driver.parameters.SharedEvaluatorJarFolder;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.util.JARFileMaker;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes and uploads the JARs with the local files of Evaluators.
+ * <p>
+ * The JARs are named by a hash of the files they contain, so that Evaluators with the same local files share one JAR
+ * and the driver zips and uploads it only once.
+ */
+@DriverSide
+final class EvaluatorJarCache {
+
+  private static final Logger LOG = Logger.getLogger(EvaluatorJarCache.class.getName());
+
+  private final REEFFileNames fileNames;
+  private final TempFileCreator tempFileCreator;
+  private final UploaderToJobFolder uploader;
+  private final String sharedFolder;
+  private final boolean deleteTempFiles;
+
+  /**
+   * The LocalResources for the JARs uploaded so far, by the hash of their content.
+   */
+  private final Map<String, LocalResource> resources = new HashMap<>();
+
+  /**
+   * The hashes of the files seen so far, by their path. A file is hashed again only if its length or its
+   * modification time changed.
+   */
+  private final Map<String, FileHash> fileHashes = new HashMap<>();
+
+  @Inject
+  EvaluatorJarCache(final REEFFileNames fileNames,
+                    final TempFileCreator tempFileCreator,
+                    final UploaderToJobFolder uploader,
+                    @Parameter(SharedEvaluatorJarFolder.class) final String sharedFolder,
+                    @Parameter(DeleteTempFiles.class) final boolean deleteTempFiles) {
+    this.fileNames = fileNames;
+    this.tempFileCreator = tempFileCreator;
+    this.uploader = uploader;
+    this.sharedFolder = sharedFolder;
+    this.deleteTempFiles = deleteTempFiles;
+  }
+
+  /**
+   * @param fileSet the local files of an Evaluator.
+   * @return the LocalResource for a JAR with the given files, uploading it first if needed.
+   * @throws IOException if the creation of the JAR or the upload fails
+   */
+  synchronized LocalResource getResource(final Set<FileResource> fileSet) throws IOException {
+    final String hash = this.hashOf(fileSet);
+    final LocalResource cached = this.resources.get(hash);
+    if (cached != null) {
+      LOG.log(Level.FINEST, "Reusing the local files JAR {0}", hash);
+      return cached;
+    }
+
+    final File localStagingFolder = this.tempFileCreator.createTempDirectory(this.fileNames.getEvaluatorFolderPrefix());
+    JobJarMaker.copy(fileSet, localStagingFolder);
+    final File localFile = this.tempFileCreator.createTempFile(
+        this.fileNames.getEvaluatorFolderPrefix(), this.fileNames.getJarFileSuffix());
+    new JARFileMaker(localFile).addChildren(localStagingFolder).close();
+
+    final String name = hash + this.fileNames.getJarFileSuffix();
+    final LocalResource resource;
+    if (SharedEvaluatorJarFolder.NONE.equals(this.sharedFolder)) {
+      final Path path = this.uploader.uploadToJobFolder(localFile, name);
+      resource = this.uploader.makeLocalResourceForJarFile(path);
+    } else {
+      final Path path = this.uploader.uploadToSharedFolder(localFile, this.sharedFolder, name);
+      resource = this.uploader.makeLocalResource(path, LocalResourceType.ARCHIVE,
+          this.uploader.getSharedVisibility(path));
+    }
+    this.resources.put(hash, resource);
+
+    if (this.deleteTempFiles) {
+      LOG.log(Level.FINE, "Marking [{0}] for deletion at the exit of this JVM and deleting [{1}]",
+          new Object[]{localFile.getAbsolutePath(), localStagingFolder.getAbsolutePath()});
+      localFile.deleteOnExit();
+      localStagingFolder.delete();
+    } else {
+      LOG.log(Level.FINE, "The evaluator staging folder will be kept at [{0}], the JAR at [{1}]",
+          new Object[]{localStagingFolder.getAbsolutePath(), localFile.getAbsolutePath()});
+    }
+    return resource;
+  }
+
+  /**
+   * @return a hash of the names and contents of the given files.
+   */
+  private String hashOf(final Set<FileResource> fileSet) throws IOException {
+    final Map<String, String> sorted = new TreeMap<>();
+    for (final FileResource fileResource : fileSet) {
+      sorted.put(fileResource.getName(), this.hashOf(new File(fileResource.getPath())));
+    }
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IOException("SHA-256 is not supported", e);
+    }
+    for (final Map.Entry<String, String> entry : sorted.entrySet()) {
+      digest.update((entry.getKey() + '\0' + entry.getValue() + '\n').getBytes(StandardCharsets.UTF_8));
+    }
+
+    final StringBuilder result = new StringBuilder();
+    for (final byte b : digest.digest()) {
+      result.append(String.format("%02x", b));
+    }
+    return result.toString();
+  }
+
+  private String hashOf(final File file) throws IOException {
+    final File absoluteFile = file.getAbsoluteFile();
+    final long length = absoluteFile.length();
+    final long lastModified = absoluteFile.lastModified();
+    final FileHash known = this.fileHashes.get(absoluteFile.getPath());
+    if (known != null && known.length == length && known.lastModified == lastModified) {
+      return known.hash;
+    }
+    final String hash = LocalFileCache.hashOf(absoluteFile);
+    this.fileHashes.put(absoluteFile.getPath(), new FileHash(length, lastModified, hash));
+    return hash;
+  }
+
+  /**
+   * The hash of a file, and the length and modification time the file had before it was hashed.
+   */
+  private static final class FileHash {
+    private final long length;
+    private final long lastModified;
+    private final String hash;
+
+    FileHash(final long length, final long lastModified, final String hash) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.hash = hash;
+    }
+  }
+}
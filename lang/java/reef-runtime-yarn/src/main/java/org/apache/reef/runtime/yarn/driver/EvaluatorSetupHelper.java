@@ -20,18 +20,18 @@ package org.apache.reef.runtime.yarn.driver;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.api.records.LocalResource;
+import org.apache.hadoop.yarn.api.records.LocalResourceType;
+import org.apache.hadoop.yarn.api.records.LocalResourceVisibility;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.io.TempFileCreator;
 import org.apache.reef.io.WorkingDirectoryTempFileCreator;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
-import org.apache.reef.runtime.common.files.JobJarMaker;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.DeleteTempFiles;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
-import org.apache.reef.util.JARFileMaker;
 
 import javax.inject.Inject;
 import java.io.File;
@@ -54,6 +54,7 @@ final class EvaluatorSetupHelper {
   private final TempFileCreator tempFileCreator;
   private final UploaderToJobFolder uploader;
   private final GlobalJarUploader globalJarUploader;
+  private final EvaluatorJarCache evaluatorJarCache;
   private final boolean deleteTempFiles;
 
   @Inject
@@ -63,10 +64,12 @@ final class EvaluatorSetupHelper {
       final TempFileCreator tempFileCreator,
       @Parameter(DeleteTempFiles.class) final boolean deleteTempFiles,
       final UploaderToJobFolder uploader,
-      final GlobalJarUploader globalJarUploader) throws IOException {
+      final GlobalJarUploader globalJarUploader,
+      final EvaluatorJarCache evaluatorJarCache) throws IOException {
     this.tempFileCreator = tempFileCreator;
     this.deleteTempFiles = deleteTempFiles;
     this.globalJarUploader = globalJarUploader;
+    this.evaluatorJarCache = evaluatorJarCache;
 
     this.fileNames = fileNames;
     this.configurationSerializer = configurationSerializer;
@@ -85,6 +88,16 @@ final class EvaluatorSetupHelper {
   }
 
 
+  /**
+   * The Evaluator configuration is not part of the JAR with the local files, so that the JAR can be shared by all
+   * Evaluators with the same local files. It is placed in the REEF folder instead.
+   *
+   * @return the path to the configuration file in the working directory of the Evaluator.
+   */
+  String getEvaluatorConfigurationPath() {
+    return this.fileNames.getREEFFolderName() + '/' + this.fileNames.getEvaluatorConfigurationName();
+  }
+
   /**
    * Sets up the LocalResources for a new Evaluator.
    *
@@ -99,32 +112,23 @@ final class EvaluatorSetupHelper {
     final Map<String, LocalResource> result = new HashMap<>();
     result.putAll(getGlobalResources());
 
-    final File localStagingFolder = this.tempFileCreator.createTempDirectory(this.fileNames.getEvaluatorFolderPrefix());
+    // The local files, zipped and uploaded once per distinct set of files
+    result.put(this.fileNames.getLocalFolderPath(),
+        this.evaluatorJarCache.getResource(resourceLaunchEvent.getFileSet()));
 
-    // Write the configuration
-    final File configurationFile = new File(localStagingFolder, this.fileNames.getEvaluatorConfigurationName());
+    // Write and upload the configuration
+    final File configurationFile = this.tempFileCreator.createTempFile(
+        this.fileNames.getEvaluatorFolderPrefix(), this.fileNames.getEvaluatorConfigurationName());
     this.configurationSerializer.toFile(makeEvaluatorConfiguration(resourceLaunchEvent), configurationFile);
-
-    // Copy files to the staging folder
-    JobJarMaker.copy(resourceLaunchEvent.getFileSet(), localStagingFolder);
-
-    // Make a JAR file out of it
-    final File localFile = tempFileCreator.createTempFile(
-        this.fileNames.getEvaluatorFolderPrefix(), this.fileNames.getJarFileSuffix());
-    new JARFileMaker(localFile).addChildren(localStagingFolder).close();
-
-    // Upload the JAR to the job folder
-    final Path pathToEvaluatorJar = this.uploader.uploadToJobFolder(localFile);
-    result.put(this.fileNames.getLocalFolderPath(), this.uploader.makeLocalResourceForJarFile(pathToEvaluatorJar));
+    final Path pathToConfiguration = this.uploader.uploadToJobFolder(configurationFile);
+    result.put(this.getEvaluatorConfigurationPath(), this.uploader.makeLocalResource(
+        pathToConfiguration, LocalResourceType.FILE, LocalResourceVisibility.APPLICATION));
 
     if (this.deleteTempFiles) {
-      LOG.log(Level.FINE, "Marking [{0}] for deletion at the exit of this JVM and deleting [{1}]",
-          new Object[]{localFile.getAbsolutePath(), localStagingFolder.getAbsolutePath()});
-      localFile.deleteOnExit();
-      localStagingFolder.delete();
+      LOG.log(Level.FINE, "Deleting [{0}]", configurationFile.getAbsolutePath());
+      configurationFile.delete();
     } else {
-      LOG.log(Level.FINE, "The evaluator staging folder will be kept at [{0}], the JAR at [{1}]",
-          new Object[]{localFile.getAbsolutePath(), localStagingFolder.getAbsolutePath()});
+      LOG.log(Level.FINE, "The evaluator configuration will be kept at [{0}]", configurationFile.getAbsolutePath());
     }
     return result;
   }
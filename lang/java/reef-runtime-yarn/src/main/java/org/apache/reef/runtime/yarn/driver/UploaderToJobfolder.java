@@ -22,6 +22,8 @@ import org.apache.hadoop.fs.FileContext;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsAction;
+import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.yarn.api.records.LocalResource;
 import org.apache.hadoop.yarn.api.records.LocalResourceType;
 import org.apache.hadoop.yarn.api.records.LocalResourceVisibility;
@@ -34,6 +36,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,6 +46,16 @@ import java.util.logging.Logger;
 final class UploaderToJobFolder {
   private static final Logger LOG = Logger.getLogger(UploaderToJobFolder.class.getName());
 
+  /**
+   * Files in shared folders can be read by everyone, as required for PUBLIC resources.
+   */
+  private static final FsPermission PUBLIC_FILE_PERMISSION = new FsPermission((short) 0644);
+
+  /**
+   * Shared folders created by the uploader can be traversed by everyone, as required for PUBLIC resources.
+   */
+  private static final FsPermission PUBLIC_FOLDER_PERMISSION = new FsPermission((short) 0755);
+
   /**
    * The path on (H)DFS which is used as the job's folder.
    */
@@ -67,13 +80,86 @@ final class UploaderToJobFolder {
    * @throws java.io.IOException
    */
   Path uploadToJobFolder(final File file) throws IOException {
+    return this.uploadToJobFolder(file, file.getName());
+  }
+
+  /**
+   * Uploads the given file to the job folder on (H)DFS, under the given name.
+   *
+   * @param file
+   * @param name
+   * @return the path of the uploaded file.
+   * @throws java.io.IOException
+   */
+  Path uploadToJobFolder(final File file, final String name) throws IOException {
     final Path source = new Path(file.getAbsolutePath());
-    final Path destination = new Path(this.jobSubmissionDirectory + "/" + file.getName());
+    final Path destination = new Path(this.jobSubmissionDirectory + "/" + name);
     LOG.log(Level.FINE, "Uploading {0} to {1}", new Object[]{source, destination});
     this.fileSystem.copyFromLocalFile(false, true, source, destination);
     return destination;
   }
 
+  /**
+   * Uploads the given file to a folder shared with other jobs, unless a file of that name is already there.
+   * The file is uploaded under a temporary name and then renamed, so other jobs never see a partial upload.
+   *
+   * @param file
+   * @param folder the shared folder on (H)DFS.
+   * @param name   the name of the file in the shared folder. Files of the same name are assumed to be equal.
+   * @return the path of the file in the shared folder.
+   * @throws java.io.IOException
+   */
+  Path uploadToSharedFolder(final File file, final String folder, final String name) throws IOException {
+    final Path destination = new Path(folder + "/" + name);
+    if (this.fileSystem.exists(destination)) {
+      LOG.log(Level.FINE, "Found {0} in the shared folder", destination);
+      return destination;
+    }
+
+    final Path folderPath = new Path(folder);
+    if (!this.fileSystem.exists(folderPath)) {
+      // mkdirs() applies the umask
+      this.fileSystem.mkdirs(folderPath, PUBLIC_FOLDER_PERMISSION);
+      this.fileSystem.setPermission(folderPath, PUBLIC_FOLDER_PERMISSION);
+    }
+
+    final Path temporary = new Path(folder + "/." + name + "." + UUID.randomUUID() + ".tmp");
+    LOG.log(Level.FINE, "Uploading {0} to {1}", new Object[]{file, destination});
+    this.fileSystem.copyFromLocalFile(false, true, new Path(file.getAbsolutePath()), temporary);
+    this.fileSystem.setPermission(temporary, PUBLIC_FILE_PERMISSION);
+    if (!this.fileSystem.rename(temporary, destination)) {
+      // Another job uploaded the same file in the meantime.
+      this.fileSystem.delete(temporary, false);
+      if (!this.fileSystem.exists(destination)) {
+        throw new IOException("Unable to move " + temporary + " to " + destination);
+      }
+    }
+    return destination;
+  }
+
+  /**
+   * The NodeManagers only localize a PUBLIC resource if everyone may read it and traverse the folders above it.
+   *
+   * @param path the file in a shared folder.
+   * @return PUBLIC if the file and the folders above it allow that, APPLICATION otherwise.
+   * @throws IOException
+   */
+  LocalResourceVisibility getSharedVisibility(final Path path) throws IOException {
+    Path current = this.fileSystem.makeQualified(path);
+    if (!this.fileSystem.getFileStatus(current).getPermission().getOtherAction().implies(FsAction.READ)) {
+      LOG.log(Level.WARNING, "{0} can't be read by everyone and is not shared with other jobs", current);
+      return LocalResourceVisibility.APPLICATION;
+    }
+    for (current = current.getParent(); current != null; current = current.getParent()) {
+      if (!this.fileSystem.getFileStatus(current).getPermission().getOtherAction().implies(FsAction.EXECUTE)) {
+        LOG.log(Level.WARNING, "{0} can't be traversed by everyone, {1} is not shared with other jobs",
+            new Object[]{current, path});
+        return LocalResourceVisibility.APPLICATION;
+      }
+    }
+    return LocalResourceVisibility.PUBLIC;
+  }
+
   /**
    * Creates a LocalResource instance for the JAR file referenced by the given Path.
    *
@@ -82,10 +168,25 @@ final class UploaderToJobFolder {
    * @throws IOException
    */
   LocalResource makeLocalResourceForJarFile(final Path path) throws IOException {
+    return this.makeLocalResource(path, LocalResourceType.ARCHIVE, LocalResourceVisibility.APPLICATION);
+  }
+
+  /**
+   * Creates a LocalResource instance of the given type and visibility for the file referenced by the given Path.
+   *
+   * @param path
+   * @param type
+   * @param visibility
+   * @return
+   * @throws IOException
+   */
+  LocalResource makeLocalResource(final Path path,
+                                  final LocalResourceType type,
+                                  final LocalResourceVisibility visibility) throws IOException {
     final LocalResource localResource = Records.newRecord(LocalResource.class);
     final FileStatus status = FileContext.getFileContext(this.fileSystem.getUri()).getFileStatus(path);
-    localResource.setType(LocalResourceType.ARCHIVE);
-    localResource.setVisibility(LocalResourceVisibility.APPLICATION);
+    localResource.setType(type);
+    localResource.setVisibility(visibility);
     localResource.setResource(ConverterUtils.getYarnUrlFromPath(status.getPath()));
     localResource.setTimestamp(status.getModificationTime());
     localResource.setSize(status.getLen());
@@ -104,7 +104,7 @@ public final class YARNResourceLaunchHandler implements ResourceLaunchHandler {
   private List<String> getLaunchCommand(final ResourceLaunchEvent resourceLaunchEvent,
                                         final int containerMemory) {
     final EvaluatorProcess process = resourceLaunchEvent.getProcess()
-        .setConfigurationFileName(this.filenames.getEvaluatorConfigurationPath())
+        .setConfigurationFileName(this.evaluatorSetupHelper.getEvaluatorConfigurationPath())
         .setStandardErr(ApplicationConstants.LOG_DIR_EXPANSION_VAR + "/" +
             this.filenames.getEvaluatorStderrFileName())
         .setStandardOut(ApplicationConstants.LOG_DIR_EXPANSION_VAR + "/" +
@@ -19,7 +19,6 @@
 package org.apache.reef.runtime.yarn.driver;
 
 import com.google.protobuf.ByteString;
-import org.apache.commons.collections.ListUtils;
 import org.apache.hadoop.fs.*;
 import org.apache.hadoop.service.Service;
 import org.apache.hadoop.yarn.api.records.*;
@@ -51,7 +50,6 @@ import java.io.*;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,9 +62,10 @@ final class YarnContainerManager
 
   private final YarnClient yarnClient = YarnClient.createYarnClient();
 
-  private final Queue<AMRMClient.ContainerRequest> requestsBeforeSentToRM = new ConcurrentLinkedQueue<>();
-
-  private final Queue<AMRMClient.ContainerRequest> requestsAfterSentToRM = new ConcurrentLinkedQueue<>();
+  /**
+   * The container requests before and after they are sent to the RM. Guarded by this.
+   */
+  private final ContainerRequestTracker requestTracker = new ContainerRequestTracker();
 
   private final Map<String, String> nodeIdToRackName = new ConcurrentHashMap<>();
 
@@ -380,8 +379,8 @@ final class YarnContainerManager
 
     synchronized (this) {
       this.containerRequestCounter.incrementBy(containerRequests.length);
-      this.requestsBeforeSentToRM.addAll(Arrays.asList(containerRequests));
-      doHomogeneousRequests();
+      this.requestTracker.add(containerRequests);
+      sendRequests();
     }
 
     this.updateRuntimeStatus();
@@ -395,90 +394,59 @@ final class YarnContainerManager
   private void handleNewContainer(final Container container) {
 
     LOG.log(Level.FINE, "allocated container: id[ {0} ]", container.getId());
+    final Optional<AMRMClient.ContainerRequest> matchedRequest;
     synchronized (this) {
-      if (matchContainerWithPendingRequest(container)) {
-        final AMRMClient.ContainerRequest matchedRequest = this.requestsAfterSentToRM.peek();
+      matchedRequest = this.requestTracker.match(
+          container, this.nodeIdToRackName.get(container.getNodeId().toString()));
+      if (matchedRequest.isPresent()) {
         this.containerRequestCounter.decrement();
         this.containers.add(container);
 
-        LOG.log(Level.FINEST, "{0} matched with {1}", new Object[]{container.toString(), matchedRequest.toString()});
-
         // Due to the bug YARN-314 and the workings of AMRMCClientAsync, when x-priority m-capacity zero-container
         // request and x-priority n-capacity nonzero-container request are sent together, where m > n, RM ignores
         // the latter.
         // Therefore it is necessary avoid sending zero-container request, even it means getting extra containers.
-        // It is okay to send nonzero m-capacity and n-capacity request together since bigger containers
-        // can be matched.
+        // The tracker never has requests of the same priority and different capacity outstanding, so the request
+        // can be removed as long as others of its priority are still outstanding.
         // TODO: revisit this when implementing locality-strictness (i.e. a specific rack request can be ignored)
-        if (this.requestsAfterSentToRM.size() > 1) {
+        if (this.requestTracker.hasOutstandingRequests(matchedRequest.get().getPriority())) {
           try {
-            this.resourceManager.removeContainerRequest(matchedRequest);
+            this.resourceManager.removeContainerRequest(matchedRequest.get());
           } catch (final Exception e) {
             LOG.log(Level.WARNING, "Nothing to remove from Async AMRM client's queue, " +
                 "removal attempt failed with exception", e);
           }
         }
 
-        this.requestsAfterSentToRM.remove();
-        doHomogeneousRequests();
-
-        LOG.log(Level.FINEST, "Allocated Container: memory = {0}, core number = {1}",
-            new Object[]{container.getResource().getMemory(), container.getResource().getVirtualCores()});
-        this.reefEventHandlers.onResourceAllocation(ResourceEventImpl.newAllocationBuilder()
-            .setIdentifier(container.getId().toString())
-            .setNodeId(container.getNodeId().toString())
-            .setResourceMemory(container.getResource().getMemory())
-            .setVirtualCores(container.getResource().getVirtualCores())
-            .setRackName(rackNameFormatter.getRackName(container))
-            .build());
-        this.updateRuntimeStatus();
-      } else {
-        LOG.log(Level.WARNING, "Got an extra container {0} that doesn't match, releasing...", container.getId());
-        this.resourceManager.releaseAssignedContainer(container.getId());
+        sendRequests();
       }
     }
-  }
-
-  private synchronized void doHomogeneousRequests() {
-    if (this.requestsAfterSentToRM.isEmpty()) {
-      final AMRMClient.ContainerRequest firstRequest = this.requestsBeforeSentToRM.peek();
 
-      while (!this.requestsBeforeSentToRM.isEmpty() &&
-             isSameKindOfRequest(firstRequest, this.requestsBeforeSentToRM.peek())) {
-        final AMRMClient.ContainerRequest homogeneousRequest = this.requestsBeforeSentToRM.remove();
-        this.resourceManager.addContainerRequest(homogeneousRequest);
-        this.requestsAfterSentToRM.add(homogeneousRequest);
-      }
+    if (matchedRequest.isPresent()) {
+      LOG.log(Level.FINEST, "{0} matched with {1}", new Object[]{container, matchedRequest.get()});
+      LOG.log(Level.FINEST, "Allocated Container: memory = {0}, core number = {1}",
+          new Object[]{container.getResource().getMemory(), container.getResource().getVirtualCores()});
+      this.reefEventHandlers.onResourceAllocation(ResourceEventImpl.newAllocationBuilder()
+          .setIdentifier(container.getId().toString())
+          .setNodeId(container.getNodeId().toString())
+          .setResourceMemory(container.getResource().getMemory())
+          .setVirtualCores(container.getResource().getVirtualCores())
+          .setRackName(rackNameFormatter.getRackName(container))
+          .build());
+      this.updateRuntimeStatus();
+    } else {
+      LOG.log(Level.WARNING, "Got an extra container {0} that doesn't match, releasing...", container.getId());
+      this.resourceManager.releaseAssignedContainer(container.getId());
     }
   }
 
-  private boolean isSameKindOfRequest(final AMRMClient.ContainerRequest r1, final AMRMClient.ContainerRequest r2) {
-    return r1.getPriority().compareTo(r2.getPriority()) == 0
-        && r1.getCapability().compareTo(r2.getCapability()) == 0
-        && r1.getRelaxLocality() == r2.getRelaxLocality()
-        && ListUtils.isEqualList(r1.getNodes(), r2.getNodes())
-        && ListUtils.isEqualList(r1.getRacks(), r2.getRacks());
-  }
-
   /**
-   * Match to see whether the container satisfies the request.
-   * We take into consideration that RM has some freedom in rounding
-   * up the allocation and in placing containers on other machines.
+   * Sends the requests that don't conflict with the ones outstanding at the RM.
    */
-  private boolean matchContainerWithPendingRequest(final Container container) {
-    if (this.requestsAfterSentToRM.isEmpty()) {
-      return false;
+  private synchronized void sendRequests() {
+    for (final AMRMClient.ContainerRequest containerRequest : this.requestTracker.takeRequestsToSend()) {
+      this.resourceManager.addContainerRequest(containerRequest);
     }
-
-    final AMRMClient.ContainerRequest request = this.requestsAfterSentToRM.peek();
-    final boolean resourceCondition = container.getResource().getMemory() >= request.getCapability().getMemory();
-    // TODO: check vcores once YARN-2380 is resolved
-    final boolean nodeCondition = request.getNodes() == null
-        || request.getNodes().contains(container.getNodeId().getHost());
-    final boolean rackCondition = request.getRacks() == null
-        || request.getRacks().contains(this.nodeIdToRackName.get(container.getNodeId().toString()));
-
-    return resourceCondition && (request.getRelaxLocality() || (rackCondition && nodeCondition));
   }
 
   /**
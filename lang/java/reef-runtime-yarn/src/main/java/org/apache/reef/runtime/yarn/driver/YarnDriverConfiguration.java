@@ -31,6 +31,7 @@ import org.apache.reef.runtime.common.launch.parameters.LaunchID;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
 import org.apache.reef.runtime.yarn.YarnClasspathProvider;
 import org.apache.reef.driver.parameters.JobSubmissionDirectory;
+import org.apache.reef.runtime.yarn.driver.parameters.SharedEvaluatorJarFolder;
 import org.apache.reef.runtime.yarn.driver.parameters.YarnHeartbeatPeriod;
 import org.apache.reef.runtime.yarn.util.YarnConfigurationConstructor;
 import org.apache.reef.tang.formats.*;
@@ -73,6 +74,11 @@ public class YarnDriverConfiguration extends ConfigurationModuleBuilder {
    */
   public static final OptionalParameter<Double> JVM_HEAP_SLACK = new OptionalParameter<>();
 
+  /**
+   * @see org.apache.reef.runtime.yarn.driver.parameters.SharedEvaluatorJarFolder
+   */
+  public static final OptionalParameter<String> SHARED_EVALUATOR_JAR_FOLDER = new OptionalParameter<>();
+
 
   public static final ConfigurationModule CONF = new YarnDriverConfiguration()
       // Bind the YARN runtime for the resource manager.
@@ -87,6 +93,7 @@ public class YarnDriverConfiguration extends ConfigurationModuleBuilder {
           // Bind the YARN Configuration parameters
       .bindNamedParameter(JobSubmissionDirectory.class, JOB_SUBMISSION_DIRECTORY)
       .bindNamedParameter(YarnHeartbeatPeriod.class, YARN_HEARTBEAT_INTERVAL)
+      .bindNamedParameter(SharedEvaluatorJarFolder.class, SHARED_EVALUATOR_JAR_FOLDER)
 
           // Bind the fields bound in AbstractDriverRuntimeConfiguration
       .bindNamedParameter(JobIdentifier.class, JOB_IDENTIFIER)
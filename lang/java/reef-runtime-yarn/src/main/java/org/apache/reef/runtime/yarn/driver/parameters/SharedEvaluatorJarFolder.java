@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * A folder on the (H)DFS, shared by all jobs, in which the JARs with the local files of Evaluators are kept.
+ * The JARs are registered as PUBLIC resources, so the folder and its parents must be readable by all users.
+ * By default, the JARs are kept in the job folder and only shared within the job.
+ */
+@NamedParameter(doc = "The shared folder for the JARs with the local files of Evaluators.",
+    default_value = SharedEvaluatorJarFolder.NONE)
+public final class SharedEvaluatorJarFolder implements Name<String> {
+  /**
+   * Indicates that the JARs are kept in the job folder.
+   */
+  public static final String NONE = "NONE";
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private SharedEvaluatorJarFolder() {
+  }
+}
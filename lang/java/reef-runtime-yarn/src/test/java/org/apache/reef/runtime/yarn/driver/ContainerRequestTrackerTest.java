@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.yarn.api.records.Container;
+import org.apache.hadoop.yarn.api.records.NodeId;
+import org.apache.hadoop.yarn.api.records.Priority;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.client.api.AMRMClient;
+import org.apache.reef.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ContainerRequestTracker.
+ */
+public final class ContainerRequestTrackerTest {
+
+  @Test
+  public void testRequestsOfDifferentPrioritiesAreSentTogether() {
+    final ContainerRequestTracker tracker = new ContainerRequestTracker();
+    final AMRMClient.ContainerRequest small = request(1, 1024, null);
+    final AMRMClient.ContainerRequest large = request(2, 4096, null);
+    tracker.add(small, small, large);
+    Assert.assertEquals(Arrays.asList(small, small, large), tracker.takeRequestsToSend());
+    Assert.assertTrue(tracker.takeRequestsToSend().isEmpty());
+  }
+
+  @Test
+  public void testConflictingRequestsAreSentInOrder() {
+    final ContainerRequestTracker tracker = new ContainerRequestTracker();
+    final AMRMClient.ContainerRequest first = request(1, 1024, null);
+    final AMRMClient.ContainerRequest second = request(1, 4096, null);
+    final AMRMClient.ContainerRequest third = request(1, 1024, null);
+    tracker.add(first, second);
+    Assert.assertEquals(Arrays.asList(first), tracker.takeRequestsToSend());
+
+    // A later request must not overtake the conflicting one before it.
+    tracker.add(third);
+    Assert.assertTrue(tracker.takeRequestsToSend().isEmpty());
+
+    Assert.assertSame(first, tracker.match(container(1, 1024, "host1"), "rack1").get());
+    Assert.assertFalse(tracker.hasOutstandingRequests(first.getPriority()));
+    Assert.assertEquals(Arrays.asList(second), tracker.takeRequestsToSend());
+    Assert.assertFalse(tracker.match(container(1, 1024, "host1"), "rack1").isPresent());
+    Assert.assertSame(second, tracker.match(container(1, 4096, "host1"), "rack1").get());
+    Assert.assertEquals(Arrays.asList(third), tracker.takeRequestsToSend());
+  }
+
+  @Test
+  public void testContainersArePreferablyMatchedByNode() {
+    final ContainerRequestTracker tracker = new ContainerRequestTracker();
+    final AMRMClient.ContainerRequest anywhere = request(1, 1024, null);
+    final AMRMClient.ContainerRequest onHost2 = request(1, 1024, new String[]{"host2"});
+    tracker.add(anywhere, onHost2);
+    Assert.assertEquals(2, tracker.takeRequestsToSend().size());
+
+    final Optional<AMRMClient.ContainerRequest> match = tracker.match(container(1, 1024, "host2"), "rack1");
+    Assert.assertSame(onHost2, match.get());
+    Assert.assertTrue(tracker.hasOutstandingRequests(anywhere.getPriority()));
+    Assert.assertSame(anywhere, tracker.match(container(1, 1024, "host2"), "rack1").get());
+    Assert.assertFalse(tracker.match(container(1, 1024, "host2"), "rack1").isPresent());
+  }
+
+  private static AMRMClient.ContainerRequest request(final int priority, final int memory, final String[] nodes) {
+    return new AMRMClient.ContainerRequest(
+        Resource.newInstance(memory, 1), nodes, null, Priority.newInstance(priority), true);
+  }
+
+  private static Container container(final int priority, final int memory, final String host) {
+    final Container container = mock(Container.class);
+    when(container.getPriority()).thenReturn(Priority.newInstance(priority));
+    when(container.getResource()).thenReturn(Resource.newInstance(memory, 1));
+    when(container.getNodeId()).thenReturn(NodeId.newInstance(host, 1234));
+    return container;
+  }
+}
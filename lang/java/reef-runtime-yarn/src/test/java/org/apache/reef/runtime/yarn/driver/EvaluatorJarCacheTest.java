@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.yarn.driver;
+
+import org.apache.hadoop.yarn.api.records.LocalResource;
+import org.apache.hadoop.yarn.api.records.LocalResourceVisibility;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.reef.io.SystemTempFileCreator;
+import org.apache.reef.runtime.common.files.FileResource;
+import org.apache.reef.runtime.common.files.FileResourceImpl;
+import org.apache.reef.runtime.common.files.FileType;
+import org.apache.reef.runtime.common.files.REEFFileNames;
+import org.apache.reef.runtime.yarn.driver.parameters.SharedEvaluatorJarFolder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for EvaluatorJarCache, using the local file system in place of HDFS.
+ */
+public final class EvaluatorJarCacheTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testEqualFileSetsShareOneJar() throws IOException {
+    final File jobFolder = this.temporaryFolder.newFolder("job");
+    final EvaluatorJarCache cache = this.newCache(jobFolder, SharedEvaluatorJarFolder.NONE);
+
+    final LocalResource first = cache.getResource(this.fileSet("a.txt", "content"));
+    final LocalResource second = cache.getResource(this.fileSet("a.txt", "content"));
+    final LocalResource other = cache.getResource(this.fileSet("a.txt", "other content"));
+
+    Assert.assertEquals(first.getResource(), second.getResource());
+    Assert.assertFalse(first.getResource().equals(other.getResource()));
+    Assert.assertEquals(LocalResourceVisibility.APPLICATION, first.getVisibility());
+    Assert.assertEquals(2, countJars(jobFolder));
+  }
+
+  @Test
+  public void testChangedFileGetsANewJar() throws IOException {
+    final File jobFolder = this.temporaryFolder.newFolder("job");
+    final EvaluatorJarCache cache = this.newCache(jobFolder, SharedEvaluatorJarFolder.NONE);
+    final Set<FileResource> fileSet = this.fileSet("a.txt", "old");
+    final File file = new File(fileSet.iterator().next().getPath());
+    final long lastModified = file.lastModified();
+
+    final LocalResource first = cache.getResource(fileSet);
+    Files.write(file.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(file.setLastModified(lastModified + 2000));
+    final LocalResource second = cache.getResource(fileSet);
+
+    Assert.assertFalse(first.getResource().equals(second.getResource()));
+    Assert.assertEquals(2, countJars(jobFolder));
+  }
+
+  @Test
+  public void testFileOfSameLengthAndTimeIsNotHashedAgain() throws IOException {
+    final File jobFolder = this.temporaryFolder.newFolder("job");
+    final EvaluatorJarCache cache = this.newCache(jobFolder, SharedEvaluatorJarFolder.NONE);
+    final Set<FileResource> fileSet = this.fileSet("a.txt", "old");
+    final File file = new File(fileSet.iterator().next().getPath());
+    final long lastModified = file.lastModified();
+
+    final LocalResource first = cache.getResource(fileSet);
+    Files.write(file.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(file.setLastModified(lastModified));
+    final LocalResource second = cache.getResource(fileSet);
+
+    Assert.assertEquals(first.getResource(), second.getResource());
+    Assert.assertEquals(1, countJars(jobFolder));
+  }
+
+  @Test
+  public void testSharedFolderIsReusedAcrossJobs() throws IOException {
+    final File sharedFolder = this.temporaryFolder.newFolder("shared");
+
+    final LocalResource first = this.newCache(this.temporaryFolder.newFolder("job1"), sharedFolder.getAbsolutePath())
+        .getResource(this.fileSet("a.txt", "content"));
+    final LocalResource second = this.newCache(this.temporaryFolder.newFolder("job2"), sharedFolder.getAbsolutePath())
+        .getResource(this.fileSet("a.txt", "content"));
+
+    Assert.assertEquals(LocalResourceVisibility.PUBLIC, first.getVisibility());
+    Assert.assertEquals(first.getResource(), second.getResource());
+    Assert.assertEquals(first.getTimestamp(), second.getTimestamp());
+    Assert.assertEquals(1, countJars(sharedFolder));
+  }
+
+  @Test
+  public void testSharedFolderIsCreatedForEveryone() throws IOException {
+    final File sharedFolder = new File(this.temporaryFolder.getRoot(), "created/shared");
+    final LocalResource resource = this.newCache(this.temporaryFolder.newFolder("job"), sharedFolder.getAbsolutePath())
+        .getResource(this.fileSet("a.txt", "content"));
+
+    Assert.assertEquals(PosixFilePermissions.fromString("rwxr-xr-x"),
+        Files.getPosixFilePermissions(sharedFolder.toPath()));
+    Assert.assertEquals(LocalResourceVisibility.PUBLIC, resource.getVisibility());
+  }
+
+  @Test
+  public void testSharedFolderOthersCannotTraverseIsNotPublic() throws IOException {
+    final File privateFolder = this.temporaryFolder.newFolder("private");
+    final File sharedFolder = new File(privateFolder, "shared");
+    Assert.assertTrue(sharedFolder.mkdir());
+    Files.setPosixFilePermissions(privateFolder.toPath(), PosixFilePermissions.fromString("rwx------"));
+
+    final LocalResource resource = this.newCache(this.temporaryFolder.newFolder("job"), sharedFolder.getAbsolutePath())
+        .getResource(this.fileSet("a.txt", "content"));
+
+    Assert.assertEquals(LocalResourceVisibility.APPLICATION, resource.getVisibility());
+  }
+
+  /**
+   * The local file system also writes checksum files, which are not counted.
+   */
+  private static int countJars(final File folder) {
+    return folder.list(new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(".jar");
+      }
+    }).length;
+  }
+
+  private EvaluatorJarCache newCache(final File jobFolder, final String sharedFolder) throws IOException {
+    final UploaderToJobFolder uploader = new UploaderToJobFolder(jobFolder.getAbsolutePath(), new YarnConfiguration());
+    return new EvaluatorJarCache(new REEFFileNames(), new SystemTempFileCreator(), uploader, sharedFolder, true);
+  }
+
+  private Set<FileResource> fileSet(final String name, final String content) throws IOException {
+    final File file = new File(this.temporaryFolder.newFolder(), name);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return new HashSet<>(Collections.singleton((FileResource) FileResourceImpl.newBuilder()
+        .setName(name)
+        .setPath(file.getAbsolutePath())
+        .setType(FileType.PLAIN)
+        .build()));
+  }
+}
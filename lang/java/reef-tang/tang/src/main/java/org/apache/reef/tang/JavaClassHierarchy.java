@@ -64,4 +64,17 @@ public interface JavaClassHierarchy extends ClassHierarchy {
    */
   <T> T parseDefaultValue(NamedParameterNode<T> name) throws ClassHierarchyException;
 
+  /**
+   * Add the nodes of a previously serialized class hierarchy (for example, one
+   * written at build time by org.apache.reef.tang.util.ClassHierarchySnapshot)
+   * to this ClassHierarchy. Classes that are described by the snapshot are
+   * not reflected upon when they are looked up later on. Nodes that this
+   * ClassHierarchy already contains are left unchanged.
+   *
+   * @param snapshot The deserialized class hierarchy snapshot.
+   * @throws ClassHierarchyException if the snapshot conflicts with this
+   *                                 ClassHierarchy, e.g. because two named parameters use the same short name.
+   */
+  void loadSnapshot(ClassHierarchy snapshot) throws ClassHierarchyException;
+
 }
@@ -28,6 +28,9 @@ import org.apache.reef.tang.exceptions.ClassHierarchyException;
 import org.apache.reef.tang.exceptions.NameResolutionException;
 import org.apache.reef.tang.exceptions.ParseException;
 import org.apache.reef.tang.formats.ParameterParser;
+import org.apache.reef.tang.implementation.types.ClassNodeImpl;
+import org.apache.reef.tang.implementation.types.NamedParameterNodeImpl;
+import org.apache.reef.tang.implementation.types.PackageNodeImpl;
 import org.apache.reef.tang.types.*;
 import org.apache.reef.tang.util.MonotonicTreeMap;
 import org.apache.reef.tang.util.ReflectionUtilities;
@@ -72,6 +75,14 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
    * sanity check short names so that name clashes get resolved.
    */
   private final Map<String, NamedParameterNode<?>> shortNames = new MonotonicTreeMap<>();
+  /**
+   * Constructors shared by the Injectors that use this class hierarchy.
+   */
+  private final ConstructorCache constructorCache = new ConstructorCache();
+  /**
+   * Injection plans shared by the Injectors that use this class hierarchy.
+   */
+  private final InjectionPlanCache injectionPlanCache = new InjectionPlanCache();
 
   @SuppressWarnings("unchecked")
   public ClassHierarchyImpl() {
@@ -412,6 +423,91 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
     return n;
   }
 
+  @Override
+  public synchronized void loadSnapshot(final ClassHierarchy snapshot) {
+    final List<ClassNode<?>> snapshotClassNodes = new ArrayList<>();
+    copySnapshotNodes(namespace, snapshot.getNamespace(), snapshotClassNodes);
+    // Known implementations can point anywhere in the hierarchy, so they are
+    // only wired up once all of the nodes exist.
+    for (final ClassNode<?> snapshotNode : snapshotClassNodes) {
+      try {
+        @SuppressWarnings("unchecked")
+        final ClassNode<Object> iface = (ClassNode<Object>) getAlreadyBoundNode(snapshotNode.getFullName());
+        final Set<ClassNode<Object>> knownImpls = iface.getKnownImplementations();
+        for (final ClassNode<?> snapshotImpl : snapshotNode.getKnownImplementations()) {
+          @SuppressWarnings("unchecked")
+          final ClassNode<Object> impl = (ClassNode<Object>) getAlreadyBoundNode(snapshotImpl.getFullName());
+          if (!knownImpls.contains(impl)) {
+            iface.putImpl(impl);
+          }
+        }
+      } catch (final NameResolutionException e) {
+        throw new ClassHierarchyException("Class hierarchy snapshot refers to unknown class", e);
+      }
+    }
+  }
+
+  /**
+   * Recreate the children of snapshotParent that are missing under parent.
+   * Collects the ClassNodes of the snapshot so that their known implementations can be wired up afterwards.
+   */
+  private void copySnapshotNodes(final Node parent, final Node snapshotParent,
+                                 final List<ClassNode<?>> snapshotClassNodes) {
+    for (final Node snapshotNode : snapshotParent.getChildren()) {
+      // Package nodes key their children by full name, all other nodes by simple name.
+      Node node = parent.get(parent instanceof PackageNode ? snapshotNode.getFullName() : snapshotNode.getName());
+      if (node == null) {
+        node = copySnapshotNode(parent, snapshotNode);
+      }
+      if (snapshotNode instanceof ClassNode) {
+        snapshotClassNodes.add((ClassNode<?>) snapshotNode);
+      }
+      copySnapshotNodes(node, snapshotNode, snapshotClassNodes);
+    }
+  }
+
+  private Node copySnapshotNode(final Node parent, final Node n) {
+    if (n instanceof NamedParameterNode) {
+      final NamedParameterNode<?> np = (NamedParameterNode<?>) n;
+      final String shortName = np.getShortName();
+      if (shortName != null) {
+        final NamedParameterNode<?> oldNode = shortNames.get(shortName);
+        if (oldNode != null) {
+          throw new ClassHierarchyException("Named parameters " + oldNode.getFullName()
+              + " and " + np.getFullName() + " have the same short name: "
+              + shortName);
+        }
+      }
+      final NamedParameterNode<?> copy = new NamedParameterNodeImpl<>(parent, np.getName(), np.getFullName(),
+          np.getFullArgName(), np.getSimpleArgName(), np.isSet(), np.isList(), np.getDocumentation(), shortName,
+          np.getDefaultInstanceAsStrings());
+      if (shortName != null) {
+        shortNames.put(shortName, copy);
+      }
+      return copy;
+    } else if (n instanceof ClassNode) {
+      return copySnapshotClassNode(parent, (ClassNode<?>) n);
+    } else if (n instanceof PackageNode) {
+      return new PackageNodeImpl(parent, n.getName(), n.getFullName());
+    } else {
+      throw new ClassHierarchyException("Unknown node type in class hierarchy snapshot: " + n);
+    }
+  }
+
+  private <T> ClassNode<T> copySnapshotClassNode(final Node parent, final ClassNode<T> cn) {
+    return new ClassNodeImpl<>(parent, cn.getName(), cn.getFullName(), cn.isUnit(), cn.isInjectionCandidate(),
+        cn.isExternalConstructor(), cn.getInjectableConstructors(), cn.getAllConstructors(),
+        cn.getDefaultImplementation());
+  }
+
+  ConstructorCache getConstructorCache() {
+    return constructorCache;
+  }
+
+  InjectionPlanCache getInjectionPlanCache() {
+    return injectionPlanCache;
+  }
+
   @Override
   public PackageNode getNamespace() {
     return namespace;
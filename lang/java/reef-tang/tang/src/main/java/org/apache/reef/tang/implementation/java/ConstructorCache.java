@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.types.ConstructorDef;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The reflective constructors of a ClassHierarchy, looked up once and shared by all its Injectors.
+ */
+final class ConstructorCache {
+
+  private final Map<ConstructorDef<?>, java.lang.reflect.Constructor<?>> constructors =
+      Collections.synchronizedMap(new IdentityHashMap<ConstructorDef<?>, java.lang.reflect.Constructor<?>>());
+
+  /**
+   * @return the constructor of def, or null if it was not looked up yet.
+   */
+  @SuppressWarnings("unchecked")
+  <T> java.lang.reflect.Constructor<T> get(final ConstructorDef<T> def) {
+    return (java.lang.reflect.Constructor<T>) this.constructors.get(def);
+  }
+
+  <T> void put(final ConstructorDef<T> def, final java.lang.reflect.Constructor<T> constructor) {
+    this.constructors.put(def, constructor);
+  }
+}
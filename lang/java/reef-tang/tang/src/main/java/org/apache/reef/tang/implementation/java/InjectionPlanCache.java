@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.implementation.InjectionPlan;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.types.Node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The injection plans built by the Injectors of a ClassHierarchy, shared by all of them, forked ones included.
+ * <p>
+ * A plan depends on the bindings of the Injector's Configuration and on the instances and named parameters
+ * bound to or created by the Injector, so the plans are kept per {@link BindingState}. Plans refer to the
+ * instances they were built with, so only the plans of the most recently used states are kept.
+ */
+final class InjectionPlanCache {
+
+  private static final int MAX_BINDING_STATES = 64;
+
+  private final Map<BindingState, Map<Node, InjectionPlan<?>>> plans =
+      new LinkedHashMap<BindingState, Map<Node, InjectionPlan<?>>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<BindingState, Map<Node, InjectionPlan<?>>> eldest) {
+          return size() > MAX_BINDING_STATES;
+        }
+      };
+
+  /**
+   * @return the plan for the node in the given state, or null if none was built yet.
+   */
+  synchronized InjectionPlan<?> get(final BindingState state, final Node node) {
+    final Map<Node, InjectionPlan<?>> statePlans = this.plans.get(state);
+    return statePlans == null ? null : statePlans.get(node);
+  }
+
+  synchronized void put(final BindingState state, final Node node, final InjectionPlan<?> plan) {
+    Map<Node, InjectionPlan<?>> statePlans = this.plans.get(state);
+    if (statePlans == null) {
+      statePlans = new HashMap<>();
+      this.plans.put(state, statePlans);
+    }
+    statePlans.put(node, plan);
+  }
+
+  /**
+   * A snapshot of what the injection plans of an Injector depend on: the bindings of its Configuration, by value,
+   * and the instances and volatile named parameters bound to it or created by it, by identity.
+   */
+  static final class BindingState {
+    private final Map<Node, Object> implementations = new HashMap<>();
+    private final Map<Node, Object> constructors = new HashMap<>();
+    private final Map<Node, Object> namedParameters = new HashMap<>();
+    private final Map<Node, Object> sets = new HashMap<>();
+    private final Map<Node, Object> lists = new HashMap<>();
+    private final Map<Node, Object> legacyConstructors = new HashMap<>();
+    private final Map<Node, Identity> instances = new HashMap<>();
+    private final Map<Node, Identity> namedParameterInstances = new HashMap<>();
+    private final int hashCode;
+
+    @SuppressWarnings("unchecked")
+    BindingState(final Configuration c,
+                 final Map<ClassNode<?>, Object> boundInstances,
+                 final Map<NamedParameterNode<?>, Object> boundNamedParameters) {
+      for (final ClassNode<?> cn : c.getBoundImplementations()) {
+        this.implementations.put(cn, c.getBoundImplementation(cn));
+      }
+      for (final ClassNode<?> cn : c.getBoundConstructors()) {
+        this.constructors.put(cn, c.getBoundConstructor(cn));
+      }
+      for (final NamedParameterNode<?> np : c.getNamedParameters()) {
+        this.namedParameters.put(np, c.getNamedParameter(np));
+      }
+      for (final NamedParameterNode<java.util.Set<?>> np : c.getBoundSets()) {
+        this.sets.put(np, new HashSet<>(c.getBoundSet(np)));
+      }
+      for (final NamedParameterNode<java.util.List<?>> np : c.getBoundLists()) {
+        this.lists.put(np, new ArrayList<>(c.getBoundList(np)));
+      }
+      for (final ClassNode<?> cn : c.getLegacyConstructors()) {
+        this.legacyConstructors.put(cn, c.getLegacyConstructor(cn));
+      }
+      for (final ClassNode<?> cn : boundInstances.keySet()) {
+        this.instances.put(cn, new Identity(boundInstances.get(cn)));
+      }
+      for (final NamedParameterNode<?> np : boundNamedParameters.keySet()) {
+        // values parsed from the Configuration are covered by its bindings
+        if (!this.namedParameters.containsKey(np)) {
+          this.namedParameterInstances.put(np, new Identity(boundNamedParameters.get(np)));
+        }
+      }
+      int h = this.implementations.hashCode();
+      h = 31 * h + this.constructors.hashCode();
+      h = 31 * h + this.namedParameters.hashCode();
+      h = 31 * h + this.sets.hashCode();
+      h = 31 * h + this.lists.hashCode();
+      h = 31 * h + this.legacyConstructors.hashCode();
+      h = 31 * h + this.instances.hashCode();
+      h = 31 * h + this.namedParameterInstances.hashCode();
+      this.hashCode = h;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BindingState)) {
+        return false;
+      }
+      final BindingState that = (BindingState) o;
+      return this.hashCode == that.hashCode
+          && this.implementations.equals(that.implementations)
+          && this.constructors.equals(that.constructors)
+          && this.namedParameters.equals(that.namedParameters)
+          && this.sets.equals(that.sets)
+          && this.lists.equals(that.lists)
+          && this.legacyConstructors.equals(that.legacyConstructors)
+          && this.instances.equals(that.instances)
+          && this.namedParameterInstances.equals(that.namedParameterInstances);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+
+  /**
+   * Compares the wrapped object by identity, as plans refer to the very instances they were built with.
+   */
+  private static final class Identity {
+    private final Object object;
+
+    Identity(final Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Identity && ((Identity) o).object == this.object;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.object);
+    }
+  }
+}
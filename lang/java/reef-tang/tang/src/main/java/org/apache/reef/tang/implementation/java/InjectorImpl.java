@@ -30,6 +30,10 @@ import org.apache.reef.tang.util.TracingMonotonicTreeMap;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InjectorImpl implements Injector {
   static final InjectionPlan<?> BUILDING = new InjectionPlan<Object>(null) {
@@ -80,13 +84,32 @@ public class InjectorImpl implements Injector {
   private final ClassHierarchy namespace;
   private final JavaClassHierarchy javaNamespace;
   private final Set<InjectionFuture<?>> pendingFutures = new HashSet<>();
-  private boolean concurrentModificationGuard = false;
+  /**
+   * The injection plans of the class hierarchy, shared with the other injectors and the forks of this one.
+   */
+  private final InjectionPlanCache planCache;
+  /**
+   * What the plans of this injector depend on, or null if it changed since the last plan was looked up.
+   * Guarded by instances.
+   */
+  private InjectionPlanCache.BindingState bindingState = null;
+  private final ConstructorCache constructorCache;
+  /**
+   * The number of constructors this injector is running. The injector must not be used from within them.
+   */
+  private final AtomicInteger runningConstructors = new AtomicInteger(0);
   private Aspect aspect;
+  /**
+   * The pool to instantiate independent parts of injection plans on, or null to instantiate sequentially.
+   */
+  private ForkJoinPool parallelInjectionPool;
 
   public InjectorImpl(final Configuration c) throws BindException {
     this.c = c;
     this.namespace = c.getClassHierarchy();
     this.javaNamespace = (ClassHierarchyImpl) this.namespace;
+    this.constructorCache = ((ClassHierarchyImpl) this.namespace).getConstructorCache();
+    this.planCache = ((ClassHierarchyImpl) this.namespace).getInjectionPlanCache();
   }
 
   private static InjectorImpl copy(final InjectorImpl old,
@@ -102,19 +125,22 @@ public class InjectorImpl implements Injector {
       throw new IllegalStateException(
           "Unexpected error copying configuration!", e);
     }
-    for (final ClassNode<?> cn : old.instances.keySet()) {
-      if (cn.getFullName().equals(ReflectionUtilities.getFullName(Injector.class))
-          || cn.getFullName().equals(ReflectionUtilities.getFullName(InjectorImpl.class))) {
-        // This would imply that we're treating injector as a singleton somewhere.  It should be copied fresh each time.
-        throw new IllegalStateException();
-      }
-      try {
-        final ClassNode<?> newCn = (ClassNode<?>) i.namespace.getNode(cn
-            .getFullName());
-        i.instances.put(newCn, old.instances.get(cn));
-      } catch (final BindException e) {
-        throw new IllegalStateException("Could not resolve name "
-            + cn.getFullName() + " when copying injector");
+    synchronized (old.instances) {
+      for (final ClassNode<?> cn : old.instances.keySet()) {
+        if (cn.getFullName().equals(ReflectionUtilities.getFullName(Injector.class))
+            || cn.getFullName().equals(ReflectionUtilities.getFullName(InjectorImpl.class))) {
+          // This would imply that we're treating injector as a singleton somewhere.
+          // It should be copied fresh each time.
+          throw new IllegalStateException();
+        }
+        try {
+          final ClassNode<?> newCn = (ClassNode<?>) i.namespace.getNode(cn
+              .getFullName());
+          i.instances.put(newCn, old.instances.get(cn));
+        } catch (final BindException e) {
+          throw new IllegalStateException("Could not resolve name "
+              + cn.getFullName() + " when copying injector");
+        }
       }
     }
     // Copy references to the remaining (which must have been set with
@@ -130,11 +156,12 @@ public class InjectorImpl implements Injector {
     if (old.aspect != null) {
       i.bindAspect(old.aspect.createChildAspect());
     }
+    i.parallelInjectionPool = old.parallelInjectionPool;
     return i;
   }
 
   private void assertNotConcurrent() {
-    if (concurrentModificationGuard) {
+    if (runningConstructors.get() > 0) {
       throw new ConcurrentModificationException("Detected attempt to use Injector " +
           "from within an injected constructor!");
     }
@@ -145,7 +172,10 @@ public class InjectorImpl implements Injector {
     if (cn.getFullName().equals("org.apache.reef.tang.Injector")) {
       return (T) this; // TODO: We should be insisting on injection futures here! .forkInjector();
     } else {
-      final T t = (T) instances.get(cn);
+      final T t;
+      synchronized (instances) {
+        t = (T) instances.get(cn);
+      }
       if (t instanceof InjectionFuture) {
         throw new IllegalStateException("Found an injection future in getCachedInstance: " + cn);
       }
@@ -471,9 +501,39 @@ public class InjectorImpl implements Injector {
    * @throws NameResolutionException
    */
   public InjectionPlan<?> getInjectionPlan(final Node n) {
+    final InjectionPlanCache.BindingState state = getBindingState();
+    final InjectionPlan<?> cachedPlan = planCache.get(state, n);
+    if (cachedPlan != null) {
+      return cachedPlan;
+    }
     final Map<Node, InjectionPlan<?>> memo = new HashMap<>();
     buildInjectionPlan(n, memo);
-    return memo.get(n);
+    final InjectionPlan<?> plan = memo.get(n);
+    planCache.put(state, n, plan);
+    return plan;
+  }
+
+  /**
+   * @return the state the plans of this injector depend on, taken anew if an instance or named parameter
+   * was bound or an instance created since it was last taken.
+   */
+  private InjectionPlanCache.BindingState getBindingState() {
+    synchronized (instances) {
+      if (bindingState == null) {
+        bindingState = new InjectionPlanCache.BindingState(c, instances, namedParameterInstances);
+      }
+      return bindingState;
+    }
+  }
+
+  /**
+   * Makes the next plan lookup take the binding state anew, after a bind or an instantiation.
+   * Plans of the old state stay cached for the injectors still in it.
+   */
+  private void invalidateBindingState() {
+    synchronized (instances) {
+      bindingState = null;
+    }
   }
 
   @Override
@@ -557,6 +617,10 @@ public class InjectorImpl implements Injector {
   private <T> java.lang.reflect.Constructor<T> getConstructor(
       final ConstructorDef<T> constructor) throws ClassNotFoundException,
       NoSuchMethodException, SecurityException {
+    final java.lang.reflect.Constructor<T> cachedConstructor = constructorCache.get(constructor);
+    if (cachedConstructor != null) {
+      return cachedConstructor;
+    }
     @SuppressWarnings("unchecked") final Class<T> clazz =
         (Class<T>) javaNamespace.classForName(constructor.getClassName());
     final ConstructorArg[] args = constructor.getArgs();
@@ -571,6 +635,7 @@ public class InjectorImpl implements Injector {
     final java.lang.reflect.Constructor<T> cons = clazz
         .getDeclaredConstructor(parameterTypes);
     cons.setAccessible(true);
+    constructorCache.put(constructor, cons);
     return cons;
   }
 
@@ -621,14 +686,9 @@ public class InjectorImpl implements Injector {
       return ((JavaInstance<T>) plan).getInstance();
     } else if (plan instanceof Constructor) {
       final Constructor<T> constructor = (Constructor<T>) plan;
-      final Object[] args = new Object[constructor.getArgs().length];
-      final InjectionPlan<?>[] argPlans = constructor.getArgs();
-
-      for (int i = 0; i < argPlans.length; i++) {
-        args[i] = injectFromPlan(argPlans[i]);
-      }
+      final Object[] args = injectFromPlans(constructor.getArgs());
       try {
-        concurrentModificationGuard = true;
+        runningConstructors.incrementAndGet();
         T ret;
         try {
           final ConstructorDef<T> def = (ConstructorDef<T>) constructor.getConstructorDef();
@@ -651,13 +711,16 @@ public class InjectorImpl implements Injector {
         if (ret instanceof ExternalConstructor) {
           ret = ((ExternalConstructor<T>) ret).newInstance();
         }
-        instances.put(constructor.getNode(), ret);
+        synchronized (instances) {
+          instances.put(constructor.getNode(), ret);
+          bindingState = null;
+        }
         return ret;
       } catch (final ReflectiveOperationException e) {
         throw new InjectionException("Could not invoke constructor: " + plan,
             e instanceof InvocationTargetException ? e.getCause() : e);
       } finally {
-        concurrentModificationGuard = false;
+        runningConstructors.decrementAndGet();
       }
     } else if (plan instanceof Subplan) {
       final Subplan<T> ambiguous = (Subplan<T>) plan;
@@ -665,15 +728,15 @@ public class InjectorImpl implements Injector {
     } else if (plan instanceof SetInjectionPlan) {
       final SetInjectionPlan<T> setPlan = (SetInjectionPlan<T>) plan;
       final Set<T> ret = new MonotonicHashSet<>();
-      for (final InjectionPlan<T> subplan : setPlan.getEntryPlans()) {
-        ret.add(injectFromPlan(subplan));
+      for (final Object entry : injectFromPlans(setPlan.getEntryPlans().toArray(new InjectionPlan<?>[0]))) {
+        ret.add((T) entry);
       }
       return (T) ret;
     } else if (plan instanceof ListInjectionPlan) {
       final ListInjectionPlan<T> listPlan = (ListInjectionPlan<T>) plan;
       final List<T> ret = new ArrayList<>();
-      for (final InjectionPlan<T> subplan : listPlan.getEntryPlans()) {
-        ret.add(injectFromPlan(subplan));
+      for (final Object entry : injectFromPlans(listPlan.getEntryPlans().toArray(new InjectionPlan<?>[0]))) {
+        ret.add((T) entry);
       }
       return (T) ret;
     } else {
@@ -681,6 +744,130 @@ public class InjectorImpl implements Injector {
     }
   }
 
+  /**
+   * Instantiate sibling plans, i.e. the arguments of a constructor or the entries of a set or list.
+   * If parallel injection is enabled, groups of siblings that do not instantiate any class in common
+   * are instantiated in parallel.
+   *
+   * @return the instances, in the order of the plans.
+   */
+  private Object[] injectFromPlans(final InjectionPlan<?>[] plans) throws InjectionException {
+    final Object[] results = new Object[plans.length];
+    final List<List<Integer>> groups =
+        parallelInjectionPool == null || aspect != null || plans.length < 2 ? null : getIndependentGroups(plans);
+    if (groups == null) {
+      for (int i = 0; i < plans.length; i++) {
+        results[i] = injectFromPlan(plans[i]);
+      }
+      return results;
+    }
+
+    final List<InjectionTask> tasks = new ArrayList<>(groups.size());
+    final boolean[] inGroup = new boolean[plans.length];
+    for (final List<Integer> group : groups) {
+      tasks.add(new InjectionTask(plans, group, results));
+      for (final int i : group) {
+        inGroup[i] = true;
+      }
+    }
+    // The remaining plans do not instantiate anything.
+    for (int i = 0; i < plans.length; i++) {
+      if (!inGroup[i]) {
+        results[i] = injectFromPlan(plans[i]);
+      }
+    }
+
+    if (ForkJoinTask.getPool() == parallelInjectionPool) {
+      ForkJoinTask.invokeAll(tasks);
+    } else {
+      parallelInjectionPool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(tasks);
+        }
+      });
+    }
+
+    for (final InjectionTask task : tasks) {
+      if (task.exception instanceof InjectionException) {
+        throw (InjectionException) task.exception;
+      } else if (task.exception != null) {
+        throw (RuntimeException) task.exception;
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Group the plans such that no two groups instantiate the same class. Plans that do not
+   * instantiate anything are left out.
+   *
+   * @return the groups, each in the order of the plans, or null if there are less than two groups or
+   * the plans contain an InjectionFuture.
+   */
+  private List<List<Integer>> getIndependentGroups(final InjectionPlan<?>[] plans) {
+    final List<List<Integer>> groups = new ArrayList<>();
+    final List<Set<ClassNode<?>>> groupClasses = new ArrayList<>();
+    for (int i = 0; i < plans.length; i++) {
+      final Set<ClassNode<?>> classes = new HashSet<>();
+      if (!collectInstantiatedClasses(plans[i], classes)) {
+        return null;
+      }
+      if (classes.isEmpty()) {
+        continue;
+      }
+      final List<Integer> group = new ArrayList<>();
+      group.add(i);
+      for (int g = groups.size() - 1; g >= 0; g--) {
+        if (!Collections.disjoint(groupClasses.get(g), classes)) {
+          classes.addAll(groupClasses.remove(g));
+          group.addAll(groups.remove(g));
+        }
+      }
+      Collections.sort(group);
+      groups.add(group);
+      groupClasses.add(classes);
+    }
+    return groups.size() < 2 ? null : groups;
+  }
+
+  /**
+   * Add the classes that injectFromPlan(plan) would instantiate to the given set.
+   *
+   * @return false if the plan contains an InjectionFuture, or cannot be injected.
+   */
+  private boolean collectInstantiatedClasses(final InjectionPlan<?> plan, final Set<ClassNode<?>> classes) {
+    if (plan instanceof InjectionFuturePlan || !plan.isFeasible() || plan.isAmbiguous()) {
+      return false;
+    }
+    if (plan.getNode() instanceof ClassNode && null != getCachedInstance((ClassNode<?>) plan.getNode())) {
+      return true;
+    }
+    if (plan instanceof Constructor) {
+      classes.add((ClassNode<?>) plan.getNode());
+      for (final InjectionPlan<?> arg : ((Constructor<?>) plan).getArgs()) {
+        if (!collectInstantiatedClasses(arg, classes)) {
+          return false;
+        }
+      }
+    } else if (plan instanceof Subplan) {
+      return collectInstantiatedClasses(((Subplan<?>) plan).getDelegatedPlan(), classes);
+    } else if (plan instanceof SetInjectionPlan) {
+      for (final InjectionPlan<?> entry : ((SetInjectionPlan<?>) plan).getEntryPlans()) {
+        if (!collectInstantiatedClasses(entry, classes)) {
+          return false;
+        }
+      }
+    } else if (plan instanceof ListInjectionPlan) {
+      for (final InjectionPlan<?> entry : ((ListInjectionPlan<?>) plan).getEntryPlans()) {
+        if (!collectInstantiatedClasses(entry, classes)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   @Override
   public <T> void bindVolatileInstance(final Class<T> cl, final T o) throws BindException {
     bindVolatileInstanceNoCopy(cl, o);
@@ -702,7 +889,10 @@ public class InjectorImpl implements Injector {
         throw new BindException("Attempt to re-bind instance.  Old value was "
             + old + " new value is " + o);
       }
-      instances.put(cn, o);
+      synchronized (instances) {
+        instances.put(cn, o);
+        bindingState = null;
+      }
     } else {
       throw new IllegalArgumentException("Expected Class but got " + cl
           + " (probably a named parameter).");
@@ -723,6 +913,7 @@ public class InjectorImpl implements Injector {
       }
       try {
         namedParameterInstances.put(np, o);
+        invalidateBindingState();
       } catch (final IllegalArgumentException e) {
         throw new BindException(
             "Attempt to re-bind named parameter " + ReflectionUtilities.getFullName(cl) + ".  Old value was [" + old
@@ -760,8 +951,60 @@ public class InjectorImpl implements Injector {
     aspect = a;
   }
 
+  /**
+   * Lets this injector and the injectors forked from it instantiate independent
+   * parts of an injection plan in parallel on the given pool.  Two parts are
+   * independent if they do not instantiate any class in common, so each class
+   * is still instantiated at most once per injector.  Parts that contain an
+   * InjectionFuture, and all injections of an injector with an Aspect, are
+   * instantiated sequentially.
+   * <p/>
+   * The constructors of the classes that are injected must not rely on the
+   * order in which their siblings are instantiated.
+   * <p/>
+   * Not part of {@link Injector}, so that other implementations of it keep compiling.
+   *
+   * @param pool the pool to instantiate on.
+   * @throws BindException if a pool was bound to this injector before.
+   */
+  public void bindParallelInjection(final ForkJoinPool pool) throws BindException {
+    if (parallelInjectionPool != null) {
+      throw new BindException("Attempt to re-bind parallel injection pool! old=" + parallelInjectionPool
+          + " new=" + pool);
+    }
+    parallelInjectionPool = pool;
+  }
+
   @Override
   public Aspect getAspect() {
     return aspect;
   }
+
+  /**
+   * Instantiates a group of sibling plans on the parallel injection pool.
+   * Exceptions are kept for injectFromPlans() to rethrow once all groups are done.
+   */
+  private final class InjectionTask extends RecursiveAction {
+    private final InjectionPlan<?>[] plans;
+    private final List<Integer> indices;
+    private final Object[] results;
+    private Exception exception;
+
+    InjectionTask(final InjectionPlan<?>[] plans, final List<Integer> indices, final Object[] results) {
+      this.plans = plans;
+      this.indices = indices;
+      this.results = results;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        for (final int i : indices) {
+          results[i] = injectFromPlan(plans[i]);
+        }
+      } catch (final InjectionException | RuntimeException e) {
+        exception = e;
+      }
+    }
+  }
 }
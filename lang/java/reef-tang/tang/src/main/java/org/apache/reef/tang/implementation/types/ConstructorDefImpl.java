@@ -23,8 +23,6 @@ import org.apache.reef.tang.types.ClassNode;
 import org.apache.reef.tang.types.ConstructorArg;
 import org.apache.reef.tang.types.ConstructorDef;
 
-import java.util.Arrays;
-
 public class ConstructorDefImpl<T> implements ConstructorDef<T> {
   private final ConstructorArg[] args;
   private final String className;
@@ -159,8 +157,11 @@ public class ConstructorDefImpl<T> implements ConstructorDef<T> {
 
   @Override
   public int hashCode() {
-    final ConstructorArg[] argsSort = getArgs().clone();
-    Arrays.sort(argsSort);
-    return Arrays.hashCode(argsSort);
+    // Consistent with equalsIgnoreOrder(): ConstructorArgs are not Comparable, so they cannot be sorted.
+    int result = 0;
+    for (final ConstructorArg arg : getArgs()) {
+      result += arg.getName().hashCode();
+    }
+    return result;
   }
 }
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.util;
+
+import org.apache.reef.tang.ClassHierarchy;
+import org.apache.reef.tang.ExternalConstructor;
+import org.apache.reef.tang.JavaClassHierarchy;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.ClassHierarchyException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.exceptions.NameResolutionException;
+import org.apache.reef.tang.formats.CommandLine;
+import org.apache.reef.tang.implementation.avro.AvroClassHierarchySerializer;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the class hierarchy of a set of jars to a file, so that it can be
+ * loaded with JavaClassHierarchy.loadSnapshot() instead of reflecting on those
+ * classes at runtime. Meant to be run as a build step, e.g.
+ * <p/>
+ * <pre>
+ * java org.apache.reef.tang.util.ClassHierarchySnapshot -jars job.jar:lib.jar -snapshot job.bin
+ * </pre>
+ * The snapshot starts with a fingerprint of the jars it describes, and {@link #read(File, File[])}
+ * refuses a snapshot of other jars than the ones given.
+ */
+public final class ClassHierarchySnapshot {
+
+  private static final Logger LOG = Logger.getLogger(ClassHierarchySnapshot.class.getName());
+
+  private static final int SNAPSHOT_MAGIC = 0x43485331;
+  private static final String FINGERPRINT_ALGORITHM = "SHA-1";
+
+  private final File[] jars;
+  private final String[] packages;
+  private final File snapshot;
+
+  @Inject
+  private ClassHierarchySnapshot(
+      @Parameter(Jars.class) final String jars,
+      @Parameter(SnapshotOut.class) final File snapshot) {
+    this(jars, "", snapshot);
+  }
+
+  /**
+   * @param jars     the jars to take the class hierarchy of.
+   * @param snapshot the file to write the class hierarchy snapshot to.
+   */
+  public ClassHierarchySnapshot(final File[] jars, final File snapshot) {
+    this.jars = jars.clone();
+    this.packages = new String[0];
+    this.snapshot = snapshot;
+  }
+
+  @Inject
+  private ClassHierarchySnapshot(
+      @Parameter(Jars.class) final String jars,
+      @Parameter(Packages.class) final String packages,
+      @Parameter(SnapshotOut.class) final File snapshot) {
+    final String[] jarNames = jars.split(File.pathSeparator);
+    this.jars = new File[jarNames.length];
+    for (int i = 0; i < jarNames.length; i++) {
+      this.jars[i] = new File(jarNames[i]);
+    }
+    this.packages = packages.isEmpty() ? new String[0] : packages.split(",");
+    this.snapshot = snapshot;
+  }
+
+  public static void main(final String[] argv) throws IOException, BindException, InjectionException {
+    @SuppressWarnings("unchecked") final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder(
+        (Class<? extends ExternalConstructor<?>>[]) new Class[]{ValidateConfiguration.FileParser.class});
+    final CommandLine cl = new CommandLine(cb);
+    cl.processCommandLine(argv,
+        Jars.class,
+        Packages.class,
+        SnapshotOut.class);
+    Tang.Factory.getTang().newInjector(cb.build()).getInstance(ClassHierarchySnapshot.class).write();
+  }
+
+  /**
+   * Reflect on every top level class in the jars and write the resulting class hierarchy.
+   * Classes that Tang cannot represent, or whose dependencies are not on the classpath, are skipped.
+   */
+  public void write() throws IOException {
+    final URL[] urls = new URL[jars.length];
+    for (int i = 0; i < jars.length; i++) {
+      urls[i] = jars[i].toURI().toURL();
+    }
+    @SuppressWarnings("unchecked") final JavaClassHierarchy classHierarchy =
+        Tang.Factory.getTang().getDefaultClassHierarchy(urls, new Class[0]);
+
+    int registered = 0;
+    int skipped = 0;
+    for (final String className : getClassNames()) {
+      try {
+        classHierarchy.getNode(className);
+        ++registered;
+      } catch (final NameResolutionException | ClassHierarchyException | LinkageError e) {
+        LOG.log(Level.FINE, "Skipping " + className, e);
+        ++skipped;
+      }
+    }
+
+    try (final DataOutputStream out = new DataOutputStream(new FileOutputStream(snapshot))) {
+      out.writeInt(SNAPSHOT_MAGIC);
+      out.writeUTF(fingerprint(jars));
+      out.write(new AvroClassHierarchySerializer().toByteArray(classHierarchy));
+    }
+    LOG.log(Level.INFO, "Wrote class hierarchy of {0} classes to {1}, skipped {2} classes",
+        new Object[]{registered, snapshot, skipped});
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write()}.
+   *
+   * @param snapshotFile the snapshot.
+   * @param classpathJars the jars the classes are loaded from.
+   * @return the class hierarchy of the snapshot.
+   * @throws IOException if the snapshot can't be read, or if it was taken of other jars than the ones given.
+   */
+  public static ClassHierarchy read(final File snapshotFile, final File[] classpathJars) throws IOException {
+    try (final DataInputStream in = new DataInputStream(new FileInputStream(snapshotFile))) {
+      if (in.readInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Not a class hierarchy snapshot: " + snapshotFile);
+      }
+      final String expected = in.readUTF();
+      final String actual = fingerprint(classpathJars);
+      if (!expected.equals(actual)) {
+        throw new IOException("The class hierarchy snapshot " + snapshotFile + " was taken of other jars: "
+            + expected + " != " + actual);
+      }
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        bytes.write(buffer, 0, read);
+      }
+      return new AvroClassHierarchySerializer().fromByteArray(bytes.toByteArray());
+    }
+  }
+
+  /**
+   * Computes a fingerprint of the names, and the names, sizes and checksums of the entries, of the jars.
+   * Only the central directories of the jars are read. The order of the jars does not matter.
+   *
+   * @return the fingerprint, in hex.
+   */
+  public static String fingerprint(final File[] classpathJars) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not supported", e);
+    }
+    final File[] sorted = classpathJars.clone();
+    Arrays.sort(sorted, new Comparator<File>() {
+      @Override
+      public int compare(final File a, final File b) {
+        return a.getName().compareTo(b.getName());
+      }
+    });
+    final ByteBuffer numbers = ByteBuffer.allocate(16);
+    for (final File jar : sorted) {
+      digest.update(jar.getName().getBytes(StandardCharsets.UTF_8));
+      try (final JarFile jarFile = new JarFile(jar)) {
+        final Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          final JarEntry entry = entries.nextElement();
+          digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+          numbers.clear();
+          numbers.putLong(entry.getCrc()).putLong(entry.getSize()).flip();
+          digest.update(numbers);
+        }
+      }
+    }
+    final StringBuilder hex = new StringBuilder();
+    for (final byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * @return the names of the top level classes in the jars that are in one of the packages.
+   * Nested classes are registered along with their enclosing class.
+   */
+  private List<String> getClassNames() throws IOException {
+    final List<String> classNames = new ArrayList<>();
+    for (final File jar : jars) {
+      try (final JarFile jarFile = new JarFile(jar)) {
+        final Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          final String entryName = entries.nextElement().getName();
+          if (!entryName.endsWith(".class") || entryName.indexOf('$') >= 0 || entryName.indexOf('-') >= 0) {
+            continue;
+          }
+          final String className = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+          if (isInPackages(className)) {
+            classNames.add(className);
+          }
+        }
+      }
+    }
+    return classNames;
+  }
+
+  private boolean isInPackages(final String className) {
+    if (packages.length == 0) {
+      return true;
+    }
+    for (final String prefix : packages) {
+      if (className.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @NamedParameter(doc = "The jars to take the class hierarchy of, separated by the path separator.",
+      short_name = "jars")
+  public final class Jars implements Name<String> {
+  }
+
+  @NamedParameter(doc = "Comma separated prefixes of the packages to include. All classes are included if not set.",
+      short_name = "packages")
+  public final class Packages implements Name<String> {
+  }
+
+  @NamedParameter(doc = "The file to write the class hierarchy snapshot to.", short_name = "snapshot")
+  public final class SnapshotOut implements Name<File> {
+  }
+}
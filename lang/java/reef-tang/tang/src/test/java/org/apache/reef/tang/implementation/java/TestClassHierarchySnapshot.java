@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.ClassHierarchy;
+import org.apache.reef.tang.ConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.ClassHierarchyException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.exceptions.NameResolutionException;
+import org.apache.reef.tang.implementation.avro.AvroClassHierarchySerializer;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.types.Node;
+import org.apache.reef.tang.util.ClassHierarchySnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class TestClassHierarchySnapshot {
+
+  private static ClassHierarchy getSnapshot() throws IOException {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    classHierarchy.getNode(Service.class);
+    classHierarchy.getNode(OtherService.class);
+    final AvroClassHierarchySerializer serializer = new AvroClassHierarchySerializer();
+    return serializer.fromByteArray(serializer.toByteArray(classHierarchy));
+  }
+
+  @Test
+  public void testSnapshotNodesAreLoaded() throws IOException, NameResolutionException {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    classHierarchy.loadSnapshot(getSnapshot());
+
+    final Node service = classHierarchy.getNamespace().get(TestClassHierarchySnapshot.class.getName()).get("Service");
+    Assert.assertTrue(service instanceof ClassNode);
+    Assert.assertSame(service, classHierarchy.getNode(Service.class));
+    final ClassNode<?> impl = (ClassNode<?>) classHierarchy.getNode(ServiceImpl.class);
+    Assert.assertTrue(((ClassNode<?>) service).getKnownImplementations().contains(impl));
+    Assert.assertTrue(classHierarchy.getNode(ServiceImpl.class.getName() + "$Greeting") instanceof NamedParameterNode);
+  }
+
+  @Test
+  public void testInjectionFromSnapshot() throws IOException, BindException, InjectionException {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    classHierarchy.loadSnapshot(getSnapshot());
+
+    final ConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder(classHierarchy);
+    cb.bind(ServiceImpl.Greeting.class.getName(), "hello");
+    final Service service = (Service) Tang.Factory.getTang().newInjector(cb.build())
+        .getInstance(Service.class.getName());
+    Assert.assertEquals("hello", service.getGreeting());
+  }
+
+  @Test
+  public void testSnapshotKeepsExistingNodes() throws IOException {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    final Node service = classHierarchy.getNode(Service.class);
+    classHierarchy.loadSnapshot(getSnapshot());
+    classHierarchy.loadSnapshot(getSnapshot());
+    Assert.assertSame(service, classHierarchy.getNode(Service.class));
+    Assert.assertEquals(1, ((ClassNode<?>) service).getKnownImplementations().size());
+  }
+
+  @Test(expected = ClassHierarchyException.class)
+  public void testShortNameClash() throws IOException {
+    final ClassHierarchyImpl classHierarchy = new ClassHierarchyImpl();
+    classHierarchy.getNode(OtherService.class);
+    final ClassHierarchyImpl other = new ClassHierarchyImpl();
+    other.getNode(ClashingService.class);
+    final AvroClassHierarchySerializer serializer = new AvroClassHierarchySerializer();
+    classHierarchy.loadSnapshot(serializer.fromByteArray(serializer.toByteArray(other)));
+  }
+
+  @Test
+  public void testSnapshotOfOtherJarsIsRefused() throws IOException {
+    final File jar = File.createTempFile("TestClassHierarchySnapshot", ".jar");
+    final File snapshotFile = File.createTempFile("TestClassHierarchySnapshot", ".bin");
+    try {
+      writeJar(jar, "one");
+      new ClassHierarchySnapshot(new File[]{jar}, snapshotFile).write();
+      Assert.assertNotNull(ClassHierarchySnapshot.read(snapshotFile, new File[]{jar}));
+
+      writeJar(jar, "other");
+      try {
+        ClassHierarchySnapshot.read(snapshotFile, new File[]{jar});
+        Assert.fail("Read the snapshot of another jar");
+      } catch (final IOException expected) {
+        // Expected.
+      }
+    } finally {
+      jar.delete();
+      snapshotFile.delete();
+    }
+  }
+
+  private static void writeJar(final File jar, final String content) throws IOException {
+    try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("content.txt"));
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+  }
+
+  @DefaultImplementation(ServiceImpl.class)
+  interface Service {
+    String getGreeting();
+  }
+
+  static final class ServiceImpl implements Service {
+    private final String greeting;
+
+    @Inject
+    ServiceImpl(@Parameter(Greeting.class) final String greeting) {
+      this.greeting = greeting;
+    }
+
+    @Override
+    public String getGreeting() {
+      return greeting;
+    }
+
+    @NamedParameter(short_name = "greeting", default_value = "hi")
+    final class Greeting implements Name<String> {
+    }
+  }
+
+  static final class OtherService {
+    @Inject
+    OtherService(@Parameter(Size.class) final int size) {
+    }
+
+    @NamedParameter(short_name = "size", default_value = "1")
+    final class Size implements Name<Integer> {
+    }
+  }
+}
+
+/**
+ * Not nested in TestClassHierarchySnapshot, as Tang registers all of the nested classes together.
+ */
+final class ClashingService {
+  @Inject
+  ClashingService(@Parameter(Size.class) final int size) {
+  }
+
+  @NamedParameter(short_name = "size", default_value = "2")
+  final class Size implements Name<Integer> {
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.implementation.InjectionPlan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+public class TestInjectionPlanCache {
+
+  private static Configuration getConfiguration(final String value) throws BindException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    cb.bindNamedParameter(Value.class, value);
+    return cb.build();
+  }
+
+  @Test
+  public void testPlanIsReused() throws BindException {
+    final InjectorImpl injector = (InjectorImpl) Tang.Factory.getTang().newInjector(getConfiguration("a"));
+    Assert.assertSame(injector.getInjectionPlan(Consumer.class), injector.getInjectionPlan(Consumer.class));
+  }
+
+  @Test
+  public void testInstancesAreNotShared() throws BindException, InjectionException {
+    final Configuration conf = getConfiguration("a");
+    final Consumer first = Tang.Factory.getTang().newInjector(conf).getInstance(Consumer.class);
+    final Consumer second = Tang.Factory.getTang().newInjector(conf).getInstance(Consumer.class);
+    Assert.assertEquals("a", first.value);
+    Assert.assertEquals("a", second.value);
+    Assert.assertNotSame(first.dependency, second.dependency);
+  }
+
+  @Test
+  public void testVolatileInstancesAreNotShared() throws BindException, InjectionException {
+    final Configuration conf = getConfiguration("a");
+    final Injector first = Tang.Factory.getTang().newInjector(conf);
+    final Dependency dependency = new Dependency();
+    first.bindVolatileInstance(Dependency.class, dependency);
+    Assert.assertSame(dependency, first.getInstance(Consumer.class).dependency);
+    Assert.assertNotSame(dependency, Tang.Factory.getTang().newInjector(conf).getInstance(Consumer.class).dependency);
+  }
+
+  @Test
+  public void testForkedInjectorsShareParentInstances() throws BindException, InjectionException {
+    final Injector parent = Tang.Factory.getTang().newInjector(getConfiguration("a"));
+    final Dependency dependency = parent.getInstance(Dependency.class);
+    final Consumer first = parent.forkInjector().getInstance(Consumer.class);
+    final Consumer second = parent.forkInjector().getInstance(Consumer.class);
+    Assert.assertSame(dependency, first.dependency);
+    Assert.assertSame(dependency, second.dependency);
+    Assert.assertNotSame(first, second);
+  }
+
+  @Test
+  public void testForkedInjectorReusesParentPlans() throws BindException, InjectionException {
+    final Injector parent = Tang.Factory.getTang().newInjector(getConfiguration("a"));
+    parent.getInstance(Dependency.class);
+    final InjectionPlan<?> plan = ((InjectorImpl) parent).getInjectionPlan(Consumer.class);
+    Assert.assertSame(plan, ((InjectorImpl) parent.forkInjector()).getInjectionPlan(Consumer.class));
+    Assert.assertSame(plan, ((InjectorImpl) parent.forkInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .build())).getInjectionPlan(Consumer.class));
+  }
+
+  @Test
+  public void testForkBindingAnInstanceGetsItsOwnPlans() throws BindException, InjectionException {
+    final Injector parent = Tang.Factory.getTang().newInjector(getConfiguration("a"));
+    final InjectionPlan<?> plan = ((InjectorImpl) parent).getInjectionPlan(Consumer.class);
+    final Injector fork = parent.forkInjector();
+    final Dependency dependency = new Dependency();
+    fork.bindVolatileInstance(Dependency.class, dependency);
+    Assert.assertNotSame(plan, ((InjectorImpl) fork).getInjectionPlan(Consumer.class));
+    Assert.assertSame(dependency, fork.getInstance(Consumer.class).dependency);
+    Assert.assertNotSame(dependency, parent.getInstance(Consumer.class).dependency);
+  }
+
+  @Test
+  public void testSiblingForksDoNotShareInstances() throws BindException, InjectionException {
+    final Injector parent = Tang.Factory.getTang().newInjector(getConfiguration("a"));
+    final Injector first = parent.forkInjector();
+    final Injector second = parent.forkInjector();
+    final Dependency dependency = first.getInstance(Dependency.class);
+    Assert.assertSame(dependency, first.getInstance(Consumer.class).dependency);
+    Assert.assertNotSame(dependency, second.getInstance(Consumer.class).dependency);
+  }
+
+  @Test
+  public void testVolatileParameters() throws BindException, InjectionException {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder().build();
+    final Injector first = Tang.Factory.getTang().newInjector(conf);
+    first.bindVolatileParameter(Value.class, "volatile");
+    Assert.assertEquals("volatile", first.getInstance(Consumer.class).value);
+    Assert.assertEquals("default", Tang.Factory.getTang().newInjector(conf).getInstance(Consumer.class).value);
+
+    // A parameter bound after a plan was cached.
+    final Injector second = Tang.Factory.getTang().newInjector(conf);
+    second.isInjectable(Consumer.class);
+    second.bindVolatileParameter(Value.class, "late");
+    Assert.assertEquals("late", second.getInstance(Consumer.class).value);
+  }
+
+  @Test
+  public void testVolatileInstanceBoundAfterPlan() throws BindException, InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    Assert.assertTrue(injector.isInjectable(TwoConstructors.class));
+    final Unbound unbound = new Unbound() {
+    };
+    injector.bindVolatileInstance(Unbound.class, unbound);
+    final TwoConstructors instance = injector.getInstance(TwoConstructors.class);
+    Assert.assertSame("The constructor that takes the new instance is chosen", unbound, instance.unbound);
+  }
+
+  @NamedParameter(default_value = "default")
+  static final class Value implements Name<String> {
+  }
+
+  static final class Dependency {
+    @Inject
+    Dependency() {
+    }
+  }
+
+  static final class Consumer {
+    private final String value;
+    private final Dependency dependency;
+
+    @Inject
+    Consumer(@Parameter(Value.class) final String value, final Dependency dependency) {
+      this.value = value;
+      this.dependency = dependency;
+    }
+  }
+
+  interface Unbound {
+  }
+
+  static final class TwoConstructors {
+    private final Unbound unbound;
+
+    @Inject
+    TwoConstructors(final Dependency dependency) {
+      this.unbound = null;
+    }
+
+    @Inject
+    TwoConstructors(final Dependency dependency, final Unbound unbound) {
+      this.unbound = unbound;
+    }
+  }
+}
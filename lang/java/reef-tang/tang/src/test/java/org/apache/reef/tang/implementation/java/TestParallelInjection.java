@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestParallelInjection {
+
+  private static final int NUM_SERVICES = 3;
+
+  /**
+   * Only opened if all services are constructed at the same time.
+   */
+  private static CyclicBarrier barrier;
+  private static AtomicInteger sharedInstances;
+
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp() {
+    barrier = new CyclicBarrier(NUM_SERVICES);
+    sharedInstances = new AtomicInteger(0);
+    pool = new ForkJoinPool(NUM_SERVICES);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  private InjectorImpl newParallelInjector() throws BindException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    cb.bindSetEntry(Services.class, ServiceA.class);
+    cb.bindSetEntry(Services.class, ServiceB.class);
+    cb.bindSetEntry(Services.class, ServiceC.class);
+    final InjectorImpl injector = (InjectorImpl) Tang.Factory.getTang().newInjector(cb.build());
+    injector.bindParallelInjection(pool);
+    return injector;
+  }
+
+  @Test
+  public void testSetEntriesAreInstantiatedInParallel() throws BindException, InjectionException {
+    final Set<Service> services = newParallelInjector().getNamedInstance(Services.class);
+    Assert.assertEquals(NUM_SERVICES, services.size());
+  }
+
+  @Test
+  public void testConstructorArgumentsAreInstantiatedInParallel() throws BindException, InjectionException {
+    final Aggregate aggregate = newParallelInjector().getInstance(Aggregate.class);
+    Assert.assertNotNull(aggregate.a);
+    Assert.assertNotNull(aggregate.b);
+    Assert.assertNotNull(aggregate.c);
+  }
+
+  @Test
+  public void testForkedInjectorsInjectInParallel() throws BindException, InjectionException {
+    final Set<Service> services = newParallelInjector().forkInjector().getNamedInstance(Services.class);
+    Assert.assertEquals(NUM_SERVICES, services.size());
+  }
+
+  @Test
+  public void testSharedDependencyIsInstantiatedOnce() throws BindException, InjectionException {
+    final InjectorImpl injector = (InjectorImpl) Tang.Factory.getTang().newInjector();
+    injector.bindParallelInjection(pool);
+    final SharingPair pair = injector.getInstance(SharingPair.class);
+    Assert.assertEquals(1, sharedInstances.get());
+    Assert.assertSame(pair.first.shared, pair.second.shared);
+  }
+
+  @Test(expected = InjectionException.class)
+  public void testExceptionIsPropagated() throws BindException, InjectionException {
+    final InjectorImpl injector = (InjectorImpl) Tang.Factory.getTang().newInjector();
+    injector.bindParallelInjection(pool);
+    injector.getInstance(FailingPair.class);
+  }
+
+  @Test(expected = BindException.class)
+  public void testRebindPool() throws BindException {
+    newParallelInjector().bindParallelInjection(pool);
+  }
+
+  private static void awaitSiblings() {
+    try {
+      barrier.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException | BrokenBarrierException | TimeoutException e) {
+      throw new IllegalStateException("Services were not instantiated in parallel", e);
+    }
+  }
+
+  interface Service {
+  }
+
+  @NamedParameter
+  static final class Services implements Name<Set<Service>> {
+  }
+
+  static final class ServiceA implements Service {
+    @Inject
+    ServiceA() {
+      awaitSiblings();
+    }
+  }
+
+  static final class ServiceB implements Service {
+    @Inject
+    ServiceB() {
+      awaitSiblings();
+    }
+  }
+
+  static final class ServiceC implements Service {
+    @Inject
+    ServiceC() {
+      awaitSiblings();
+    }
+  }
+
+  static final class Aggregate {
+    private final ServiceA a;
+    private final ServiceB b;
+    private final ServiceC c;
+
+    @Inject
+    Aggregate(final ServiceA a, final ServiceB b, final ServiceC c) {
+      this.a = a;
+      this.b = b;
+      this.c = c;
+    }
+  }
+
+  static final class Shared {
+    @Inject
+    Shared() {
+      sharedInstances.incrementAndGet();
+    }
+  }
+
+  static final class SharingFirst {
+    private final Shared shared;
+
+    @Inject
+    SharingFirst(final Shared shared) {
+      this.shared = shared;
+    }
+  }
+
+  static final class SharingSecond {
+    private final Shared shared;
+
+    @Inject
+    SharingSecond(final Shared shared) {
+      this.shared = shared;
+    }
+  }
+
+  static final class SharingPair {
+    private final SharingFirst first;
+    private final SharingSecond second;
+
+    @Inject
+    SharingPair(final SharingFirst first, final SharingSecond second) {
+      this.first = first;
+      this.second = second;
+    }
+  }
+
+  static final class Failing {
+    @Inject
+    Failing() {
+      throw new IllegalArgumentException("Failing on purpose");
+    }
+  }
+
+  static final class FailingPair {
+    @Inject
+    FailingPair(final Failing failing, final Shared shared) {
+    }
+  }
+}
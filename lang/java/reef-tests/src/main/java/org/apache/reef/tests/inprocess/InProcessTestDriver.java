@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.inprocess;
+
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.evaluator.AllocatedEvaluator;
+import org.apache.reef.driver.task.CompletedTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tests.library.exceptions.UnexpectedTaskReturnValue;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs a ProcessNameTask on the Evaluator and fails if the Task ran in another JVM than the Driver.
+ */
+@Unit
+public final class InProcessTestDriver {
+
+  private static final Logger LOG = Logger.getLogger(InProcessTestDriver.class.getName());
+
+  @Inject
+  InProcessTestDriver() {
+  }
+
+  /**
+   * Submits a context and the ProcessNameTask.
+   */
+  public final class EvaluatorAllocatedHandler implements EventHandler<AllocatedEvaluator> {
+    @Override
+    public void onNext(final AllocatedEvaluator allocatedEvaluator) {
+      LOG.log(Level.FINE, "AllocatedEvaluator: {0}", allocatedEvaluator);
+      try {
+        allocatedEvaluator.submitContextAndTask(
+            ContextConfiguration.CONF
+                .set(ContextConfiguration.IDENTIFIER, "InProcessContext")
+                .build(),
+            TaskConfiguration.CONF
+                .set(TaskConfiguration.IDENTIFIER, "InProcessTask")
+                .set(TaskConfiguration.TASK, ProcessNameTask.class)
+                .build());
+      } catch (final BindException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  /**
+   * Checks the JVM the Task ran in and closes the context.
+   */
+  public final class TaskCompletedHandler implements EventHandler<CompletedTask> {
+    @Override
+    public void onNext(final CompletedTask completedTask) {
+      final String expected = ProcessNameTask.getProcessName();
+      final String returned = new String(completedTask.get(), StandardCharsets.UTF_8);
+      completedTask.getActiveContext().close();
+      if (!expected.equals(returned)) {
+        throw new UnexpectedTaskReturnValue(expected, returned);
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tests.inprocess;
+
+import org.apache.reef.task.Task;
+
+import javax.inject.Inject;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Task that returns the name of the JVM it runs in.
+ */
+public final class ProcessNameTask implements Task {
+
+  @Inject
+  private ProcessNameTask() {
+  }
+
+  static String getProcessName() {
+    return ManagementFactory.getRuntimeMXBean().getName();
+  }
+
+  @Override
+  public byte[] call(final byte[] memento) throws Exception {
+    return getProcessName().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.reef.tests.evaluatorsize.EvaluatorSizeTest;
 import org.apache.reef.tests.examples.ExamplesTestSuite;
 import org.apache.reef.tests.fail.FailTestSuite;
 import org.apache.reef.tests.files.FileResourceTest;
+import org.apache.reef.tests.inprocess.InProcessEvaluatorTest;
 import org.apache.reef.tests.messaging.driver.DriverMessagingTest;
 import org.apache.reef.tests.messaging.task.TaskMessagingTest;
 import org.apache.reef.tests.statepassing.StatePassingTest;
@@ -52,7 +53,8 @@ import org.junit.runners.Suite;
     EvaluatorFailureTest.class,
     ExamplesTestSuite.class,
     ConfigurationProviderTest.class,
-    ApplicationTestSuite.class
+    ApplicationTestSuite.class,
+    InProcessEvaluatorTest.class
     })
 public final class AllTestsSuite {
 }
@@ -36,9 +36,31 @@ public final class LocalTestEnvironment extends TestEnvironmentBase implements T
    * The upper limit on the number of Evaluators that the local resourcemanager will hand out concurrently.
    */
   public static final int MAX_NUMBER_OF_EVALUATORS = 4;
+  /**
+   * Whether the Evaluators run in the Driver process.
+   */
+  private final boolean inProcessEvaluators;
   // Used to make sure the tests call the methods in the right order.
   private boolean ready = false;
 
+  public LocalTestEnvironment() {
+    this(false);
+  }
+
+  /**
+   * @param inProcessEvaluators whether the Evaluators run in threads of the Driver process.
+   */
+  public LocalTestEnvironment(final boolean inProcessEvaluators) {
+    this.inProcessEvaluators = inProcessEvaluators;
+  }
+
+  /**
+   * @return whether the Evaluators run in threads of the Driver process.
+   */
+  public boolean hasInProcessEvaluators() {
+    return this.inProcessEvaluators;
+  }
+
   @Override
   public synchronized void setUp() {
     this.ready = true;
@@ -55,11 +77,13 @@ public final class LocalTestEnvironment extends TestEnvironmentBase implements T
       return Configurations.merge(jcb.build(), LocalRuntimeConfiguration.CONF
           .set(LocalRuntimeConfiguration.MAX_NUMBER_OF_EVALUATORS, MAX_NUMBER_OF_EVALUATORS)
           .set(LocalRuntimeConfiguration.RUNTIME_ROOT_FOLDER, "target/REEF_LOCAL_RUNTIME")
+          .set(LocalRuntimeConfiguration.IN_PROCESS_EVALUATORS, this.inProcessEvaluators)
           .build());
     } else {
       return Configurations.merge(jcb.build(), LocalRuntimeConfiguration.CONF
           .set(LocalRuntimeConfiguration.MAX_NUMBER_OF_EVALUATORS, MAX_NUMBER_OF_EVALUATORS)
           .set(LocalRuntimeConfiguration.RUNTIME_ROOT_FOLDER, rootFolder)
+          .set(LocalRuntimeConfiguration.IN_PROCESS_EVALUATORS, this.inProcessEvaluators)
           .build());
     }
   }
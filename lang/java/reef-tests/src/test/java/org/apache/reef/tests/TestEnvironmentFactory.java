@@ -31,6 +31,7 @@ public final class TestEnvironmentFactory {
   /**
    * If $REEF_TEST_YARN environment variable is not set or is set to false,
    * return the local test environment; otherwise, return the one for YARN.
+   * The local test environment runs the Evaluators in the Driver process if $REEF_TEST_LOCAL_IN_PROCESS is true.
    *
    * @return a new TestEnvironment instance.
    */
@@ -47,8 +48,9 @@ public final class TestEnvironmentFactory {
       LOG.log(Level.INFO, "Running tests on Mesos");
       return new MesosTestEnvironment();
     } else {
-      LOG.log(Level.INFO, "Running tests on Local");
-      return new LocalTestEnvironment();
+      final boolean inProcess = Boolean.parseBoolean(System.getenv("REEF_TEST_LOCAL_IN_PROCESS"));
+      LOG.log(Level.INFO, "Running tests on Local, in process: {0}", inProcess);
+      return new LocalTestEnvironment(inProcess);
     }
   }
 
@@ -25,11 +25,13 @@ import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tests.LocalTestEnvironment;
 import org.apache.reef.tests.TestEnvironment;
 import org.apache.reef.tests.TestEnvironmentFactory;
 import org.apache.reef.util.EnvironmentUtils;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -74,6 +76,9 @@ public class EvaluatorSizeTest {
 
   @Test
   public void testEvaluatorSize() throws BindException, InjectionException {
+    // In-process Evaluators share the heap of the Driver, so their memory size can't be checked.
+    Assume.assumeFalse(this.testEnvironment instanceof LocalTestEnvironment
+        && ((LocalTestEnvironment) this.testEnvironment).hasInProcessEvaluators());
     final LauncherStatus state = runEvaluatorSizeTest(777);
     Assert.assertTrue("Job state after execution: " + state, state.isSuccess());
   }
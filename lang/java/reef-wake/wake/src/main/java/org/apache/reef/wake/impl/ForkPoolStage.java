@@ -22,24 +22,31 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.WakeParameters;
 
 import javax.inject.Inject;
 import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * This Wake event handling stage uses a {@link ForkJoinPool}
+ * This Wake event handling stage uses a {@link java.util.concurrent.ForkJoinPool}
  * to submit tasks. The advantage is that underlying workers
  * have separate queues instead of sharing one. The queues are load
  * balanced with work stealing.
  * <p/>
  * The pool is provided to the constructor, so multiple stages
- * may use the same pool.
+ * may use the same pool. Closing the stage waits for its own pending events,
+ * but leaves the shared pool running.
  * <p/>
  * Some advantage in throughput over other stage implementations should be seen
  * when one wake stage is submitting to another using the same
  * {@link WakeSharedPool}. In this case, the new event may be executed
  * directly by that thread.
+ * <p/>
+ * Handlers that block should do so through {@link WakeSharedPool#managedBlock},
+ * so that they do not starve the other stages sharing the pool.
  *
  * @param <T> type of events
  */
@@ -47,21 +54,56 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
   private static final Logger LOG = Logger.getLogger(ForkPoolStage.class.getName());
 
   private final EventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
   private final WakeSharedPool pool;
+  private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+  private final AtomicLong pendingEvents = new AtomicLong(0);
+  private final AtomicLong failedEvents = new AtomicLong(0);
 
+  /**
+   * Constructs a fork pool stage.
+   *
+   * @param stageName    the stage name
+   * @param handler      the event handler to execute
+   * @param sharedPool   the pool the events are executed on
+   * @param errorHandler the error handler
+   */
   @Inject
   public ForkPoolStage(@Parameter(StageConfiguration.StageName.class) final String stageName,
                        @Parameter(StageConfiguration.StageHandler.class) final EventHandler<T> handler,
-                       final WakeSharedPool sharedPool
+                       final WakeSharedPool sharedPool,
+                       @Parameter(StageConfiguration.ErrorHandler.class) final EventHandler<Throwable> errorHandler
   ) {
     super(stageName);
     this.pool = sharedPool;
     this.handler = handler;
+    this.errorHandler = errorHandler;
     //TODO: should WakeSharedPool register its stages?
 
     StageManager.instance().register(this);
   }
 
+  /**
+   * Constructs a fork pool stage.
+   *
+   * @param stageName  the stage name
+   * @param handler    the event handler to execute
+   * @param sharedPool the pool the events are executed on
+   */
+  @Inject
+  public ForkPoolStage(@Parameter(StageConfiguration.StageName.class) final String stageName,
+                       @Parameter(StageConfiguration.StageHandler.class) final EventHandler<T> handler,
+                       final WakeSharedPool sharedPool
+  ) {
+    this(stageName, handler, sharedPool, null);
+  }
+
+  /**
+   * Constructs a fork pool stage.
+   *
+   * @param handler    the event handler to execute
+   * @param sharedPool the pool the events are executed on
+   */
   @Inject
   public ForkPoolStage(@Parameter(StageConfiguration.StageHandler.class) final EventHandler<T> handler,
                        final WakeSharedPool sharedPool) {
@@ -71,33 +113,88 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
-    pool.submit(new ForkJoinTask<T>() {
-      @Override
-      public T getRawResult() {
-        // tasks have no results because they are events
-        // this may be used for extensions
-        return null;
-      }
+    pendingEvents.incrementAndGet();
+    try {
+      pool.submit(new ForkJoinTask<T>() {
+        @Override
+        public T getRawResult() {
+          // tasks have no results because they are events
+          // this may be used for extensions
+          return null;
+        }
 
-      @Override
-      protected void setRawResult(final T value) {
-        // tasks have no results because they are events
-        // this may be used for extensions
-      }
+        @Override
+        protected void setRawResult(final T value) {
+          // tasks have no results because they are events
+          // this may be used for extensions
+        }
 
-      @Override
-      protected boolean exec() {
-        handler.onNext(value);
-        afterOnNext();
-        return true;
-      }
-    });
+        @Override
+        protected boolean exec() {
+          try {
+            handler.onNext(value);
+            afterOnNext();
+          } catch (final Throwable t) {
+            onError(t);
+          } finally {
+            pendingEvents.decrementAndGet();
+          }
+          return true;
+        }
+      });
+    } catch (final RuntimeException e) {
+      pendingEvents.decrementAndGet();
+      throw e;
+    }
   }
 
+  /**
+   * Passes an exception thrown by the handler to the error handler of this stage, if any.
+   * Otherwise, the exception is reported to the shared pool.
+   */
+  private void onError(final Throwable t) {
+    failedEvents.incrementAndGet();
+    if (errorHandler != null) {
+      errorHandler.onNext(t);
+    } else {
+      pool.onError(name, t);
+    }
+  }
+
+  /**
+   * Gets the number of events submitted to this stage whose handling has not finished yet.
+   *
+   * @return the number of pending events
+   */
+  public long getPendingEventCount() {
+    return pendingEvents.get();
+  }
 
+  /**
+   * Gets the number of events of this stage whose handler threw an exception.
+   *
+   * @return the number of failed events
+   */
+  public long getFailedEventCount() {
+    return failedEvents.get();
+  }
+
+  /**
+   * Waits for the pending events of this stage to be handled.
+   * The shared pool is not closed, as other stages may still use it.
+   */
   @Override
   public void close() throws Exception {
-    LOG.warning("close(): " + pool.getClass().getName() + " " + pool + " must really be close()'d");
+    if (closed.compareAndSet(false, true)) {
+      final long deadline = System.currentTimeMillis() + shutdownTimeout;
+      while (pendingEvents.get() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1);
+      }
+      if (pendingEvents.get() > 0) {
+        LOG.log(Level.WARNING, "Stage {0} did not finish {1} events in {2}ms.",
+            new Object[]{name, pendingEvents.get(), shutdownTimeout});
+      }
+    }
   }
 
 }
@@ -21,15 +21,22 @@ package org.apache.reef.wake.impl;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.StageConfiguration.ErrorHandler;
 import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,23 +51,36 @@ import java.util.logging.Logger;
 //
 // this will only be deadlock free if blocking synchronization done by events is safe.
 // That is no event submitted to the pool can have a producer/consumer dependency
-// on another event submitted to the pool
+// on another event submitted to the pool, unless the blocking is done through
+// WakeSharedPool.managedBlock(), which lets the pool add a compensating worker.
 public class WakeSharedPool implements Stage {
   private static final Logger LOG = Logger.getLogger(WakeSharedPool.class.getName());
 
-  // not a constant, so specify here
-  private static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+  private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
   private final ForkJoinPool pool;
+  private final EventHandler<Throwable> errorHandler;
   private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+  private final AtomicLong failedEvents = new AtomicLong(0);
   private AtomicBoolean closed = new AtomicBoolean(false);
 
+  /**
+   * Constructs a shared pool.
+   *
+   * @param parallelism  the number of workers; non-positive values select a default based on
+   *                     the number of available processors
+   * @param errorHandler the handler for exceptions thrown by events that were not handled by their stage
+   */
   @Inject
-  public WakeSharedPool(@Parameter(Parallelism.class) final int parallelism) {
-    this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+  public WakeSharedPool(@Parameter(Parallelism.class) final int parallelism,
+                        @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this.errorHandler = errorHandler;
+    this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : getDefaultParallelism(),
+        new NamedWorkerThreadFactory("WakeSharedPool-" + POOL_NUMBER.getAndIncrement()),
         new Thread.UncaughtExceptionHandler() {
           @Override
           public void uncaughtException(final Thread t, final Throwable e) {
-            // TODO: need to pass this upwards to REEF can grab it
+            onError(t.getName(), e);
           }
         },
         // async mode turned on so a task that invokes other tasks does not have to join on them.
@@ -72,26 +92,104 @@ public class WakeSharedPool implements Stage {
     StageManager.instance().register(this);
   }
 
-  // TODO do we need this?
-  //public ForkJoinPool pool() {
-  //  return pool;
-  //}
-
+  /**
+   * Constructs a shared pool that logs the exceptions not handled by its stages.
+   *
+   * @param parallelism the number of workers; non-positive values select a default based on
+   *                    the number of available processors
+   */
   @Inject
+  public WakeSharedPool(@Parameter(Parallelism.class) final int parallelism) {
+    this(parallelism, null);
+  }
+
+  /**
+   * Constructs a shared pool with the default parallelism.
+   */
   public WakeSharedPool() {
-    this(DEFAULT_PARALLELISM);
+    this(0);
+  }
+
+  /**
+   * @return the default parallelism: all processors but two, and at least one.
+   */
+  public static int getDefaultParallelism() {
+    return Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
   }
 
+  /**
+   * Submits a task to the pool. Tasks submitted from a worker of this pool are pushed
+   * to that worker's own queue, so it will likely execute them itself.
+   *
+   * @param t the task
+   * @throws WakeRuntimeException if the pool is closed
+   */
   public void submit(final ForkJoinTask<?> t) {
-    if (ForkJoinTask.inForkJoinPool()) {
-      ForkJoinTask.invokeAll(t);
-      // alternatively just pool().pool.execute(t), which simply forces it to be this pool
-      // (right now we expect only one anyway)
+    if (closed.get()) {
+      throw new WakeRuntimeException("WakeSharedPool " + pool + " is closed");
+    }
+    if (ForkJoinTask.getPool() == pool) {
+      t.fork();
+    } else {
+      pool.execute(t);
+    }
+  }
+
+  /**
+   * Runs a blocking call from an event handler. If called from a worker of a WakeSharedPool,
+   * the pool is allowed to start a compensating worker while the call blocks,
+   * so that blocking I/O in one handler does not starve the other stages sharing the pool.
+   *
+   * @param callable the blocking call
+   * @param <V>      the type of the result
+   * @return the result of the call
+   * @throws Exception the exception thrown by the call
+   */
+  public static <V> V managedBlock(final Callable<V> callable) throws Exception {
+    if (!ForkJoinTask.inForkJoinPool()) {
+      return callable.call();
+    }
+    final CallableBlocker<V> blocker = new CallableBlocker<>(callable);
+    ForkJoinPool.managedBlock(blocker);
+    return blocker.getResult();
+  }
+
+  /**
+   * Reports an exception that was not handled by the stage that raised it.
+   *
+   * @param source the name of the stage or thread that raised the exception
+   * @param t      the exception
+   */
+  void onError(final String source, final Throwable t) {
+    failedEvents.incrementAndGet();
+    if (errorHandler != null) {
+      errorHandler.onNext(t);
     } else {
-      pool.submit(t);
+      LOG.log(Level.SEVERE, source + " Exception from event handler", t);
     }
   }
 
+  /**
+   * @return the number of workers of this pool
+   */
+  public int getParallelism() {
+    return pool.getParallelism();
+  }
+
+  /**
+   * @return the number of tasks submitted to this pool that are not yet executing
+   */
+  public long getQueuedTaskCount() {
+    return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+  }
+
+  /**
+   * @return the number of exceptions not handled by the stages of this pool
+   */
+  public long getFailedEventCount() {
+    return failedEvents.get();
+  }
+
   @Override
   public void close() throws Exception {
     LOG.info("ending pool stage: " + pool.toString());
@@ -105,7 +203,67 @@ public class WakeSharedPool implements Stage {
     }
   }
 
-  @NamedParameter
-  private static class Parallelism implements Name<Integer> {
+  @NamedParameter(doc = "The number of workers of the shared pool. Non-positive values use the number of " +
+      "available processors minus two.", default_value = "0")
+  public static final class Parallelism implements Name<Integer> {
+  }
+
+  /**
+   * Names the workers of the pool after the pool, so that they can be told apart in thread dumps.
+   */
+  private static final class NamedWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    private final String prefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    NamedWorkerThreadFactory(final String prefix) {
+      this.prefix = prefix + "-thread-";
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool forkJoinPool) {
+      final ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+      thread.setName(prefix + threadNumber.getAndIncrement());
+      return thread;
+    }
+  }
+
+  /**
+   * Adapts a blocking {@link Callable} to {@link ForkJoinPool.ManagedBlocker}.
+   */
+  private static final class CallableBlocker<V> implements ForkJoinPool.ManagedBlocker {
+    private final Callable<V> callable;
+    private boolean done = false;
+    private V result;
+    private Exception exception;
+
+    CallableBlocker(final Callable<V> callable) {
+      this.callable = callable;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      try {
+        result = callable.call();
+      } catch (final InterruptedException e) {
+        throw e;
+      } catch (final Exception e) {
+        exception = e;
+      }
+      done = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return done;
+    }
+
+    V getResult() throws Exception {
+      if (exception != null) {
+        throw exception;
+      }
+      return result;
+    }
   }
 }
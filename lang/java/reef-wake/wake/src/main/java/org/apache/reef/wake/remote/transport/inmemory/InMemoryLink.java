@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.inmemory;
+
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A link between two InMemoryTransports of the same process.
+ *
+ * @param <T> type of the messages written on the link
+ */
+final class InMemoryLink<T> implements Link<T> {
+
+  private static final Logger LOG = Logger.getLogger(InMemoryLink.class.getName());
+
+  private static final Encoder<byte[]> REPLY_ENCODER = new ByteCodec();
+
+  private final InMemoryTransport localTransport;
+  private final InMemoryTransport remoteTransport;
+  private final boolean toServer;
+  private final Encoder<? super T> encoder;
+  private final LinkListener<? super T> listener;
+
+  /**
+   * @param localTransport  the transport writing on the link
+   * @param remoteTransport the transport receiving what is written on the link
+   * @param toServer        true if the link was opened by the local transport, false if it is the way back
+   * @param encoder         the encoder of the messages
+   * @param listener        informed of the outcome of each write. Can be null.
+   */
+  InMemoryLink(final InMemoryTransport localTransport,
+               final InMemoryTransport remoteTransport,
+               final boolean toServer,
+               final Encoder<? super T> encoder,
+               final LinkListener<? super T> listener) {
+    this.localTransport = localTransport;
+    this.remoteTransport = remoteTransport;
+    this.toServer = toServer;
+    this.encoder = encoder;
+    this.listener = listener;
+  }
+
+  @Override
+  public void write(final T message) {
+    final byte[] data = this.encoder.encode(message);
+    final Link<byte[]> replyLink =
+        new InMemoryLink<>(this.remoteTransport, this.localTransport, !this.toServer, REPLY_ENCODER, null);
+
+    if (this.remoteTransport.deliver(new TransportEvent(data, replyLink), this.toServer)) {
+      if (this.listener != null) {
+        this.listener.onSuccess(message);
+      }
+    } else {
+      this.localTransport.forget(this.getRemoteAddress(), this);
+      final IOException cause = new IOException("Transport " + this.getRemoteAddress() + " is closed");
+      if (this.listener != null) {
+        this.listener.onException(cause, this.getRemoteAddress(), message);
+      } else {
+        LOG.log(Level.WARNING, "Unable to write to " + this.getRemoteAddress(), cause);
+      }
+    }
+  }
+
+  @Override
+  public SocketAddress getLocalAddress() {
+    return this.localTransport.getLocalAddress();
+  }
+
+  @Override
+  public SocketAddress getRemoteAddress() {
+    return this.remoteTransport.getLocalAddress();
+  }
+
+  @Override
+  public String toString() {
+    return "InMemoryLink{" +
+        "localAddress=" + this.getLocalAddress() +
+        ", remoteAddress=" + this.getRemoteAddress() +
+        '}';
+  }
+}
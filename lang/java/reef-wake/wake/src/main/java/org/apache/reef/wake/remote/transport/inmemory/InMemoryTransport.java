@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.inmemory;
+
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.Transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A transport that hands messages to the other InMemoryTransports of this process directly.
+ * <p/>
+ * All InMemoryTransports of a process are registered under their local address. Links to a registered address
+ * pass the written bytes to the transport on the other end; no socket is involved. Like a network connection,
+ * each transport hands the messages it receives to its stages in order, in a thread of its own.
+ * Links to any other address go through the network transport, if there is one.
+ * <p/>
+ * A transport without a network transport gets an address of its own, 0.0.0.0 with a port unique in the process.
+ * Such a transport can only reach transports of the same process.
+ */
+public final class InMemoryTransport implements Transport {
+
+  private static final Logger LOG = Logger.getLogger(InMemoryTransport.class.getName());
+
+  /**
+   * The transports of this process, by local address.
+   */
+  private static final ConcurrentMap<SocketAddress, InMemoryTransport> TRANSPORTS = new ConcurrentHashMap<>();
+
+  private static final AtomicInteger LAST_PORT = new AtomicInteger(0);
+
+  private static final int MAX_PORT = 65535;
+
+  private static final long IDLE_THREAD_TIMEOUT = 1000; // ms
+
+  private final InetSocketAddress localAddress;
+  private final EStage<TransportEvent> clientStage;
+  private final EStage<TransportEvent> serverStage;
+  private final Transport networkTransport;
+  private final ThreadPoolExecutor receiver = newReceiver();
+  private final ConcurrentMap<SocketAddress, InMemoryLink<?>> links = new ConcurrentHashMap<>();
+  private volatile EventHandler<Exception> errorHandler;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a transport that reaches the transports of this process only.
+   *
+   * @param clientStage the stage that receives the messages written back on links opened by this transport
+   * @param serverStage the stage that receives the messages written on links opened by other transports
+   */
+  public InMemoryTransport(final EStage<TransportEvent> clientStage,
+                           final EStage<TransportEvent> serverStage) {
+    this.clientStage = clientStage;
+    this.serverStage = serverStage;
+    this.networkTransport = null;
+    this.localAddress = this.register();
+  }
+
+  /**
+   * Creates a transport that reaches the transports of this process directly and all others through the given
+   * network transport. It takes the local address of the network transport, so that both are known under one address.
+   *
+   * @param clientStage      the stage that receives the messages written back on links opened by this transport
+   * @param serverStage      the stage that receives the messages written on links opened by other transports
+   * @param networkTransport the transport to use for addresses outside of this process. It is closed with this one.
+   */
+  public InMemoryTransport(final EStage<TransportEvent> clientStage,
+                           final EStage<TransportEvent> serverStage,
+                           final Transport networkTransport) {
+    this.clientStage = clientStage;
+    this.serverStage = serverStage;
+    this.networkTransport = networkTransport;
+    this.localAddress = (InetSocketAddress) networkTransport.getLocalAddress();
+    if (TRANSPORTS.putIfAbsent(this.localAddress, this) != null) {
+      throw new IllegalStateException("Another transport of this process is registered under " + this.localAddress);
+    }
+  }
+
+  /**
+   * The thread that passes the received messages on. Its thread belongs to the thread group of the creator of the
+   * transport, not to the one of the writer, and ends when there is nothing to receive.
+   */
+  private static ThreadPoolExecutor newReceiver() {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, IDLE_THREAD_TIMEOUT, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory(InMemoryTransport.class.getSimpleName()));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Registers this transport under a new address of its own.
+   */
+  private InetSocketAddress register() {
+    final InetAddress anyAddress;
+    try {
+      anyAddress = InetAddress.getByAddress(new byte[4]);
+    } catch (final UnknownHostException e) {
+      throw new IllegalStateException("Unable to make the address of an in-memory transport", e);
+    }
+    for (int i = 0; i < MAX_PORT; ++i) {
+      final InetSocketAddress address = new InetSocketAddress(anyAddress, LAST_PORT.incrementAndGet() % MAX_PORT + 1);
+      if (TRANSPORTS.putIfAbsent(address, this) == null) {
+        return address;
+      }
+    }
+    throw new IllegalStateException("All addresses of in-memory transports are taken");
+  }
+
+  @Override
+  public <T> Link<T> open(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                          final LinkListener<? super T> listener) throws IOException {
+    if (this.closed) {
+      throw new IOException("Transport " + this.localAddress + " is closed");
+    }
+    final InMemoryTransport remoteTransport = TRANSPORTS.get(remoteAddr);
+    if (remoteTransport != null) {
+      final InMemoryLink<T> link = new InMemoryLink<>(this, remoteTransport, true, encoder, listener);
+      this.links.put(remoteAddr, link);
+      LOG.log(Level.FINEST, "Opened in-memory link from {0} to {1}", new Object[]{this.localAddress, remoteAddr});
+      return link;
+    } else if (this.networkTransport != null) {
+      return this.networkTransport.open(remoteAddr, encoder, listener);
+    } else {
+      throw new IOException("No transport of this process is registered under " + remoteAddr);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Link<T> get(final SocketAddress remoteAddr) {
+    final InMemoryLink<?> link = this.links.get(remoteAddr);
+    if (link != null) {
+      return (Link<T>) link;
+    }
+    return this.networkTransport != null ? this.networkTransport.<T>get(remoteAddr) : null;
+  }
+
+  @Override
+  public int getListeningPort() {
+    return this.localAddress.getPort();
+  }
+
+  @Override
+  public SocketAddress getLocalAddress() {
+    return this.localAddress;
+  }
+
+  @Override
+  public void registerErrorHandler(final EventHandler<Exception> handler) {
+    this.errorHandler = handler;
+    if (this.networkTransport != null) {
+      this.networkTransport.registerErrorHandler(handler);
+    }
+  }
+
+  /**
+   * Hands a message written on a link to this transport to the matching stage.
+   *
+   * @param event    the message and the link to reply on
+   * @param toServer true if the link was opened by the other transport, false if it was opened by this one
+   * @return false if this transport is closed
+   */
+  boolean deliver(final TransportEvent event, final boolean toServer) {
+    if (this.closed) {
+      return false;
+    }
+    try {
+      this.receiver.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            (toServer ? serverStage : clientStage).onNext(event);
+          } catch (final RuntimeException e) {
+            final EventHandler<Exception> handler = errorHandler;
+            if (handler != null) {
+              handler.onNext(e);
+            } else {
+              LOG.log(Level.WARNING, "Unable to receive a message on " + localAddress, e);
+            }
+          }
+        }
+      });
+      return true;
+    } catch (final RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Drops the cached link to the given address, e.g. because its transport is closed.
+   */
+  void forget(final SocketAddress remoteAddr, final InMemoryLink<?> link) {
+    this.links.remove(remoteAddr, link);
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.closed = true;
+    TRANSPORTS.remove(this.localAddress, this);
+    this.links.clear();
+    this.receiver.shutdown();
+    if (this.networkTransport != null) {
+      this.networkTransport.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "InMemoryTransport{" +
+        "localAddress=" + this.localAddress +
+        ", networkTransport=" + this.networkTransport +
+        '}';
+  }
+}
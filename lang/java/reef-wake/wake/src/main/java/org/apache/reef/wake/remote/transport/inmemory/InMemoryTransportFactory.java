@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.inmemory;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.ports.TcpPortProvider;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.MessagingTransportFactory;
+
+import javax.inject.Inject;
+
+/**
+ * Factory that creates InMemoryTransports.
+ * <p/>
+ * Unless UseNetwork is false, each of them is backed by a transport of the MessagingTransportFactory, so it can
+ * also be reached by, and reach, other processes.
+ */
+public final class InMemoryTransportFactory implements TransportFactory {
+
+  /**
+   * Whether the transports also use the network.
+   */
+  @NamedParameter(doc = "If false, the transports neither listen on nor connect to the network. They then only reach " +
+      "the in-memory transports of the same process.", default_value = "true")
+  public static final class UseNetwork implements Name<Boolean> {
+  }
+
+  private final boolean useNetwork;
+  private final MessagingTransportFactory networkTransportFactory;
+
+  @Inject
+  private InMemoryTransportFactory(@Parameter(UseNetwork.class) final boolean useNetwork,
+                                   final MessagingTransportFactory networkTransportFactory) {
+    this.useNetwork = useNetwork;
+    this.networkTransportFactory = networkTransportFactory;
+  }
+
+  @Override
+  public Transport newInstance(final int port,
+                               final EventHandler<TransportEvent> clientHandler,
+                               final EventHandler<TransportEvent> serverHandler,
+                               final EventHandler<Exception> exHandler) {
+    final Transport transport;
+    if (this.useNetwork) {
+      transport = new InMemoryTransport(new SyncStage<>(clientHandler), new SyncStage<>(serverHandler),
+          this.networkTransportFactory.newInstance(port, clientHandler, serverHandler, exHandler));
+    } else {
+      transport = new InMemoryTransport(new SyncStage<>(clientHandler), new SyncStage<>(serverHandler));
+    }
+    transport.registerErrorHandler(exHandler);
+    return transport;
+  }
+
+  @Override
+  public Transport newInstance(final String hostAddress, final int port,
+                               final EStage<TransportEvent> clientStage,
+                               final EStage<TransportEvent> serverStage,
+                               final int numberOfTries,
+                               final int retryTimeout) {
+    if (this.useNetwork) {
+      return new InMemoryTransport(clientStage, serverStage, this.networkTransportFactory.newInstance(
+          hostAddress, port, clientStage, serverStage, numberOfTries, retryTimeout));
+    } else {
+      return new InMemoryTransport(clientStage, serverStage);
+    }
+  }
+
+  @Override
+  public Transport newInstance(final String hostAddress, final int port,
+                               final EStage<TransportEvent> clientStage,
+                               final EStage<TransportEvent> serverStage,
+                               final int numberOfTries,
+                               final int retryTimeout,
+                               final TcpPortProvider tcpPortProvider) {
+    if (this.useNetwork) {
+      return new InMemoryTransport(clientStage, serverStage, this.networkTransportFactory.newInstance(
+          hostAddress, port, clientStage, serverStage, numberOfTries, retryTimeout, tcpPortProvider));
+    } else {
+      return new InMemoryTransport(clientStage, serverStage);
+    }
+  }
+}
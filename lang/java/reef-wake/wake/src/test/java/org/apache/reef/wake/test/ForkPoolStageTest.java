@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.test;
 
+import org.apache.reef.tang.Tang;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.impl.ForkPoolStage;
@@ -29,6 +30,10 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 public class ForkPoolStageTest {
@@ -181,6 +186,117 @@ public class ForkPoolStageTest {
   }
 
 
+  @Test
+  public void testErrorHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final WakeSharedPool p = new WakeSharedPool(2);
+    final ForkPoolStage<TestEvent> stage = new ForkPoolStage<>("testErrorHandler", new EventHandler<TestEvent>() {
+      @Override
+      public void onNext(final TestEvent value) {
+        throw new IllegalStateException("test");
+      }
+    }, p, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        error.set(value);
+        latch.countDown();
+      }
+    });
+
+    stage.onNext(new TestEvent());
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+    p.close();
+
+    Assert.assertTrue(error.get() instanceof IllegalStateException);
+    Assert.assertEquals(1, stage.getFailedEventCount());
+    Assert.assertEquals(0, stage.getPendingEventCount());
+  }
+
+  @Test
+  public void testPoolErrorHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final WakeSharedPool p = new WakeSharedPool(2, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        latch.countDown();
+      }
+    });
+    final ForkPoolStage<TestEvent> stage = new ForkPoolStage<>(new EventHandler<TestEvent>() {
+      @Override
+      public void onNext(final TestEvent value) {
+        throw new IllegalStateException("test");
+      }
+    }, p);
+
+    stage.onNext(new TestEvent());
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+    p.close();
+
+    Assert.assertEquals(1, p.getFailedEventCount());
+  }
+
+  @Test
+  public void testManagedBlock() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    // with a single worker, the first event would block the second one forever without managed blocking
+    final CountDownLatch released = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(1);
+    final WakeSharedPool p = new WakeSharedPool(1);
+    final ForkPoolStage<Boolean> stage = new ForkPoolStage<>(new EventHandler<Boolean>() {
+      @Override
+      public void onNext(final Boolean block) {
+        if (block) {
+          try {
+            WakeSharedPool.managedBlock(new Callable<Void>() {
+              @Override
+              public Void call() throws Exception {
+                released.await();
+                return null;
+              }
+            });
+          } catch (final Exception e) {
+            throw new RuntimeException(e);
+          }
+          done.countDown();
+        } else {
+          released.countDown();
+        }
+      }
+    }, p);
+
+    stage.onNext(true);
+    stage.onNext(false);
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    stage.close();
+    p.close();
+  }
+
+  @Test
+  public void testParallelism() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final WakeSharedPool defaultPool = Tang.Factory.getTang().newInjector().getInstance(WakeSharedPool.class);
+    Assert.assertEquals(WakeSharedPool.getDefaultParallelism(), defaultPool.getParallelism());
+    defaultPool.close();
+
+    final WakeSharedPool pool = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(WakeSharedPool.Parallelism.class, "3")
+            .build())
+        .getInstance(WakeSharedPool.class);
+    Assert.assertEquals(3, pool.getParallelism());
+    pool.close();
+  }
+
+
   class TestEvent {
   }
 
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.inmemory.InMemoryTransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for InMemoryTransport.
+ */
+public class InMemoryTransportTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private final ObjectSerializableCodec<String> codec = new ObjectSerializableCodec<>();
+  private final LocalAddressProvider localAddressProvider;
+  private final TransportFactory inMemoryFactory;
+  private final TransportFactory hybridFactory;
+  private final TransportFactory networkFactory;
+
+  public InMemoryTransportTest() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    this.localAddressProvider = injector.getInstance(LocalAddressProvider.class);
+    this.networkFactory = injector.getInstance(TransportFactory.class);
+    this.hybridFactory = injector.getInstance(InMemoryTransportFactory.class);
+    this.inMemoryFactory = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(InMemoryTransportFactory.UseNetwork.class, "false").build())
+        .getInstance(InMemoryTransportFactory.class);
+  }
+
+  /**
+   * Messages go from one in-memory transport to another, and back on the link of the received event.
+   */
+  @Test
+  public void testMessagesAndReplies() throws Exception {
+    final QueueStage clientStage = new QueueStage();
+    final QueueStage serverStage = new QueueStage();
+    try (final Transport sender = this.inMemoryFactory.newInstance("", 0, clientStage, new QueueStage(), 1, 1000);
+         final Transport receiver = this.inMemoryFactory.newInstance("", 0, new QueueStage(), serverStage, 1, 1000)) {
+      Assert.assertFalse(sender.getLocalAddress().equals(receiver.getLocalAddress()));
+
+      final Link<String> link =
+          sender.open(receiver.getLocalAddress(), this.codec, new LoggingLinkListener<String>());
+      Assert.assertSame(link, sender.get(receiver.getLocalAddress()));
+      link.write("hello1");
+      link.write("hello2");
+
+      final TransportEvent first = serverStage.take();
+      Assert.assertEquals("hello1", this.codec.decode(first.getData()));
+      Assert.assertEquals(sender.getLocalAddress(), first.getRemoteAddress());
+      Assert.assertEquals("hello2", this.codec.decode(serverStage.take().getData()));
+
+      first.getLink().write(this.codec.encode("reply"));
+      final TransportEvent reply = clientStage.take();
+      Assert.assertEquals("reply", this.codec.decode(reply.getData()));
+      Assert.assertEquals(receiver.getLocalAddress(), reply.getRemoteAddress());
+    }
+  }
+
+  /**
+   * A transport that uses the network can be reached both in memory and over the network under one address.
+   */
+  @Test
+  public void testNetworkFallback() throws Exception {
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final QueueStage serverStage = new QueueStage();
+    try (final Transport receiver = this.hybridFactory.newInstance(hostAddress, 0, serverStage, serverStage, 1, 1000);
+         final Transport inMemorySender =
+             this.inMemoryFactory.newInstance("", 0, new QueueStage(), new QueueStage(), 1, 1000);
+         final Transport networkSender =
+             this.networkFactory.newInstance(hostAddress, 0, new QueueStage(), new QueueStage(), 1, 1000)) {
+      final SocketAddress address = new InetSocketAddress(hostAddress, receiver.getListeningPort());
+
+      inMemorySender.open(address, this.codec, new LoggingLinkListener<String>()).write("in memory");
+      final TransportEvent inMemoryEvent = serverStage.take();
+      Assert.assertEquals("in memory", this.codec.decode(inMemoryEvent.getData()));
+      Assert.assertEquals(inMemorySender.getLocalAddress(), inMemoryEvent.getRemoteAddress());
+
+      networkSender.open(address, this.codec, new LoggingLinkListener<String>()).write("over the network");
+      Assert.assertEquals("over the network", this.codec.decode(serverStage.take().getData()));
+    }
+  }
+
+  /**
+   * Writing to a closed transport is reported to the listener of the link.
+   */
+  @Test
+  public void testWriteToClosedTransport() throws Exception {
+    final QueueStage serverStage = new QueueStage();
+    final BlockingQueue<String> failed = new LinkedBlockingQueue<>();
+    try (final Transport sender =
+             this.inMemoryFactory.newInstance("", 0, new QueueStage(), new QueueStage(), 1, 1000)) {
+      final Transport receiver = this.inMemoryFactory.newInstance("", 0, new QueueStage(), serverStage, 1, 1000);
+      final Link<String> link = sender.open(receiver.getLocalAddress(), this.codec, new LinkListener<String>() {
+        @Override
+        public void onSuccess(final String message) {
+        }
+
+        @Override
+        public void onException(final Throwable cause, final SocketAddress remoteAddress, final String message) {
+          failed.add(message);
+        }
+      });
+      receiver.close();
+      link.write("lost");
+      Assert.assertEquals("lost", failed.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+      Assert.assertNull(sender.get(receiver.getLocalAddress()));
+      Assert.assertNull(serverStage.events.poll());
+    }
+  }
+
+  private static final class QueueStage implements EStage<TransportEvent> {
+
+    private final BlockingQueue<TransportEvent> events = new LinkedBlockingQueue<>();
+
+    @Override
+    public void onNext(final TransportEvent value) {
+      this.events.add(value);
+    }
+
+    TransportEvent take() throws InterruptedException {
+      final TransportEvent event = this.events.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+      Assert.assertNotNull("No event received", event);
+      return event;
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+  }
+}